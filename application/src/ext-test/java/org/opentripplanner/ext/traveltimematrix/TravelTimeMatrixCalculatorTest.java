@@ -0,0 +1,105 @@
+package org.opentripplanner.ext.traveltimematrix;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Instant;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.TestServerContext;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.standalone.api.OtpServerRequestContext;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
+import org.opentripplanner.updater.trip.RealtimeTestConstants;
+import org.opentripplanner.updater.trip.RealtimeTestEnvironment;
+import org.opentripplanner.updater.trip.TripInput;
+
+class TravelTimeMatrixCalculatorTest implements RealtimeTestConstants {
+
+  private static final Instant DEPARTURE_TIME = SERVICE_DATE
+    .atTime(LocalTime.of(10, 0))
+    .atZone(TIME_ZONE)
+    .toInstant();
+
+  private final TravelTimeMatrixCalculator subject = new TravelTimeMatrixCalculator(
+    serverContext()
+  );
+
+  @Test
+  void travelTimes() {
+    var matrix = subject.calculate(
+      List.of(STOP_A1.getId(), STOP_B1.getId()),
+      List.of(STOP_C1.getId(), STOP_D1.getId()),
+      DEPARTURE_TIME
+    );
+
+    assertEquals(List.of("F:A1", "F:B1"), matrix.origins());
+    assertEquals(List.of("F:C1", "F:D1"), matrix.destinations());
+    // The travel time includes the waiting time at the origin, stop D1 is not served
+    assertEquals(
+      List.of(Arrays.asList(1200, null), Arrays.asList(1200, null)),
+      matrix.travelTimes()
+    );
+  }
+
+  @Test
+  void laterDepartureTime() {
+    var matrix = subject.calculate(
+      List.of(STOP_B1.getId()),
+      List.of(STOP_C1.getId()),
+      DEPARTURE_TIME.plusSeconds(300)
+    );
+
+    assertEquals(List.of(List.of(900)), matrix.travelTimes());
+  }
+
+  @Test
+  void boardTripFromThePreviousServiceDayAfterMidnight() {
+    var matrix = subject.calculate(
+      List.of(STOP_A1.getId()),
+      List.of(STOP_C1.getId()),
+      SERVICE_DATE.plusDays(1).atTime(LocalTime.of(0, 30)).atZone(TIME_ZONE).toInstant()
+    );
+
+    assertEquals(List.of(List.of(1200)), matrix.travelTimes());
+  }
+
+  @Test
+  void unknownStop() {
+    var unknown = new FeedScopedId("F", "unknown");
+
+    assertThrows(
+      IllegalArgumentException.class,
+      () -> subject.calculate(List.of(unknown), List.of(STOP_C1.getId()), DEPARTURE_TIME)
+    );
+  }
+
+  static OtpServerRequestContext serverContext() {
+    var env = RealtimeTestEnvironment
+      .gtfs()
+      .addTrip(
+        TripInput
+          .of(TRIP_1_ID)
+          .addStop(STOP_A1, "10:05:00", "10:05:00")
+          .addStop(STOP_B1, "10:10:00", "10:11:00")
+          .addStop(STOP_C1, "10:20:00", "10:20:00")
+          .build()
+      )
+      .addTrip(
+        TripInput
+          .of(TRIP_2_ID)
+          .addStop(STOP_A1, "24:35:00", "24:35:00")
+          .addStop(STOP_C1, "24:50:00", "24:50:00")
+          .build()
+      )
+      .build();
+    var timetableRepository = env.timetableRepository;
+    // The service codes are set on the trip times during the graph build
+    for (var pattern : timetableRepository.getAllTripPatterns()) {
+      pattern.getScheduledTimetable().setServiceCodes(timetableRepository.getServiceCodes());
+    }
+    return TestServerContext.createServerContext(new Graph(), timetableRepository);
+  }
+}
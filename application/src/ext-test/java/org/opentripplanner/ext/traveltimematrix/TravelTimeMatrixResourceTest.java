@@ -0,0 +1,61 @@
+package org.opentripplanner.ext.traveltimematrix;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import jakarta.ws.rs.BadRequestException;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class TravelTimeMatrixResourceTest {
+
+  private static final String TIME = "2024-05-08T10:00:00+02:00";
+
+  private final TravelTimeMatrixResource subject = new TravelTimeMatrixResource(
+    TravelTimeMatrixCalculatorTest.serverContext()
+  );
+
+  @Test
+  void matrix() {
+    var matrix = subject.matrix("F:A1,F:B1", "F:C1", TIME);
+
+    assertEquals(List.of("F:A1", "F:B1"), matrix.origins());
+    assertEquals(List.of("F:C1"), matrix.destinations());
+    assertEquals(List.of(List.of(1200), List.of(1200)), matrix.travelTimes());
+  }
+
+  @Test
+  void missingParameters() {
+    assertThrows(BadRequestException.class, () -> subject.matrix(null, "F:C1", TIME));
+    assertThrows(BadRequestException.class, () -> subject.matrix("F:A1", " ", TIME));
+  }
+
+  @Test
+  void invalidParameters() {
+    assertThrows(BadRequestException.class, () -> subject.matrix("F:unknown", "F:C1", TIME));
+    assertThrows(BadRequestException.class, () -> subject.matrix("F:A1", "F:C1", "10:00"));
+  }
+
+  @Test
+  void matrixSizeIsLimited() {
+    var origins = stopIds(TravelTimeMatrixResource.MAX_ORIGINS);
+    var destinations = stopIds(
+      TravelTimeMatrixResource.MAX_MATRIX_SIZE / TravelTimeMatrixResource.MAX_ORIGINS + 1
+    );
+
+    assertThrows(BadRequestException.class, () -> subject.matrix(origins, destinations, TIME));
+  }
+
+  @Test
+  void numberOfOriginsIsLimited() {
+    var origins = stopIds(TravelTimeMatrixResource.MAX_ORIGINS + 1);
+
+    assertThrows(BadRequestException.class, () -> subject.matrix(origins, "F:C1", TIME));
+  }
+
+  private static String stopIds(int n) {
+    return IntStream.range(0, n).mapToObj(i -> "F:" + i).collect(Collectors.joining(","));
+  }
+}
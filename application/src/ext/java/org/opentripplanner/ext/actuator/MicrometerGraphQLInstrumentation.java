@@ -14,9 +14,11 @@ import graphql.execution.instrumentation.parameters.InstrumentationExecutionPara
 import graphql.execution.instrumentation.parameters.InstrumentationExecutionStrategyParameters;
 import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
 import graphql.execution.instrumentation.parameters.InstrumentationValidationParameters;
+import graphql.execution.preparsed.persisted.PersistedQueryError;
 import graphql.language.Document;
 import graphql.schema.GraphQLTypeUtil;
 import graphql.validation.ValidationError;
+import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tag;
 import io.micrometer.core.instrument.Timer;
@@ -29,6 +31,10 @@ import java.util.List;
  * There are two types of metrics: one for query execution, and another for resolver timing. The
  * timers are registered to micrometer using graphql.timer.query and graphql.timer.resolver.
  * <p>
+ * The graphql.document.cache counter counts the executions by operation name, with the result
+ * {@code hit} if the query was not parsed because the document was cached, and {@code miss}
+ * otherwise. See {@code CachingPreparsedDocumentProvider}.
+ * <p>
  * ### See also: - https://github.com/symbaloo/graphql-micrometer/blob/main/src/main/kotlin/com/symbaloo/graphqlmicrometer/MicrometerInstrumentation.kt
  * - https://github.com/graphql-java-kickstart/graphql-spring-boot/blob/master/graphql-spring-boot-autoconfigure/src/main/java/graphql/kickstart/autoconfigure/web/servlet/metrics/MetricsInstrumentation.java
  * - https://github.com/apollographql/apollo-tracing - [TracingInstrumentation]
@@ -37,10 +43,12 @@ public class MicrometerGraphQLInstrumentation implements Instrumentation {
 
   private static final String QUERY_TIME_METRIC_NAME = "graphql.timer.query";
   private static final String RESOLVER_TIME_METRIC_NAME = "graphql.timer.resolver";
+  private static final String DOCUMENT_CACHE_METRIC_NAME = "graphql.document.cache";
   private static final String OPERATION_NAME_TAG = "operationName";
   private static final String OPERATION = "operation";
   private static final String PARENT = "parent";
   private static final String FIELD = "field";
+  private static final String RESULT = "result";
   private static final String TIMER_DESCRIPTION =
     "Timer that records the time to fetch the data by Operation Name";
 
@@ -63,9 +71,14 @@ public class MicrometerGraphQLInstrumentation implements Instrumentation {
     InstrumentationState state
   ) {
     Timer.Sample sample = Timer.start(meterRegistry);
-    return whenCompleted((res, err) ->
-      sample.stop(buildQueryTimer(((TraceState) state).operationName, "execution"))
-    );
+    return whenCompleted((res, err) -> {
+      var traceState = (TraceState) state;
+      sample.stop(buildQueryTimer(traceState.operationName, "execution"));
+      if (res != null && !isPersistedQueryError(res)) {
+        buildDocumentCacheCounter(traceState.operationName, traceState.parsed ? "miss" : "hit")
+          .increment();
+      }
+    });
   }
 
   @Override
@@ -73,9 +86,11 @@ public class MicrometerGraphQLInstrumentation implements Instrumentation {
     InstrumentationExecutionParameters parameters,
     InstrumentationState state
   ) {
+    var traceState = (TraceState) state;
+    traceState.parsed = true;
     Timer.Sample sample = Timer.start(meterRegistry);
     return whenCompleted((res, err) ->
-      sample.stop(buildQueryTimer(((TraceState) state).operationName, "parse"))
+      sample.stop(buildQueryTimer(traceState.operationName, "parse"))
     );
   }
 
@@ -151,7 +166,33 @@ public class MicrometerGraphQLInstrumentation implements Instrumentation {
       .register(meterRegistry);
   }
 
-  private record TraceState(String operationName) implements InstrumentationState {
+  private Counter buildDocumentCacheCounter(String operationName, String result) {
+    return Counter
+      .builder(DOCUMENT_CACHE_METRIC_NAME)
+      .description("Counter of executions by Operation Name, and if the query was parsed")
+      .tag(OPERATION_NAME_TAG, operationName)
+      .tag(RESULT, result)
+      .tags(tags)
+      .register(meterRegistry);
+  }
+
+  /**
+   * A persisted query which is not found is neither parsed nor read from the cache.
+   */
+  private static boolean isPersistedQueryError(ExecutionResult result) {
+    return result
+      .getErrors()
+      .stream()
+      .anyMatch(it -> it.getErrorType() instanceof PersistedQueryError);
+  }
+
+  private static final class TraceState implements InstrumentationState {
+
+    private final String operationName;
+
+    /** Set if the query is parsed, the parse and validation are skipped if it is cached. */
+    private volatile boolean parsed = false;
+
     private TraceState(String operationName) {
       this.operationName = operationName == null ? "__UNKNOWN__" : operationName;
     }
@@ -0,0 +1,39 @@
+package org.opentripplanner.ext.traveltimematrix;
+
+import org.opentripplanner.raptor.api.model.RaptorAccessEgress;
+
+/**
+ * Access or egress starting or ending directly at a stop, without any street leg. The duration
+ * and cost are zero and the stop is always open.
+ */
+record StopAccessEgress(int stop) implements RaptorAccessEgress {
+  @Override
+  public int c1() {
+    return 0;
+  }
+
+  @Override
+  public int durationInSeconds() {
+    return 0;
+  }
+
+  @Override
+  public int earliestDepartureTime(int requestedDepartureTime) {
+    return requestedDepartureTime;
+  }
+
+  @Override
+  public int latestArrivalTime(int requestedArrivalTime) {
+    return requestedArrivalTime;
+  }
+
+  @Override
+  public boolean hasOpeningHours() {
+    return false;
+  }
+
+  @Override
+  public String toString() {
+    return asString(true, false, null);
+  }
+}
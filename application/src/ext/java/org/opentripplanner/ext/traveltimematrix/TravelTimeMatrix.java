@@ -0,0 +1,14 @@
+package org.opentripplanner.ext.traveltimematrix;
+
+import java.util.List;
+
+/**
+ * A matrix of travel times in seconds, from each origin (row) to each destination (column). The
+ * travel time is measured from the requested departure time, so it includes waiting time. The
+ * travel time is {@code null} if the destination is not reached.
+ */
+public record TravelTimeMatrix(
+  List<String> origins,
+  List<String> destinations,
+  List<List<Integer>> travelTimes
+) {}
@@ -0,0 +1,117 @@
+package org.opentripplanner.ext.traveltimematrix;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.opentripplanner.raptor.RaptorService;
+import org.opentripplanner.raptor.api.model.RaptorAccessEgress;
+import org.opentripplanner.raptor.api.request.RaptorProfile;
+import org.opentripplanner.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.AdditionalSearchDays;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RaptorRoutingRequestTransitData;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RouteRequestTransitDataProviderFilter;
+import org.opentripplanner.standalone.api.OtpServerRequestContext;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
+import org.opentripplanner.transit.model.network.grouppriority.TransitGroupPriorityService;
+import org.opentripplanner.utils.time.ServiceDateUtils;
+
+/**
+ * Calculate a stop-to-stop travel time matrix. The transit data is created once and one
+ * Raptor one-to-many search is performed for each origin, see
+ * {@link RaptorService#routeOneToMany}. The transit filters and transfer preferences of the
+ * default route request are used.
+ * <p>
+ * Only the best arrival time for each destination is kept, so each search is a single Raptor
+ * iteration departing at the requested time. The additional search days are calculated as for a
+ * normal depart-after search, but at least one past day is included, so trips from the previous
+ * service day which run after midnight can be boarded.
+ */
+class TravelTimeMatrixCalculator {
+
+  private final OtpServerRequestContext serverContext;
+
+  TravelTimeMatrixCalculator(OtpServerRequestContext serverContext) {
+    this.serverContext = serverContext;
+  }
+
+  /**
+   * @throws IllegalArgumentException if a stop does not exist
+   */
+  TravelTimeMatrix calculate(
+    List<FeedScopedId> origins,
+    List<FeedScopedId> destinations,
+    Instant departureTime
+  ) {
+    var transitService = serverContext.transitService();
+    var request = serverContext.defaultRouteRequest();
+    var transitSearchTimeZero = ServiceDateUtils.asStartOfService(
+      departureTime,
+      transitService.getTimeZone()
+    );
+    int earliestDepartureTime = (int) Duration
+      .between(transitSearchTimeZero.toInstant(), departureTime)
+      .toSeconds();
+    var additionalSearchDays = new AdditionalSearchDays(
+      false,
+      departureTime.atZone(transitService.getTimeZone()),
+      Duration.ZERO,
+      serverContext.raptorTuningParameters().dynamicSearchWindowCoefficients().maxWindow(),
+      request.preferences().system().maxJourneyDuration()
+    );
+
+    var transitData = new RaptorRoutingRequestTransitData(
+      transitService.getRealtimeTransitLayer(),
+      TransitGroupPriorityService.empty(),
+      transitSearchTimeZero,
+      Math.max(1, additionalSearchDays.additionalSearchDaysInPast()),
+      additionalSearchDays.additionalSearchDaysInFuture(),
+      new RouteRequestTransitDataProviderFilter(request),
+      request
+    );
+    var raptorService = new RaptorService<>(serverContext.raptorConfig());
+
+    List<RaptorAccessEgress> egressPaths = destinations
+      .stream()
+      .map(id -> (RaptorAccessEgress) new StopAccessEgress(stopIndex(id)))
+      .toList();
+
+    var travelTimes = new ArrayList<List<Integer>>();
+    for (FeedScopedId origin : origins) {
+      var raptorRequest = new RaptorRequestBuilder<TripSchedule>()
+        .profile(RaptorProfile.BEST_TIME)
+        .searchParams()
+        .earliestDepartureTime(earliestDepartureTime)
+        .searchOneIterationOnly()
+        .addAccessPaths(new StopAccessEgress(stopIndex(origin)))
+        .addEgressPaths(egressPaths)
+        .build();
+
+      var response = raptorService.routeOneToMany(raptorRequest, transitData);
+
+      var row = new ArrayList<Integer>(destinations.size());
+      for (int i = 0; i < destinations.size(); ++i) {
+        row.add(
+          response.isEgressReached(i)
+            ? response.egressArrivalTimes()[i] - earliestDepartureTime
+            : null
+        );
+      }
+      travelTimes.add(row);
+    }
+    return new TravelTimeMatrix(
+      origins.stream().map(FeedScopedId::toString).toList(),
+      destinations.stream().map(FeedScopedId::toString).toList(),
+      travelTimes
+    );
+  }
+
+  private int stopIndex(FeedScopedId id) {
+    var stop = serverContext.transitService().getRegularStop(id);
+    if (stop == null) {
+      throw new IllegalArgumentException("Stop not found: " + id);
+    }
+    return stop.getIndex();
+  }
+}
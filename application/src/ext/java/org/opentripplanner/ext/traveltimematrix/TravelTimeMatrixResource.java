@@ -0,0 +1,83 @@
+package org.opentripplanner.ext.traveltimematrix;
+
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import org.opentripplanner.standalone.api.OtpServerRequestContext;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
+
+/**
+ * Stop-to-stop travel time matrix, see {@link TravelTimeMatrixCalculator}.
+ */
+@Path("/traveltime/matrix")
+public class TravelTimeMatrixResource {
+
+  /**
+   * The maximum number of origin and destination pairs in one request. One Raptor search is done
+   * for each origin, and the response has one travel time for each pair.
+   */
+  static final int MAX_MATRIX_SIZE = 10_000;
+
+  /**
+   * The maximum number of origins in one request. The searches are done one after the other in
+   * the request thread, so this limits the time a request may take.
+   */
+  static final int MAX_ORIGINS = 100;
+
+  private final TravelTimeMatrixCalculator calculator;
+
+  public TravelTimeMatrixResource(@Context OtpServerRequestContext serverContext) {
+    this.calculator = new TravelTimeMatrixCalculator(serverContext);
+  }
+
+  /**
+   * @param origins      Comma separated list of origin stop ids.
+   * @param destinations Comma separated list of destination stop ids.
+   * @param time         The departure time as an ISO-8601 date-time with offset, the default is
+   *                     now.
+   */
+  @GET
+  @Produces(MediaType.APPLICATION_JSON)
+  public TravelTimeMatrix matrix(
+    @QueryParam("origins") String origins,
+    @QueryParam("destinations") String destinations,
+    @QueryParam("time") String time
+  ) {
+    try {
+      var originIds = parseStopIds("origins", origins);
+      var destinationIds = parseStopIds("destinations", destinations);
+      if (originIds.size() > MAX_ORIGINS) {
+        throw new BadRequestException("The number of origins must not exceed " + MAX_ORIGINS + ".");
+      }
+      if ((long) originIds.size() * destinationIds.size() > MAX_MATRIX_SIZE) {
+        throw new BadRequestException(
+          "The number of origins times the number of destinations must not exceed " +
+          MAX_MATRIX_SIZE +
+          "."
+        );
+      }
+      return calculator.calculate(
+        originIds,
+        destinationIds,
+        time == null ? Instant.now() : OffsetDateTime.parse(time).toInstant()
+      );
+    } catch (IllegalArgumentException | DateTimeParseException e) {
+      throw new BadRequestException(e.getMessage(), e);
+    }
+  }
+
+  private static List<FeedScopedId> parseStopIds(String name, String value) {
+    if (value == null || value.isBlank()) {
+      throw new BadRequestException("The '" + name + "' parameter is required.");
+    }
+    return FeedScopedId.parseList(value);
+  }
+}
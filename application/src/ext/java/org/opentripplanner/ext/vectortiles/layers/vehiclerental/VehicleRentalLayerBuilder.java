@@ -37,7 +37,7 @@ abstract class VehicleRentalLayerBuilder<T extends VehicleRentalPlace> extends L
     if (service == null) {
       return List.of();
     }
-    return getVehicleRentalPlaces(service)
+    return getVehicleRentalPlaces(service, query)
       .stream()
       .map(rental -> {
         Coordinate coordinate = new Coordinate(rental.getLongitude(), rental.getLatitude());
@@ -48,7 +48,13 @@ abstract class VehicleRentalLayerBuilder<T extends VehicleRentalPlace> extends L
       .toList();
   }
 
-  protected abstract Collection<T> getVehicleRentalPlaces(VehicleRentalService service);
+  /**
+   * Get the vehicle rental places inside the query envelope.
+   */
+  protected abstract Collection<T> getVehicleRentalPlaces(
+    VehicleRentalService service,
+    Envelope query
+  );
 
   enum MapperType {
     Digitransit,
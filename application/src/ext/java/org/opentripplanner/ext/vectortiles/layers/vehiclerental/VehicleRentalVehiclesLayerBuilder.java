@@ -4,6 +4,7 @@ import static java.util.Map.entry;
 
 import java.util.Collection;
 import java.util.Map;
+import org.locationtech.jts.geom.Envelope;
 import org.opentripplanner.ext.vectortiles.VectorTilesResource;
 import org.opentripplanner.ext.vectortiles.layers.vehiclerental.mapper.DigitransitRentalVehiclePropertyMapper;
 import org.opentripplanner.inspector.vector.LayerParameters;
@@ -28,7 +29,20 @@ public class VehicleRentalVehiclesLayerBuilder
   }
 
   @Override
-  protected Collection<VehicleRentalVehicle> getVehicleRentalPlaces(VehicleRentalService service) {
-    return service.getVehicleRentalVehicles();
+  protected Collection<VehicleRentalVehicle> getVehicleRentalPlaces(
+    VehicleRentalService service,
+    Envelope query
+  ) {
+    return service
+      .getVehicleRentalPlacesForEnvelope(
+        query.getMinX(),
+        query.getMinY(),
+        query.getMaxX(),
+        query.getMaxY()
+      )
+      .stream()
+      .filter(VehicleRentalVehicle.class::isInstance)
+      .map(VehicleRentalVehicle.class::cast)
+      .toList();
   }
 }
@@ -11,6 +11,7 @@ import static org.opentripplanner.framework.application.OTPFeature.ReportApi;
 import static org.opentripplanner.framework.application.OTPFeature.SandboxAPIGeocoder;
 import static org.opentripplanner.framework.application.OTPFeature.SandboxAPIMapboxVectorTilesApi;
 import static org.opentripplanner.framework.application.OTPFeature.SandboxAPIParkAndRideApi;
+import static org.opentripplanner.framework.application.OTPFeature.SandboxAPITravelTimeMatrix;
 import static org.opentripplanner.framework.application.OTPFeature.TransmodelGraphQlApi;
 
 import java.util.ArrayList;
@@ -31,6 +32,7 @@ import org.opentripplanner.ext.restapi.resources.BikeRental;
 import org.opentripplanner.ext.restapi.resources.IndexAPI;
 import org.opentripplanner.ext.restapi.resources.PlannerResource;
 import org.opentripplanner.ext.restapi.resources.Routers;
+import org.opentripplanner.ext.traveltimematrix.TravelTimeMatrixResource;
 import org.opentripplanner.ext.vectortiles.VectorTilesResource;
 import org.opentripplanner.framework.application.OTPFeature;
 
@@ -61,6 +63,7 @@ public class APIEndpoints {
     addIfEnabled(SandboxAPIMapboxVectorTilesApi, VectorTilesResource.class);
     addIfEnabled(SandboxAPIParkAndRideApi, ParkAndRideResource.class);
     addIfEnabled(SandboxAPIGeocoder, GeocoderResource.class);
+    addIfEnabled(SandboxAPITravelTimeMatrix, TravelTimeMatrixResource.class);
 
     // scheduled to be removed
     addIfEnabled(APIBikeRental, BikeRental.class);
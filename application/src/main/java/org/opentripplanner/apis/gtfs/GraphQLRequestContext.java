@@ -1,5 +1,7 @@
 package org.opentripplanner.apis.gtfs;
 
+import org.dataloader.DataLoaderRegistry;
+import org.opentripplanner.apis.gtfs.support.dataloader.GraphQLDataLoaders;
 import org.opentripplanner.routing.api.RoutingService;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.routing.fares.FareService;
@@ -33,6 +35,14 @@ public record GraphQLRequestContext(
     );
   }
 
+  /**
+   * Create the data loaders for one GraphQL execution. The loaders memoize the loaded values, so
+   * they must not be shared by several executions.
+   */
+  public DataLoaderRegistry createDataLoaderRegistry() {
+    return GraphQLDataLoaders.createRegistry(this);
+  }
+
   /**
    * Returns a clone of the default route request. The clone is necessary because one HTTP
    * request can lead to several GraphQL queries, for example through batch or alias queries.
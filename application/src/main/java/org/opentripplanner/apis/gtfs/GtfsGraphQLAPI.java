@@ -1,5 +1,7 @@
 package org.opentripplanner.apis.gtfs;
 
+import static graphql.execution.preparsed.persisted.PersistedQuerySupport.PERSISTED_QUERY_MARKER;
+
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DefaultValue;
@@ -16,6 +18,7 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
+import org.opentripplanner.apis.support.graphql.CachingPreparsedDocumentProvider;
 import org.opentripplanner.standalone.api.OtpServerRequestContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -55,7 +58,7 @@ public class GtfsGraphQLAPI {
     @HeaderParam("OTPMaxResolves") @DefaultValue("1000000") int maxResolves,
     @Context HttpHeaders headers
   ) {
-    if (queryParameters == null || !queryParameters.containsKey("query")) {
+    if (queryParameters == null || !hasQuery(queryParameters)) {
       LOG.debug("No query found in body");
       return Response
         .status(Response.Status.BAD_REQUEST)
@@ -68,7 +71,7 @@ public class GtfsGraphQLAPI {
       ? headers.getAcceptableLanguages().get(0)
       : serverContext.defaultLocale();
 
-    String query = (String) queryParameters.get("query");
+    String query = (String) queryParameters.getOrDefault("query", PERSISTED_QUERY_MARKER);
     Object queryVariables = queryParameters.getOrDefault("variables", null);
     String operationName = (String) queryParameters.getOrDefault("operationName", null);
     Map<String, Object> variables;
@@ -92,6 +95,7 @@ public class GtfsGraphQLAPI {
       query,
       variables,
       operationName,
+      extensions(queryParameters),
       maxResolves,
       timeout,
       locale,
@@ -114,10 +118,26 @@ public class GtfsGraphQLAPI {
       query,
       null,
       null,
+      null,
       maxResolves,
       timeout,
       locale,
       GraphQLRequestContext.ofServerContext(serverContext)
     );
   }
+
+  /**
+   * The query text may be left out if the request contains a persisted query id, see
+   * {@link CachingPreparsedDocumentProvider}.
+   */
+  private static boolean hasQuery(Map<String, Object> queryParameters) {
+    return (
+      queryParameters.containsKey("query") ||
+      CachingPreparsedDocumentProvider.isPersistedQuery(extensions(queryParameters))
+    );
+  }
+
+  private static Map<String, Object> extensions(Map<String, Object> queryParameters) {
+    return queryParameters.get("extensions") instanceof Map extensions ? extensions : Map.of();
+  }
 }
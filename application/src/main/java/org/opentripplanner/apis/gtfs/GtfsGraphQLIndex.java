@@ -7,6 +7,7 @@ import graphql.analysis.MaxQueryComplexityInstrumentation;
 import graphql.execution.AbortExecutionException;
 import graphql.execution.instrumentation.ChainedInstrumentation;
 import graphql.execution.instrumentation.Instrumentation;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
 import graphql.scalars.ExtendedScalars;
 import graphql.schema.GraphQLSchema;
 import graphql.schema.idl.RuntimeWiring;
@@ -90,6 +91,7 @@ import org.opentripplanner.apis.gtfs.datafetchers.serviceTimeRangeImpl;
 import org.opentripplanner.apis.gtfs.datafetchers.stepImpl;
 import org.opentripplanner.apis.gtfs.datafetchers.stopAtDistanceImpl;
 import org.opentripplanner.apis.gtfs.model.StopPosition;
+import org.opentripplanner.apis.support.graphql.CachingPreparsedDocumentProvider;
 import org.opentripplanner.apis.support.graphql.LoggingDataFetcherExceptionHandler;
 import org.opentripplanner.ext.actuator.MicrometerGraphQLInstrumentation;
 import org.opentripplanner.framework.application.OTPFeature;
@@ -103,6 +105,9 @@ class GtfsGraphQLIndex {
 
   private static final GraphQLSchema indexSchema = buildSchema();
 
+  private static final PreparsedDocumentProvider documentCache =
+    new CachingPreparsedDocumentProvider();
+
   protected static GraphQLSchema buildSchema() {
     try {
       URL url = Objects.requireNonNull(GtfsGraphQLIndex.class.getResource("schema.graphqls"));
@@ -208,6 +213,7 @@ class GtfsGraphQLIndex {
     String query,
     Map<String, Object> variables,
     String operationName,
+    Map<String, Object> extensions,
     int maxResolves,
     int timeoutMs,
     Locale locale,
@@ -226,6 +232,7 @@ class GtfsGraphQLIndex {
     GraphQL graphQL = GraphQL
       .newGraphQL(indexSchema)
       .instrumentation(instrumentation)
+      .preparsedDocumentProvider(documentCache)
       .defaultDataFetcherExceptionHandler(new LoggingDataFetcherExceptionHandler())
       .build();
 
@@ -238,7 +245,9 @@ class GtfsGraphQLIndex {
       .query(query)
       .operationName(operationName)
       .context(requestContext)
+      .dataLoaderRegistry(requestContext.createDataLoaderRegistry())
       .variables(variables)
+      .extensions(extensions == null ? Map.of() : extensions)
       .locale(locale)
       .build();
     try {
@@ -252,6 +261,7 @@ class GtfsGraphQLIndex {
     String query,
     Map<String, Object> variables,
     String operationName,
+    Map<String, Object> extensions,
     int maxResolves,
     int timeoutMs,
     Locale locale,
@@ -261,6 +271,7 @@ class GtfsGraphQLIndex {
       query,
       variables,
       operationName,
+      extensions,
       maxResolves,
       timeoutMs,
       locale,
@@ -1,11 +1,15 @@
 package org.opentripplanner.apis.gtfs.datafetchers;
 
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.opentripplanner.apis.gtfs.support.dataloader.GraphQLDataLoaders.async;
+
 import graphql.relay.Relay;
 import graphql.schema.DataFetcher;
 import graphql.schema.DataFetchingEnvironment;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import org.opentripplanner.apis.gtfs.GraphQLRequestContext;
 import org.opentripplanner.apis.gtfs.GraphQLUtils;
@@ -14,9 +18,11 @@ import org.opentripplanner.apis.gtfs.generated.GraphQLTypes;
 import org.opentripplanner.apis.gtfs.generated.GraphQLTypes.GraphQLBikesAllowed;
 import org.opentripplanner.apis.gtfs.generated.GraphQLTypes.GraphQLTransitMode;
 import org.opentripplanner.apis.gtfs.mapping.BikesAllowedMapper;
+import org.opentripplanner.apis.gtfs.support.dataloader.GraphQLDataLoaders;
+import org.opentripplanner.apis.gtfs.support.dataloader.GraphQLDataLoaders.SelectorEntity;
+import org.opentripplanner.apis.gtfs.support.dataloader.GraphQLDataLoaders.SelectorEntityKey;
 import org.opentripplanner.apis.gtfs.support.filter.PatternByDateFilterUtil;
 import org.opentripplanner.apis.gtfs.support.time.LocalDateRangeUtil;
-import org.opentripplanner.routing.alertpatch.EntitySelector;
 import org.opentripplanner.routing.alertpatch.TransitAlert;
 import org.opentripplanner.routing.services.TransitAlertService;
 import org.opentripplanner.transit.model.network.Route;
@@ -36,102 +42,115 @@ public class RouteImpl implements GraphQLDataFetchers.GraphQLRoute {
 
   @Override
   public DataFetcher<Iterable<TransitAlert>> alerts() {
-    return environment -> {
+    return async(environment -> {
       TransitAlertService alertService = getAlertService(environment);
       var args = new GraphQLTypes.GraphQLRouteAlertsArgs(environment.getArguments());
       List<GraphQLTypes.GraphQLRouteAlertType> types = args.getGraphQLTypes();
       if (types != null) {
-        Collection<TransitAlert> alerts = new ArrayList<>();
+        // The alerts are kept in the order of the types, some of them are loaded in batches
+        List<CompletableFuture<? extends Collection<TransitAlert>>> alerts = new ArrayList<>();
         types.forEach(type -> {
           switch (type) {
             case ROUTE:
-              alerts.addAll(alertService.getRouteAlerts(getSource(environment).getId()));
+              alerts.add(
+                completedFuture(alertService.getRouteAlerts(getSource(environment).getId()))
+              );
               break;
             case ROUTE_TYPE:
-              alerts.addAll(
-                alertService.getRouteTypeAlerts(
-                  getSource(environment).getGtfsType(),
-                  getSource(environment).getId().getFeedId()
+              alerts.add(
+                completedFuture(
+                  alertService.getRouteTypeAlerts(
+                    getSource(environment).getGtfsType(),
+                    getSource(environment).getId().getFeedId()
+                  )
                 )
               );
-              alerts.addAll(
-                alertService.getRouteTypeAndAgencyAlerts(
-                  getSource(environment).getGtfsType(),
-                  getSource(environment).getAgency().getId()
+              alerts.add(
+                completedFuture(
+                  alertService.getRouteTypeAndAgencyAlerts(
+                    getSource(environment).getGtfsType(),
+                    getSource(environment).getAgency().getId()
+                  )
                 )
               );
               break;
             case AGENCY:
-              alerts.addAll(
-                alertService.getAgencyAlerts(getSource(environment).getAgency().getId())
+              alerts.add(
+                completedFuture(
+                  alertService.getAgencyAlerts(getSource(environment).getAgency().getId())
+                )
               );
               break;
             case TRIPS:
               getTrips(environment)
-                .forEach(trip -> alerts.addAll(alertService.getTripAlerts(trip.getId(), null)));
+                .forEach(trip ->
+                  alerts.add(completedFuture(alertService.getTripAlerts(trip.getId(), null)))
+                );
               break;
             case STOPS_ON_ROUTE:
-              alerts.addAll(
-                alertService
-                  .getAllAlerts()
-                  .stream()
-                  .filter(alert ->
-                    alert
-                      .entities()
-                      .stream()
-                      .anyMatch(entity ->
-                        entity instanceof EntitySelector.StopAndRoute stopAndRoute &&
-                        stopAndRoute.routeId().equals(getSource(environment).getId())
-                      )
-                  )
-                  .toList()
+              alerts.add(
+                GraphQLDataLoaders.selectorAlerts(
+                  environment,
+                  new SelectorEntityKey(SelectorEntity.ROUTE, getSource(environment).getId()),
+                  true,
+                  false
+                )
               );
               getStops(environment)
                 .forEach(stop ->
-                  alerts.addAll(alertService.getStopAlerts(((StopLocation) stop).getId()))
+                  alerts.add(
+                    completedFuture(alertService.getStopAlerts(((StopLocation) stop).getId()))
+                  )
                 );
               break;
             case STOPS_ON_TRIPS:
               Iterable<Trip> trips = getTrips(environment);
               trips.forEach(trip ->
-                alerts.addAll(
-                  alertService
-                    .getAllAlerts()
-                    .stream()
-                    .filter(alert ->
-                      alert
-                        .entities()
-                        .stream()
-                        .anyMatch(entity ->
-                          entity instanceof EntitySelector.StopAndTrip stopAndTrip &&
-                          stopAndTrip.tripId().equals(trip.getId())
-                        )
-                    )
-                    .toList()
+                alerts.add(
+                  GraphQLDataLoaders.selectorAlerts(
+                    environment,
+                    new SelectorEntityKey(SelectorEntity.TRIP, trip.getId()),
+                    false,
+                    true
+                  )
                 )
               );
               break;
             case PATTERNS:
-              alerts.addAll(
-                alertService.getDirectionAndRouteAlerts(
-                  Direction.INBOUND,
-                  getSource(environment).getId()
+              alerts.add(
+                completedFuture(
+                  alertService.getDirectionAndRouteAlerts(
+                    Direction.INBOUND,
+                    getSource(environment).getId()
+                  )
                 )
               );
-              alerts.addAll(
-                alertService.getDirectionAndRouteAlerts(
-                  Direction.OUTBOUND,
-                  getSource(environment).getId()
+              alerts.add(
+                completedFuture(
+                  alertService.getDirectionAndRouteAlerts(
+                    Direction.OUTBOUND,
+                    getSource(environment).getId()
+                  )
                 )
               );
               break;
           }
         });
-        return alerts.stream().distinct().collect(Collectors.toList());
+        return CompletableFuture
+          .allOf(alerts.toArray(CompletableFuture[]::new))
+          .thenApply(ignore ->
+            alerts
+              .stream()
+              .flatMap(it -> it.join().stream())
+              .distinct()
+              .collect(Collectors.toList())
+          );
       } else {
-        return getAlertService(environment).getRouteAlerts(getSource(environment).getId());
+        return completedFuture(
+          getAlertService(environment).getRouteAlerts(getSource(environment).getId())
+        );
       }
-    };
+    });
   }
 
   @Override
@@ -1,5 +1,8 @@
 package org.opentripplanner.apis.gtfs.datafetchers;
 
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.opentripplanner.apis.gtfs.support.dataloader.GraphQLDataLoaders.async;
+
 import graphql.relay.Relay;
 import graphql.schema.DataFetcher;
 import graphql.schema.DataFetchingEnvironment;
@@ -11,6 +14,8 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -18,12 +23,14 @@ import org.opentripplanner.apis.gtfs.GraphQLRequestContext;
 import org.opentripplanner.apis.gtfs.GraphQLUtils;
 import org.opentripplanner.apis.gtfs.generated.GraphQLDataFetchers;
 import org.opentripplanner.apis.gtfs.generated.GraphQLTypes;
+import org.opentripplanner.apis.gtfs.support.dataloader.GraphQLDataLoaders;
+import org.opentripplanner.apis.gtfs.support.dataloader.GraphQLDataLoaders.SelectorEntity;
+import org.opentripplanner.apis.gtfs.support.dataloader.GraphQLDataLoaders.SelectorEntityKey;
+import org.opentripplanner.apis.gtfs.support.dataloader.GraphQLDataLoaders.StopTimesKey;
 import org.opentripplanner.apis.gtfs.support.filter.PatternByDateFilterUtil;
 import org.opentripplanner.apis.gtfs.support.time.LocalDateRangeUtil;
 import org.opentripplanner.model.StopTimesInPattern;
 import org.opentripplanner.model.TripTimeOnDate;
-import org.opentripplanner.routing.alertpatch.EntitySelector;
-import org.opentripplanner.routing.alertpatch.EntitySelector.StopAndRoute;
 import org.opentripplanner.routing.alertpatch.TransitAlert;
 import org.opentripplanner.routing.graphfinder.NearbyStop;
 import org.opentripplanner.routing.services.TransitAlertService;
@@ -42,49 +49,43 @@ public class StopImpl implements GraphQLDataFetchers.GraphQLStop {
 
   @Override
   public DataFetcher<Iterable<TransitAlert>> alerts() {
-    return environment -> {
+    return async(environment -> {
       TransitAlertService alertService = getTransitService(environment).getTransitAlertService();
       var args = new GraphQLTypes.GraphQLStopAlertsArgs(environment.getArguments());
       List<GraphQLTypes.GraphQLStopAlertType> types = args.getGraphQLTypes();
       FeedScopedId id = getValue(environment, StopLocation::getId, AbstractTransitEntity::getId);
-      if (types != null) {
-        Collection<TransitAlert> alerts = new ArrayList<>();
-        if (types.contains(GraphQLTypes.GraphQLStopAlertType.STOP)) {
-          alerts.addAll(alertService.getStopAlerts(id));
-        }
-        if (
-          types.contains(GraphQLTypes.GraphQLStopAlertType.STOP_ON_ROUTES) ||
-          types.contains(GraphQLTypes.GraphQLStopAlertType.STOP_ON_TRIPS)
-        ) {
-          alerts.addAll(
-            alertService
-              .getAllAlerts()
-              .stream()
-              .filter(alert ->
-                alert
-                  .entities()
-                  .stream()
-                  .anyMatch(entity ->
-                    (
-                      types.contains(GraphQLTypes.GraphQLStopAlertType.STOP_ON_ROUTES) &&
-                      entity instanceof StopAndRoute stopAndRoute &&
-                      stopAndRoute.stopId().equals(id)
-                    ) ||
-                    (
-                      types.contains(GraphQLTypes.GraphQLStopAlertType.STOP_ON_TRIPS) &&
-                      entity instanceof EntitySelector.StopAndTrip stopAndTrip &&
-                      stopAndTrip.stopId().equals(id)
-                    )
-                  )
-              )
-              .toList()
-          );
-        }
-        if (
-          types.contains(GraphQLTypes.GraphQLStopAlertType.PATTERNS) ||
-          types.contains(GraphQLTypes.GraphQLStopAlertType.TRIPS)
-        ) {
-          getPatterns(environment)
+      if (types == null) {
+        return completedFuture(alertService.getStopAlerts(id));
+      }
+      boolean stopOnRoutes = types.contains(GraphQLTypes.GraphQLStopAlertType.STOP_ON_ROUTES);
+      boolean stopOnTrips = types.contains(GraphQLTypes.GraphQLStopAlertType.STOP_ON_TRIPS);
+      var stopAndRouteOrTripAlerts = stopOnRoutes || stopOnTrips
+        ? GraphQLDataLoaders.selectorAlerts(
+          environment,
+          new SelectorEntityKey(SelectorEntity.STOP, id),
+          stopOnRoutes,
+          stopOnTrips
+        )
+        : completedFuture(List.<TransitAlert>of());
+      var patterns = types.contains(GraphQLTypes.GraphQLStopAlertType.PATTERNS) ||
+        types.contains(GraphQLTypes.GraphQLStopAlertType.TRIPS)
+        ? getPatterns(environment)
+        : completedFuture(List.<TripPattern>of());
+      var routes = types.contains(GraphQLTypes.GraphQLStopAlertType.ROUTES) ||
+        types.contains(GraphQLTypes.GraphQLStopAlertType.AGENCIES_OF_ROUTES)
+        ? getRoutes(environment)
+        : completedFuture(List.<Route>of());
+
+      return CompletableFuture
+        .allOf(stopAndRouteOrTripAlerts, patterns, routes)
+        .thenApply(ignore -> {
+          Collection<TransitAlert> alerts = new ArrayList<>();
+          if (types.contains(GraphQLTypes.GraphQLStopAlertType.STOP)) {
+            alerts.addAll(alertService.getStopAlerts(id));
+          }
+          alerts.addAll(stopAndRouteOrTripAlerts.join());
+          Objects
+            .requireNonNullElse(patterns.join(), List.<TripPattern>of())
             .forEach(pattern -> {
               if (types.contains(GraphQLTypes.GraphQLStopAlertType.PATTERNS)) {
                 alerts.addAll(
@@ -100,12 +101,8 @@ public class StopImpl implements GraphQLDataFetchers.GraphQLStop {
                   .forEach(trip -> alerts.addAll(alertService.getTripAlerts(trip.getId(), null)));
               }
             });
-        }
-        if (
-          types.contains(GraphQLTypes.GraphQLStopAlertType.ROUTES) ||
-          types.contains(GraphQLTypes.GraphQLStopAlertType.AGENCIES_OF_ROUTES)
-        ) {
-          getRoutes(environment)
+          Objects
+            .requireNonNullElse(routes.join(), List.<Route>of())
             .forEach(route -> {
               if (types.contains(GraphQLTypes.GraphQLStopAlertType.ROUTES)) {
                 alerts.addAll(alertService.getRouteAlerts(route.getId()));
@@ -114,12 +111,9 @@ public class StopImpl implements GraphQLDataFetchers.GraphQLStop {
                 alerts.addAll(alertService.getAgencyAlerts(route.getAgency().getId()));
               }
             });
-        }
-        return alerts.stream().distinct().collect(Collectors.toList());
-      } else {
-        return alertService.getStopAlerts(id);
-      }
-    };
+          return alerts.stream().distinct().collect(Collectors.toList());
+        });
+    });
   }
 
   @Override
@@ -235,7 +229,7 @@ public class StopImpl implements GraphQLDataFetchers.GraphQLStop {
 
   @Override
   public DataFetcher<Iterable<TripPattern>> patterns() {
-    return this::getPatterns;
+    return async(this::getPatterns);
   }
 
   @Override
@@ -245,19 +239,23 @@ public class StopImpl implements GraphQLDataFetchers.GraphQLStop {
 
   @Override
   public DataFetcher<Iterable<Route>> routes() {
-    return env -> {
+    return async(env -> {
       var args = new GraphQLTypes.GraphQLStopRoutesArgs(env.getArguments());
-      var routes = getRoutes(env);
-      if (LocalDateRangeUtil.hasServiceDateFilter(args.getGraphQLServiceDates())) {
-        var filter = PatternByDateFilterUtil.ofGraphQL(
-          args.getGraphQLServiceDates(),
-          getTransitService(env)
-        );
-        return filter.filterRoutes(routes);
-      } else {
-        return routes;
-      }
-    };
+      return getRoutes(env)
+        .thenApply(routes -> {
+          if (
+            routes != null && LocalDateRangeUtil.hasServiceDateFilter(args.getGraphQLServiceDates())
+          ) {
+            var filter = PatternByDateFilterUtil.ofGraphQL(
+              args.getGraphQLServiceDates(),
+              getTransitService(env)
+            );
+            return filter.filterRoutes(routes);
+          } else {
+            return routes;
+          }
+        });
+    });
   }
 
   @Override
@@ -313,32 +311,10 @@ public class StopImpl implements GraphQLDataFetchers.GraphQLStop {
 
   @Override
   public DataFetcher<Iterable<StopTimesInPattern>> stoptimesForPatterns() {
-    return environment -> {
-      TransitService transitService = getTransitService(environment);
+    return async(environment -> {
       var args = new GraphQLTypes.GraphQLStopStoptimesForPatternsArgs(environment.getArguments());
-
-      Function<StopLocation, List<StopTimesInPattern>> stopTFunction = stop ->
-        transitService.findStopTimesInPattern(
-          stop,
-          GraphQLUtils.getTimeOrNow(args.getGraphQLStartTime()),
-          Duration.ofSeconds(args.getGraphQLTimeRange()),
-          args.getGraphQLNumberOfDepartures(),
-          args.getGraphQLOmitNonPickups() ? ArrivalDeparture.DEPARTURES : ArrivalDeparture.BOTH,
-          !args.getGraphQLOmitCanceled()
-        );
-
-      return getValue(
-        environment,
-        stopTFunction,
-        station ->
-          station
-            .getChildStops()
-            .stream()
-            .map(stopTFunction)
-            .flatMap(Collection::stream)
-            .collect(Collectors.toList())
-      );
-    };
+      return getStopTimesInPattern(environment, args);
+    });
   }
 
   @Override
@@ -379,34 +355,18 @@ public class StopImpl implements GraphQLDataFetchers.GraphQLStop {
 
   @Override
   public DataFetcher<Iterable<TripTimeOnDate>> stoptimesWithoutPatterns() {
-    return environment -> {
-      TransitService transitService = getTransitService(environment);
+    return async(environment -> {
       var args = new GraphQLTypes.GraphQLStopStoptimesForPatternsArgs(environment.getArguments());
-
-      Function<StopLocation, Stream<StopTimesInPattern>> stopTFunction = stop ->
-        transitService
-          .findStopTimesInPattern(
-            stop,
-            GraphQLUtils.getTimeOrNow(args.getGraphQLStartTime()),
-            Duration.ofSeconds(args.getGraphQLTimeRange()),
-            args.getGraphQLNumberOfDepartures(),
-            args.getGraphQLOmitNonPickups() ? ArrivalDeparture.DEPARTURES : ArrivalDeparture.BOTH,
-            !args.getGraphQLOmitCanceled()
-          )
-          .stream();
-
-      Stream<StopTimesInPattern> stream = getValue(
-        environment,
-        stopTFunction,
-        station -> station.getChildStops().stream().flatMap(stopTFunction)
-      );
-
-      return stream
-        .flatMap(stoptimesWithPattern -> stoptimesWithPattern.times.stream())
-        .sorted(Comparator.comparing(t -> t.getServiceDayMidnight() + t.getRealtimeDeparture()))
-        .limit(args.getGraphQLNumberOfDepartures())
-        .collect(Collectors.toList());
-    };
+      return getStopTimesInPattern(environment, args)
+        .thenApply(stopTimes ->
+          stopTimes
+            .stream()
+            .flatMap(stoptimesWithPattern -> stoptimesWithPattern.times.stream())
+            .sorted(Comparator.comparing(t -> t.getServiceDayMidnight() + t.getRealtimeDeparture()))
+            .limit(args.getGraphQLNumberOfDepartures())
+            .collect(Collectors.toList())
+        );
+    });
   }
 
   @Override
@@ -492,19 +452,45 @@ public class StopImpl implements GraphQLDataFetchers.GraphQLStop {
       getValue(environment, StopLocation::getFirstZoneAsString, station -> null);
   }
 
-  private Collection<TripPattern> getPatterns(DataFetchingEnvironment environment) {
+  private CompletableFuture<Collection<TripPattern>> getPatterns(
+    DataFetchingEnvironment environment
+  ) {
+    return getValue(
+      environment,
+      stop -> GraphQLDataLoaders.patterns(environment, stop),
+      station -> completedFuture(null)
+    );
+  }
+
+  private CompletableFuture<Collection<Route>> getRoutes(DataFetchingEnvironment environment) {
     return getValue(
       environment,
-      stop -> getTransitService(environment).findPatterns(stop, true),
-      station -> null
+      stop -> GraphQLDataLoaders.routes(environment, stop),
+      station -> completedFuture(null)
     );
   }
 
-  private Collection<Route> getRoutes(DataFetchingEnvironment environment) {
+  /**
+   * The stop times of a stop, or of all the child stops of a station.
+   */
+  private CompletableFuture<List<StopTimesInPattern>> getStopTimesInPattern(
+    DataFetchingEnvironment environment,
+    GraphQLTypes.GraphQLStopStoptimesForPatternsArgs args
+  ) {
+    Function<StopLocation, StopTimesKey> keyFactory = stop ->
+      new StopTimesKey(
+        stop,
+        args.getGraphQLStartTime(),
+        Duration.ofSeconds(args.getGraphQLTimeRange()),
+        args.getGraphQLNumberOfDepartures(),
+        args.getGraphQLOmitNonPickups() ? ArrivalDeparture.DEPARTURES : ArrivalDeparture.BOTH,
+        !args.getGraphQLOmitCanceled()
+      );
     return getValue(
       environment,
-      stop -> getTransitService(environment).findRoutes(stop),
-      station -> null
+      stop -> GraphQLDataLoaders.stopTimesInPattern(environment, List.of(stop), keyFactory),
+      station ->
+        GraphQLDataLoaders.stopTimesInPattern(environment, station.getChildStops(), keyFactory)
     );
   }
 
@@ -0,0 +1,385 @@
+package org.opentripplanner.apis.gtfs.support.dataloader;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderFactory;
+import org.dataloader.DataLoaderRegistry;
+import org.dataloader.MappedBatchLoader;
+import org.opentripplanner.apis.gtfs.GraphQLRequestContext;
+import org.opentripplanner.model.StopTimesInPattern;
+import org.opentripplanner.model.TripTimeOnDate;
+import org.opentripplanner.routing.alertpatch.EntitySelector;
+import org.opentripplanner.routing.alertpatch.TransitAlert;
+import org.opentripplanner.routing.stoptimes.ArrivalDeparture;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
+import org.opentripplanner.transit.model.network.Route;
+import org.opentripplanner.transit.model.network.TripPattern;
+import org.opentripplanner.transit.model.site.StopLocation;
+import org.opentripplanner.transit.service.TransitService;
+
+/**
+ * The data loaders used by the GTFS GraphQL data fetchers. A data loader collects the keys
+ * requested by all the data fetchers on the same level of the query, and loads them in one batch
+ * when graphql-java dispatches the level. The results are memoized for the rest of the
+ * execution, so the same stop asked for in several places of a query is only looked up once.
+ * <p>
+ * The loaders are created for each execution, see
+ * {@link GraphQLRequestContext#createDataLoaderRegistry()}. If a data fetcher is called without a
+ * registry, like in some unit tests, the value is loaded directly.
+ */
+public final class GraphQLDataLoaders {
+
+  private static final String PATTERNS_BY_STOP = "patternsByStop";
+  private static final String ROUTES_BY_STOP = "routesByStop";
+  private static final String STOP_TIMES_IN_PATTERN = "stopTimesInPattern";
+  private static final String SELECTOR_ALERTS = "selectorAlerts";
+
+  private GraphQLDataLoaders() {}
+
+  public static DataLoaderRegistry createRegistry(GraphQLRequestContext context) {
+    TransitService transitService = context.transitService();
+    return DataLoaderRegistry
+      .newRegistry()
+      .register(
+        PATTERNS_BY_STOP,
+        mapped((StopLocation stop) -> transitService.findPatterns(stop, true))
+      )
+      .register(ROUTES_BY_STOP, mapped((StopLocation stop) -> transitService.findRoutes(stop)))
+      .register(
+        STOP_TIMES_IN_PATTERN,
+        DataLoaderFactory.newMappedDataLoader(
+          (MappedBatchLoader<StopTimesKey, List<StopTimesInPattern>>) keys ->
+            completedFuture(StopTimesKey.loadAll(keys, transitService))
+        )
+      )
+      .register(
+        SELECTOR_ALERTS,
+        DataLoaderFactory.newMappedDataLoader(
+          (MappedBatchLoader<SelectorEntityKey, SelectorAlerts>) keys ->
+            completedFuture(SelectorAlerts.load(keys, transitService))
+        )
+      )
+      .build();
+  }
+
+  /**
+   * graphql-java completes a {@link CompletionStage} returned by any data fetcher, but the
+   * generated data fetcher interfaces are typed with the value. This adapts a data fetcher using
+   * the data loaders to the generated interfaces.
+   */
+  @SuppressWarnings("unchecked")
+  public static <T> DataFetcher<T> async(
+    DataFetcher<? extends CompletionStage<? extends T>> dataFetcher
+  ) {
+    return (DataFetcher<T>) (DataFetcher<?>) dataFetcher;
+  }
+
+  public static CompletableFuture<Collection<TripPattern>> patterns(
+    DataFetchingEnvironment environment,
+    StopLocation stop
+  ) {
+    return load(
+      environment,
+      PATTERNS_BY_STOP,
+      stop,
+      it -> context(environment).transitService().findPatterns(it, true)
+    );
+  }
+
+  public static CompletableFuture<Collection<Route>> routes(
+    DataFetchingEnvironment environment,
+    StopLocation stop
+  ) {
+    return load(
+      environment,
+      ROUTES_BY_STOP,
+      stop,
+      it -> context(environment).transitService().findRoutes(it)
+    );
+  }
+
+  public static CompletableFuture<List<StopTimesInPattern>> stopTimesInPattern(
+    DataFetchingEnvironment environment,
+    StopTimesKey key
+  ) {
+    return load(
+      environment,
+      STOP_TIMES_IN_PATTERN,
+      key,
+      it -> it.load(context(environment).transitService(), Instant.now())
+    );
+  }
+
+  /**
+   * Load the stop times for all the given stops, and concatenate them in the same order.
+   */
+  public static CompletableFuture<List<StopTimesInPattern>> stopTimesInPattern(
+    DataFetchingEnvironment environment,
+    Collection<? extends StopLocation> stops,
+    Function<StopLocation, StopTimesKey> keyFactory
+  ) {
+    var futures = stops
+      .stream()
+      .map(stop -> stopTimesInPattern(environment, keyFactory.apply(stop)))
+      .toList();
+    return CompletableFuture
+      .allOf(futures.toArray(CompletableFuture[]::new))
+      .thenApply(ignore -> {
+        var result = new ArrayList<StopTimesInPattern>();
+        futures.forEach(it -> result.addAll(it.join()));
+        return result;
+      });
+  }
+
+  /**
+   * Find the alerts with a stop-and-route and/or a stop-and-trip entity selector on the given
+   * stop, route or trip.
+   */
+  public static CompletableFuture<List<TransitAlert>> selectorAlerts(
+    DataFetchingEnvironment environment,
+    SelectorEntityKey key,
+    boolean includeStopAndRoute,
+    boolean includeStopAndTrip
+  ) {
+    CompletableFuture<SelectorAlerts> alerts = load(
+      environment,
+      SELECTOR_ALERTS,
+      key,
+      it ->
+        SelectorAlerts
+          .load(Set.of(it), context(environment).transitService())
+          .getOrDefault(it, SelectorAlerts.EMPTY)
+    );
+    return alerts.thenApply(it -> it.get(includeStopAndRoute, includeStopAndTrip));
+  }
+
+  /**
+   * The arguments of a stop times query for one stop. The key is used to memoize the result, so
+   * two fields asking for the same departures share the result.
+   * <p>
+   * The start time is the raw argument in epoch seconds, where 0 means now. It is resolved when
+   * the keys are loaded, so the keys of all the fields asking for departures from now are equal.
+   */
+  public record StopTimesKey(
+    StopLocation stop,
+    long startTime,
+    Duration timeRange,
+    int numberOfDepartures,
+    ArrivalDeparture arrivalDeparture,
+    boolean includeCancelledTrips
+  ) {
+    /**
+     * The departures are found per pattern, ordered by the realtime departure time, the same
+     * order as in {@link org.opentripplanner.routing.stoptimes.StopTimesHelper}.
+     */
+    private static final Comparator<TripTimeOnDate> DEPARTURE_ORDER = Comparator.comparingLong(
+      it -> it.getServiceDayMidnight() + it.getRealtimeDeparture()
+    );
+
+    /**
+     * Load the stop times for all the given keys. The keys which only differ in the number of
+     * departures share one search for the largest number of departures, and the result is cut
+     * down to the number of departures of each key. All the keys asking for departures from now
+     * use the same time.
+     */
+    private static Map<StopTimesKey, List<StopTimesInPattern>> loadAll(
+      Set<StopTimesKey> keys,
+      TransitService transitService
+    ) {
+      var keysBySearch = new HashMap<StopTimesKey, List<StopTimesKey>>();
+      for (StopTimesKey key : keys) {
+        keysBySearch
+          .computeIfAbsent(key.withNumberOfDepartures(0), k -> new ArrayList<>())
+          .add(key);
+      }
+
+      var now = Instant.now();
+      var result = new HashMap<StopTimesKey, List<StopTimesInPattern>>();
+      for (List<StopTimesKey> group : keysBySearch.values()) {
+        var largest = group
+          .stream()
+          .max(Comparator.comparingInt(StopTimesKey::numberOfDepartures))
+          .orElseThrow();
+        var stopTimes = largest.load(transitService, now);
+        for (StopTimesKey key : group) {
+          result.put(key, key == largest ? stopTimes : limit(stopTimes, key.numberOfDepartures()));
+        }
+      }
+      return result;
+    }
+
+    private List<StopTimesInPattern> load(TransitService transitService, Instant now) {
+      return transitService.findStopTimesInPattern(
+        stop,
+        startTime != 0 ? Instant.ofEpochSecond(startTime) : now,
+        timeRange,
+        numberOfDepartures,
+        arrivalDeparture,
+        includeCancelledTrips
+      );
+    }
+
+    private StopTimesKey withNumberOfDepartures(int numberOfDepartures) {
+      return new StopTimesKey(
+        stop,
+        startTime,
+        timeRange,
+        numberOfDepartures,
+        arrivalDeparture,
+        includeCancelledTrips
+      );
+    }
+
+    /**
+     * Keep the first {@code numberOfDepartures} departures of each pattern, in the same order as
+     * in the given stop times.
+     */
+    private static List<StopTimesInPattern> limit(
+      List<StopTimesInPattern> stopTimes,
+      int numberOfDepartures
+    ) {
+      if (numberOfDepartures <= 0) {
+        return List.of();
+      }
+      var result = new ArrayList<StopTimesInPattern>(stopTimes.size());
+      for (StopTimesInPattern it : stopTimes) {
+        Set<TripTimeOnDate> first = Collections.newSetFromMap(new IdentityHashMap<>());
+        it.times.stream().sorted(DEPARTURE_ORDER).limit(numberOfDepartures).forEach(first::add);
+
+        var limited = new StopTimesInPattern(it.pattern);
+        it.times.stream().filter(first::contains).forEach(limited.times::add);
+        result.add(limited);
+      }
+      return result;
+    }
+  }
+
+  /**
+   * The stop, route or trip of a stop-and-route or stop-and-trip alert entity selector.
+   */
+  public enum SelectorEntity {
+    STOP,
+    ROUTE,
+    TRIP,
+  }
+
+  public record SelectorEntityKey(SelectorEntity entity, FeedScopedId id) {}
+
+  /**
+   * The alerts with a stop-and-route or stop-and-trip entity selector on an entity, in the order
+   * of the alert service.
+   */
+  private static final class SelectorAlerts {
+
+    private static final SelectorAlerts EMPTY = new SelectorAlerts();
+
+    private final List<TransitAlert> alerts = new ArrayList<>();
+    private final Set<TransitAlert> stopAndRoute = new HashSet<>();
+    private final Set<TransitAlert> stopAndTrip = new HashSet<>();
+
+    /**
+     * Find the alerts for all the given keys in one pass over the alerts.
+     */
+    private static Map<SelectorEntityKey, SelectorAlerts> load(
+      Set<SelectorEntityKey> keys,
+      TransitService transitService
+    ) {
+      var result = new HashMap<SelectorEntityKey, SelectorAlerts>();
+      for (TransitAlert alert : transitService.getTransitAlertService().getAllAlerts()) {
+        for (EntitySelector entity : alert.entities()) {
+          if (entity instanceof EntitySelector.StopAndRoute it) {
+            add(result, keys, SelectorEntity.STOP, it.stopId(), alert, true);
+            add(result, keys, SelectorEntity.ROUTE, it.routeId(), alert, true);
+          } else if (entity instanceof EntitySelector.StopAndTrip it) {
+            add(result, keys, SelectorEntity.STOP, it.stopId(), alert, false);
+            add(result, keys, SelectorEntity.TRIP, it.tripId(), alert, false);
+          }
+        }
+      }
+      for (SelectorEntityKey key : keys) {
+        result.putIfAbsent(key, EMPTY);
+      }
+      return result;
+    }
+
+    private static void add(
+      Map<SelectorEntityKey, SelectorAlerts> result,
+      Set<SelectorEntityKey> keys,
+      SelectorEntity entity,
+      FeedScopedId id,
+      TransitAlert alert,
+      boolean isStopAndRoute
+    ) {
+      var key = new SelectorEntityKey(entity, id);
+      if (keys.contains(key)) {
+        result.computeIfAbsent(key, k -> new SelectorAlerts()).add(alert, isStopAndRoute);
+      }
+    }
+
+    private void add(TransitAlert alert, boolean isStopAndRoute) {
+      // An alert with several selectors on the same entity is only added once
+      if (alerts.isEmpty() || alerts.getLast() != alert) {
+        alerts.add(alert);
+      }
+      (isStopAndRoute ? stopAndRoute : stopAndTrip).add(alert);
+    }
+
+    private List<TransitAlert> get(boolean includeStopAndRoute, boolean includeStopAndTrip) {
+      return alerts
+        .stream()
+        .filter(it ->
+          (includeStopAndRoute && stopAndRoute.contains(it)) ||
+          (includeStopAndTrip && stopAndTrip.contains(it))
+        )
+        .toList();
+    }
+  }
+
+  private static <K, V> DataLoader<K, V> mapped(Function<K, V> loader) {
+    return DataLoaderFactory.newMappedDataLoader(
+      (MappedBatchLoader<K, V>) keys -> {
+        var result = new HashMap<K, V>();
+        for (K key : keys) {
+          result.put(key, loader.apply(key));
+        }
+        return completedFuture(result);
+      }
+    );
+  }
+
+  private static <K, V> CompletableFuture<V> load(
+    DataFetchingEnvironment environment,
+    String name,
+    K key,
+    Function<K, V> loadDirectly
+  ) {
+    DataLoaderRegistry registry = environment.getDataLoaderRegistry();
+    DataLoader<K, V> dataLoader = registry == null ? null : registry.getDataLoader(name);
+    if (dataLoader == null) {
+      return completedFuture(loadDirectly.apply(key));
+    }
+    return dataLoader.load(key);
+  }
+
+  private static GraphQLRequestContext context(DataFetchingEnvironment environment) {
+    return environment.getContext();
+  }
+}
@@ -0,0 +1,117 @@
+package org.opentripplanner.apis.support.graphql;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import graphql.execution.preparsed.persisted.ApolloPersistedQuerySupport;
+import graphql.execution.preparsed.persisted.PersistedQueryCacheMiss;
+import graphql.execution.preparsed.persisted.PersistedQueryNotFound;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Cache the parsed and validated GraphQL documents, so the same query is not parsed and validated
+ * again for each request. The documents are keyed by the SHA-256 hash of the query text, this is
+ * also the id used by Apollo persisted queries. A client may send the hash in the
+ * {@code extensions.persistedQuery.sha256Hash} field of the request instead of the query text, if
+ * the query is in the cache. If it is not, the client gets a {@code PersistedQueryNotFound} error
+ * and should retry with both the hash and the query text.
+ * <p>
+ * Documents with errors are not cached, the error messages depend on the locale of the request.
+ * <p>
+ * THREAD SAFETY - This class is thread-safe. Use one instance for each schema, the validation of
+ * a document depends on the schema.
+ */
+public class CachingPreparsedDocumentProvider implements PreparsedDocumentProvider {
+
+  /** The number of documents to keep, our clients use a few dozen distinct queries. */
+  public static final int DEFAULT_MAX_SIZE = 1000;
+
+  private static final String PERSISTED_QUERY_EXTENSION = "persistedQuery";
+
+  private final Cache<String, PreparsedDocumentEntry> cache;
+  private final PreparsedDocumentProvider persistedQuerySupport;
+
+  public CachingPreparsedDocumentProvider(int maximumSize) {
+    this.cache = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+    this.persistedQuerySupport = new ApolloPersistedQuerySupport(this::getPersistedQueryDocument);
+  }
+
+  public CachingPreparsedDocumentProvider() {
+    this(DEFAULT_MAX_SIZE);
+  }
+
+  /**
+   * Return {@code true} if the request contains a persisted query id, in this case the query text
+   * is optional.
+   */
+  public static boolean isPersistedQuery(Map<String, Object> extensions) {
+    return extensions != null && extensions.containsKey(PERSISTED_QUERY_EXTENSION);
+  }
+
+  @Override
+  public CompletableFuture<PreparsedDocumentEntry> getDocumentAsync(
+    ExecutionInput executionInput,
+    Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction
+  ) {
+    if (isPersistedQuery(executionInput.getExtensions())) {
+      return persistedQuerySupport.getDocumentAsync(executionInput, parseAndValidateFunction);
+    }
+    String key = Hashing
+      .sha256()
+      .hashString(executionInput.getQuery(), StandardCharsets.UTF_8)
+      .toString();
+    return completedFuture(get(key, () -> parseAndValidateFunction.apply(executionInput)));
+  }
+
+  /** The number of cached documents, used in tests. */
+  long size() {
+    return cache.size();
+  }
+
+  private CompletableFuture<PreparsedDocumentEntry> getPersistedQueryDocument(
+    Object persistedQueryId,
+    ExecutionInput executionInput,
+    PersistedQueryCacheMiss onCacheMiss
+  ) throws PersistedQueryNotFound {
+    String key = persistedQueryId.toString().toLowerCase(Locale.ROOT);
+    var entry = cache.getIfPresent(key);
+    if (entry != null) {
+      return completedFuture(entry);
+    }
+    String query = executionInput.getQuery();
+    if (query.isBlank() || query.equals(PersistedQuerySupport.PERSISTED_QUERY_MARKER)) {
+      throw new PersistedQueryNotFound(persistedQueryId);
+    }
+    // The cache miss function verifies that the id is the hash of the query
+    return completedFuture(get(key, () -> onCacheMiss.apply(query)));
+  }
+
+  /**
+   * Two requests with the same query may both parse it, this is cheaper than holding a lock while
+   * parsing.
+   */
+  private PreparsedDocumentEntry get(
+    String key,
+    Supplier<PreparsedDocumentEntry> parseAndValidate
+  ) {
+    var entry = cache.getIfPresent(key);
+    if (entry == null) {
+      entry = parseAndValidate.get();
+      if (!entry.hasErrors()) {
+        cache.put(key, entry);
+      }
+    }
+    return entry;
+  }
+}
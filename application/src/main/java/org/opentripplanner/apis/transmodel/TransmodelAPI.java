@@ -1,6 +1,9 @@
 package org.opentripplanner.apis.transmodel;
 
+import static graphql.execution.preparsed.persisted.PersistedQuerySupport.PERSISTED_QUERY_MARKER;
+
 import com.fasterxml.jackson.databind.ObjectMapper;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
 import graphql.schema.GraphQLSchema;
 import graphql.schema.idl.SchemaPrinter;
 import io.micrometer.core.instrument.Tag;
@@ -21,6 +24,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.stream.Collectors;
+import org.opentripplanner.apis.support.graphql.CachingPreparsedDocumentProvider;
 import org.opentripplanner.apis.transmodel.mapping.TransitIdMapper;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.standalone.api.OtpServerRequestContext;
@@ -47,6 +51,7 @@ public class TransmodelAPI {
   private static GraphQLSchema schema;
   private static Collection<String> tracingHeaderTags;
   private static int maxNumberOfResultFields;
+  private static PreparsedDocumentProvider documentCache = new CachingPreparsedDocumentProvider();
 
   private final OtpServerRequestContext serverContext;
   private final TransmodelGraph index;
@@ -54,7 +59,7 @@ public class TransmodelAPI {
 
   public TransmodelAPI(@Context OtpServerRequestContext serverContext) {
     this.serverContext = serverContext;
-    this.index = new TransmodelGraph(schema);
+    this.index = new TransmodelGraph(schema, documentCache);
   }
 
   /**
@@ -93,6 +98,7 @@ public class TransmodelAPI {
         timetableRepository.getTimeZone(),
         transitRoutingConfig
       );
+    documentCache = new CachingPreparsedDocumentProvider();
   }
 
   @POST
@@ -101,12 +107,13 @@ public class TransmodelAPI {
     HashMap<String, Object> queryParameters,
     @Context HttpHeaders headers
   ) {
-    if (queryParameters == null || !queryParameters.containsKey("query")) {
+    if (queryParameters == null || !hasQuery(queryParameters)) {
       LOG.debug("No query found in body");
       throw new BadRequestException("No query found in body");
     }
 
-    if (!(queryParameters.get("query") instanceof String query)) {
+    var queryText = queryParameters.getOrDefault("query", PERSISTED_QUERY_MARKER);
+    if (!(queryText instanceof String query)) {
       throw new BadRequestException("Invalid format for query");
     }
 
@@ -131,6 +138,7 @@ public class TransmodelAPI {
       serverContext,
       variables,
       operationName,
+      extensions(queryParameters),
       maxNumberOfResultFields,
       getTagsFromHeaders(headers)
     );
@@ -144,6 +152,7 @@ public class TransmodelAPI {
       serverContext,
       null,
       null,
+      null,
       maxNumberOfResultFields,
       getTagsFromHeaders(headers)
     );
@@ -156,6 +165,21 @@ public class TransmodelAPI {
     return Response.ok().encoding("UTF-8").entity(text).build();
   }
 
+  /**
+   * The query text may be left out if the request contains a persisted query id, see
+   * {@link CachingPreparsedDocumentProvider}.
+   */
+  private static boolean hasQuery(Map<String, Object> queryParameters) {
+    return (
+      queryParameters.containsKey("query") ||
+      CachingPreparsedDocumentProvider.isPersistedQuery(extensions(queryParameters))
+    );
+  }
+
+  private static Map<String, Object> extensions(Map<String, Object> queryParameters) {
+    return queryParameters.get("extensions") instanceof Map extensions ? extensions : Map.of();
+  }
+
   private static Iterable<Tag> getTagsFromHeaders(HttpHeaders headers) {
     return tracingHeaderTags
       .stream()
@@ -7,6 +7,7 @@ import graphql.execution.ExecutionStrategy;
 import graphql.execution.UnknownOperationException;
 import graphql.execution.instrumentation.ChainedInstrumentation;
 import graphql.execution.instrumentation.Instrumentation;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
 import graphql.schema.CoercingParseValueException;
 import graphql.schema.GraphQLSchema;
 import io.micrometer.core.instrument.Metrics;
@@ -35,13 +36,17 @@ class TransmodelGraph {
 
   private static final int MAX_ERROR_TO_RETURN = 25;
   private final GraphQLSchema indexSchema;
+  private final PreparsedDocumentProvider documentCache;
 
   final ExecutorService threadPool;
 
-  TransmodelGraph(GraphQLSchema schema) {
+  TransmodelGraph(GraphQLSchema schema, PreparsedDocumentProvider documentCache) {
     this.threadPool =
-      Executors.newCachedThreadPool(OtpRequestThreadFactory.of("transmodel-api-%d"));
+      OTPFeature.VirtualThreads.isOn()
+        ? Executors.newThreadPerTaskExecutor(OtpRequestThreadFactory.ofVirtual("transmodel-api-"))
+        : Executors.newCachedThreadPool(OtpRequestThreadFactory.of("transmodel-api-%d"));
     this.indexSchema = schema;
+    this.documentCache = documentCache;
   }
 
   Response executeGraphQL(
@@ -49,6 +54,7 @@ class TransmodelGraph {
     OtpServerRequestContext serverContext,
     Map<String, Object> variables,
     String operationName,
+    Map<String, Object> extensions,
     int maxNumberOfResultFields,
     Iterable<Tag> tracingTags
   ) {
@@ -61,6 +67,7 @@ class TransmodelGraph {
         serverContext,
         variables,
         operationName,
+        extensions,
         transmodelRequestContext
       );
       var graphQL = createGraphQL(instrumentation, executionStrategy);
@@ -112,6 +119,7 @@ class TransmodelGraph {
     OtpServerRequestContext serverContext,
     Map<String, Object> variables,
     String operationName,
+    Map<String, Object> extensions,
     TransmodelRequestContext transmodelRequestContext
   ) {
     return ExecutionInput
@@ -121,6 +129,7 @@ class TransmodelGraph {
       .context(transmodelRequestContext)
       .root(serverContext)
       .variables(variables)
+      .extensions(ObjectUtils.ifNotNull(extensions, Map.of()))
       .build();
   }
 
@@ -132,6 +141,7 @@ class TransmodelGraph {
       .newGraphQL(indexSchema)
       .instrumentation(instrumentation)
       .queryExecutionStrategy(executionStrategy)
+      .preparsedDocumentProvider(documentCache)
       .defaultDataFetcherExceptionHandler(new LoggingDataFetcherExceptionHandler())
       .build();
   }
@@ -62,6 +62,7 @@ public class AStar<
     Set<Vertex> toVertices,
     SearchTerminationStrategy<State> terminationStrategy,
     DominanceFunction<State> dominanceFunction,
+    boolean useVertexIndex,
     Duration timeout,
     Collection<State> initialStates
   ) {
@@ -74,7 +75,7 @@ public class AStar<
     this.terminationStrategy = terminationStrategy;
     this.timeout = Objects.requireNonNull(timeout);
 
-    this.spt = new ShortestPathTree<>(dominanceFunction);
+    this.spt = new ShortestPathTree<>(dominanceFunction, useVertexIndex);
 
     // Initialized with a reasonable size, see #4445
     this.pq = new BinHeap<>(1000);
@@ -33,6 +33,7 @@ public abstract class AStarBuilder<
   private Set<Vertex> toVertices;
   private SearchTerminationStrategy<State> terminationStrategy;
   private DominanceFunction<State> dominanceFunction;
+  private boolean useVertexIndex = false;
   private Edge originBackEdge;
   private Collection<State> initialStates;
 
@@ -97,6 +98,17 @@ public abstract class AStarBuilder<
     return builder;
   }
 
+  /**
+   * Store the states in the shortest path tree by vertex index, see
+   * {@link org.opentripplanner.astar.spi.AStarVertex#getIndex()}. This reduces the number of
+   * objects allocated for each visited vertex, and avoid hashing the vertex objects. Use it for
+   * searches performed as part of serving a request, where garbage collection matters.
+   */
+  public Builder setUseVertexIndex(boolean useVertexIndex) {
+    this.useVertexIndex = useVertexIndex;
+    return builder;
+  }
+
   protected abstract Duration streetRoutingTimeout();
 
   public Builder setOriginBackEdge(Edge originBackEdge) {
@@ -147,6 +159,7 @@ public abstract class AStarBuilder<
       destination,
       terminationStrategy,
       Optional.ofNullable(dominanceFunction).orElseGet(this::createDefaultDominanceFunction),
+      useVertexIndex,
       streetRoutingTimeout(),
       initialStates
     );
@@ -2,6 +2,8 @@ package org.opentripplanner.astar.model;
 
 import com.google.common.collect.HashMultiset;
 import com.google.common.collect.Multiset;
+import gnu.trove.map.TIntObjectMap;
+import gnu.trove.map.hash.TIntObjectHashMap;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -11,6 +13,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import javax.annotation.Nullable;
 import org.opentripplanner.astar.spi.AStarEdge;
 import org.opentripplanner.astar.spi.AStarState;
 import org.opentripplanner.astar.spi.AStarVertex;
@@ -33,6 +36,13 @@ import org.slf4j.LoggerFactory;
  * when walking. The turn restriction handling is done in the base dominance function
  * implementation, and applies to all subclasses. It essentially splits each vertex into N vertices
  * depending on the incoming edge being taken.
+ * <p>
+ * If created with {@code useVertexIndex=true} the states of indexed vertices (see
+ * {@link AStarVertex#getIndex()}) are stored in a primitive int keyed hash map instead of an
+ * {@link IdentityHashMap}. A vertex with one state - the common case - keeps the state directly in
+ * the map, the list of states is only created when a vertex get more than one state. This avoids
+ * allocating a list and a map entry for each visited vertex. Vertices without an index, like
+ * temporary vertices, are stored in the identity hash map.
  */
 public class ShortestPathTree<
   State extends AStarState<State, Edge, Vertex>,
@@ -46,13 +56,31 @@ public class ShortestPathTree<
 
   private final Map<Vertex, List<State>> stateSets;
 
+  /**
+   * The states of indexed vertices by vertex index, {@code null} if not used. The value is either
+   * a single {@code State} or a {@code List<State>}.
+   */
+  @Nullable
+  private final TIntObjectMap<Object> indexedStateSets;
+
   /** Indicates that the search timed out or was otherwise aborted. */
   private boolean aborted = false;
 
   public ShortestPathTree(DominanceFunction<State> dominanceFunction) {
+    this(dominanceFunction, false);
+  }
+
+  public ShortestPathTree(DominanceFunction<State> dominanceFunction, boolean useVertexIndex) {
     this.dominanceFunction = dominanceFunction;
-    // Initialized with a reasonable size, see #4445
-    stateSets = new IdentityHashMap<>(10_000);
+    if (useVertexIndex) {
+      // Only temporary vertices are expected to be kept in the map
+      this.stateSets = new IdentityHashMap<>();
+      this.indexedStateSets = new TIntObjectHashMap<>(10_000);
+    } else {
+      // Initialized with a reasonable size, see #4445
+      this.stateSets = new IdentityHashMap<>(10_000);
+      this.indexedStateSets = null;
+    }
   }
 
   /** @return a list of GraphPaths, sometimes empty but never null. */
@@ -85,8 +113,7 @@ public class ShortestPathTree<
     Multiset<Integer> histogram = HashMultiset.create();
     int statesCount = 0;
     int maxSize = 0;
-    for (Map.Entry<Vertex, List<State>> kv : stateSets.entrySet()) {
-      List<State> states = kv.getValue();
+    for (List<State> states : allStateSets()) {
       int size = states.size();
       histogram.add(size);
       statesCount += size;
@@ -94,15 +121,16 @@ public class ShortestPathTree<
         maxSize = size;
       }
     }
+    int vertexCount = getVertexCount();
     LOG.info(
       "SPT: vertices: " +
-      stateSets.size() +
+      vertexCount +
       " states: total: " +
       statesCount +
       " per vertex max: " +
       maxSize +
       " avg: " +
-      (statesCount * 1.0 / stateSets.size())
+      (statesCount * 1.0 / vertexCount)
     );
     List<Integer> nStates = new ArrayList<>(histogram.elementSet());
     Collections.sort(nStates);
@@ -112,7 +140,15 @@ public class ShortestPathTree<
   }
 
   public Set<Vertex> getVertices() {
-    return stateSets.keySet();
+    if (indexedStateSets == null) {
+      return stateSets.keySet();
+    }
+    Set<Vertex> vertices = Collections.newSetFromMap(new IdentityHashMap<>());
+    vertices.addAll(stateSets.keySet());
+    for (List<State> states : allStateSets()) {
+      vertices.add(states.getFirst().getVertex());
+    }
+    return vertices;
   }
 
   /**
@@ -127,6 +163,12 @@ public class ShortestPathTree<
    */
   public boolean add(State newState) {
     Vertex vertex = newState.getVertex();
+    int index = indexedStateSets == null ? -1 : vertex.getIndex();
+
+    if (index >= 0) {
+      return addIndexed(index, newState);
+    }
+
     List<State> states = stateSets.get(vertex);
 
     // if the vertex has no states, add one and return
@@ -136,7 +178,43 @@ public class ShortestPathTree<
       states.add(newState);
       return true;
     }
+    return addToStates(states, newState);
+  }
+
+  private boolean addIndexed(int index, State newState) {
+    Object value = indexedStateSets.get(index);
+
+    // if the vertex has no states, add the state without wrapping it in a list
+    if (value == null) {
+      indexedStateSets.put(index, newState);
+      return true;
+    }
+    if (value instanceof List<?>) {
+      @SuppressWarnings("unchecked")
+      var states = (List<State>) value;
+      return addToStates(states, newState);
+    }
 
+    @SuppressWarnings("unchecked")
+    var oldState = (State) value;
+
+    // order is important, because in the case of a tie we want to reject the new state
+    if (dominanceFunction.betterOrEqualAndComparable(oldState, newState)) {
+      return false;
+    }
+    if (dominanceFunction.betterOrEqualAndComparable(newState, oldState)) {
+      indexedStateSets.put(index, newState);
+      return true;
+    }
+    // the states are co-dominant, keep both
+    var states = new ArrayList<State>(2);
+    states.add(oldState);
+    states.add(newState);
+    indexedStateSets.put(index, states);
+    return true;
+  }
+
+  private boolean addToStates(List<State> states, State newState) {
     // if the vertex has any states that dominate the new state, don't add the state
     // if the new state dominates any old states, remove them
     Iterator<State> it = states.iterator();
@@ -159,12 +237,25 @@ public class ShortestPathTree<
 
   /**
    * Returns the 'best' state for the given Vertex, where 'best' depends on the implementation.
+   * This does not allocate a list for indexed vertices with a single state, use it instead of
+   * {@link #getStates(AStarVertex)} in hot loops.
    *
    * @param dest the vertex of interest
    * @return a 'best' state at that vertex
    */
   public State getState(Vertex dest) {
-    Collection<State> states = stateSets.get(dest);
+    int index = indexedStateSets == null ? -1 : dest.getIndex();
+    Collection<State> states;
+    if (index < 0) {
+      states = stateSets.get(dest);
+    } else {
+      Object value = indexedStateSets.get(index);
+      if (!(value instanceof List<?>)) {
+        State state = (State) value;
+        return state != null && state.isFinal() ? state : null;
+      }
+      states = toStateList(value);
+    }
     if (states == null) {
       return null;
     }
@@ -183,17 +274,26 @@ public class ShortestPathTree<
    * implementation, this could contain a single optimal state, a set of Pareto-optimal states, or
    * even states that are not known to be optimal but are judged interesting by some other
    * criteria.
+   * <p>
+   * For an indexed vertex with a single state a new list is created on every call, use
+   * {@link #getState(AStarVertex)} if only the best state is needed.
    *
    * @param dest the vertex of interest
    * @return a collection of 'interesting' states at that vertex
    */
   public List<State> getStates(Vertex dest) {
-    return stateSets.get(dest);
+    int index = indexedStateSets == null ? -1 : dest.getIndex();
+    if (index < 0) {
+      return stateSets.get(dest);
+    }
+    Object value = indexedStateSets.get(index);
+    return value == null ? null : toStateList(value);
   }
 
   /** @return number of vertices referenced in this SPT */
   public int getVertexCount() {
-    return stateSets.keySet().size();
+    int size = stateSets.size();
+    return indexedStateSets == null ? size : size + indexedStateSets.size();
   }
 
   /**
@@ -221,8 +321,12 @@ public class ShortestPathTree<
    * @return - whether this state is still considered worth visiting.
    */
   public boolean visit(State state) {
+    int index = indexedStateSets == null ? -1 : state.getVertex().getIndex();
+    if (index >= 0 && indexedStateSets.get(index) == state) {
+      return true;
+    }
     boolean ret = false;
-    for (State s : stateSets.get(state.getVertex())) {
+    for (State s : getStates(state.getVertex())) {
       if (s == state) {
         ret = true;
         break;
@@ -237,6 +341,16 @@ public class ShortestPathTree<
     for (List<State> stateSet : stateSets.values()) {
       allStates.addAll(stateSet);
     }
+    if (indexedStateSets != null) {
+      indexedStateSets.forEachValue(value -> {
+        if (value instanceof List<?>) {
+          allStates.addAll(toStateList(value));
+        } else {
+          allStates.add((State) value);
+        }
+        return true;
+      });
+    }
     return allStates;
   }
 
@@ -245,6 +359,24 @@ public class ShortestPathTree<
   }
 
   public String toString() {
-    return "ShortestPathTree(" + this.stateSets.size() + " vertices)";
+    return "ShortestPathTree(" + getVertexCount() + " vertices)";
+  }
+
+  private Collection<List<State>> allStateSets() {
+    if (indexedStateSets == null) {
+      return stateSets.values();
+    }
+    var result = new ArrayList<List<State>>(getVertexCount());
+    result.addAll(stateSets.values());
+    indexedStateSets.forEachValue(value -> {
+      result.add(toStateList(value));
+      return true;
+    });
+    return result;
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<State> toStateList(Object value) {
+    return value instanceof List<?> ? (List<State>) value : List.of((State) value);
   }
 }
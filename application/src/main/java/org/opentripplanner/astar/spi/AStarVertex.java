@@ -16,4 +16,13 @@ public interface AStarVertex<
 
   /** Get a collection containing all the edges leading from other vertices to this vertex. */
   Collection<Edge> getIncoming();
+
+  /**
+   * A unique non-negative index for the vertex, or {@code -1} if the vertex is not indexed. The
+   * index is used to look up the states of the vertex in the shortest path tree without hashing
+   * the vertex object.
+   */
+  default int getIndex() {
+    return -1;
+  }
 }
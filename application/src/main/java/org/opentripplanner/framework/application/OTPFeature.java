@@ -83,6 +83,11 @@ public enum OTPFeature {
     true,
     "Enable the [Transmodel (NeTEx) GraphQL API](apis/TransmodelApi.md)."
   ),
+  VirtualThreads(
+    false,
+    false,
+    "Handle HTTP requests and the parallel parts of the trip planning (see `ParallelRouting`) on virtual threads. The CPU intensive transit search runs on a separate pool with one thread per processor."
+  ),
 
   /* Sandbox extension features - Must be turned OFF by default */
 
@@ -130,6 +135,7 @@ public enum OTPFeature {
   SandboxAPIGeocoder(false, true, "Enable the Geocoder API."),
   SandboxAPIMapboxVectorTilesApi(false, true, "Enable Mapbox vector tiles API."),
   SandboxAPIParkAndRideApi(false, true, "Enable park-and-ride endpoint."),
+  SandboxAPITravelTimeMatrix(false, true, "Enable the stop-to-stop travel time matrix endpoint."),
   Sorlandsbanen(
     false,
     true,
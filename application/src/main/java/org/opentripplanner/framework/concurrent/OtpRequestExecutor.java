@@ -0,0 +1,132 @@
+package org.opentripplanner.framework.concurrent;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.function.Supplier;
+import org.opentripplanner.framework.application.LogMDCSupport;
+import org.opentripplanner.framework.application.OTPFeature;
+import org.opentripplanner.framework.application.OTPRequestTimeoutException;
+
+/**
+ * Run the parallel and the CPU intensive parts of a request. How this is done depends on the
+ * {@link OTPFeature#VirtualThreads} feature:
+ * <ul>
+ *   <li>
+ *     If it is off, parallel tasks run in the common fork-join pool, and CPU intensive tasks run
+ *     in the caller thread. Note! Tasks in the fork-join pool do not get the log context of the
+ *     caller, and they are not interrupted when the request times out.
+ *   </li>
+ *   <li>
+ *     If it is on, parallel tasks run in new virtual threads created with the
+ *     {@link OtpRequestThreadFactory}, and they are interrupted if the caller is interrupted. CPU
+ *     intensive tasks called from a virtual thread run in a fixed pool with one platform thread
+ *     per processor. This bounds the number of concurrent CPU intensive tasks, and prevents them
+ *     from pinning all the carrier threads while other requests wait for I/O.
+ *   </li>
+ * </ul>
+ */
+public final class OtpRequestExecutor {
+
+  private OtpRequestExecutor() {}
+
+  /**
+   * Run the given tasks in parallel and wait for all of them to complete.
+   *
+   * @throws CompletionException if one of the tasks fails, the cause is the exception thrown by
+   *                             the task.
+   * @throws OTPRequestTimeoutException if the caller is interrupted while waiting.
+   */
+  public static void runInParallel(Runnable... tasks) {
+    if (OTPFeature.VirtualThreads.isOn()) {
+      runInVirtualThreads(tasks);
+    } else {
+      CompletableFuture
+        .allOf(
+          Arrays.stream(tasks).map(CompletableFuture::runAsync).toArray(CompletableFuture[]::new)
+        )
+        .join();
+    }
+  }
+
+  /**
+   * Run a CPU intensive task, like the Raptor search, and return the result. If the caller is a
+   * virtual thread, the task runs in the CPU bound pool and the caller waits for it.
+   *
+   * @throws OTPRequestTimeoutException if the caller is interrupted while waiting, the task is
+   *                                    interrupted as well.
+   */
+  public static <T> T runCpuIntensive(Supplier<T> task) {
+    if (!OTPFeature.VirtualThreads.isOn() || !Thread.currentThread().isVirtual()) {
+      return task.get();
+    }
+    var future = new FutureTask<>(task::get);
+    CpuBoundPool.EXECUTOR.execute(
+      LogMDCSupport.isRequestTracingInLoggingEnabled()
+        ? new LogMDCRunnableDecorator(future)
+        : future
+    );
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      future.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new OTPRequestTimeoutException();
+    } catch (ExecutionException e) {
+      throw rethrowCause(e);
+    }
+  }
+
+  private static void runInVirtualThreads(Runnable[] tasks) {
+    List<Callable<Object>> callables = Arrays.stream(tasks).map(Executors::callable).toList();
+    try {
+      // invokeAll waits for all tasks, and cancels the unfinished tasks if interrupted
+      for (Future<Object> it : VirtualThreadPool.EXECUTOR.invokeAll(callables)) {
+        it.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new OTPRequestTimeoutException();
+    } catch (ExecutionException e) {
+      throw new CompletionException(e.getCause());
+    }
+  }
+
+  private static RuntimeException rethrowCause(ExecutionException e) {
+    if (e.getCause() instanceof RuntimeException cause) {
+      throw cause;
+    }
+    if (e.getCause() instanceof Error error) {
+      throw error;
+    }
+    throw new CompletionException(e.getCause());
+  }
+
+  /** Lazy holder, the executor is created the first time it is used. */
+  private static final class VirtualThreadPool {
+
+    private static final ExecutorService EXECUTOR = Executors.newThreadPerTaskExecutor(
+      OtpRequestThreadFactory.ofVirtual("otp-request-")
+    );
+  }
+
+  /**
+   * Lazy holder, the threads are daemon threads so the pool does not need to be shut down. The
+   * log context is set for each task, not by the thread factory, because the threads are reused.
+   */
+  private static final class CpuBoundPool {
+
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(
+      Runtime.getRuntime().availableProcessors(),
+      new ThreadFactoryBuilder().setNameFormat("otp-cpu-bound-%d").setDaemon(true).build()
+    );
+  }
+}
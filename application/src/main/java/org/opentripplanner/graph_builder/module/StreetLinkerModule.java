@@ -3,6 +3,7 @@ package org.opentripplanner.graph_builder.module;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 import org.opentripplanner.framework.application.OTPFeature;
@@ -10,6 +11,7 @@ import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
 import org.opentripplanner.graph_builder.issues.ParkAndRideEntranceRemoved;
 import org.opentripplanner.graph_builder.model.GraphBuilderModule;
 import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.routing.linking.LinkingCandidates;
 import org.opentripplanner.routing.linking.LinkingDirection;
 import org.opentripplanner.service.vehicleparking.VehicleParkingRepository;
 import org.opentripplanner.service.vehicleparking.model.VehicleParking;
@@ -42,12 +44,25 @@ import org.slf4j.LoggerFactory;
  * street network are loaded. It links four things: transit stops, transit entrances, bike rental
  * stations, and bike parks. Therefore, it should be run even when there's no GTFS data present to
  * make bike rental services and bike parks usable.
+ * <p>
+ * Transit stops, entrances and station centroids are linked in batches. The street edges to link
+ * to are searched for in parallel for all vertices in a batch, then the vertices are linked one by
+ * one in the same order as before, see {@link #linkInBatches(List, TraverseModeSet,
+ * ProgressTracker, BiConsumer)}.
  */
 public class StreetLinkerModule implements GraphBuilderModule {
 
   private static final Logger LOG = LoggerFactory.getLogger(StreetLinkerModule.class);
   private static final TraverseModeSet CAR_ONLY = new TraverseModeSet(TraverseMode.CAR);
   private static final TraverseModeSet WALK_ONLY = new TraverseModeSet(TraverseMode.WALK);
+
+  /**
+   * The number of vertices to search for street edges in parallel before linking them. A vertex
+   * needs to search again if one of its edges is split by a vertex linked before it in the same
+   * batch, so the batches should not be too large.
+   */
+  private static final int LINKING_BATCH_SIZE = 1000;
+
   private final Graph graph;
   private final VehicleParkingRepository parkingRepository;
   private final TimetableRepository timetableRepository;
@@ -90,13 +105,13 @@ public class StreetLinkerModule implements GraphBuilderModule {
     var progress = ProgressTracker.track("Linking transit stops to graph", 5000, vertices.size());
     LOG.info(progress.startMessage());
 
-    Set<StopLocation> stopLocationsUsedForFlexTrips = Set.of();
-    if (OTPFeature.FlexRouting.isOn()) {
-      stopLocationsUsedForFlexTrips = getStopLocationsUsedForFlexTrips(timetableRepository);
-    }
+    Set<StopLocation> stopLocationsUsedForFlexTrips = OTPFeature.FlexRouting.isOn()
+      ? getStopLocationsUsedForFlexTrips(timetableRepository)
+      : Set.of();
 
     Set<StopLocation> stopLocationsUsedForCarsAllowedTrips = timetableRepository.getStopLocationsUsedForCarsAllowedTrips();
 
+    List<TransitStopVertex> stopsToLink = new ArrayList<>();
     for (TransitStopVertex tStop : vertices) {
       // Stops with pathways do not need to be connected to the street network, since there are explicit entrances defined for that
       if (tStop.hasPathways()) {
@@ -106,25 +121,61 @@ public class StreetLinkerModule implements GraphBuilderModule {
       if (isAlreadyLinked(tStop, stopLocationsUsedForFlexTrips)) {
         continue;
       }
+      stopsToLink.add(tStop);
+    }
 
-      // ordinarily stops only need to be accessible by foot
-      StopLinkType linkType = StopLinkType.WALK_ONLY;
+    linkInBatches(
+      stopsToLink,
+      WALK_ONLY,
+      progress,
+      (tStop, candidates) -> {
+        // ordinarily stops only need to be accessible by foot
+        StopLinkType linkType = StopLinkType.WALK_ONLY;
+
+        if (
+          (
+            OTPFeature.FlexRouting.isOn() &&
+            stopLocationsUsedForFlexTrips.contains(tStop.getStop())
+          ) ||
+          stopLocationsUsedForCarsAllowedTrips.contains(tStop.getStop())
+        ) {
+          linkType = StopLinkType.WALK_AND_CAR;
+        }
 
-      if (
-        (
-          OTPFeature.FlexRouting.isOn() && stopLocationsUsedForFlexTrips.contains(tStop.getStop())
-        ) ||
-        stopLocationsUsedForCarsAllowedTrips.contains(tStop.getStop())
-      ) {
-        linkType = StopLinkType.WALK_AND_CAR;
+        linkStopToStreetNetwork(tStop, candidates, linkType);
       }
+    );
+    LOG.info(progress.completeMessage());
+  }
+
+  /**
+   * Link the given vertices in the given order. The street edges to link each vertex to are
+   * searched for in parallel for a batch of vertices, without modifying the graph. Then the
+   * vertices in the batch are linked one by one, using the edges found. If an edge is split by a
+   * vertex linked before, the vertex searches again. So the result is the same as linking the
+   * vertices one by one.
+   */
+  private <T extends Vertex> void linkInBatches(
+    List<T> vertices,
+    TraverseModeSet traverseModes,
+    ProgressTracker progress,
+    BiConsumer<T, LinkingCandidates> linkVertex
+  ) {
+    var linker = graph.getLinker();
+
+    for (int start = 0; start < vertices.size(); start += LINKING_BATCH_SIZE) {
+      var batch = vertices.subList(start, Math.min(start + LINKING_BATCH_SIZE, vertices.size()));
 
-      linkStopToStreetNetwork(tStop, linkType);
+      List<LinkingCandidates> candidates = batch
+        .parallelStream()
+        .map(v -> linker.findPermanentLinkingCandidates(v, traverseModes))
+        .toList();
 
-      //noinspection Convert2MethodRef
-      progress.step(m -> LOG.info(m));
+      for (int i = 0; i < batch.size(); ++i) {
+        linkVertex.accept(batch.get(i), candidates.get(i));
+        progress.step(LOG::info);
+      }
     }
-    LOG.info(progress.completeMessage());
   }
 
   /**
@@ -154,12 +205,15 @@ public class StreetLinkerModule implements GraphBuilderModule {
    * car-accessible. Therefore, flex stops are ensured to be connected to the car-accessible
    * edge. This may lead to several links being created.
    */
-  private void linkStopToStreetNetwork(TransitStopVertex tStop, StopLinkType linkType) {
+  private void linkStopToStreetNetwork(
+    TransitStopVertex tStop,
+    LinkingCandidates candidates,
+    StopLinkType linkType
+  ) {
     graph
       .getLinker()
       .linkVertexPermanently(
-        tStop,
-        WALK_ONLY,
+        candidates,
         LinkingDirection.BOTH_WAYS,
         (transitVertex, streetVertex) -> {
           var linkEdges = createStopLinkEdges((TransitStopVertex) transitVertex, streetVertex);
@@ -251,27 +305,38 @@ public class StreetLinkerModule implements GraphBuilderModule {
   }
 
   private void linkTransitEntrances(Graph graph) {
-    LOG.info("Linking transit entrances to graph...");
-    for (TransitEntranceVertex tEntrance : graph.getVerticesOfType(TransitEntranceVertex.class)) {
-      graph
-        .getLinker()
-        .linkVertexPermanently(
-          tEntrance,
-          new TraverseModeSet(TraverseMode.WALK),
-          LinkingDirection.BOTH_WAYS,
-          (vertex, streetVertex) ->
-            List.of(
-              StreetTransitEntranceLink.createStreetTransitEntranceLink(
-                (TransitEntranceVertex) vertex,
-                streetVertex
-              ),
-              StreetTransitEntranceLink.createStreetTransitEntranceLink(
-                streetVertex,
-                (TransitEntranceVertex) vertex
+    List<TransitEntranceVertex> vertices = graph.getVerticesOfType(TransitEntranceVertex.class);
+    var progress = ProgressTracker.track(
+      "Linking transit entrances to graph",
+      5000,
+      vertices.size()
+    );
+    LOG.info(progress.startMessage());
+
+    linkInBatches(
+      vertices,
+      WALK_ONLY,
+      progress,
+      (tEntrance, candidates) ->
+        graph
+          .getLinker()
+          .linkVertexPermanently(
+            candidates,
+            LinkingDirection.BOTH_WAYS,
+            (vertex, streetVertex) ->
+              List.of(
+                StreetTransitEntranceLink.createStreetTransitEntranceLink(
+                  (TransitEntranceVertex) vertex,
+                  streetVertex
+                ),
+                StreetTransitEntranceLink.createStreetTransitEntranceLink(
+                  streetVertex,
+                  (TransitEntranceVertex) vertex
+                )
               )
-            )
-        );
-    }
+          )
+    );
+    LOG.info(progress.completeMessage());
   }
 
   private void linkStationCentroids(Graph graph) {
@@ -290,16 +355,28 @@ public class StreetLinkerModule implements GraphBuilderModule {
         )
       );
 
-    for (StationCentroidVertex station : graph.getVerticesOfType(StationCentroidVertex.class)) {
-      graph
-        .getLinker()
-        .linkVertexPermanently(
-          station,
-          new TraverseModeSet(TraverseMode.WALK),
-          LinkingDirection.BOTH_WAYS,
-          stationAndStreetVertexLinker
-        );
-    }
+    List<StationCentroidVertex> vertices = graph.getVerticesOfType(StationCentroidVertex.class);
+    var progress = ProgressTracker.track(
+      "Linking station centroids to graph",
+      5000,
+      vertices.size()
+    );
+    LOG.info(progress.startMessage());
+
+    linkInBatches(
+      vertices,
+      WALK_ONLY,
+      progress,
+      (station, candidates) ->
+        graph
+          .getLinker()
+          .linkVertexPermanently(
+            candidates,
+            LinkingDirection.BOTH_WAYS,
+            stationAndStreetVertexLinker
+          )
+    );
+    LOG.info(progress.completeMessage());
   }
 
   private void linkVehicleParks(Graph graph, DataImportIssueStore issueStore) {
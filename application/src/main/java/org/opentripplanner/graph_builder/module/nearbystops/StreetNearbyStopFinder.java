@@ -123,6 +123,7 @@ public class StreetNearbyStopFinder implements NearbyStopFinder {
       .of()
       .setSkipEdgeStrategy(new DurationSkipEdgeStrategy<>(durationLimit))
       .setDominanceFunction(new DominanceFunctions.MinimumWeight())
+      .setUseVertexIndex(true)
       .setRequest(request)
       .setArriveBy(reverseDirection)
       .setStreetRequest(streetRequest)
@@ -2,17 +2,23 @@ package org.opentripplanner.gtfs.graphbuilder;
 
 import static org.opentripplanner.utils.color.ColorUtils.computeBrightness;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.awt.Color;
 import java.io.IOException;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.onebusaway.csv_entities.EntityHandler;
-import org.onebusaway.gtfs.impl.GtfsRelationalDaoImpl;
 import org.onebusaway.gtfs.model.Agency;
 import org.onebusaway.gtfs.model.Area;
 import org.onebusaway.gtfs.model.FareAttribute;
@@ -29,6 +35,7 @@ import org.onebusaway.gtfs.model.ServiceCalendarDate;
 import org.onebusaway.gtfs.model.ShapePoint;
 import org.onebusaway.gtfs.model.Stop;
 import org.onebusaway.gtfs.model.StopAreaElement;
+import org.onebusaway.gtfs.model.StopTime;
 import org.onebusaway.gtfs.model.Trip;
 import org.onebusaway.gtfs.serialization.GtfsReader;
 import org.onebusaway.gtfs.services.GenericMutableDao;
@@ -59,6 +66,15 @@ import org.opentripplanner.utils.color.Brightness;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Load the GTFS bundles and add the transit data to the graph.
+ * <p>
+ * The next bundle is read while the current bundle is mapped into the OTP model and merged into
+ * the graph and the {@link TimetableRepository}. The mapping happens on the calling thread, one
+ * bundle at the time in the configured order. The stop indexes
+ * and the deduplicated values are assigned during this step, so the result does not depend on
+ * which bundle is read first.
+ */
 public class GtfsModule implements GraphBuilderModule {
 
   public static final Set<Class<?>> FARES_V2_CLASSES = Set.of(
@@ -72,7 +88,18 @@ public class GtfsModule implements GraphBuilderModule {
   );
 
   private static final Logger LOG = LoggerFactory.getLogger(GtfsModule.class);
-  private final EntityHandler counter = new EntityCounter();
+
+  /**
+   * The number of bundles read ahead of the bundle being mapped. A loaded bundle may use a lot of
+   * memory, so this is kept low to limit the peak memory used by the graph build.
+   */
+  private static final int MAX_BUNDLES_READ_AHEAD = 1;
+
+  /**
+   * The agency ids are resolved in the order the bundles are configured. The bundles are read in
+   * parallel, so these are only accessed after the agencies of the previous bundle are resolved,
+   * see {@link #loadBundle(GtfsBundle, CompletableFuture, CompletableFuture)}.
+   */
   private final Set<String> agencyIdsSeen = new HashSet<>();
   /**
    * @see BuildConfig#transitServiceStart
@@ -127,9 +154,29 @@ public class GtfsModule implements GraphBuilderModule {
 
     Map<String, GtfsBundle> feedIdsEncountered = new HashMap<>();
 
+    int nBundlesInMemory = 1 + MAX_BUNDLES_READ_AHEAD;
+    ExecutorService executor = Executors.newFixedThreadPool(
+      Math.max(1, Math.min(gtfsBundles.size(), nBundlesInMemory)),
+      new ThreadFactoryBuilder().setNameFormat("gtfs-reader-%d").build()
+    );
+    List<Future<GtfsMutableRelationalDao>> loadedBundles = new ArrayList<>();
+    CompletableFuture<Void> agenciesResolved = CompletableFuture.completedFuture(null);
+
     try {
-      for (GtfsBundle gtfsBundle : gtfsBundles) {
-        GtfsMutableRelationalDao gtfsDao = loadBundle(gtfsBundle);
+      for (int i = 0; i < gtfsBundles.size(); i++) {
+        // Read ahead, but keep no more than MAX_BUNDLES_READ_AHEAD bundles waiting to be mapped
+        while (loadedBundles.size() < Math.min(gtfsBundles.size(), i + nBundlesInMemory)) {
+          var bundle = gtfsBundles.get(loadedBundles.size());
+          var previous = agenciesResolved;
+          var resolved = new CompletableFuture<Void>();
+          agenciesResolved = resolved;
+          loadedBundles.add(executor.submit(() -> loadBundle(bundle, previous, resolved)));
+        }
+
+        GtfsBundle gtfsBundle = gtfsBundles.get(i);
+        GtfsMutableRelationalDao gtfsDao = awaitBundle(loadedBundles.get(i));
+        // Release the bundle, it is not needed after it is mapped
+        loadedBundles.set(i, null);
 
         final String feedId = gtfsBundle.getFeedId().getId();
         verifyUniqueFeedId(gtfsBundle, feedIdsEncountered, feedId);
@@ -145,6 +192,8 @@ public class GtfsModule implements GraphBuilderModule {
           gtfsBundle.stationTransferPreference()
         );
         mapper.mapStopTripAndRouteDataIntoBuilder();
+        // The stop times are mapped into the builder, release the GTFS stop times
+        gtfsDao.clearAllEntitiesForType(StopTime.class);
 
         OtpTransitServiceBuilder builder = mapper.getBuilder();
         var fareRulesService = mapper.getFareRulesService();
@@ -206,6 +255,7 @@ public class GtfsModule implements GraphBuilderModule {
     } catch (IOException e) {
       throw new RuntimeException(e);
     } finally {
+      executor.shutdownNow();
       // Note the close method of each bundle should NOT throw an exception, so this
       // code should be safe without the try/catch block.
       gtfsBundles.forEach(GtfsBundle::close);
@@ -309,8 +359,56 @@ public class GtfsModule implements GraphBuilderModule {
     );
   }
 
-  private GtfsMutableRelationalDao loadBundle(GtfsBundle gtfsBundle) throws IOException {
-    StoreImpl store = new StoreImpl(new GtfsRelationalDaoImpl());
+  /**
+   * Wait for a bundle to be read and rethrow the exception thrown while reading it, if any.
+   */
+  private static GtfsMutableRelationalDao awaitBundle(Future<GtfsMutableRelationalDao> bundle)
+    throws IOException {
+    try {
+      return bundle.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException ioe) {
+        throw ioe;
+      }
+      if (e.getCause() instanceof RuntimeException re) {
+        throw re;
+      }
+      throw new RuntimeException(e.getCause());
+    }
+  }
+
+  /**
+   * Read a bundle. This is called in parallel for several bundles. The agency ids are the only
+   * state shared between the bundles, they are resolved after the agencies of the previous bundle
+   * are resolved. This way the generated agency ids are the same as if the bundles were read one
+   * by one.
+   *
+   * @param previousAgenciesResolved completed when the agency ids of the previous bundle are
+   *                                 resolved.
+   * @param agenciesResolved         completed by this method when the agency ids of this bundle
+   *                                 are resolved, or if reading the bundle fails.
+   */
+  private GtfsMutableRelationalDao loadBundle(
+    GtfsBundle gtfsBundle,
+    CompletableFuture<Void> previousAgenciesResolved,
+    CompletableFuture<Void> agenciesResolved
+  ) throws IOException {
+    try {
+      return readBundle(gtfsBundle, previousAgenciesResolved, agenciesResolved);
+    } finally {
+      agenciesResolved.complete(null);
+    }
+  }
+
+  private GtfsMutableRelationalDao readBundle(
+    GtfsBundle gtfsBundle,
+    CompletableFuture<Void> previousAgenciesResolved,
+    CompletableFuture<Void> agenciesResolved
+  ) throws IOException {
+    StoreImpl store = new StoreImpl(new PackedStopTimesGtfsDao());
     store.open();
     LOG.info("reading {}", gtfsBundle.toString());
 
@@ -322,7 +420,7 @@ public class GtfsModule implements GraphBuilderModule {
     reader.setInternStrings(true);
     reader.setDefaultAgencyId(gtfsFeedId.getId());
 
-    if (LOG.isDebugEnabled()) reader.addEntityHandler(counter);
+    if (LOG.isDebugEnabled()) reader.addEntityHandler(new EntityCounter());
 
     for (Class<?> entityClass : reader.getEntityClasses()) {
       if (skipEntityClass(entityClass)) {
@@ -336,6 +434,7 @@ public class GtfsModule implements GraphBuilderModule {
       // set the agencyId here. Each feed ("bundle") is loaded by a separate reader, so there is no risk of
       // agency mappings accumulating.
       if (entityClass == Agency.class) {
+        previousAgenciesResolved.join();
         for (Agency agency : reader.getAgencies()) {
           String agencyId = agency.getId();
           LOG.info("This Agency has the ID {}", agencyId);
@@ -359,6 +458,7 @@ public class GtfsModule implements GraphBuilderModule {
           }
           if (agencyId != null) agencyIdsSeen.add(gtfsFeedId.getId() + agencyId);
         }
+        agenciesResolved.complete(null);
       }
     }
 
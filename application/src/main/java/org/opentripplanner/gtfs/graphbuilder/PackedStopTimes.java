@@ -0,0 +1,187 @@
+package org.opentripplanner.gtfs.graphbuilder;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.IntFunction;
+import org.onebusaway.gtfs.model.BookingRule;
+import org.onebusaway.gtfs.model.StopLocation;
+import org.onebusaway.gtfs.model.StopTime;
+import org.onebusaway.gtfs.model.Trip;
+
+/**
+ * The GTFS stop times of a feed stored in one array per field, instead of one object per stop
+ * time. Large feeds have hundreds of millions of stop times, and the object and map entry
+ * overhead of keeping these as entities in the GTFS DAO makes up a large part of the memory used
+ * to build the graph.
+ * <p>
+ * Only the fields used by the OTP {@code StopTimeMapper} are kept. The iterator creates a new
+ * {@link StopTime} for each element, the caller should map it and drop the reference. The stop
+ * times are returned in the order they are added, which is the order in the {@code stop_times.txt}
+ * file.
+ * <p>
+ * THIS CLASS IS NOT THREAD-SAFE.
+ */
+class PackedStopTimes extends AbstractCollection<StopTime> {
+
+  private static final int INITIAL_CAPACITY = 1024;
+
+  private int size = 0;
+
+  private Trip[] trips;
+  private StopLocation[] stops;
+  private StopLocation[] locations;
+  private StopLocation[] locationGroups;
+  private int[] arrivalTimes;
+  private int[] departureTimes;
+  private int[] timepoints;
+  private int[] stopSequences;
+  private String[] stopHeadsigns;
+  private String[] routeShortNames;
+  private int[] pickupTypes;
+  private int[] dropOffTypes;
+  private double[] shapeDistTraveled;
+  private String[] farePeriodIds;
+  private int[] startPickupDropOffWindows;
+  private int[] endPickupDropOffWindows;
+  private int[] continuousPickups;
+  private int[] continuousDropOffs;
+  private BookingRule[] pickupBookingRules;
+  private BookingRule[] dropOffBookingRules;
+
+  PackedStopTimes() {
+    setCapacity(INITIAL_CAPACITY);
+  }
+
+  @Override
+  public boolean add(StopTime stopTime) {
+    if (size == trips.length) {
+      setCapacity(Math.max(INITIAL_CAPACITY, size + (size >> 1)));
+    }
+    int i = size++;
+    trips[i] = stopTime.getTrip();
+    stops[i] = stopTime.getStop();
+    locations[i] = stopTime.getLocation();
+    locationGroups[i] = stopTime.getLocationGroup();
+    arrivalTimes[i] = stopTime.getArrivalTime();
+    departureTimes[i] = stopTime.getDepartureTime();
+    timepoints[i] = stopTime.getTimepoint();
+    stopSequences[i] = stopTime.getStopSequence();
+    stopHeadsigns[i] = stopTime.getStopHeadsign();
+    routeShortNames[i] = stopTime.getRouteShortName();
+    pickupTypes[i] = stopTime.getPickupType();
+    dropOffTypes[i] = stopTime.getDropOffType();
+    shapeDistTraveled[i] = stopTime.getShapeDistTraveled();
+    farePeriodIds[i] = stopTime.getFarePeriodId();
+    startPickupDropOffWindows[i] = stopTime.getStartPickupDropOffWindow();
+    endPickupDropOffWindows[i] = stopTime.getEndPickupDropOffWindow();
+    continuousPickups[i] = stopTime.getContinuousPickup();
+    continuousDropOffs[i] = stopTime.getContinuousDropOff();
+    pickupBookingRules[i] = stopTime.getPickupBookingRule();
+    dropOffBookingRules[i] = stopTime.getDropOffBookingRule();
+    return true;
+  }
+
+  @Override
+  public Iterator<StopTime> iterator() {
+    return new Iterator<>() {
+      private int index = 0;
+
+      @Override
+      public boolean hasNext() {
+        return index < size;
+      }
+
+      @Override
+      public StopTime next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        return get(index++);
+      }
+    };
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Remove all stop times and release the memory used.
+   */
+  @Override
+  public void clear() {
+    size = 0;
+    setCapacity(0);
+  }
+
+  /**
+   * Release the memory not used, call this when all stop times are added.
+   */
+  void trimToSize() {
+    setCapacity(size);
+  }
+
+  private StopTime get(int i) {
+    var stopTime = new StopTime();
+    // The ids are generated by the DAO, the stop times need unique ids to be used as map keys
+    stopTime.setId(i + 1);
+    stopTime.setTrip(trips[i]);
+    stopTime.setStop(stops[i]);
+    stopTime.setLocation(locations[i]);
+    stopTime.setLocationGroup(locationGroups[i]);
+    stopTime.setArrivalTime(arrivalTimes[i]);
+    stopTime.setDepartureTime(departureTimes[i]);
+    stopTime.setTimepoint(timepoints[i]);
+    stopTime.setStopSequence(stopSequences[i]);
+    stopTime.setStopHeadsign(stopHeadsigns[i]);
+    stopTime.setRouteShortName(routeShortNames[i]);
+    stopTime.setPickupType(pickupTypes[i]);
+    stopTime.setDropOffType(dropOffTypes[i]);
+    stopTime.setShapeDistTraveled(shapeDistTraveled[i]);
+    stopTime.setFarePeriodId(farePeriodIds[i]);
+    stopTime.setStartPickupDropOffWindow(startPickupDropOffWindows[i]);
+    stopTime.setEndPickupDropOffWindow(endPickupDropOffWindows[i]);
+    stopTime.setContinuousPickup(continuousPickups[i]);
+    stopTime.setContinuousDropOff(continuousDropOffs[i]);
+    stopTime.setPickupBookingRule(pickupBookingRules[i]);
+    stopTime.setDropOffBookingRule(dropOffBookingRules[i]);
+    return stopTime;
+  }
+
+  private void setCapacity(int capacity) {
+    trips = copyOf(trips, capacity, Trip[]::new);
+    stops = copyOf(stops, capacity, StopLocation[]::new);
+    locations = copyOf(locations, capacity, StopLocation[]::new);
+    locationGroups = copyOf(locationGroups, capacity, StopLocation[]::new);
+    arrivalTimes = copyOf(arrivalTimes, capacity);
+    departureTimes = copyOf(departureTimes, capacity);
+    timepoints = copyOf(timepoints, capacity);
+    stopSequences = copyOf(stopSequences, capacity);
+    stopHeadsigns = copyOf(stopHeadsigns, capacity, String[]::new);
+    routeShortNames = copyOf(routeShortNames, capacity, String[]::new);
+    pickupTypes = copyOf(pickupTypes, capacity);
+    dropOffTypes = copyOf(dropOffTypes, capacity);
+    shapeDistTraveled =
+      shapeDistTraveled == null
+        ? new double[capacity]
+        : Arrays.copyOf(shapeDistTraveled, capacity);
+    farePeriodIds = copyOf(farePeriodIds, capacity, String[]::new);
+    startPickupDropOffWindows = copyOf(startPickupDropOffWindows, capacity);
+    endPickupDropOffWindows = copyOf(endPickupDropOffWindows, capacity);
+    continuousPickups = copyOf(continuousPickups, capacity);
+    continuousDropOffs = copyOf(continuousDropOffs, capacity);
+    pickupBookingRules = copyOf(pickupBookingRules, capacity, BookingRule[]::new);
+    dropOffBookingRules = copyOf(dropOffBookingRules, capacity, BookingRule[]::new);
+  }
+
+  private static int[] copyOf(int[] values, int capacity) {
+    return values == null ? new int[capacity] : Arrays.copyOf(values, capacity);
+  }
+
+  private static <T> T[] copyOf(T[] values, int capacity, IntFunction<T[]> newArray) {
+    return values == null ? newArray.apply(capacity) : Arrays.copyOf(values, capacity);
+  }
+}
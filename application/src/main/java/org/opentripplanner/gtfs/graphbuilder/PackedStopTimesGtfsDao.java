@@ -0,0 +1,54 @@
+package org.opentripplanner.gtfs.graphbuilder;
+
+import java.util.Collection;
+import org.onebusaway.gtfs.impl.GtfsRelationalDaoImpl;
+import org.onebusaway.gtfs.model.StopTime;
+
+/**
+ * A GTFS DAO keeping the stop times in a {@link PackedStopTimes}, instead of as one entity per
+ * stop time. The stop times are the largest part of a GTFS feed, and this reduces the memory used
+ * to read it. The other entities are stored as in the {@link GtfsRelationalDaoImpl}.
+ * <p>
+ * The stop times are mapped into the OTP model once, use
+ * {@code clearAllEntitiesForType(StopTime.class)} to release them after that.
+ */
+class PackedStopTimesGtfsDao extends GtfsRelationalDaoImpl {
+
+  private final PackedStopTimes stopTimes = new PackedStopTimes();
+
+  @Override
+  public void saveEntity(Object entity) {
+    if (entity instanceof StopTime stopTime) {
+      stopTimes.add(stopTime);
+    } else {
+      super.saveEntity(entity);
+    }
+  }
+
+  @Override
+  public Collection<StopTime> getAllStopTimes() {
+    return stopTimes;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> Collection<T> getAllEntitiesForType(Class<T> type) {
+    return type == StopTime.class ? (Collection<T>) stopTimes : super.getAllEntitiesForType(type);
+  }
+
+  @Override
+  public <T> void clearAllEntitiesForType(Class<T> type) {
+    if (type == StopTime.class) {
+      stopTimes.clear();
+      clearAllCaches();
+    } else {
+      super.clearAllEntitiesForType(type);
+    }
+  }
+
+  @Override
+  public void close() {
+    stopTimes.trimToSize();
+    super.close();
+  }
+}
@@ -45,8 +45,12 @@ class StopTimeMapper {
     this.translationHelper = translationHelper;
   }
 
+  /**
+   * Map all stop times of a feed. The result is not cached, each stop time is mapped once, and
+   * caching it would keep all GTFS stop times in memory until the mapping of the feed is done.
+   */
   Collection<StopTime> map(Collection<org.onebusaway.gtfs.model.StopTime> times) {
-    return MapUtils.mapToList(times, this::map);
+    return MapUtils.mapToList(times, this::doMap);
   }
 
   /** Map from GTFS to OTP model, {@code null} safe. */
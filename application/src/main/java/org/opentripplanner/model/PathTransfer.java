@@ -3,8 +3,10 @@ package org.opentripplanner.model;
 import java.io.Serializable;
 import java.util.EnumSet;
 import java.util.List;
+import javax.annotation.Nullable;
 import org.opentripplanner.model.transfer.ConstrainedTransfer;
 import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.street.model.edge.CompactEdgePath;
 import org.opentripplanner.street.model.edge.Edge;
 import org.opentripplanner.transit.model.site.StopLocation;
 import org.opentripplanner.utils.tostring.ToStringBuilder;
@@ -13,6 +15,9 @@ import org.opentripplanner.utils.tostring.ToStringBuilder;
  * Represents a transfer for a set of modes between stops with the street network path attached to it.
  * <p>
  * Do not confuse this with {@link ConstrainedTransfer}.
+ * <p>
+ * There are a lot of transfers in a big graph, so the street path is stored as a
+ * {@link CompactEdgePath} and only resolved when it is used.
  *
  * <p>
  * TODO Should we just store the NearbyStop as a field here, or even switch to using it instead
@@ -26,7 +31,8 @@ public class PathTransfer implements Serializable {
 
   private final double distanceMeters;
 
-  private final List<Edge> edges;
+  @Nullable
+  private final CompactEdgePath edges;
 
   private final EnumSet<StreetMode> modes;
 
@@ -34,7 +40,17 @@ public class PathTransfer implements Serializable {
     StopLocation from,
     StopLocation to,
     double distanceMeters,
-    List<Edge> edges,
+    @Nullable List<Edge> edges,
+    EnumSet<StreetMode> modes
+  ) {
+    this(from, to, distanceMeters, CompactEdgePath.of(edges), modes);
+  }
+
+  private PathTransfer(
+    StopLocation from,
+    StopLocation to,
+    double distanceMeters,
+    @Nullable CompactEdgePath edges,
     EnumSet<StreetMode> modes
   ) {
     this.from = from;
@@ -52,7 +68,16 @@ public class PathTransfer implements Serializable {
     return distanceMeters;
   }
 
+  /**
+   * Resolve the edges of the street path, {@code null} if the transfer has no street path.
+   */
+  @Nullable
   public List<Edge> getEdges() {
+    return edges == null ? null : edges.edges();
+  }
+
+  @Nullable
+  public CompactEdgePath getEdgePath() {
     return edges;
   }
 
@@ -74,7 +99,7 @@ public class PathTransfer implements Serializable {
       .addObj("from", from)
       .addObj("to", to)
       .addNum("distance", distanceMeters)
-      .addColSize("edges", edges)
+      .addNum("edges", edges == null ? null : edges.size())
       .addColSize("modes", modes)
       .toString();
   }
@@ -62,6 +62,9 @@ public class Timetable implements Serializable {
   @Nullable
   private final LocalDate serviceDate;
 
+  /** Created on the first departure query, see {@link #getDepartureIndex()}. */
+  private transient volatile TimetableDepartureIndex departureIndex;
+
   Timetable(TimetableBuilder timetableBuilder) {
     this.pattern = timetableBuilder.getPattern();
     this.serviceDate = timetableBuilder.getServiceDate();
@@ -406,6 +409,19 @@ public class Timetable implements Serializable {
     return tripTimes;
   }
 
+  /**
+   * The trip times sorted by departure time at each stop position, used to find the next
+   * departures from a stop without visiting all the trips.
+   */
+  public TimetableDepartureIndex getDepartureIndex() {
+    var index = departureIndex;
+    if (index == null) {
+      index = new TimetableDepartureIndex(tripTimes);
+      departureIndex = index;
+    }
+    return index;
+  }
+
   /**
    * Contains one FrequencyEntry object for each block of frequency-based trips.
    */
@@ -0,0 +1,129 @@
+package org.opentripplanner.model;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.IntStream;
+import org.opentripplanner.transit.model.timetable.TripTimes;
+
+/**
+ * The trips of a {@link Timetable} sorted by the departure time at each stop position. The trip
+ * times of a timetable are sorted by the departure at the first stop, but trips may overtake each
+ * other, and real-time updates may change the order. With this index the next departures after a
+ * given time can be found with a binary search, instead of visiting all the trips.
+ * <p>
+ * The index of a stop position is created the first time the stop position is queried. A
+ * timetable is never changed after it is created, the {@link TimetableSnapshot} replaces it with
+ * an updated copy. So the index is valid for the lifetime of the timetable it belongs to.
+ * <p>
+ * THREAD SAFETY - The index is safe to use from several threads. Two threads may create the index
+ * for the same stop position, in this case the first one is kept.
+ */
+public class TimetableDepartureIndex {
+
+  private final List<TripTimes> tripTimes;
+  private final AtomicReferenceArray<StopPositionDepartures> stopPositions;
+
+  TimetableDepartureIndex(List<TripTimes> tripTimes) {
+    this.tripTimes = tripTimes;
+    int numberOfStops = tripTimes.isEmpty() ? 0 : tripTimes.getFirst().getNumStops();
+    this.stopPositions = new AtomicReferenceArray<>(numberOfStops);
+  }
+
+  /**
+   * Return the departures of all the trips at the given stop position, sorted by departure time.
+   */
+  public StopPositionDepartures departuresAt(int stopPosition) {
+    if (stopPosition >= stopPositions.length()) {
+      return StopPositionDepartures.EMPTY;
+    }
+    var departures = stopPositions.get(stopPosition);
+    if (departures == null) {
+      departures = StopPositionDepartures.create(tripTimes, stopPosition);
+      if (!stopPositions.compareAndSet(stopPosition, null, departures)) {
+        departures = stopPositions.get(stopPosition);
+      }
+    }
+    return departures;
+  }
+
+  /**
+   * The departure times at one stop position in increasing order, and the index of the trip times
+   * in the timetable for each departure.
+   */
+  public static final class StopPositionDepartures {
+
+    private static final StopPositionDepartures EMPTY = new StopPositionDepartures(
+      new int[0],
+      new int[0],
+      0
+    );
+
+    private final int[] departureTimes;
+    private final int[] tripIndexes;
+    private final int maxDwellTime;
+
+    private StopPositionDepartures(int[] departureTimes, int[] tripIndexes, int maxDwellTime) {
+      this.departureTimes = departureTimes;
+      this.tripIndexes = tripIndexes;
+      this.maxDwellTime = maxDwellTime;
+    }
+
+    private static StopPositionDepartures create(List<TripTimes> tripTimes, int stopPosition) {
+      int[] tripIndexes = IntStream
+        .range(0, tripTimes.size())
+        .boxed()
+        .sorted(Comparator.comparingInt(i -> tripTimes.get(i).getDepartureTime(stopPosition)))
+        .mapToInt(Integer::intValue)
+        .toArray();
+
+      int[] departureTimes = new int[tripIndexes.length];
+      int maxDwellTime = 0;
+      for (int i = 0; i < tripIndexes.length; ++i) {
+        var t = tripTimes.get(tripIndexes[i]);
+        departureTimes[i] = t.getDepartureTime(stopPosition);
+        maxDwellTime = Math.max(maxDwellTime, departureTimes[i] - t.getArrivalTime(stopPosition));
+      }
+      return new StopPositionDepartures(departureTimes, tripIndexes, maxDwellTime);
+    }
+
+    public int size() {
+      return departureTimes.length;
+    }
+
+    /**
+     * Return the position of the first departure at or after the given time, or {@link #size()}
+     * if there is none.
+     */
+    public int indexOfFirstDepartureAtOrAfter(int time) {
+      int low = 0;
+      int high = departureTimes.length;
+      while (low < high) {
+        int mid = (low + high) >>> 1;
+        if (departureTimes[mid] < time) {
+          low = mid + 1;
+        } else {
+          high = mid;
+        }
+      }
+      return low;
+    }
+
+    public int departureTime(int index) {
+      return departureTimes[index];
+    }
+
+    /** The index of the trip times of the departure in {@link Timetable#getTripTimes()}. */
+    public int tripIndex(int index) {
+      return tripIndexes[index];
+    }
+
+    /**
+     * The longest time between arrival and departure of all the trips at the stop position. A trip
+     * departing later than {@code t + maxDwellTime()} arrives after {@code t}.
+     */
+    public int maxDwellTime() {
+      return maxDwellTime;
+    }
+  }
+}
@@ -0,0 +1,243 @@
+package org.opentripplanner.osm;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import crosby.binary.Fileformat;
+import crosby.binary.Osmformat;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import javax.annotation.Nullable;
+
+/**
+ * Reads the blocks of an OpenStreetMap PBF file and passes them to the parser in file order. The
+ * blocks are inflated and decoded on a pool of worker threads, while the parser is only called
+ * from the reading thread. So, the entities are added to the database in the same order as when
+ * the file is read on one thread.
+ * <p>
+ * The file is read once for each {@link OsmParserPhase}. The entity types in each block are
+ * recorded the first time the block is decoded, and in the following phases the blocks without
+ * any entities of the phase are skipped without inflating them. PBF files are usually sorted with
+ * the nodes first, then the ways and then the relations. So each block is inflated at most twice,
+ * instead of once for every phase.
+ * <p>
+ * See https://wiki.openstreetmap.org/wiki/PBF_Format for the file format.
+ * <p>
+ * THIS CLASS IS NOT THREAD-SAFE, only the decoding of blocks is done in parallel.
+ */
+class OsmPbfReader implements AutoCloseable {
+
+  private static final String OSM_HEADER = "OSMHeader";
+  private static final String OSM_DATA = "OSMData";
+
+  /** The maximum size of a blob header and of a blob, as defined by the file format. */
+  private static final int MAX_HEADER_SIZE = 64 * 1024;
+  private static final int MAX_BLOB_SIZE = 32 * 1024 * 1024;
+
+  private final ExecutorService executor;
+
+  /**
+   * The maximum number of blocks decoded ahead of the parser. This limits the memory used by
+   * blocks waiting to be parsed.
+   */
+  private final int maxBlocksAhead;
+
+  /** The phases each data block has entities for, by the index of the block in the file. */
+  private final List<Set<OsmParserPhase>> blockContent = new ArrayList<>();
+
+  OsmPbfReader() {
+    int parallelism = Runtime.getRuntime().availableProcessors();
+    this.executor =
+      Executors.newFixedThreadPool(
+        parallelism,
+        new ThreadFactoryBuilder().setNameFormat("osm-pbf-%d").build()
+      );
+    this.maxBlocksAhead = 2 * parallelism;
+  }
+
+  /**
+   * Read the given PBF file and pass the blocks with entities for the given phase to the parser.
+   * The file must be the same for all phases.
+   */
+  void read(InputStream input, OsmParser parser, OsmParserPhase phase) throws IOException {
+    var in = new DataInputStream(input);
+    Deque<Future<Block>> pending = new ArrayDeque<>();
+    int dataBlockIndex = 0;
+
+    Fileformat.BlobHeader header;
+    while ((header = readBlobHeader(in)) != null) {
+      String type = header.getType();
+      int index = -1;
+
+      if (OSM_DATA.equals(type)) {
+        index = dataBlockIndex++;
+        if (index < blockContent.size() && !blockContent.get(index).contains(phase)) {
+          in.skipNBytes(header.getDatasize());
+          continue;
+        }
+      } else if (!OSM_HEADER.equals(type)) {
+        // Unknown block types should be skipped according to the file format
+        in.skipNBytes(header.getDatasize());
+        continue;
+      }
+
+      byte[] blob = new byte[header.getDatasize()];
+      in.readFully(blob);
+
+      int blockIndex = index;
+      pending.add(executor.submit(() -> decode(blockIndex, blob)));
+
+      if (pending.size() >= maxBlocksAhead) {
+        parse(awaitBlock(pending.poll()), parser);
+      }
+    }
+    while (!pending.isEmpty()) {
+      parse(awaitBlock(pending.poll()), parser);
+    }
+  }
+
+  @Override
+  public void close() {
+    executor.shutdownNow();
+  }
+
+  private void parse(Block block, OsmParser parser) {
+    if (block.header() != null) {
+      parser.parse(block.header());
+      return;
+    }
+    if (block.index() == blockContent.size()) {
+      blockContent.add(block.content());
+    }
+    parser.parse(block.data());
+  }
+
+  /**
+   * Read the header of the next blob, or return {@code null} at the end of the file.
+   */
+  @Nullable
+  private static Fileformat.BlobHeader readBlobHeader(DataInputStream in) throws IOException {
+    int headerSize;
+    try {
+      headerSize = in.readInt();
+    } catch (EOFException e) {
+      return null;
+    }
+    if (headerSize < 0 || headerSize > MAX_HEADER_SIZE) {
+      throw new IOException("Invalid PBF blob header size: " + headerSize);
+    }
+    byte[] bytes = new byte[headerSize];
+    in.readFully(bytes);
+
+    var header = Fileformat.BlobHeader.parseFrom(bytes);
+    if (header.getDatasize() < 0 || header.getDatasize() > MAX_BLOB_SIZE) {
+      throw new IOException("Invalid PBF blob size: " + header.getDatasize());
+    }
+    return header;
+  }
+
+  /**
+   * Inflate and decode a blob. This is called from the worker threads.
+   */
+  private static Block decode(int index, byte[] blob) throws IOException {
+    byte[] raw = inflate(Fileformat.Blob.parseFrom(blob));
+
+    if (index < 0) {
+      return new Block(index, Osmformat.HeaderBlock.parseFrom(raw), null, Set.of());
+    }
+    var data = Osmformat.PrimitiveBlock.parseFrom(raw);
+    return new Block(index, null, data, content(data));
+  }
+
+  private static byte[] inflate(Fileformat.Blob blob) throws IOException {
+    if (blob.hasRaw()) {
+      return blob.getRaw().toByteArray();
+    }
+    if (!blob.hasZlibData()) {
+      throw new IOException("Unsupported PBF blob compression: " + blob.getDataCase());
+    }
+
+    var inflater = new Inflater();
+    try {
+      inflater.setInput(blob.getZlibData().asReadOnlyByteBuffer());
+      byte[] raw = new byte[blob.getRawSize()];
+      int length = 0;
+      while (length < raw.length && !inflater.finished()) {
+        int n = inflater.inflate(raw, length, raw.length - length);
+        if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          break;
+        }
+        length += n;
+      }
+      if (length != raw.length) {
+        throw new IOException(
+          "Corrupt PBF blob, inflated " + length + " bytes, expected " + raw.length
+        );
+      }
+      return raw;
+    } catch (DataFormatException e) {
+      throw new IOException("Corrupt PBF blob: " + e.getMessage(), e);
+    } finally {
+      inflater.end();
+    }
+  }
+
+  private static Set<OsmParserPhase> content(Osmformat.PrimitiveBlock block) {
+    var phases = EnumSet.noneOf(OsmParserPhase.class);
+    for (Osmformat.PrimitiveGroup group : block.getPrimitivegroupList()) {
+      if (group.getRelationsCount() > 0) {
+        phases.add(OsmParserPhase.Relations);
+      }
+      if (group.getWaysCount() > 0) {
+        phases.add(OsmParserPhase.Ways);
+      }
+      if (group.getNodesCount() > 0 || group.hasDense()) {
+        phases.add(OsmParserPhase.Nodes);
+      }
+    }
+    return phases;
+  }
+
+  /**
+   * Wait for a block to be decoded and rethrow the exception thrown while decoding it, if any.
+   */
+  private static Block awaitBlock(Future<Block> block) throws IOException {
+    try {
+      return block.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException ioe) {
+        throw ioe;
+      }
+      if (e.getCause() instanceof RuntimeException re) {
+        throw re;
+      }
+      throw new RuntimeException(e.getCause());
+    }
+  }
+
+  /**
+   * A decoded block, either the file header or a data block with the phases it has entities for.
+   * The index is the index of the data block in the file, or -1 for the header.
+   */
+  private record Block(
+    int index,
+    @Nullable Osmformat.HeaderBlock header,
+    @Nullable Osmformat.PrimitiveBlock data,
+    Set<OsmParserPhase> content
+  ) {}
+}
@@ -1,6 +1,5 @@
 package org.opentripplanner.osm;
 
-import crosby.binary.file.BlockInputStream;
 import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
@@ -22,7 +21,8 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Parser for the OpenStreetMap PBF format. Parses files in three passes: First the relations, then
- * the ways, then the nodes are also loaded.
+ * the ways, then the nodes are also loaded. The blocks of the file are decoded in parallel, see
+ * {@link OsmPbfReader}.
  */
 public class OsmProvider {
 
@@ -67,16 +67,16 @@ public class OsmProvider {
   }
 
   public void readOsm(OsmDatabase osmdb) {
-    try {
+    try (OsmPbfReader reader = new OsmPbfReader()) {
       OsmParser parser = new OsmParser(osmdb, this);
 
-      parsePhase(parser, OsmParserPhase.Relations);
+      parsePhase(reader, parser, OsmParserPhase.Relations);
       osmdb.doneFirstPhaseRelations();
 
-      parsePhase(parser, OsmParserPhase.Ways);
+      parsePhase(reader, parser, OsmParserPhase.Ways);
       osmdb.doneSecondPhaseWays();
 
-      parsePhase(parser, OsmParserPhase.Nodes);
+      parsePhase(reader, parser, OsmParserPhase.Nodes);
       osmdb.doneThirdPhaseNodes();
     } catch (Exception ex) {
       throw new IllegalStateException("error loading OSM from path " + source.path(), ex);
@@ -105,12 +105,13 @@ public class OsmProvider {
     return ProgressTracker.track("Parse OSM " + phase, 1000, size, inputStream, m -> LOG.info(m));
   }
 
-  private void parsePhase(OsmParser parser, OsmParserPhase phase) throws IOException {
+  private void parsePhase(OsmPbfReader reader, OsmParser parser, OsmParserPhase phase)
+    throws IOException {
     parser.setPhase(phase);
-    BlockInputStream in = null;
+    InputStream in = null;
     try {
-      in = new BlockInputStream(createInputStream(phase), parser);
-      in.process();
+      in = createInputStream(phase);
+      reader.read(in, parser, phase);
     } finally {
       // Close
       try {
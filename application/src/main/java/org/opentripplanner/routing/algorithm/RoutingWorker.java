@@ -9,11 +9,11 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import javax.annotation.Nullable;
 import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.framework.application.OTPRequestTimeoutException;
+import org.opentripplanner.framework.concurrent.OtpRequestExecutor;
 import org.opentripplanner.model.plan.Itinerary;
 import org.opentripplanner.model.plan.grouppriority.TransitGroupPriorityItineraryDecorator;
 import org.opentripplanner.model.plan.paging.cursor.PageCursorInput;
@@ -107,16 +107,12 @@ public class RoutingWorker {
     var routingErrors = Collections.synchronizedSet(new HashSet<RoutingError>());
 
     if (OTPFeature.ParallelRouting.isOn()) {
-      // TODO: This is not using {@link OtpRequestThreadFactory} which means we do not get
-      //       log-trace-parameters-propagation and graceful timeout handling here.
       try {
-        CompletableFuture
-          .allOf(
-            CompletableFuture.runAsync(() -> routeDirectStreet(itineraries, routingErrors)),
-            CompletableFuture.runAsync(() -> routeDirectFlex(itineraries, routingErrors)),
-            CompletableFuture.runAsync(() -> routeTransit(itineraries, routingErrors))
-          )
-          .join();
+        OtpRequestExecutor.runInParallel(
+          () -> routeDirectStreet(itineraries, routingErrors),
+          () -> routeDirectFlex(itineraries, routingErrors),
+          () -> routeTransit(itineraries, routingErrors)
+        );
       } catch (CompletionException e) {
         RoutingValidationException.unwrapAndRethrowCompletionException(e);
       }
@@ -9,12 +9,12 @@ import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.stream.IntStream;
 import javax.annotation.Nullable;
 import org.opentripplanner.ext.ridehailing.RideHailingAccessShifter;
 import org.opentripplanner.framework.application.OTPFeature;
+import org.opentripplanner.framework.concurrent.OtpRequestExecutor;
 import org.opentripplanner.model.plan.Itinerary;
 import org.opentripplanner.raptor.RaptorService;
 import org.opentripplanner.raptor.api.path.RaptorPath;
@@ -148,7 +148,9 @@ public class TransitRouter {
       serverContext.raptorConfig(),
       createExtraMcRouterSearch(accessEgresses, transitLayer)
     );
-    var transitResponse = raptorService.route(raptorRequest, requestTransitDataProvider);
+    var transitResponse = OtpRequestExecutor.runCpuIntensive(() ->
+      raptorService.route(raptorRequest, requestTransitDataProvider)
+    );
 
     checkIfTransitConnectionExists(transitResponse);
 
@@ -192,14 +194,10 @@ public class TransitRouter {
 
     if (OTPFeature.ParallelRouting.isOn()) {
       try {
-        // TODO: This is not using {@link OtpRequestThreadFactory} which mean we do not get
-        //       log-trace-parameters-propagation and graceful timeout handling here.
-        CompletableFuture
-          .allOf(
-            CompletableFuture.runAsync(() -> accessList.addAll(fetchAccess())),
-            CompletableFuture.runAsync(() -> egressList.addAll(fetchEgress()))
-          )
-          .join();
+        OtpRequestExecutor.runInParallel(
+          () -> accessList.addAll(fetchAccess()),
+          () -> egressList.addAll(fetchEgress())
+        );
       } catch (CompletionException e) {
         RoutingValidationException.unwrapAndRethrowCompletionException(e);
       }
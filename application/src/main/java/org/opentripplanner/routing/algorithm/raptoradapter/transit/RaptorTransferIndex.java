@@ -3,25 +3,65 @@ package org.opentripplanner.routing.algorithm.raptoradapter.transit;
 import static java.util.stream.Collectors.toMap;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.function.Function;
 import org.opentripplanner.raptor.api.model.RaptorTransfer;
+import org.opentripplanner.raptor.api.model.SearchDirection;
+import org.opentripplanner.raptor.spi.RaptorTransferCursor;
 import org.opentripplanner.routing.api.request.StreetMode;
 import org.opentripplanner.street.search.request.StreetSearchRequest;
 
+/**
+ * The transfers for each stop in both directions. The transfers are stored in one flat array for
+ * each direction, sorted by stop index, and an offset array with the start of each stop
+ * (compressed sparse row). This avoids one list instance per stop and direction, and makes
+ * iterating the transfers of a stop a simple array range scan. Raptor uses one
+ * {@link RaptorTransferCursor} for each search, so no iterator is created for each stop and round.
+ * <p>
+ * The transfer instances are kept, not just their values, because Raptor keeps a reference to
+ * the transfers it accepts, and the itinerary mapping needs the {@link Transfer} behind each
+ * {@link DefaultRaptorTransfer}.
+ * <p>
+ * THREAD SAFETY - This class is immutable and thread-safe.
+ */
 public class RaptorTransferIndex {
 
-  private final List<RaptorTransfer>[] forwardTransfers;
+  private static final RaptorTransfer[] EMPTY = new RaptorTransfer[0];
 
-  private final List<RaptorTransfer>[] reversedTransfers;
+  /** The start of the transfers for each stop in {@link #forwardTransfers}, size is nStops + 1. */
+  private final int[] forwardOffsets;
+
+  private final RaptorTransfer[] forwardTransfers;
+
+  /** The start of the transfers for each stop in {@link #reversedTransfers}, size is nStops + 1. */
+  private final int[] reversedOffsets;
+
+  private final RaptorTransfer[] reversedTransfers;
 
   public RaptorTransferIndex(
     List<List<RaptorTransfer>> forwardTransfers,
     List<List<RaptorTransfer>> reversedTransfers
   ) {
-    // Create immutable copies of the lists for each stop to make them immutable and faster to iterate
-    this.forwardTransfers = forwardTransfers.stream().map(List::copyOf).toArray(List[]::new);
-    this.reversedTransfers = reversedTransfers.stream().map(List::copyOf).toArray(List[]::new);
+    this.forwardOffsets = offsets(forwardTransfers);
+    this.forwardTransfers = flatten(forwardTransfers, forwardOffsets);
+    this.reversedOffsets = offsets(reversedTransfers);
+    this.reversedTransfers = flatten(reversedTransfers, reversedOffsets);
+  }
+
+  private RaptorTransferIndex(
+    int[] forwardOffsets,
+    RaptorTransfer[] forwardTransfers,
+    int[] reversedOffsets,
+    RaptorTransfer[] reversedTransfers
+  ) {
+    this.forwardOffsets = forwardOffsets;
+    this.forwardTransfers = forwardTransfers;
+    this.reversedOffsets = reversedOffsets;
+    this.reversedTransfers = reversedTransfers;
   }
 
   public static RaptorTransferIndex create(
@@ -29,13 +69,8 @@ public class RaptorTransferIndex {
     StreetSearchRequest request
   ) {
     var forwardTransfers = new ArrayList<List<RaptorTransfer>>(transfersByStopIndex.size());
-    var reversedTransfers = new ArrayList<List<RaptorTransfer>>(transfersByStopIndex.size());
     StreetMode mode = request.mode();
 
-    for (int i = 0; i < transfersByStopIndex.size(); i++) {
-      reversedTransfers.add(new ArrayList<>());
-    }
-
     for (int fromStop = 0; fromStop < transfersByStopIndex.size(); fromStop++) {
       // The transfers are filtered so that there is only one possible directional transfer
       // for a stop pair.
@@ -50,22 +85,168 @@ public class RaptorTransferIndex {
         .values();
 
       forwardTransfers.add(new ArrayList<>(transfers));
+    }
+
+    return ofForwardTransfers(forwardTransfers);
+  }
+
+  /**
+   * Create the index from the forward transfers for each stop, the reversed transfers are
+   * derived from the forward transfers.
+   */
+  public static RaptorTransferIndex ofForwardTransfers(
+    List<List<RaptorTransfer>> forwardTransfers
+  ) {
+    int nStops = forwardTransfers.size();
+    int[] forwardOffsets = offsets(forwardTransfers);
+    RaptorTransfer[] forward = flatten(forwardTransfers, forwardOffsets);
 
-      for (RaptorTransfer forwardTransfer : transfers) {
-        reversedTransfers
-          .get(forwardTransfer.stop())
-          .add(DefaultRaptorTransfer.reverseOf(fromStop, forwardTransfer));
+    // Count the transfers arriving at each stop, and turn the counts into offsets
+    int[] reversedOffsets = new int[nStops + 1];
+    for (RaptorTransfer it : forward) {
+      ++reversedOffsets[it.stop() + 1];
+    }
+    for (int i = 0; i < nStops; ++i) {
+      reversedOffsets[i + 1] += reversedOffsets[i];
+    }
+
+    // Fill in the reversed transfers, ordered by the from-stop within each stop
+    RaptorTransfer[] reversed = forward.length == 0 ? EMPTY : new RaptorTransfer[forward.length];
+    int[] next = Arrays.copyOf(reversedOffsets, nStops);
+    for (int fromStop = 0; fromStop < nStops; ++fromStop) {
+      for (int i = forwardOffsets[fromStop]; i < forwardOffsets[fromStop + 1]; ++i) {
+        RaptorTransfer forwardTransfer = forward[i];
+        reversed[next[forwardTransfer.stop()]++] =
+          DefaultRaptorTransfer.reverseOf(fromStop, forwardTransfer);
       }
     }
 
-    return new RaptorTransferIndex(forwardTransfers, reversedTransfers);
+    return new RaptorTransferIndex(forwardOffsets, forward, reversedOffsets, reversed);
   }
 
+  /**
+   * The number of stops in the index, this is the same as the number of stops in the transfers
+   * used to create it.
+   */
+  public int size() {
+    return forwardOffsets.length - 1;
+  }
+
+  /**
+   * Return an unmodifiable view of the transfers from the given stop. Use
+   * {@link #forwardTransferIterator(int)} in performance critical code.
+   */
   public List<RaptorTransfer> getForwardTransfers(int stopIndex) {
-    return forwardTransfers[stopIndex];
+    return view(forwardTransfers, forwardOffsets, stopIndex);
   }
 
+  /**
+   * Return an unmodifiable view of the transfers to the given stop. Use
+   * {@link #reversedTransferIterator(int)} in performance critical code.
+   */
   public List<RaptorTransfer> getReversedTransfers(int stopIndex) {
-    return reversedTransfers[stopIndex];
+    return view(reversedTransfers, reversedOffsets, stopIndex);
+  }
+
+  /**
+   * Create a cursor over the transfers from each stop, or to each stop for a reverse search. The
+   * cursor returns the same iterator for all stops, so it must only be used by one search.
+   */
+  public RaptorTransferCursor createCursor(SearchDirection direction) {
+    return direction.isForward()
+      ? new TransferCursor(forwardTransfers, forwardOffsets)
+      : new TransferCursor(reversedTransfers, reversedOffsets);
+  }
+
+  public Iterator<RaptorTransfer> forwardTransferIterator(int stopIndex) {
+    return iterator(forwardTransfers, forwardOffsets, stopIndex);
+  }
+
+  public Iterator<RaptorTransfer> reversedTransferIterator(int stopIndex) {
+    return iterator(reversedTransfers, reversedOffsets, stopIndex);
+  }
+
+  private static int[] offsets(List<List<RaptorTransfer>> transfersByStop) {
+    int[] offsets = new int[transfersByStop.size() + 1];
+    for (int i = 0; i < transfersByStop.size(); ++i) {
+      offsets[i + 1] = offsets[i] + transfersByStop.get(i).size();
+    }
+    return offsets;
+  }
+
+  private static RaptorTransfer[] flatten(
+    List<List<RaptorTransfer>> transfersByStop,
+    int[] offsets
+  ) {
+    int size = offsets[offsets.length - 1];
+    if (size == 0) {
+      return EMPTY;
+    }
+    RaptorTransfer[] transfers = new RaptorTransfer[size];
+    for (int i = 0; i < transfersByStop.size(); ++i) {
+      int n = offsets[i];
+      for (RaptorTransfer it : transfersByStop.get(i)) {
+        transfers[n++] = it;
+      }
+    }
+    return transfers;
+  }
+
+  private static List<RaptorTransfer> view(
+    RaptorTransfer[] transfers,
+    int[] offsets,
+    int stopIndex
+  ) {
+    return Collections.unmodifiableList(
+      Arrays.asList(transfers).subList(offsets[stopIndex], offsets[stopIndex + 1])
+    );
+  }
+
+  private static Iterator<RaptorTransfer> iterator(
+    RaptorTransfer[] transfers,
+    int[] offsets,
+    int stopIndex
+  ) {
+    return offsets[stopIndex] == offsets[stopIndex + 1]
+      ? Collections.emptyIterator()
+      : new TransferCursor(transfers, offsets).transfers(stopIndex);
+  }
+
+  /**
+   * Iterate over the range of the flat transfer array for a stop. The range is reset for each
+   * stop, the transfer instances returned are the ones in the index.
+   */
+  private static final class TransferCursor
+    implements RaptorTransferCursor, Iterator<RaptorTransfer> {
+
+    private final RaptorTransfer[] transfers;
+    private final int[] offsets;
+    private int index;
+    private int end;
+
+    private TransferCursor(RaptorTransfer[] transfers, int[] offsets) {
+      this.transfers = transfers;
+      this.offsets = offsets;
+    }
+
+    @Override
+    public Iterator<RaptorTransfer> transfers(int stop) {
+      this.index = offsets[stop];
+      this.end = offsets[stop + 1];
+      return this;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return index < end;
+    }
+
+    @Override
+    public RaptorTransfer next() {
+      if (index >= end) {
+        throw new NoSuchElementException();
+      }
+      return transfers[index++];
+    }
   }
 }
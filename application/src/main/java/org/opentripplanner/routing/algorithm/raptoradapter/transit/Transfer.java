@@ -7,11 +7,13 @@ import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import javax.annotation.Nullable;
 import org.locationtech.jts.geom.Coordinate;
 import org.opentripplanner.raptor.api.model.RaptorCostConverter;
 import org.opentripplanner.raptor.api.model.RaptorTransfer;
 import org.opentripplanner.routing.api.request.StreetMode;
 import org.opentripplanner.routing.api.request.preference.WalkPreferences;
+import org.opentripplanner.street.model.edge.CompactEdgePath;
 import org.opentripplanner.street.model.edge.Edge;
 import org.opentripplanner.street.search.request.StreetSearchRequest;
 import org.opentripplanner.street.search.state.EdgeTraverser;
@@ -32,22 +34,38 @@ public class Transfer {
 
   private final int distanceMeters;
 
-  private final List<Edge> edges;
+  /** The street path, resolved only when it is used. */
+  @Nullable
+  private final CompactEdgePath edges;
 
   private final Set<StreetMode> modes;
 
   public Transfer(int toStop, List<Edge> edges, EnumSet<StreetMode> modes) {
+    this(
+      toStop,
+      CompactEdgePath.of(edges),
+      (int) edges.stream().mapToDouble(Edge::getDistanceMeters).sum(),
+      modes
+    );
+  }
+
+  /**
+   * The distance is passed in, so the street path is not resolved when the transfer is created.
+   */
+  public Transfer(
+    int toStop,
+    @Nullable CompactEdgePath edges,
+    int distanceMeters,
+    EnumSet<StreetMode> modes
+  ) {
     this.toStop = toStop;
     this.edges = edges;
-    this.distanceMeters = (int) edges.stream().mapToDouble(Edge::getDistanceMeters).sum();
+    this.distanceMeters = distanceMeters;
     this.modes = Collections.unmodifiableSet(modes);
   }
 
   public Transfer(int toStopIndex, int distanceMeters, EnumSet<StreetMode> modes) {
-    this.toStop = toStopIndex;
-    this.distanceMeters = distanceMeters;
-    this.edges = null;
-    this.modes = Collections.unmodifiableSet(modes);
+    this(toStopIndex, null, distanceMeters, modes);
   }
 
   public List<Coordinate> getCoordinates() {
@@ -71,8 +89,12 @@ public class Transfer {
     return distanceMeters;
   }
 
+  /**
+   * Resolve the edges of the street path, {@code null} if the transfer has no street path.
+   */
+  @Nullable
   public List<Edge> getEdges() {
-    return edges;
+    return edges == null ? null : edges.edges();
   }
 
   /** Check if the given mode is a valid mode for the transfer. */
@@ -97,7 +119,8 @@ public class Transfer {
       );
     }
 
-    var initialStates = State.getInitialStates(Set.of(edges.getFirst().getFromVertex()), request);
+    // Walk the encoded path, the edges are resolved one at a time while traversing them
+    var initialStates = State.getInitialStates(Set.of(edges.firstVertex()), request);
     var state = EdgeTraverser.traverseEdges(initialStates, edges);
 
     return state.map(s ->
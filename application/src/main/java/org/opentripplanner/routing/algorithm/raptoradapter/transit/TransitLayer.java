@@ -6,12 +6,15 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import org.opentripplanner.model.transfer.TransferService;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.constrainedtransfer.ConstrainedTransfersForPatterns;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.constrainedtransfer.TransferIndexGenerator;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.PrecomputedTransferIndexes;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RaptorRequestTransferCache;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.TripPatternForDatesCache;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.transit.model.site.StopLocation;
 import org.opentripplanner.transit.service.SiteRepository;
@@ -29,13 +32,21 @@ import org.opentripplanner.transit.service.SiteRepository;
  */
 public class TransitLayer {
 
+  private static final AtomicLong VERSION_COUNTER = new AtomicLong();
+
+  /**
+   * Each instance gets a new version, a copy has a higher version than the original. The version
+   * can be used as a cache key for data derived from this transit layer.
+   */
+  private final long version;
+
   /**
    * Transit data required for routing, indexed by each local date(Graph TimeZone) it runs through.
    * A Trip "runs through" a date if any of its arrivals or departures is happening on that date.
    * The same trip pattern can therefore have multiple running dates and trip pattern is not
    * required to "run" on its service date.
    */
-  private final HashMap<LocalDate, List<TripPatternForDate>> tripPatternsRunningOnDate;
+  private final HashMap<LocalDate, TripPatternsRunningOnDate> tripPatternsRunningOnDate;
 
   /**
    * Index of outer list is from stop index, inner list index has no specific meaning. To stop index
@@ -52,6 +63,12 @@ public class TransitLayer {
 
   private final RaptorRequestTransferCache transferCache;
 
+  /**
+   * The cached trip patterns are only valid for this instance, so the cache is NOT shared with
+   * copies of this transit layer.
+   */
+  private final TripPatternForDatesCache tripPatternForDatesCache;
+
   private ConstrainedTransfersForPatterns constrainedTransfers;
 
   private final TransferIndexGenerator transferIndexGenerator;
@@ -62,15 +79,18 @@ public class TransitLayer {
   /**
    * Makes a shallow copy of the TransitLayer, except for the tripPatternsForDate, where a shallow
    * copy of the HashMap is made. This is sufficient, as the TransitLayerUpdater will replace entire
-   * keys and their values in the map.
+   * keys and their values in the map. The values are immutable and share most of their state with
+   * the new values set by the updater. The copy gets a new empty trip pattern cache and a new
+   * version.
    */
   public TransitLayer(TransitLayer transitLayer) {
     this(
-      transitLayer.tripPatternsRunningOnDate,
+      new HashMap<>(transitLayer.tripPatternsRunningOnDate),
       transitLayer.transfersByStopIndex,
       transitLayer.transferService,
       transitLayer.siteRepository,
       transitLayer.transferCache,
+      transitLayer.tripPatternForDatesCache.emptyCopy(),
       transitLayer.constrainedTransfers,
       transitLayer.transferIndexGenerator,
       transitLayer.stopBoardAlightTransferCosts
@@ -83,15 +103,42 @@ public class TransitLayer {
     TransferService transferService,
     SiteRepository siteRepository,
     RaptorRequestTransferCache transferCache,
+    TripPatternForDatesCache tripPatternForDatesCache,
+    ConstrainedTransfersForPatterns constrainedTransfers,
+    TransferIndexGenerator transferIndexGenerator,
+    @Nullable int[] stopBoardAlightTransferCosts
+  ) {
+    this(
+      mapTripPatternsRunningOnDate(tripPatternsRunningOnDate),
+      transfersByStopIndex,
+      transferService,
+      siteRepository,
+      transferCache,
+      tripPatternForDatesCache,
+      constrainedTransfers,
+      transferIndexGenerator,
+      stopBoardAlightTransferCosts
+    );
+  }
+
+  private TransitLayer(
+    HashMap<LocalDate, TripPatternsRunningOnDate> tripPatternsRunningOnDate,
+    List<List<Transfer>> transfersByStopIndex,
+    TransferService transferService,
+    SiteRepository siteRepository,
+    RaptorRequestTransferCache transferCache,
+    TripPatternForDatesCache tripPatternForDatesCache,
     ConstrainedTransfersForPatterns constrainedTransfers,
     TransferIndexGenerator transferIndexGenerator,
     @Nullable int[] stopBoardAlightTransferCosts
   ) {
-    this.tripPatternsRunningOnDate = new HashMap<>(tripPatternsRunningOnDate);
+    this.version = VERSION_COUNTER.incrementAndGet();
+    this.tripPatternsRunningOnDate = tripPatternsRunningOnDate;
     this.transfersByStopIndex = transfersByStopIndex;
     this.transferService = transferService;
     this.siteRepository = siteRepository;
     this.transferCache = transferCache;
+    this.tripPatternForDatesCache = tripPatternForDatesCache;
     this.constrainedTransfers = constrainedTransfers;
     this.transferIndexGenerator = transferIndexGenerator;
     this.stopBoardAlightTransferCosts = stopBoardAlightTransferCosts;
@@ -108,7 +155,19 @@ public class TransitLayer {
    * happening on that date. Trip pattern can have multiple running dates.
    */
   public Collection<TripPatternForDate> getTripPatternsForRunningDate(LocalDate date) {
-    return tripPatternsRunningOnDate.getOrDefault(date, List.of());
+    return getTripPatternsRunningOnDate(date);
+  }
+
+  /**
+   * Same as {@link #getTripPatternsForRunningDate(LocalDate)}, but return the immutable collection
+   * used to apply incremental updates.
+   */
+  public TripPatternsRunningOnDate getTripPatternsRunningOnDate(LocalDate date) {
+    return tripPatternsRunningOnDate.getOrDefault(date, TripPatternsRunningOnDate.empty());
+  }
+
+  public long getVersion() {
+    return version;
   }
 
   public int getStopCount() {
@@ -121,8 +180,7 @@ public class TransitLayer {
    * or departures is happening on that date. Trip pattern can have multiple running dates.
    */
   public List<TripPatternForDate> getTripPatternsRunningOnDateCopy(LocalDate runningPeriodDate) {
-    List<TripPatternForDate> tripPatternForDate = tripPatternsRunningOnDate.get(runningPeriodDate);
-    return tripPatternForDate != null ? new ArrayList<>(tripPatternForDate) : new ArrayList<>();
+    return new ArrayList<>(getTripPatternsRunningOnDate(runningPeriodDate));
   }
 
   /**
@@ -153,10 +211,25 @@ public class TransitLayer {
     transferCache.put(transfersByStopIndex, request);
   }
 
+  /**
+   * Initialize the transfer cache for the given request, using the precomputed transfers if they
+   * exist for the request.
+   */
+  public void initTransferCacheForRequest(
+    RouteRequest request,
+    PrecomputedTransferIndexes precomputedIndexes
+  ) {
+    transferCache.put(transfersByStopIndex, request, precomputedIndexes);
+  }
+
   public RaptorRequestTransferCache getTransferCache() {
     return transferCache;
   }
 
+  public TripPatternForDatesCache getTripPatternForDatesCache() {
+    return tripPatternForDatesCache;
+  }
+
   @Nullable
   public ConstrainedTransfersForPatterns getConstrainedTransfers() {
     return constrainedTransfers;
@@ -181,7 +254,7 @@ public class TransitLayer {
    */
   public void replaceTripPatternsForDate(
     LocalDate date,
-    List<TripPatternForDate> tripPatternForDates
+    TripPatternsRunningOnDate tripPatternForDates
   ) {
     this.tripPatternsRunningOnDate.replace(date, tripPatternForDates);
   }
@@ -189,4 +262,14 @@ public class TransitLayer {
   public void setConstrainedTransfers(ConstrainedTransfersForPatterns constrainedTransfers) {
     this.constrainedTransfers = constrainedTransfers;
   }
+
+  private static HashMap<LocalDate, TripPatternsRunningOnDate> mapTripPatternsRunningOnDate(
+    Map<LocalDate, List<TripPatternForDate>> tripPatternsRunningOnDate
+  ) {
+    var result = new HashMap<LocalDate, TripPatternsRunningOnDate>();
+    tripPatternsRunningOnDate.forEach((date, list) ->
+      result.put(date, TripPatternsRunningOnDate.of(list))
+    );
+    return result;
+  }
 }
@@ -47,6 +47,11 @@ public interface TransitTuningParameters {
       return 5;
     }
 
+    @Override
+    public int tripPatternCacheMaxSize() {
+      return 0;
+    }
+
     @Override
     public Duration maxSearchWindow() {
       return Duration.ofHours(24);
@@ -61,6 +66,11 @@ public interface TransitTuningParameters {
     public List<RouteRequest> transferCacheRequests() {
       return List.of();
     }
+
+    @Override
+    public double transferCacheWalkTolerance() {
+      return 0.0;
+    }
   };
 
   /**
@@ -83,6 +93,13 @@ public interface TransitTuningParameters {
    */
   int transferCacheMaxSize();
 
+  /**
+   * The maximum number of search periods and filter combinations for which the trip patterns
+   * prepared for Raptor should be cached. Each entry holds the time-expanded timetables for the
+   * search period, so this may use a lot of memory. Zero disables the cache.
+   */
+  int tripPatternCacheMaxSize();
+
   /**
    * The maximum search window that can be set through the searchWindow API parameter. Due to the
    * way timetable data are collected before a Raptor trip search, using a search window larger than
@@ -124,4 +141,11 @@ public interface TransitTuningParameters {
    * {@link org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RaptorRequestTransferCache}
    */
   List<RouteRequest> transferCacheRequests();
+
+  /**
+   * The maximum relative difference in walk speed and walk reluctance for which a request may use
+   * the cached transfers of the nearest {@link #transferCacheRequests()}, instead of calculating
+   * the transfers for the exact request. Zero disables this.
+   */
+  double transferCacheWalkTolerance();
 }
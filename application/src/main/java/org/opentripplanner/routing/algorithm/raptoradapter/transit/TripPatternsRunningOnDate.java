@@ -0,0 +1,244 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An immutable collection of all {@link TripPatternForDate}s running on one date. There is at most
+ * one element for each trip pattern and service date - a pattern may have more than one element if
+ * trips from the previous service date run over midnight.
+ * <p>
+ * The elements are stored in fixed size chunks indexed by the pattern index. When the collection
+ * is changed, only the top level array and the chunks containing the changed patterns are copied,
+ * the rest is shared with the original. This keeps the cost of a real-time update proportional to
+ * the number of patterns updated, not to the number of patterns running on the date.
+ */
+public final class TripPatternsRunningOnDate extends AbstractCollection<TripPatternForDate> {
+
+  private static final int CHUNK_BITS = 6;
+  private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+  private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+  private static final TripPatternsRunningOnDate EMPTY = new TripPatternsRunningOnDate(
+    new TripPatternForDate[0][][],
+    0
+  );
+
+  /**
+   * Index: chunk, pattern index in chunk, element for the pattern.
+   */
+  private final TripPatternForDate[][][] chunks;
+  private final int size;
+
+  private TripPatternsRunningOnDate(TripPatternForDate[][][] chunks, int size) {
+    this.chunks = chunks;
+    this.size = size;
+  }
+
+  public static TripPatternsRunningOnDate empty() {
+    return EMPTY;
+  }
+
+  public static TripPatternsRunningOnDate of(Collection<TripPatternForDate> tripPatternForDates) {
+    var builder = EMPTY.mutate();
+    tripPatternForDates.forEach(builder::add);
+    return builder.build();
+  }
+
+  /**
+   * Return a new collection with the given element added. An existing element for the same pattern
+   * and service date is replaced.
+   */
+  public TripPatternsRunningOnDate with(TripPatternForDate tripPatternForDate) {
+    return mutate().add(tripPatternForDate).build();
+  }
+
+  /**
+   * Return a new collection without the given element, or this instance if the element does not
+   * exist.
+   */
+  public TripPatternsRunningOnDate without(TripPatternForDate tripPatternForDate) {
+    return contains(tripPatternForDate) ? mutate().remove(tripPatternForDate).build() : this;
+  }
+
+  /**
+   * Use the builder to apply more than one change. Each chunk is copied at most once.
+   */
+  public Builder mutate() {
+    return new Builder(this);
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean contains(Object o) {
+    if (!(o instanceof TripPatternForDate tripPatternForDate)) {
+      return false;
+    }
+    var values = values(chunks, tripPatternForDate);
+    int i = indexOf(values, tripPatternForDate);
+    return i >= 0 && values[i].equals(tripPatternForDate);
+  }
+
+  @Override
+  public Iterator<TripPatternForDate> iterator() {
+    return new Iterator<>() {
+      private int chunk = 0;
+      private int pattern = 0;
+      private int element = 0;
+      private TripPatternForDate next = findNext();
+
+      @Override
+      public boolean hasNext() {
+        return next != null;
+      }
+
+      @Override
+      public TripPatternForDate next() {
+        if (next == null) {
+          throw new NoSuchElementException();
+        }
+        var current = next;
+        next = findNext();
+        return current;
+      }
+
+      private TripPatternForDate findNext() {
+        for (; chunk < chunks.length; ++chunk, pattern = 0) {
+          var c = chunks[chunk];
+          if (c == null) {
+            continue;
+          }
+          for (; pattern < CHUNK_SIZE; ++pattern, element = 0) {
+            var values = c[pattern];
+            if (values != null && element < values.length) {
+              return values[element++];
+            }
+          }
+        }
+        return null;
+      }
+    };
+  }
+
+  private static TripPatternForDate[] values(
+    TripPatternForDate[][][] chunks,
+    TripPatternForDate tripPatternForDate
+  ) {
+    int index = tripPatternForDate.getTripPattern().patternIndex();
+    int c = index >>> CHUNK_BITS;
+    if (c >= chunks.length || chunks[c] == null) {
+      return null;
+    }
+    return chunks[c][index & CHUNK_MASK];
+  }
+
+  /**
+   * Find the element with the same service date, there is only one element for each pattern and
+   * service date.
+   */
+  private static int indexOf(TripPatternForDate[] values, TripPatternForDate tripPatternForDate) {
+    if (values == null) {
+      return -1;
+    }
+    for (int i = 0; i < values.length; ++i) {
+      if (values[i].getServiceDate().equals(tripPatternForDate.getServiceDate())) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  public static class Builder {
+
+    private TripPatternForDate[][][] chunks;
+    private boolean[] copied;
+    private int size;
+
+    private Builder(TripPatternsRunningOnDate original) {
+      this.chunks = original.chunks;
+      this.copied = null;
+      this.size = original.size;
+    }
+
+    /**
+     * Add the given element, an existing element for the same pattern and service date is
+     * replaced.
+     */
+    public Builder add(TripPatternForDate tripPatternForDate) {
+      int index = tripPatternForDate.getTripPattern().patternIndex();
+      var chunk = chunkForUpdate(index >>> CHUNK_BITS);
+      int p = index & CHUNK_MASK;
+      var values = chunk[p];
+      int i = indexOf(values, tripPatternForDate);
+
+      if (i >= 0) {
+        values = values.clone();
+        values[i] = tripPatternForDate;
+      } else if (values == null) {
+        values = new TripPatternForDate[] { tripPatternForDate };
+        ++size;
+      } else {
+        values = Arrays.copyOf(values, values.length + 1);
+        values[values.length - 1] = tripPatternForDate;
+        ++size;
+      }
+      chunk[p] = values;
+      return this;
+    }
+
+    /**
+     * Remove the given element if it exists, an element for the same pattern and service date
+     * which is not equal to the given element is kept.
+     */
+    public Builder remove(TripPatternForDate tripPatternForDate) {
+      var values = TripPatternsRunningOnDate.values(chunks, tripPatternForDate);
+      int i = indexOf(values, tripPatternForDate);
+
+      if (i < 0 || !values[i].equals(tripPatternForDate)) {
+        return this;
+      }
+      int index = tripPatternForDate.getTripPattern().patternIndex();
+      var chunk = chunkForUpdate(index >>> CHUNK_BITS);
+
+      if (values.length == 1) {
+        chunk[index & CHUNK_MASK] = null;
+      } else {
+        var newValues = new TripPatternForDate[values.length - 1];
+        System.arraycopy(values, 0, newValues, 0, i);
+        System.arraycopy(values, i + 1, newValues, i, newValues.length - i);
+        chunk[index & CHUNK_MASK] = newValues;
+      }
+      --size;
+      return this;
+    }
+
+    public TripPatternsRunningOnDate build() {
+      // The chunks are now shared, the builder must copy them again before changing them
+      this.copied = null;
+      return new TripPatternsRunningOnDate(chunks, size);
+    }
+
+    private TripPatternForDate[][] chunkForUpdate(int c) {
+      if (copied == null) {
+        chunks = chunks.clone();
+        copied = new boolean[chunks.length];
+      }
+      if (c >= chunks.length) {
+        chunks = Arrays.copyOf(chunks, c + 1);
+        copied = Arrays.copyOf(copied, c + 1);
+      }
+      if (!copied[c]) {
+        chunks[c] = chunks[c] == null ? new TripPatternForDate[CHUNK_SIZE][] : chunks[c].clone();
+        copied[c] = true;
+      }
+      return chunks[c];
+    }
+  }
+}
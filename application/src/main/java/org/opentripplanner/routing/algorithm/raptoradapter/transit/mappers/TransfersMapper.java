@@ -32,18 +32,12 @@ class TransfersMapper {
       for (PathTransfer pathTransfer : transitService.findPathTransfers(stop)) {
         if (pathTransfer.to instanceof RegularStop) {
           int toStopIndex = pathTransfer.to.getIndex();
-          Transfer newTransfer;
-          if (pathTransfer.getEdges() != null) {
-            newTransfer =
-              new Transfer(toStopIndex, pathTransfer.getEdges(), pathTransfer.getModes());
-          } else {
-            newTransfer =
-              new Transfer(
-                toStopIndex,
-                (int) Math.ceil(pathTransfer.getDistanceMeters()),
-                pathTransfer.getModes()
-              );
-          }
+          var newTransfer = new Transfer(
+            toStopIndex,
+            pathTransfer.getEdgePath(),
+            (int) Math.ceil(pathTransfer.getDistanceMeters()),
+            pathTransfer.getModes()
+          );
 
           list.add(newTransfer);
         }
@@ -20,7 +20,10 @@ import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitTuning
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripPatternForDate;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.constrainedtransfer.ConstrainedTransfersForPatterns;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.constrainedtransfer.TransferIndexGenerator;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.PrecomputedTransferIndexes;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RaptorRequestTransferCache;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.TripPatternForDatesCache;
+import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.transit.model.network.TripPattern;
 import org.opentripplanner.transit.model.site.StopTransferPriority;
 import org.opentripplanner.transit.service.DefaultTransitService;
@@ -60,6 +63,28 @@ public class TransitLayerMapper {
     return new TransitLayerMapper(timetableRepository).map(tuningParameters);
   }
 
+  /**
+   * Calculate the Raptor transfer indexes for the given requests. This is done at graph build
+   * time, the indexes are saved with the graph and used to initialize the transfer cache at
+   * startup.
+   */
+  public static PrecomputedTransferIndexes mapPrecomputedTransferIndexes(
+    TimetableRepository timetableRepository,
+    List<RouteRequest> requests
+  ) {
+    if (!timetableRepository.hasTransit() || requests.isEmpty()) {
+      return PrecomputedTransferIndexes.empty();
+    }
+    var mapper = new TransitLayerMapper(timetableRepository);
+    LOG.info("Precomputing transfers for {} transfer cache requests...", requests.size());
+    var indexes = PrecomputedTransferIndexes.create(
+      mapTransfers(mapper.siteRepository, mapper.transitService),
+      requests
+    );
+    LOG.info("Precomputing transfers complete.");
+    return indexes;
+  }
+
   private TransitLayer map(TransitTuningParameters tuningParameters) {
     HashMap<LocalDate, List<TripPatternForDate>> tripPatternsByStopByDate;
     List<List<Transfer>> transfersByStopIndex;
@@ -80,7 +105,10 @@ public class TransitLayerMapper {
       constrainedTransfers = transferIndexGenerator.generateTransfers();
     }
 
-    var transferCache = new RaptorRequestTransferCache(tuningParameters.transferCacheMaxSize());
+    var transferCache = new RaptorRequestTransferCache(
+      tuningParameters.transferCacheMaxSize(),
+      tuningParameters.transferCacheWalkTolerance()
+    );
 
     LOG.info("Mapping complete.");
 
@@ -90,6 +118,7 @@ public class TransitLayerMapper {
       transitService.getTransferService(),
       siteRepository,
       transferCache,
+      new TripPatternForDatesCache(tuningParameters.tripPatternCacheMaxSize()),
       constrainedTransfers,
       transferIndexGenerator,
       createStopBoardAlightTransferCosts(siteRepository, tuningParameters)
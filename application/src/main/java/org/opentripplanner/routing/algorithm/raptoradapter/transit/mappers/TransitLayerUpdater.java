@@ -3,7 +3,6 @@ package org.opentripplanner.routing.algorithm.raptoradapter.transit.mappers;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.SetMultimap;
 import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -15,6 +14,7 @@ import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.model.Timetable;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitLayer;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripPatternForDate;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripPatternsRunningOnDate;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.constrainedtransfer.TransferIndexGenerator;
 import org.opentripplanner.transit.model.network.TripPattern;
 import org.opentripplanner.transit.model.timetable.TripIdAndServiceDate;
@@ -53,8 +53,6 @@ public class TransitLayerUpdater {
    */
   private final Map<TripIdAndServiceDate, TripPatternForDate> tripPatternsForTripIdAndServiceDateCache = new HashMap<>();
 
-  private final Map<LocalDate, Set<TripPatternForDate>> tripPatternsRunningOnDateMapCache = new HashMap<>();
-
   public TransitLayerUpdater(TransitEditorService transitService) {
     this.transitService = transitService;
   }
@@ -153,15 +151,13 @@ public class TransitLayerUpdater {
     }
 
     // Now loop through all running period dates of old and new TripPatternsForDate and update
-    // the tripPatternsByRunningPeriodDate accordingly
+    // the tripPatternsByRunningPeriodDate accordingly. Only the changed patterns are copied, the
+    // rest of the collection is shared with the previous transit layer.
     for (LocalDate date : datesToBeUpdated) {
-      tripPatternsRunningOnDateMapCache.computeIfAbsent(
-        date,
-        p -> new HashSet<>(realtimeTransitLayer.getTripPatternsRunningOnDateCopy(date))
-      );
-
       // Remove old cached tripPatterns where tripTimes are no longer running
-      Set<TripPatternForDate> patternsForDate = tripPatternsRunningOnDateMapCache.get(date);
+      TripPatternsRunningOnDate.Builder patternsForDate = realtimeTransitLayer
+        .getTripPatternsRunningOnDate(date)
+        .mutate();
 
       for (Map.Entry<TripPattern, Collection<TripPatternForDate>> entry : oldTripPatternsForDate
         .asMap()
@@ -213,7 +209,7 @@ public class TransitLayerUpdater {
         }
       }
 
-      realtimeTransitLayer.replaceTripPatternsForDate(date, new ArrayList<>(patternsForDate));
+      realtimeTransitLayer.replaceTripPatternsForDate(date, patternsForDate.build());
     }
 
     if (transferIndexGenerator != null) {
@@ -225,8 +221,9 @@ public class TransitLayerUpdater {
     transitService.setRealtimeTransitLayer(realtimeTransitLayer);
 
     LOG.debug(
-      "UPDATING {} tripPatterns took {} ms",
+      "UPDATING {} tripPatterns, transit layer version {}, took {} ms",
       updatedTimetables.size(),
+      realtimeTransitLayer.getVersion(),
       System.currentTimeMillis() - startTime
     );
   }
@@ -0,0 +1,213 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Nullable;
+import org.opentripplanner.raptor.api.model.RaptorTransfer;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.DefaultRaptorTransfer;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.RaptorTransferIndex;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.Transfer;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitLayer;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.street.search.request.StreetSearchRequest;
+import org.opentripplanner.street.search.request.StreetSearchRequestMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Raptor transfer indexes calculated at graph build time for the configured transfer cache
+ * requests. They are saved with the graph and used to initialize the
+ * {@link RaptorRequestTransferCache} when the server starts, instead of calculating them again.
+ * Each index is identified by the transfer relevant options of the request, so an index is only
+ * used for a request with exactly the same options.
+ * <p>
+ * The forward transfers of each index are stored as flat arrays of ints, with an offset for each
+ * from-stop. The {@link Transfer}s are not stored, they are created from the graph when the
+ * {@link TransitLayer} is created. When an index is decoded, each transfer is resolved by looking
+ * up the {@link Transfer} with the same to-stop and distance. If a transfer can not be resolved,
+ * the graph does not match and the index is discarded.
+ */
+public class PrecomputedTransferIndexes implements Serializable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(PrecomputedTransferIndexes.class);
+
+  private static final PrecomputedTransferIndexes EMPTY = new PrecomputedTransferIndexes(
+    0,
+    List.of()
+  );
+
+  private final int nStops;
+  private final List<EncodedIndex> indexes;
+
+  private PrecomputedTransferIndexes(int nStops, List<EncodedIndex> indexes) {
+    this.nStops = nStops;
+    this.indexes = indexes;
+  }
+
+  public static PrecomputedTransferIndexes empty() {
+    return EMPTY;
+  }
+
+  /**
+   * Calculate the transfer index for each request. The indexes are calculated in parallel.
+   */
+  public static PrecomputedTransferIndexes create(
+    List<List<Transfer>> transfersByStopIndex,
+    List<RouteRequest> requests
+  ) {
+    var indexes = requests
+      .parallelStream()
+      .map(request -> EncodedIndex.encode(transfersByStopIndex, request))
+      .toList();
+    return new PrecomputedTransferIndexes(transfersByStopIndex.size(), indexes);
+  }
+
+  public int size() {
+    return indexes.size();
+  }
+
+  public boolean isEmpty() {
+    return indexes.isEmpty();
+  }
+
+  /**
+   * Return the index for the given request, or {@code null} if no index exists for the request or
+   * if the index does not match the transfers.
+   */
+  @Nullable
+  RaptorTransferIndex get(List<List<Transfer>> transfersByStopIndex, StreetSearchRequest request) {
+    var key = RaptorRequestTransferCache.key(request);
+    var index = indexes.stream().filter(it -> it.key.equals(key)).findFirst().orElse(null);
+
+    if (index == null) {
+      return null;
+    }
+    if (nStops != transfersByStopIndex.size()) {
+      LOG.warn(
+        "The precomputed transfers are discarded, the number of stops does not match. " +
+        "Expected: {}, actual: {}",
+        nStops,
+        transfersByStopIndex.size()
+      );
+      return null;
+    }
+    var decoded = index.decode(transfersByStopIndex, request.mode());
+    if (decoded == null) {
+      LOG.warn("The precomputed transfers do not match the graph and are discarded: {}", key);
+    }
+    return decoded;
+  }
+
+  private static class EncodedIndex implements Serializable {
+
+    /** The transfer relevant options of the request, see {@link RaptorRequestTransferCache} */
+    private final RaptorRequestTransferCache.StreetRelevantOptions key;
+
+    /**
+     * The transfers from stop {@code i} are stored from {@code offsets[i]} (inclusive) to
+     * {@code offsets[i+1]} (exclusive) in the arrays below.
+     */
+    private final int[] offsets;
+    private final int[] toStops;
+    private final int[] durations;
+    private final int[] c1s;
+    private final int[] distances;
+
+    private EncodedIndex(
+      RaptorRequestTransferCache.StreetRelevantOptions key,
+      int[] offsets,
+      int[] toStops,
+      int[] durations,
+      int[] c1s,
+      int[] distances
+    ) {
+      this.key = key;
+      this.offsets = offsets;
+      this.toStops = toStops;
+      this.durations = durations;
+      this.c1s = c1s;
+      this.distances = distances;
+    }
+
+    private static EncodedIndex encode(
+      List<List<Transfer>> transfersByStopIndex,
+      RouteRequest request
+    ) {
+      var streetRequest = StreetSearchRequestMapper.mapToTransferRequest(request).build();
+      var index = RaptorTransferIndex.create(transfersByStopIndex, streetRequest);
+      var key = RaptorRequestTransferCache.key(streetRequest);
+
+      int size = 0;
+      for (int i = 0; i < index.size(); ++i) {
+        size += index.getForwardTransfers(i).size();
+      }
+
+      int[] offsets = new int[index.size() + 1];
+      int[] toStops = new int[size];
+      int[] durations = new int[size];
+      int[] c1s = new int[size];
+      int[] distances = new int[size];
+      int n = 0;
+
+      for (int i = 0; i < index.size(); ++i) {
+        offsets[i] = n;
+        for (RaptorTransfer it : index.getForwardTransfers(i)) {
+          toStops[n] = it.stop();
+          durations[n] = it.durationInSeconds();
+          c1s[n] = it.c1();
+          distances[n] = ((DefaultRaptorTransfer) it).transfer().getDistanceMeters();
+          ++n;
+        }
+      }
+      offsets[index.size()] = n;
+      return new EncodedIndex(key, offsets, toStops, durations, c1s, distances);
+    }
+
+    /**
+     * Return the decoded index or {@code null} if a transfer could not be resolved.
+     */
+    @Nullable
+    private RaptorTransferIndex decode(
+      List<List<Transfer>> transfersByStopIndex,
+      StreetMode mode
+    ) {
+      var forwardTransfers = new ArrayList<List<RaptorTransfer>>(transfersByStopIndex.size());
+
+      for (int fromStop = 0; fromStop < transfersByStopIndex.size(); ++fromStop) {
+        var candidates = transfersByStopIndex.get(fromStop);
+        var transfers = new ArrayList<RaptorTransfer>(offsets[fromStop + 1] - offsets[fromStop]);
+
+        for (int i = offsets[fromStop]; i < offsets[fromStop + 1]; ++i) {
+          var transfer = findTransfer(candidates, toStops[i], distances[i], mode);
+          if (transfer == null) {
+            return null;
+          }
+          transfers.add(new DefaultRaptorTransfer(toStops[i], durations[i], c1s[i], transfer));
+        }
+        forwardTransfers.add(transfers);
+      }
+      return RaptorTransferIndex.ofForwardTransfers(forwardTransfers);
+    }
+
+    @Nullable
+    private static Transfer findTransfer(
+      List<Transfer> candidates,
+      int toStop,
+      int distanceMeters,
+      StreetMode mode
+    ) {
+      for (Transfer it : candidates) {
+        if (
+          it.getToStop() == toStop &&
+          it.getDistanceMeters() == distanceMeters &&
+          it.allowsMode(mode)
+        ) {
+          return it;
+        }
+      }
+      return null;
+    }
+  }
+}
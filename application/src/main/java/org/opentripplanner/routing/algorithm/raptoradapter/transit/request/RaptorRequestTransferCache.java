@@ -1,11 +1,17 @@
 package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
 
+import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import java.io.Serializable;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import javax.annotation.Nullable;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.RaptorTransferIndex;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.Transfer;
 import org.opentripplanner.routing.api.request.RouteRequest;
@@ -26,8 +32,34 @@ public class RaptorRequestTransferCache {
 
   private final LoadingCache<CacheKey, RaptorTransferIndex> transferCache;
 
+  /**
+   * The indexes created for the transfer cache requests at startup. These are never evicted and
+   * are used as the nearest profile for requests with a slightly different walk speed or
+   * reluctance.
+   */
+  private final Map<CacheKey, RaptorTransferIndex> profiles = new ConcurrentHashMap<>();
+
+  /**
+   * The nearest profile for each request looked up, or empty if no profile is near enough.
+   */
+  private final Cache<CacheKey, Optional<CacheKey>> nearestProfileCache;
+  private final double walkTolerance;
+
   public RaptorRequestTransferCache(int maximumSize) {
-    transferCache = CacheBuilder.newBuilder().maximumSize(maximumSize).build(cacheLoader());
+    this(maximumSize, 0.0);
+  }
+
+  /**
+   * @param walkTolerance The maximum relative difference in walk speed and walk reluctance for
+   *                      which a request may use the transfers of the nearest profile. Only
+   *                      profiles which walk at the same speed or slower, with the same or a
+   *                      higher reluctance, are used. If zero, only the transfers for the exact
+   *                      same options are used.
+   */
+  public RaptorRequestTransferCache(int maximumSize, double walkTolerance) {
+    this.transferCache = CacheBuilder.newBuilder().maximumSize(maximumSize).build(cacheLoader());
+    this.nearestProfileCache = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+    this.walkTolerance = walkTolerance;
   }
 
   public LoadingCache<CacheKey, RaptorTransferIndex> getTransferCache() {
@@ -35,24 +67,98 @@ public class RaptorRequestTransferCache {
   }
 
   public void put(List<List<Transfer>> transfersByStopIndex, RouteRequest request) {
+    put(transfersByStopIndex, request, PrecomputedTransferIndexes.empty());
+  }
+
+  /**
+   * Initialize the cache for the given request. The precomputed index for the request is used if
+   * it exists, if not the index is calculated.
+   */
+  public void put(
+    List<List<Transfer>> transfersByStopIndex,
+    RouteRequest request,
+    PrecomputedTransferIndexes precomputedIndexes
+  ) {
     final CacheKey cacheKey = new CacheKey(transfersByStopIndex, request);
-    final RaptorTransferIndex raptorTransferIndex = RaptorTransferIndex.create(
+    RaptorTransferIndex raptorTransferIndex = precomputedIndexes.get(
       transfersByStopIndex,
       cacheKey.request
     );
 
-    LOG.info("Initializing cache with request: {}", cacheKey.options);
+    if (raptorTransferIndex == null) {
+      LOG.info("Initializing cache with request: {}", cacheKey.options);
+      raptorTransferIndex = RaptorTransferIndex.create(transfersByStopIndex, cacheKey.request);
+    } else {
+      LOG.info("Initializing cache with precomputed request: {}", cacheKey.options);
+    }
     transferCache.put(cacheKey, raptorTransferIndex);
+    profiles.put(cacheKey, raptorTransferIndex);
   }
 
   public RaptorTransferIndex get(List<List<Transfer>> transfersByStopIndex, RouteRequest request) {
     try {
-      return transferCache.get(new CacheKey(transfersByStopIndex, request));
+      var cacheKey = new CacheKey(transfersByStopIndex, request);
+      if (walkTolerance > 0.0) {
+        var index = getNearestProfile(cacheKey);
+        if (index != null) {
+          return index;
+        }
+      }
+      return transferCache.get(cacheKey);
     } catch (ExecutionException e) {
       throw new RuntimeException("Failed to get item from transfer cache", e);
     }
   }
 
+  /**
+   * The key used to identify precomputed indexes, two requests with an equal key have the same
+   * transfers. The key is compared by the value of each transfer relevant option, not by its
+   * string representation.
+   */
+  static StreetRelevantOptions key(StreetSearchRequest request) {
+    return new StreetRelevantOptions(request);
+  }
+
+  /**
+   * Return the cached index if it exists, if not the index of the nearest profile within the walk
+   * tolerance. Return {@code null} if no such index exists.
+   */
+  @Nullable
+  private RaptorTransferIndex getNearestProfile(CacheKey cacheKey) throws ExecutionException {
+    var index = transferCache.getIfPresent(cacheKey);
+    if (index != null) {
+      return index;
+    }
+    return nearestProfileCache
+      .get(cacheKey, () -> findNearestProfile(cacheKey))
+      .map(profiles::get)
+      .orElse(null);
+  }
+
+  private Optional<CacheKey> findNearestProfile(CacheKey cacheKey) {
+    CacheKey nearest = null;
+    double nearestDeviation = Double.MAX_VALUE;
+
+    for (CacheKey profile : profiles.keySet()) {
+      if (
+        profile.transfersByStopIndex != cacheKey.transfersByStopIndex ||
+        !profile.options.equalsIgnoreWalkSpeedAndReluctance(cacheKey.options) ||
+        !profile.options.isWalkSlowerOrEqual(cacheKey.options)
+      ) {
+        continue;
+      }
+      double deviation = profile.options.walkDeviation(cacheKey.options);
+      if (deviation <= walkTolerance && deviation < nearestDeviation) {
+        nearest = profile;
+        nearestDeviation = deviation;
+      }
+    }
+    if (nearest != null) {
+      LOG.debug("Using transfers for {} for request: {}", nearest.options, cacheKey.options);
+    }
+    return Optional.ofNullable(nearest);
+  }
+
   private CacheLoader<CacheKey, RaptorTransferIndex> cacheLoader() {
     return new CacheLoader<>() {
       @Override
@@ -102,8 +208,10 @@ public class RaptorRequestTransferCache {
   /**
    * This contains an extract of the parameters which may influence transfers.
    * <p>
+   * It is serialized with the {@link PrecomputedTransferIndexes}, so all fields must be
+   * serializable value objects.
    */
-  private static class StreetRelevantOptions {
+  static class StreetRelevantOptions implements Serializable {
 
     private final StreetMode transferMode;
     private final boolean wheelchair;
@@ -124,6 +232,39 @@ public class RaptorRequestTransferCache {
         this.wheelchair ? preferences.wheelchair() : WheelchairPreferences.DEFAULT;
     }
 
+    /**
+     * Return {@code true} if all options except the walk speed and walk reluctance are equal.
+     */
+    private boolean equalsIgnoreWalkSpeedAndReluctance(StreetRelevantOptions other) {
+      var walkWithOtherSpeedAndReluctance = walk
+        .copyOf()
+        .withSpeed(other.walk.speed())
+        .withReluctance(other.walk.reluctance())
+        .build();
+      return equals(other, walkWithOtherSpeedAndReluctance);
+    }
+
+    /**
+     * Return {@code true} if the walk speed is lower than or equal to, and the walk reluctance is
+     * higher than or equal to the other options. The transfers of this instance are then never
+     * shorter or cheaper than the transfers of the other, so a request using them does not find
+     * connections which can not be made.
+     */
+    private boolean isWalkSlowerOrEqual(StreetRelevantOptions other) {
+      return walk.speed() <= other.walk.speed() && walk.reluctance() >= other.walk.reluctance();
+    }
+
+    /**
+     * The largest relative difference of the walk speed and walk reluctance, relative to the
+     * values of this instance.
+     */
+    private double walkDeviation(StreetRelevantOptions other) {
+      return Math.max(
+        Math.abs(other.walk.speed() - walk.speed()) / walk.speed(),
+        Math.abs(other.walk.reluctance() - walk.reluctance()) / walk.reluctance()
+      );
+    }
+
     @Override
     public String toString() {
       return ToStringBuilder
@@ -150,6 +291,10 @@ public class RaptorRequestTransferCache {
       if (!(o instanceof StreetRelevantOptions that)) {
         return false;
       }
+      return equals(that, walk);
+    }
+
+    private boolean equals(StreetRelevantOptions that, WalkPreferences walk) {
       return (
         transferMode == that.transferMode &&
         wheelchair == that.wheelchair &&
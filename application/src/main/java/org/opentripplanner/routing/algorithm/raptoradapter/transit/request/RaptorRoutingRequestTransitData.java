@@ -10,12 +10,14 @@ import org.opentripplanner.model.transfer.TransferService;
 import org.opentripplanner.raptor.api.model.RaptorConstrainedTransfer;
 import org.opentripplanner.raptor.api.model.RaptorStopNameResolver;
 import org.opentripplanner.raptor.api.model.RaptorTransfer;
+import org.opentripplanner.raptor.api.model.SearchDirection;
 import org.opentripplanner.raptor.spi.IntIterator;
 import org.opentripplanner.raptor.spi.RaptorConstrainedBoardingSearch;
 import org.opentripplanner.raptor.spi.RaptorCostCalculator;
 import org.opentripplanner.raptor.spi.RaptorPathConstrainedTransferSearch;
 import org.opentripplanner.raptor.spi.RaptorRoute;
 import org.opentripplanner.raptor.spi.RaptorSlackProvider;
+import org.opentripplanner.raptor.spi.RaptorTransferCursor;
 import org.opentripplanner.raptor.spi.RaptorTransitDataProvider;
 import org.opentripplanner.raptor.util.BitSetIterator;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.RaptorTransferIndex;
@@ -27,6 +29,8 @@ import org.opentripplanner.routing.algorithm.raptoradapter.transit.constrainedtr
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.cost.CostCalculatorFactory;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.mappers.GeneralizedCostParametersMapper;
 import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.framework.DurationForEnum;
+import org.opentripplanner.transit.model.basic.TransitMode;
 import org.opentripplanner.transit.model.network.RoutingTripPattern;
 import org.opentripplanner.transit.model.network.grouppriority.TransitGroupPriorityService;
 import org.opentripplanner.utils.time.ServiceDateUtils;
@@ -69,6 +73,8 @@ public class RaptorRoutingRequestTransitData implements RaptorTransitDataProvide
 
   private final int validTransitDataEndTime;
 
+  private final HeuristicsCacheKey heuristicsCacheKey;
+
   public RaptorRoutingRequestTransitData(
     TransitLayer transitLayer,
     TransitGroupPriorityService transitGroupPriorityService,
@@ -82,21 +88,29 @@ public class RaptorRoutingRequestTransitData implements RaptorTransitDataProvide
     this.transitLayer = transitLayer;
     this.transitSearchTimeZero = transitSearchTimeZero;
 
-    // Delegate to the creator to construct the needed data structures. The code is messy so
-    // it is nice to NOT have it in the class. It isolates this code to only be available at
-    // the time of construction
-    var transitDataCreator = new RaptorRoutingRequestTransitDataCreator(
-      transitLayer,
-      transitSearchTimeZero
-    );
-    List<TripPatternForDates> tripPatterns = transitDataCreator.createTripPatterns(
-      additionalPastSearchDays,
-      additionalFutureSearchDays,
-      filter,
-      transitGroupPriorityService
-    );
-    this.patternIndex = transitDataCreator.createPatternIndex(tripPatterns);
-    this.activeTripPatternsPerStop = transitDataCreator.createTripPatternsPerStop(tripPatterns);
+    // The trip patterns only depend on the search period and the filter, so they can be shared
+    // between requests. The transit group priority is part of the trip patterns, but it is
+    // resolved per request - hence we can not cache the patterns if it is enabled.
+    var tripPatterns = transitLayer
+      .getTripPatternForDatesCache()
+      .get(
+        transitSearchTimeZero,
+        additionalPastSearchDays,
+        additionalFutureSearchDays,
+        filter,
+        !transitGroupPriorityService.isEnabled(),
+        () ->
+          createTripPatterns(
+            transitLayer,
+            transitGroupPriorityService,
+            transitSearchTimeZero,
+            additionalPastSearchDays,
+            additionalFutureSearchDays,
+            filter
+          )
+      );
+    this.patternIndex = tripPatterns.patternIndex();
+    this.activeTripPatternsPerStop = tripPatterns.activeTripPatternsPerStop();
     this.transferIndex = transitLayer.getRaptorTransfersForRequest(request);
     this.constrainedTransfers = transitLayer.getConstrainedTransfers();
 
@@ -126,6 +140,19 @@ public class RaptorRoutingRequestTransitData implements RaptorTransitDataProvide
         this.transitSearchTimeZero,
         this.transitSearchTimeZero.plusDays(additionalFutureSearchDays + 1).toInstant()
       );
+
+    this.heuristicsCacheKey =
+      new HeuristicsCacheKey(
+        transitLayer.getVersion(),
+        transitSearchTimeZero,
+        additionalPastSearchDays,
+        additionalFutureSearchDays,
+        filter,
+        transferIndex,
+        (int) request.preferences().transfer().slack().toSeconds(),
+        request.preferences().transit().boardSlack(),
+        request.preferences().transit().alightSlack()
+      );
   }
 
   public RaptorRoutingRequestTransitData(
@@ -143,16 +170,49 @@ public class RaptorRoutingRequestTransitData implements RaptorTransitDataProvide
     this.validTransitDataEndTime = original.validTransitDataEndTime;
     this.generalizedCostCalculator = newCostCalculator;
     this.slackProvider = original.slackProvider();
+    this.heuristicsCacheKey = original.heuristicsCacheKey;
+  }
+
+  private static TripPatternForDatesCache.TripPatternsForRequest createTripPatterns(
+    TransitLayer transitLayer,
+    TransitGroupPriorityService transitGroupPriorityService,
+    ZonedDateTime transitSearchTimeZero,
+    int additionalPastSearchDays,
+    int additionalFutureSearchDays,
+    TransitDataProviderFilter filter
+  ) {
+    // Delegate to the creator to construct the needed data structures. The code is messy so
+    // it is nice to NOT have it in the class. It isolates this code to only be available at
+    // the time of construction
+    var transitDataCreator = new RaptorRoutingRequestTransitDataCreator(
+      transitLayer,
+      transitSearchTimeZero
+    );
+    List<TripPatternForDates> tripPatterns = transitDataCreator.createTripPatterns(
+      additionalPastSearchDays,
+      additionalFutureSearchDays,
+      filter,
+      transitGroupPriorityService
+    );
+    return new TripPatternForDatesCache.TripPatternsForRequest(
+      transitDataCreator.createPatternIndex(tripPatterns),
+      transitDataCreator.createTripPatternsPerStop(tripPatterns)
+    );
   }
 
   @Override
   public Iterator<RaptorTransfer> getTransfersFromStop(int stopIndex) {
-    return transferIndex.getForwardTransfers(stopIndex).iterator();
+    return transferIndex.forwardTransferIterator(stopIndex);
   }
 
   @Override
   public Iterator<? extends RaptorTransfer> getTransfersToStop(int stopIndex) {
-    return transferIndex.getReversedTransfers(stopIndex).iterator();
+    return transferIndex.reversedTransferIterator(stopIndex);
+  }
+
+  @Override
+  public RaptorTransferCursor createTransferCursor(SearchDirection direction) {
+    return transferIndex.createCursor(direction);
   }
 
   @Override
@@ -259,4 +319,36 @@ public class RaptorRoutingRequestTransitData implements RaptorTransitDataProvide
     }
     return new ConstrainedBoardingSearch(false, toStopTransfers, fromStopTransfers);
   }
+
+  /**
+   * The key contains the transit layer version, the search period, the filter, the transfer index
+   * and the slack, see {@link HeuristicsCacheKey}. The cost parameters, including the transfer
+   * costs, are not part of the key, the heuristics cache only keeps the travel duration and number
+   * of transfers.
+   */
+  @Override
+  public Object heuristicsCacheKey() {
+    return heuristicsCacheKey;
+  }
+
+  /**
+   * Everything in the transit data used by a heuristic search. The transit layer is identified by
+   * its version, to avoid keeping old transit layers in the cache. The transfer index is cached
+   * per request type in the {@link RaptorRequestTransferCache}, so it is compared by identity. The
+   * transfer durations are part of the index, so two requests with the same index have the same
+   * transfers.
+   * The {@code filter} must implement {@code equals()} and {@code hashCode()}, if not the cache
+   * will never be hit.
+   */
+  private record HeuristicsCacheKey(
+    long transitLayerVersion,
+    ZonedDateTime transitSearchTimeZero,
+    int additionalPastSearchDays,
+    int additionalFutureSearchDays,
+    TransitDataProviderFilter filter,
+    RaptorTransferIndex transferIndex,
+    int transferSlack,
+    DurationForEnum<TransitMode> boardSlack,
+    DurationForEnum<TransitMode> alightSlack
+  ) {}
 }
@@ -14,6 +14,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Predicate;
+import javax.annotation.Nullable;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitLayer;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripPatternForDate;
 import org.opentripplanner.transit.model.network.RoutingTripPattern;
@@ -84,17 +85,63 @@ class RaptorRoutingRequestTransitDataCreator {
     return Arrays.asList(result);
   }
 
+  /**
+   * Same as {@link #merge(ZonedDateTime, List, TransitDataProviderFilter,
+   * TransitGroupPriorityService, TimeExpandedTripTimesCache.ForSearchPeriod)}, but the trip times
+   * of the given trip patterns are already filtered and the time-expanded trip times are not
+   * shared.
+   */
+  static List<TripPatternForDates> merge(
+    ZonedDateTime transitSearchTimeZero,
+    List<TripPatternForDate> patternForDateList,
+    TransitDataProviderFilter filter,
+    TransitGroupPriorityService transitGroupPriorityService
+  ) {
+    return merge(
+      transitSearchTimeZero,
+      patternForDateList,
+      filter,
+      transitGroupPriorityService,
+      TimeExpandedTripTimesCache.notCached(),
+      false
+    );
+  }
+
   /**
    * This method merges several list of TripPatterns for several consecutive dates into a single
    * list of TripPatternsForDates. The purpose of doing this is so that TripSchedules for several
    * dates are combined by TripPattern instead of having their own TripPattern. This is to improve
    * performance for searching, as each TripPattern is searched only once per round.
+   * <p>
+   * The given trip patterns are NOT filtered on trip times. The time-expanded times are created
+   * from, and shared for, the unfiltered trip patterns, while the trip times filter is applied for
+   * each request on top of them. If the times are not cached, the trip times are filtered first
+   * and the times are only created for the trips included by the filter.
    */
   static List<TripPatternForDates> merge(
     ZonedDateTime transitSearchTimeZero,
     List<TripPatternForDate> patternForDateList,
     TransitDataProviderFilter filter,
-    TransitGroupPriorityService transitGroupPriorityService
+    TransitGroupPriorityService transitGroupPriorityService,
+    TimeExpandedTripTimesCache.ForSearchPeriod sharedTimes
+  ) {
+    return merge(
+      transitSearchTimeZero,
+      patternForDateList,
+      filter,
+      transitGroupPriorityService,
+      sharedTimes,
+      true
+    );
+  }
+
+  private static List<TripPatternForDates> merge(
+    ZonedDateTime transitSearchTimeZero,
+    List<TripPatternForDate> patternForDateList,
+    TransitDataProviderFilter filter,
+    TransitGroupPriorityService transitGroupPriorityService,
+    TimeExpandedTripTimesCache.ForSearchPeriod sharedTimes,
+    boolean filterTripTimes
   ) {
     // Group TripPatternForDate objects by TripPattern.
     // This is done in a loop to increase performance.
@@ -131,26 +178,18 @@ class RaptorRoutingRequestTransitDataCreator {
       }
 
       // Combine TripPatternForDate objects
-      final RoutingTripPattern tripPattern = patternEntry.getKey();
-
-      combinedList.add(
-        new TripPatternForDates(
-          tripPattern,
-          patternsSorted,
-          offsets,
-          filter.filterAvailableStops(
-            tripPattern,
-            tripPattern.getBoardingPossible(),
-            BoardAlight.BOARD
-          ),
-          filter.filterAvailableStops(
-            tripPattern,
-            tripPattern.getAlightingPossible(),
-            BoardAlight.ALIGHT
-          ),
-          transitGroupPriorityService.lookupTransitGroupPriorityId(tripPattern.getPattern())
-        )
+      var tripPatternForDates = createTripPatternForDates(
+        patternEntry.getKey(),
+        patternsSorted,
+        offsets,
+        filter,
+        transitGroupPriorityService,
+        sharedTimes,
+        filterTripTimes
       );
+      if (tripPatternForDates != null) {
+        combinedList.add(tripPatternForDates);
+      }
     }
 
     return combinedList;
@@ -168,7 +207,126 @@ class RaptorRoutingRequestTransitDataCreator {
       filter
     );
 
-    return merge(transitSearchTimeZero, tripPatternForDates, filter, transitGroupPriorityService);
+    var sharedTimes = transitLayer
+      .getTripPatternForDatesCache()
+      .timeExpandedTripTimes()
+      .forSearchPeriod(transitSearchTimeZero, additionalPastSearchDays, additionalFutureSearchDays);
+
+    return merge(
+      transitSearchTimeZero,
+      tripPatternForDates,
+      filter,
+      transitGroupPriorityService,
+      sharedTimes
+    );
+  }
+
+  /**
+   * Filter the trip times of the given trip patterns and combine them into one
+   * {@link TripPatternForDates}, or return {@code null} if no trips are left.
+   */
+  @Nullable
+  private static TripPatternForDates createTripPatternForDates(
+    RoutingTripPattern tripPattern,
+    TripPatternForDate[] patternsSorted,
+    int[] offsets,
+    TransitDataProviderFilter filter,
+    TransitGroupPriorityService transitGroupPriorityService,
+    TimeExpandedTripTimesCache.ForSearchPeriod sharedTimes,
+    boolean filterTripTimes
+  ) {
+    var tripTimesPredicate = filterTripTimes ? tripTimesPredicate(tripPattern, filter) : null;
+    var filtered = new TripPatternForDate[patternsSorted.length];
+    var filteredPatterns = new ArrayList<TripPatternForDate>(patternsSorted.length);
+    var filteredOffsets = new TIntArrayList(patternsSorted.length);
+    boolean allTripsIncluded = true;
+
+    for (int i = 0; i < patternsSorted.length; i++) {
+      filtered[i] =
+        tripTimesPredicate == null
+          ? patternsSorted[i]
+          : patternsSorted[i].newWithFilteredTripTimes(tripTimesPredicate);
+      if (filtered[i] != patternsSorted[i]) {
+        allTripsIncluded = false;
+      }
+      if (filtered[i] != null) {
+        filteredPatterns.add(filtered[i]);
+        filteredOffsets.add(offsets[i]);
+      }
+    }
+    if (filteredPatterns.isEmpty()) {
+      return null;
+    }
+
+    var patterns = filteredPatterns.toArray(new TripPatternForDate[0]);
+    var patternOffsets = filteredOffsets.toArray();
+    TimeExpandedTripTimes times;
+    int[] tripIndexes;
+
+    if (allTripsIncluded) {
+      times = sharedTimes.get(tripPattern, patternsSorted, offsets);
+      tripIndexes = null;
+    } else if (sharedTimes.isCached()) {
+      times = sharedTimes.get(tripPattern, patternsSorted, offsets);
+      tripIndexes = tripIndexes(patternsSorted, filtered);
+    } else {
+      // The times are not shared, so only the times of the filtered trips are created
+      times = sharedTimes.get(tripPattern, patterns, patternOffsets);
+      tripIndexes = null;
+    }
+
+    return new TripPatternForDates(
+      tripPattern,
+      patterns,
+      patternOffsets,
+      times,
+      tripIndexes,
+      filter.filterAvailableStops(
+        tripPattern,
+        tripPattern.getBoardingPossible(),
+        BoardAlight.BOARD
+      ),
+      filter.filterAvailableStops(
+        tripPattern,
+        tripPattern.getAlightingPossible(),
+        BoardAlight.ALIGHT
+      ),
+      transitGroupPriorityService.lookupTransitGroupPriorityId(tripPattern.getPattern())
+    );
+  }
+
+  /**
+   * Find the index in the time-expanded trip times of each trip included by the filter. The
+   * filtered trips are in the same order as the unfiltered trips.
+   */
+  private static int[] tripIndexes(TripPatternForDate[] patterns, TripPatternForDate[] filtered) {
+    var result = new TIntArrayList();
+    int start = 0;
+    for (int d = 0; d < patterns.length; d++) {
+      var all = patterns[d];
+      var included = filtered[d];
+      if (included != null) {
+        int k = 0;
+        int nIncluded = included.numberOfTripSchedules();
+        for (int t = 0; t < all.numberOfTripSchedules() && k < nIncluded; t++) {
+          if (all.getTripTimes(t) == included.getTripTimes(k)) {
+            result.add(start + t);
+            k++;
+          }
+        }
+      }
+      start += all.numberOfTripSchedules();
+    }
+    return result.toArray();
+  }
+
+  private static Predicate<TripTimes> tripTimesPredicate(
+    RoutingTripPattern tripPattern,
+    TransitDataProviderFilter filter
+  ) {
+    boolean withSubModes =
+      tripPattern.getPattern().getContainsMultipleModes() && filter.hasSubModeFilters();
+    return tripTimes -> filter.tripTimesPredicate(tripTimes, withSubModes);
   }
 
   private static List<TripPatternForDate> filterActiveTripPatterns(
@@ -180,12 +338,8 @@ class RaptorRoutingRequestTransitDataCreator {
     // On the first search day we want to add both TripPatternsForDate objects that start that day
     // and any previous day, while on subsequent search days we only want to add the
     // TripPatternForDate objects that start on that particular day. This is to prevent duplicates.
-    // This was previously a stream, but was unrolled for improved performance.
-
-    Predicate<TripTimes> tripTimesWithSubmodesPredicate = tripTimes ->
-      filter.tripTimesPredicate(tripTimes, filter.hasSubModeFilters());
-    Predicate<TripTimes> tripTimesWithoutSubmodesPredicate = tripTimes ->
-      filter.tripTimesPredicate(tripTimes, false);
+    // This was previously a stream, but was unrolled for improved performance. The trip times are
+    // filtered later, when the patterns are merged.
     Collection<TripPatternForDate> tripPatternsForDate = transitLayer.getTripPatternsForRunningDate(
       date
     );
@@ -193,13 +347,7 @@ class RaptorRoutingRequestTransitDataCreator {
     for (TripPatternForDate p : tripPatternsForDate) {
       if (firstDay || p.getStartOfRunningPeriod().equals(date)) {
         if (filter.tripPatternPredicate(p)) {
-          var tripTimesPredicate = p.getTripPattern().getPattern().getContainsMultipleModes()
-            ? tripTimesWithSubmodesPredicate
-            : tripTimesWithoutSubmodesPredicate;
-          TripPatternForDate tripPatternForDate = p.newWithFilteredTripTimes(tripTimesPredicate);
-          if (tripPatternForDate != null) {
-            result.add(tripPatternForDate);
-          }
+          result.add(p);
         }
       }
     }
@@ -1,7 +1,9 @@
 package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
 
+import java.util.Arrays;
 import java.util.BitSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 import org.opentripplanner.model.PickDrop;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripPatternForDate;
@@ -187,4 +189,43 @@ public class RouteRequestTransitDataProviderFilter implements TransitDataProvide
     }
     return result;
   }
+
+  /**
+   * Two filters are equal if they include the same trip patterns and trips. This is used to share
+   * the filtered transit data between requests, see {@link TripPatternForDatesCache}.
+   */
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    RouteRequestTransitDataProviderFilter that = (RouteRequestTransitDataProviderFilter) o;
+    return (
+      requireBikesAllowed == that.requireBikesAllowed &&
+      requireCarsAllowed == that.requireCarsAllowed &&
+      wheelchairEnabled == that.wheelchairEnabled &&
+      includePlannedCancellations == that.includePlannedCancellations &&
+      includeRealtimeCancellations == that.includeRealtimeCancellations &&
+      // The wheelchair preferences are only used if wheelchair is enabled
+      (!wheelchairEnabled || Objects.equals(wheelchairPreferences, that.wheelchairPreferences)) &&
+      Objects.equals(bannedTrips, that.bannedTrips) &&
+      Arrays.equals(filters, that.filters)
+    );
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(
+      requireBikesAllowed,
+      requireCarsAllowed,
+      wheelchairEnabled,
+      includePlannedCancellations,
+      includeRealtimeCancellations,
+      bannedTrips,
+      Arrays.hashCode(filters)
+    );
+  }
 }
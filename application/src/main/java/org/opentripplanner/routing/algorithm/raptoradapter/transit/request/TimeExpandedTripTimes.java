@@ -0,0 +1,98 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
+
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripPatternForDate;
+import org.opentripplanner.transit.model.basic.Accessibility;
+
+/**
+ * The arrival and departure times for all trips in a trip pattern on a range of consecutive
+ * service dates, time-shifted with the offset of each date. The trips are sorted by date and then
+ * by the order in each {@link TripPatternForDate}.
+ * <p>
+ * Building these arrays is the most expensive part of preparing the transit data for Raptor, so
+ * they are built once for each transit layer and search period and shared between requests. The
+ * filtering done for each request is applied on top of this, see {@link TripPatternForDates}.
+ * <p>
+ * THREAD SAFETY - This class is immutable, the arrays must not be changed after construction.
+ */
+final class TimeExpandedTripTimes {
+
+  private final TripPatternForDate[] tripPatternForDates;
+  private final int[] offsets;
+  private final int numberOfTrips;
+
+  /**
+   * The arrival times in a nStops * numberOfTrips sized array. The trips are stored first by the
+   * stop position and then by trip index, so with stops 1 and 2, and trips A and B, the order is
+   * [1A, 1B, 2A, 2B]
+   */
+  private final int[] arrivalTimes;
+
+  /**
+   * The departure times in a nStops * numberOfTrips sized array. The order is the same as in
+   * arrivalTimes.
+   */
+  private final int[] departureTimes;
+
+  private final Accessibility[] wheelchairBoardings;
+
+  TimeExpandedTripTimes(int nStops, TripPatternForDate[] tripPatternForDates, int[] offsets) {
+    this.tripPatternForDates = tripPatternForDates;
+    this.offsets = offsets;
+
+    int numberOfTrips = 0;
+    for (TripPatternForDate tripPatternForDate : tripPatternForDates) {
+      numberOfTrips += tripPatternForDate.numberOfTripSchedules();
+    }
+    this.numberOfTrips = numberOfTrips;
+    this.arrivalTimes = new int[nStops * numberOfTrips];
+    this.departureTimes = new int[nStops * numberOfTrips];
+    this.wheelchairBoardings = new Accessibility[numberOfTrips];
+
+    int i = 0;
+    for (int d = 0; d < tripPatternForDates.length; d++) {
+      int offset = offsets[d];
+      for (var trip : tripPatternForDates[d].tripTimes()) {
+        wheelchairBoardings[i] = trip.getWheelchairAccessibility();
+        for (int s = 0; s < nStops; s++) {
+          arrivalTimes[s * numberOfTrips + i] = trip.getArrivalTime(s) + offset;
+          departureTimes[s * numberOfTrips + i] = trip.getDepartureTime(s) + offset;
+        }
+        i++;
+      }
+    }
+  }
+
+  /**
+   * Return {@code true} if these times are created from the given trip patterns and offsets. The
+   * trip patterns are compared by identity, they are immutable and replaced when updated.
+   */
+  boolean isCreatedFrom(TripPatternForDate[] tripPatternForDates, int[] offsets) {
+    if (this.tripPatternForDates.length != tripPatternForDates.length) {
+      return false;
+    }
+    for (int i = 0; i < tripPatternForDates.length; ++i) {
+      if (
+        this.tripPatternForDates[i] != tripPatternForDates[i] || this.offsets[i] != offsets[i]
+      ) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  int numberOfTrips() {
+    return numberOfTrips;
+  }
+
+  int[] arrivalTimes() {
+    return arrivalTimes;
+  }
+
+  int[] departureTimes() {
+    return departureTimes;
+  }
+
+  Accessibility wheelchairBoarding(int tripIndex) {
+    return wheelchairBoardings[tripIndex];
+  }
+}
@@ -0,0 +1,140 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.time.ZonedDateTime;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import javax.annotation.Nullable;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripPatternForDate;
+import org.opentripplanner.transit.model.network.RoutingTripPattern;
+
+/**
+ * Share the {@link TimeExpandedTripTimes} of each trip pattern between requests with the same
+ * search period. The times are created the first time a pattern is used in a search period, and
+ * kept until the search period is evicted from the cache. Each search period may hold the times
+ * for all trips in the period, so the cache is only enabled together with the trip pattern cache,
+ * see {@link TripPatternForDatesCache}.
+ * <p>
+ * An instance of this cache belongs to exactly one
+ * {@link org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitLayer}, through its
+ * {@link TripPatternForDatesCache}. A new empty cache is created for each new realtime transit
+ * layer.
+ * <p>
+ * THREAD SAFETY - This class is thread-safe. The times for a pattern are only created once, if
+ * more than one request need them at the same time, one of them creates them while the others
+ * wait.
+ */
+final class TimeExpandedTripTimesCache {
+
+  /**
+   * Only a few search periods are in use at the same time - one for each search date and number
+   * of additional search days. Each of them may hold the times for all trips in the period, so
+   * this is kept low.
+   */
+  static final int MAX_SEARCH_PERIODS = 4;
+
+  /** The cache is {@code null} if caching is disabled. */
+  @Nullable
+  private final Cache<SearchPeriod, ForSearchPeriod> cache;
+
+  /**
+   * @param maximumSize The maximum number of search periods to cache, at most
+   *                    {@link #MAX_SEARCH_PERIODS}. Use {@code 0} to disable caching.
+   */
+  TimeExpandedTripTimesCache(int maximumSize) {
+    this.cache =
+      maximumSize > 0
+        ? CacheBuilder.newBuilder().maximumSize(Math.min(maximumSize, MAX_SEARCH_PERIODS)).build()
+        : null;
+  }
+
+  /**
+   * Return the shared times for the given search period, or an instance which creates new times
+   * for each call if caching is disabled.
+   */
+  ForSearchPeriod forSearchPeriod(
+    ZonedDateTime transitSearchTimeZero,
+    int additionalPastSearchDays,
+    int additionalFutureSearchDays
+  ) {
+    if (cache == null) {
+      return notCached();
+    }
+    var key = new SearchPeriod(
+      transitSearchTimeZero,
+      additionalPastSearchDays,
+      additionalFutureSearchDays
+    );
+    try {
+      return cache.get(key, () -> new ForSearchPeriod(new ConcurrentHashMap<>()));
+    } catch (ExecutionException e) {
+      throw new RuntimeException("Failed to get item from trip times cache", e);
+    }
+  }
+
+  /**
+   * Return an instance which creates new times for each call, used when the search period is
+   * unknown or caching is disabled.
+   */
+  static ForSearchPeriod notCached() {
+    return new ForSearchPeriod(null);
+  }
+
+  static final class ForSearchPeriod {
+
+    /** The times by pattern, {@code null} if the times are not cached. */
+    @Nullable
+    private final ConcurrentMap<RoutingTripPattern, TimeExpandedTripTimes> timesByPattern;
+
+    private ForSearchPeriod(
+      @Nullable ConcurrentMap<RoutingTripPattern, TimeExpandedTripTimes> timesByPattern
+    ) {
+      this.timesByPattern = timesByPattern;
+    }
+
+    /**
+     * Return {@code true} if the times are shared between the requests for the search period. If
+     * not, new times are created for each call.
+     */
+    boolean isCached() {
+      return timesByPattern != null;
+    }
+
+    /**
+     * Get the times for the given pattern, the {@code tripPatternForDates} must be sorted on date.
+     * If the times are cached, the {@code tripPatternForDates} must NOT be filtered for the
+     * request.
+     */
+    TimeExpandedTripTimes get(
+      RoutingTripPattern tripPattern,
+      TripPatternForDate[] tripPatternForDates,
+      int[] offsets
+    ) {
+      int nStops = tripPattern.numberOfStopsInPattern();
+
+      if (timesByPattern == null) {
+        return new TimeExpandedTripTimes(nStops, tripPatternForDates, offsets);
+      }
+      var times = timesByPattern.get(tripPattern);
+
+      if (times != null && times.isCreatedFrom(tripPatternForDates, offsets)) {
+        return times;
+      }
+      return timesByPattern.compute(
+        tripPattern,
+        (k, v) ->
+          v != null && v.isCreatedFrom(tripPatternForDates, offsets)
+            ? v
+            : new TimeExpandedTripTimes(nStops, tripPatternForDates, offsets)
+      );
+    }
+  }
+
+  private record SearchPeriod(
+    ZonedDateTime transitSearchTimeZero,
+    int additionalPastSearchDays,
+    int additionalFutureSearchDays
+  ) {}
+}
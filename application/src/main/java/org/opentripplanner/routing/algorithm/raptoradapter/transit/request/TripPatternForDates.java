@@ -2,6 +2,7 @@ package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
 
 import java.util.BitSet;
 import java.util.function.IntUnaryOperator;
+import javax.annotation.Nullable;
 import org.opentripplanner.raptor.api.model.RaptorTripPattern;
 import org.opentripplanner.raptor.api.model.SearchDirection;
 import org.opentripplanner.raptor.spi.IntIterator;
@@ -41,19 +42,26 @@ public class TripPatternForDates
   private final boolean isFrequencyBased;
 
   /**
-   * The arrival times in a nStops * numberOfTripSchedules sized array. The trips are stored first
-   * by the stop position and then by trip index, so with stops 1 and 2, and trips A and B, the
-   * order is [1A, 1B, 2A, 2B]
+   * The time-expanded times for all trips in the pattern, shared with other requests. The trips
+   * in this instance are a subset of these.
    */
-  private final int[] arrivalTimes;
+  private final TimeExpandedTripTimes times;
 
   /**
-   * The arrival times in a nStops * numberOfTripSchedules sized array. The order is the same as in
-   * arrivalTimes.
+   * The index of each trip in the shared {@link #times}, or {@code null} if all trips are
+   * included. The index is sorted, so the trips are in the same order as in the shared times.
    */
-  private final int[] departureTimes;
+  @Nullable
+  private final int[] tripIndexes;
 
-  private final Accessibility[] wheelchairBoardings;
+  /** The number of trips in the shared times, used to look up the times for a stop. */
+  private final int nSharedTrips;
+
+  /** See {@link TimeExpandedTripTimes}, cached here for fast access. */
+  private final int[] arrivalTimes;
+
+  /** See {@link TimeExpandedTripTimes}, cached here for fast access. */
+  private final int[] departureTimes;
 
   // bit arrays with boarding/alighting information for all stops on trip pattern,
   // potentially filtered by wheelchair accessibility
@@ -69,42 +77,59 @@ public class TripPatternForDates
     BitSet boardingPossible,
     BitSet alightningPossible,
     int priorityGroupId
+  ) {
+    this(
+      tripPattern,
+      tripPatternForDates,
+      offsets,
+      new TimeExpandedTripTimes(
+        tripPattern.numberOfStopsInPattern(),
+        tripPatternForDates,
+        offsets
+      ),
+      null,
+      boardingPossible,
+      alightningPossible,
+      priorityGroupId
+    );
+  }
+
+  /**
+   * @param tripPatternForDates The trip patterns filtered for the request, sorted on date.
+   * @param times               The shared times for the trip patterns NOT filtered.
+   * @param tripIndexes         The index in the shared times of each trip in the filtered
+   *                            {@code tripPatternForDates}, {@code null} if nothing is filtered.
+   */
+  TripPatternForDates(
+    RoutingTripPattern tripPattern,
+    TripPatternForDate[] tripPatternForDates,
+    int[] offsets,
+    TimeExpandedTripTimes times,
+    @Nullable int[] tripIndexes,
+    BitSet boardingPossible,
+    BitSet alightningPossible,
+    int priorityGroupId
   ) {
     this.tripPattern = tripPattern;
     this.tripPatternForDates = tripPatternForDates;
     this.offsets = offsets;
+    this.times = times;
+    this.tripIndexes = tripIndexes;
+    this.nSharedTrips = times.numberOfTrips();
+    this.arrivalTimes = times.arrivalTimes();
+    this.departureTimes = times.departureTimes();
     this.boardingPossible = boardingPossible;
     this.alightingPossible = alightningPossible;
     this.priorityGroupId = priorityGroupId;
+    this.numberOfTripSchedules = tripIndexes == null ? nSharedTrips : tripIndexes.length;
 
-    int numberOfTripSchedules = 0;
     boolean hasFrequencies = false;
     for (TripPatternForDate tripPatternForDate : this.tripPatternForDates) {
-      numberOfTripSchedules += tripPatternForDate.numberOfTripSchedules();
       if (tripPatternForDate.hasFrequencies()) {
         hasFrequencies = true;
       }
     }
-    this.numberOfTripSchedules = numberOfTripSchedules;
     this.isFrequencyBased = hasFrequencies;
-
-    wheelchairBoardings = new Accessibility[numberOfTripSchedules];
-
-    final int nStops = tripPattern.numberOfStopsInPattern();
-    this.arrivalTimes = new int[nStops * numberOfTripSchedules];
-    this.departureTimes = new int[nStops * numberOfTripSchedules];
-    int i = 0;
-    for (int d = 0; d < this.tripPatternForDates.length; d++) {
-      int offset = this.offsets[d];
-      for (var trip : this.tripPatternForDates[d].tripTimes()) {
-        wheelchairBoardings[i] = trip.getWheelchairAccessibility();
-        for (int s = 0; s < nStops; s++) {
-          this.arrivalTimes[s * numberOfTripSchedules + i] = trip.getArrivalTime(s) + offset;
-          this.departureTimes[s * numberOfTripSchedules + i] = trip.getDepartureTime(s) + offset;
-        }
-        i++;
-      }
-    }
   }
 
   public RoutingTripPattern getTripPattern() {
@@ -206,24 +231,23 @@ public class TripPatternForDates
 
   @Override
   public IntUnaryOperator getArrivalTimes(int stopPositionInPattern) {
-    final int base = stopPositionInPattern * numberOfTripSchedules;
-    return (int index) -> arrivalTimes[base + index];
+    return timesForStop(arrivalTimes, stopPositionInPattern);
   }
 
   @Override
   public IntUnaryOperator getDepartureTimes(int stopPositionInPattern) {
-    final int base = stopPositionInPattern * numberOfTripSchedules;
-    return (int index) -> departureTimes[base + index];
+    return timesForStop(departureTimes, stopPositionInPattern);
   }
 
   public IntUnaryOperator getArrivalTimesForTrip(int index) {
-    return (int stopPositionInPattern) ->
-      arrivalTimes[stopPositionInPattern * numberOfTripSchedules + index];
+    final int trip = sharedTripIndex(index);
+    return (int stopPositionInPattern) -> arrivalTimes[stopPositionInPattern * nSharedTrips + trip];
   }
 
   public IntUnaryOperator getDepartureTimesForTrip(int index) {
+    final int trip = sharedTripIndex(index);
     return (int stopPositionInPattern) ->
-      departureTimes[stopPositionInPattern * numberOfTripSchedules + index];
+      departureTimes[stopPositionInPattern * nSharedTrips + trip];
   }
 
   @Override
@@ -272,6 +296,19 @@ public class TripPatternForDates
   }
 
   public Accessibility wheelchairBoardingForTrip(int index) {
-    return wheelchairBoardings[index];
+    return times.wheelchairBoarding(sharedTripIndex(index));
+  }
+
+  private IntUnaryOperator timesForStop(int[] times, int stopPositionInPattern) {
+    final int base = stopPositionInPattern * nSharedTrips;
+    if (tripIndexes == null) {
+      return (int index) -> times[base + index];
+    }
+    final int[] trips = tripIndexes;
+    return (int index) -> times[base + trips[index]];
+  }
+
+  private int sharedTripIndex(int index) {
+    return tripIndexes == null ? index : tripIndexes[index];
   }
 }
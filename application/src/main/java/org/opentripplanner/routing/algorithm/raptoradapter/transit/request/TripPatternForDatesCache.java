@@ -0,0 +1,136 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+
+/**
+ * Cache the time-expanded and filtered trip patterns prepared for Raptor in
+ * {@link RaptorRoutingRequestTransitData}. Building these is expensive (every
+ * {@link org.opentripplanner.routing.algorithm.raptoradapter.transit.TripPatternForDate} in the
+ * search period is grouped, sorted and merged) while the result only depends on the search period
+ * and the filter - not on the rest of the request.
+ * <p>
+ * An instance of this cache belongs to exactly one
+ * {@link org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitLayer}. When the
+ * {@code TransitLayerUpdater} creates a new realtime TransitLayer an empty cache is created for
+ * it, so all cached values are invalidated when the new layer is published. There is no need to
+ * include a transit layer version in the cache key.
+ * <p>
+ * If the cache is enabled, the time-expanded trip times are shared between all requests with the
+ * same search period, also if the request is not cacheable, see
+ * {@link TimeExpandedTripTimesCache}.
+ * <p>
+ * The hit and miss counts are exported as the micrometer counter
+ * {@code raptor_trip_pattern_cache}, tagged with {@code result=hit|miss}.
+ * <p>
+ * THREAD SAFETY - This class is thread-safe, the cached values are immutable and shared between
+ * requests.
+ */
+public class TripPatternForDatesCache {
+
+  private static final String METRICS_NAME = "raptor_trip_pattern_cache";
+  private static final Counter HIT_COUNTER = counter("hit");
+  private static final Counter MISS_COUNTER = counter("miss");
+
+  private final int maximumSize;
+
+  /** The cache is {@code null} if caching is disabled. */
+  @Nullable
+  private final Cache<CacheKey, TripPatternsForRequest> cache;
+
+  private final TimeExpandedTripTimesCache timeExpandedTripTimes;
+
+  /**
+   * @param maximumSize The maximum number of distinct search periods and filters to cache. Use
+   *                    {@code 0} to disable caching, also of the time-expanded trip times.
+   */
+  public TripPatternForDatesCache(int maximumSize) {
+    this.maximumSize = maximumSize;
+    this.cache =
+      maximumSize > 0 ? CacheBuilder.newBuilder().maximumSize(maximumSize).build() : null;
+    this.timeExpandedTripTimes = new TimeExpandedTripTimesCache(maximumSize);
+  }
+
+  /**
+   * Create a new empty cache with the same configuration as this one.
+   */
+  public TripPatternForDatesCache emptyCopy() {
+    return new TripPatternForDatesCache(maximumSize);
+  }
+
+  /**
+   * Return the cached trip patterns for the given search period and filter, or create them using
+   * the given {@code factory} if not cached. The factory is also used, without caching the result,
+   * if the request is not cacheable.
+   */
+  TripPatternsForRequest get(
+    ZonedDateTime transitSearchTimeZero,
+    int additionalPastSearchDays,
+    int additionalFutureSearchDays,
+    TransitDataProviderFilter filter,
+    boolean cacheable,
+    Supplier<TripPatternsForRequest> factory
+  ) {
+    if (cache == null || !cacheable) {
+      return factory.get();
+    }
+    var key = new CacheKey(
+      transitSearchTimeZero,
+      additionalPastSearchDays,
+      additionalFutureSearchDays,
+      filter
+    );
+    var value = cache.getIfPresent(key);
+    if (value != null) {
+      HIT_COUNTER.increment();
+      return value;
+    }
+    MISS_COUNTER.increment();
+    try {
+      return cache.get(key, factory::get);
+    } catch (ExecutionException e) {
+      throw new RuntimeException("Failed to get item from trip pattern cache", e);
+    }
+  }
+
+  TimeExpandedTripTimesCache timeExpandedTripTimes() {
+    return timeExpandedTripTimes;
+  }
+
+  private static Counter counter(String result) {
+    return Counter
+      .builder(METRICS_NAME)
+      .description("Trip pattern cache lookups used to create the Raptor transit data")
+      .tag("result", result)
+      .register(Metrics.globalRegistry);
+  }
+
+  /**
+   * The trip patterns for a search period and filter, indexed for Raptor.
+   *
+   * @param patternIndex              Trip patterns by pattern index
+   * @param activeTripPatternsPerStop Active pattern indices by stop index
+   */
+  record TripPatternsForRequest(
+    List<TripPatternForDates> patternIndex,
+    List<int[]> activeTripPatternsPerStop
+  ) {}
+
+  /**
+   * The {@code filter} must implement {@code equals()} and {@code hashCode()}, if not the cache
+   * will never be hit.
+   */
+  private record CacheKey(
+    ZonedDateTime transitSearchTimeZero,
+    int additionalPastSearchDays,
+    int additionalFutureSearchDays,
+    TransitDataProviderFilter filter
+  ) {}
+}
@@ -105,6 +105,23 @@ public class TransitFilterRequest implements Serializable, TransitFilter {
     return true;
   }
 
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    TransitFilterRequest that = (TransitFilterRequest) o;
+    return Arrays.equals(select, that.select) && Arrays.equals(not, that.not);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * Arrays.hashCode(select) + Arrays.hashCode(not);
+  }
+
   @Override
   public String toString() {
     return ToStringBuilder
@@ -10,6 +10,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.prefs.Preferences;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
@@ -68,6 +69,9 @@ public class Graph implements Serializable {
   // Ideally we could just get rid of vertex labels, but they're used in tests and graph building.
   private final Map<VertexLabel, Vertex> vertices = new ConcurrentHashMap<>();
 
+  /** Used to assign a unique index to each vertex added to the graph. */
+  private final AtomicInteger vertexIndexCounter = new AtomicInteger();
+
   /** Conserve memory by reusing immutable instances of Strings, integer arrays, etc. */
   public final transient Deduplicator deduplicator;
 
@@ -147,6 +151,9 @@ public class Graph implements Serializable {
 
   /** Add the given vertex to the graph. */
   public void addVertex(Vertex v) {
+    if (v.getIndex() < 0) {
+      v.initIndex(vertexIndexCounter.getAndIncrement());
+    }
     Vertex old = vertices.put(v.getLabel(), v);
     if (old != null) {
       if (old == v) {
@@ -255,6 +262,14 @@ public class Graph implements Serializable {
     }
   }
 
+  /**
+   * The upper bound (exclusive) of all vertex indices in the graph. There may be holes in the
+   * index, if vertices are removed.
+   */
+  public int vertexIndexSize() {
+    return vertexIndexCounter.get();
+  }
+
   public int countVertices() {
     return vertices.size();
   }
@@ -24,6 +24,7 @@ import org.opentripplanner.framework.geometry.CompactElevationProfile;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueSummary;
 import org.opentripplanner.model.projectinfo.GraphFileHeader;
 import org.opentripplanner.model.projectinfo.OtpProjectInfo;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.PrecomputedTransferIndexes;
 import org.opentripplanner.routing.graph.kryosupport.KryoBuilder;
 import org.opentripplanner.service.vehicleparking.VehicleParkingRepository;
 import org.opentripplanner.service.worldenvelope.WorldEnvelopeRepository;
@@ -82,6 +83,12 @@ public class SerializedGraphObject implements Serializable {
   public final StreetLimitationParameters streetLimitationParameters;
   public final VehicleParkingRepository parkingRepository;
 
+  /**
+   * The transfers calculated for the transfer cache requests in the router config, used to
+   * initialize the transfer cache at startup.
+   */
+  public final PrecomputedTransferIndexes transferIndexes;
+
   public SerializedGraphObject(
     Graph graph,
     TimetableRepository timetableRepository,
@@ -92,7 +99,8 @@ public class SerializedGraphObject implements Serializable {
     DataImportIssueSummary issueSummary,
     EmissionsDataModel emissionsDataModel,
     StopConsolidationRepository stopConsolidationRepository,
-    StreetLimitationParameters streetLimitationParameters
+    StreetLimitationParameters streetLimitationParameters,
+    PrecomputedTransferIndexes transferIndexes
   ) {
     this.graph = graph;
     this.edges = graph.getEdges();
@@ -107,6 +115,7 @@ public class SerializedGraphObject implements Serializable {
     this.routingTripPatternCounter = RoutingTripPattern.indexCounter();
     this.stopConsolidationRepository = stopConsolidationRepository;
     this.streetLimitationParameters = streetLimitationParameters;
+    this.transferIndexes = transferIndexes;
   }
 
   public static void verifyTheOutputGraphIsWritableIfDataSourceExist(DataSource graphOutput) {
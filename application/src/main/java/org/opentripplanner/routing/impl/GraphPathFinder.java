@@ -94,6 +94,7 @@ public class GraphPathFinder {
       )
       // FORCING the dominance function to weight only
       .setDominanceFunction(new DominanceFunctions.MinimumWeight())
+      .setUseVertexIndex(true)
       .setRequest(request)
       .setStreetRequest(request.journey().direct())
       .setFrom(from)
@@ -0,0 +1,71 @@
+package org.opentripplanner.routing.linking;
+
+import java.util.List;
+import javax.annotation.Nullable;
+import org.opentripplanner.routing.linking.VertexLinker.DistanceTo;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.TraverseModeSet;
+
+/**
+ * The street edges found near a vertex, before the vertex is linked to the closest of them. See
+ * {@link VertexLinker#findPermanentLinkingCandidates(Vertex, TraverseModeSet)}.
+ * <p>
+ * The candidates are the edges within the search radius, not only the closest ones. Linking other
+ * vertices splits edges, and an edge split in two is replaced by two edges covering the same
+ * geometry. So, the candidates stay the same as long as none of the candidate edges are split.
+ * Edges outside the search radius, split or not, stay outside.
+ */
+public final class LinkingCandidates {
+
+  private final Vertex vertex;
+  private final TraverseModeSet traverseModes;
+  private final int radiusMeters;
+  private final List<DistanceTo<StreetEdge>> edges;
+
+  LinkingCandidates(
+    Vertex vertex,
+    TraverseModeSet traverseModes,
+    int radiusMeters,
+    List<DistanceTo<StreetEdge>> edges
+  ) {
+    this.vertex = vertex;
+    this.traverseModes = traverseModes;
+    this.radiusMeters = radiusMeters;
+    this.edges = edges;
+  }
+
+  public Vertex vertex() {
+    return vertex;
+  }
+
+  TraverseModeSet traverseModes() {
+    return traverseModes;
+  }
+
+  /**
+   * Return the candidate edges within the given radius, or {@code null} if unknown. The search is
+   * done with an increasing radius, and only continued if no edges are found. So no edges are
+   * found within a smaller radius, and the edges within a larger radius are unknown.
+   */
+  @Nullable
+  List<DistanceTo<StreetEdge>> edges(int radiusMeters) {
+    if (radiusMeters == this.radiusMeters) {
+      return edges;
+    }
+    return radiusMeters < this.radiusMeters ? List.of() : null;
+  }
+
+  /**
+   * The candidates are valid if none of the candidate edges are removed from the graph, by
+   * splitting them when linking another vertex.
+   */
+  boolean isValid() {
+    for (DistanceTo<StreetEdge> it : edges) {
+      if (!it.item.getFromVertex().getOutgoing().contains(it.item)) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -7,6 +7,7 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.function.BiFunction;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
@@ -101,6 +102,48 @@ public class VertexLinker {
     link(vertex, traverseModes, direction, Scope.PERMANENT, edgeFunction);
   }
 
+  /**
+   * Find the street edges the given vertex is linked to by
+   * {@link #linkVertexPermanently(Vertex, TraverseModeSet, LinkingDirection, BiFunction)}, without
+   * modifying the graph. Searching for the edges is the expensive part of linking, this method can
+   * be called for many vertices in parallel, as long as the graph is not modified at the same time.
+   * Link the vertex with {@link #linkVertexPermanently(LinkingCandidates, LinkingDirection,
+   * BiFunction)}.
+   */
+  public LinkingCandidates findPermanentLinkingCandidates(
+    Vertex vertex,
+    TraverseModeSet traverseModes
+  ) {
+    int radiusMeters = INITIAL_SEARCH_RADIUS_METERS;
+    var edges = findCandidateEdges(vertex, traverseModes, Scope.PERMANENT, radiusMeters);
+    if (edges.isEmpty()) {
+      radiusMeters = MAX_SEARCH_RADIUS_METERS;
+      edges = findCandidateEdges(vertex, traverseModes, Scope.PERMANENT, radiusMeters);
+    }
+    return new LinkingCandidates(vertex, traverseModes, radiusMeters, edges);
+  }
+
+  /**
+   * Link the vertex of the given candidates permanently. Vertices linked after the candidates are
+   * found may split the candidate edges, if so the search is done again. The result is the same
+   * as linking the vertex with
+   * {@link #linkVertexPermanently(Vertex, TraverseModeSet, LinkingDirection, BiFunction)}.
+   */
+  public void linkVertexPermanently(
+    LinkingCandidates candidates,
+    LinkingDirection direction,
+    BiFunction<Vertex, StreetVertex, List<Edge>> edgeFunction
+  ) {
+    link(
+      candidates.vertex(),
+      candidates.traverseModes(),
+      direction,
+      Scope.PERMANENT,
+      edgeFunction,
+      candidates.isValid() ? candidates : null
+    );
+  }
+
   public DisposableEdgeCollection linkVertexForRealTime(
     Vertex vertex,
     TraverseModeSet traverseModes,
@@ -182,6 +225,21 @@ public class VertexLinker {
     LinkingDirection direction,
     Scope scope,
     BiFunction<Vertex, StreetVertex, List<Edge>> edgeFunction
+  ) {
+    return link(vertex, traverseModes, direction, scope, edgeFunction, null);
+  }
+
+  /**
+   * @param candidates The candidate edges found in advance, or {@code null} if the candidate edges
+   *                   should be searched for.
+   */
+  private DisposableEdgeCollection link(
+    Vertex vertex,
+    TraverseModeSet traverseModes,
+    LinkingDirection direction,
+    Scope scope,
+    BiFunction<Vertex, StreetVertex, List<Edge>> edgeFunction,
+    @Nullable LinkingCandidates candidates
   ) {
     DisposableEdgeCollection tempEdges = (scope != Scope.PERMANENT)
       ? new DisposableEdgeCollection(graph, scope)
@@ -194,7 +252,8 @@ public class VertexLinker {
         direction,
         scope,
         INITIAL_SEARCH_RADIUS_METERS,
-        tempEdges
+        tempEdges,
+        candidates
       );
       if (streetVertices.isEmpty()) {
         streetVertices =
@@ -204,7 +263,8 @@ public class VertexLinker {
             direction,
             scope,
             MAX_SEARCH_RADIUS_METERS,
-            tempEdges
+            tempEdges,
+            candidates
           );
       }
 
@@ -232,7 +292,43 @@ public class VertexLinker {
     LinkingDirection direction,
     Scope scope,
     int radiusMeters,
-    DisposableEdgeCollection tempEdges
+    DisposableEdgeCollection tempEdges,
+    @Nullable LinkingCandidates candidates
+  ) {
+    List<DistanceTo<StreetEdge>> candidateEdges = candidates == null
+      ? null
+      : candidates.edges(radiusMeters);
+    if (candidateEdges == null) {
+      candidateEdges = findCandidateEdges(vertex, traverseModes, scope, radiusMeters);
+    }
+
+    if (candidateEdges.isEmpty()) {
+      return Set.of();
+    }
+
+    final double xscale = Math.cos(vertex.getLat() * Math.PI / 180);
+
+    Set<DistanceTo<StreetEdge>> closestEdges = getClosestEdgesPerMode(
+      traverseModes,
+      candidateEdges
+    );
+    Set<AreaEdgeList> linkedAreas = new HashSet<>();
+    return closestEdges
+      .stream()
+      .map(ce -> link(vertex, ce.item, xscale, scope, direction, tempEdges, linkedAreas))
+      .filter(v -> v != null)
+      .collect(Collectors.toSet());
+  }
+
+  /**
+   * Find the street edges within the given radius of the vertex, which are traversable by at least
+   * one of the given modes. This does not modify the graph.
+   */
+  private List<DistanceTo<StreetEdge>> findCandidateEdges(
+    Vertex vertex,
+    TraverseModeSet traverseModes,
+    Scope scope,
+    int radiusMeters
   ) {
     final double radiusDeg = SphericalDistanceLibrary.metersToDegrees(radiusMeters);
 
@@ -248,7 +344,7 @@ public class VertexLinker {
     // street edges traversable by at least one of the given modes and are still present in the
     // graph. Calculate a distance to each of those edges, and keep only the ones within the search
     // radius.
-    List<DistanceTo<StreetEdge>> candidateEdges = edgeSpatialIndex
+    return edgeSpatialIndex
       .query(env, scope)
       .filter(StreetEdge.class::isInstance)
       .map(StreetEdge.class::cast)
@@ -256,21 +352,6 @@ public class VertexLinker {
       .map(e -> new DistanceTo<>(e, distance(vertex, e, xscale)))
       .filter(ead -> ead.distanceDegreesLat < radiusDeg)
       .toList();
-
-    if (candidateEdges.isEmpty()) {
-      return Set.of();
-    }
-
-    Set<DistanceTo<StreetEdge>> closestEdges = getClosestEdgesPerMode(
-      traverseModes,
-      candidateEdges
-    );
-    Set<AreaEdgeList> linkedAreas = new HashSet<>();
-    return closestEdges
-      .stream()
-      .map(ce -> link(vertex, ce.item, xscale, scope, direction, tempEdges, linkedAreas))
-      .filter(v -> v != null)
-      .collect(Collectors.toSet());
   }
 
   /**
@@ -489,7 +570,7 @@ public class VertexLinker {
     return v;
   }
 
-  private static class DistanceTo<T> {
+  static class DistanceTo<T> {
 
     T item;
     // Possible optimization: store squared lat to skip thousands of sqrt operations
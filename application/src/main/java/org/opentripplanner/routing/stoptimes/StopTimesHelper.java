@@ -202,14 +202,13 @@ public class StopTimesHelper {
     // datesUntil is exclusive in the end, so need to add one day
     List<LocalDate> serviceDates = startDate.datesUntil(endDate.plusDays(1)).toList();
 
-    // The bounded priority Q is used to keep a sorted short list of trip times. We can not
-    // rely on the trip times to be in order because of real-time updates. This code can
-    // probably be optimized, and the trip search in the Raptor search does almost the same
-    // thing. This is no part of a routing request, but is a used frequently in some
-    // operation like Entur for "departure boards" (apps, widgets, screens on platforms, and
-    // hotel lobbies). Setting the numberOfDepartures and timeRange to a big number for a
-    // transit hub could result in a DOS attack, but there are probably other more effective
-    // ways to do it.
+    // The bounded priority Q is used to keep a sorted short list of trip times across the
+    // service dates. The trips of each date are found with the departure index of the
+    // timetable, see Timetable#getDepartureIndex(). This is no part of a routing request, but is
+    // used frequently in some operation like Entur for "departure boards" (apps, widgets,
+    // screens on platforms, and hotel lobbies). Setting the numberOfDepartures and timeRange to a
+    // big number for a transit hub could result in a DOS attack, but there are probably other
+    // more effective ways to do it.
     //
     // The {@link MinMaxPriorityQueue} is marked beta, but we do not have a god alternative.
     MinMaxPriorityQueue<TripTimeOnDate> pq = MinMaxPriorityQueue
@@ -244,7 +243,26 @@ public class StopTimesHelper {
             continue;
           }
 
-          for (TripTimes tripTimes : timetable.getTripTimes()) {
+          // The trips arriving or departing in the time range depart at or after the start time.
+          // The trips are visited in departure order, so the search for this date can stop when
+          // enough departures are found, or when the departures are after the time range. A trip
+          // arriving in the time range may depart up to the longest dwell time after it.
+          var departures = timetable.getDepartureIndex().departuresAt(stopIndex);
+          int endTime = secondsSinceMidnight + timeRangeSeconds;
+          int lastDepartureTime = arrivalDeparture == DEPARTURES
+            ? endTime
+            : endTime + departures.maxDwellTime();
+          int numberOfDeparturesFound = 0;
+
+          for (
+            int i = departures.indexOfFirstDepartureAtOrAfter(secondsSinceMidnight);
+            i < departures.size() && departures.departureTime(i) <= lastDepartureTime;
+            ++i
+          ) {
+            if (numberOfDeparturesFound == numberOfDepartures) {
+              break;
+            }
+            TripTimes tripTimes = timetable.getTripTimes(departures.tripIndex(i));
             if (!servicesRunning.contains(tripTimes.getServiceCode())) {
               continue;
             }
@@ -276,6 +294,7 @@ public class StopTimesHelper {
               pq.add(
                 new TripTimeOnDate(tripTimes, stopIndex, pattern, serviceDate, midnight.toInstant())
               );
+              ++numberOfDeparturesFound;
             }
           }
           // TODO Add back support for frequency entries
@@ -5,7 +5,7 @@ import static org.opentripplanner.transit.model.timetable.OccupancyStatus.NO_DAT
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 import java.time.Instant;
-import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -16,20 +16,21 @@ import org.opentripplanner.transit.model.framework.FeedScopedId;
 import org.opentripplanner.transit.model.network.TripPattern;
 import org.opentripplanner.transit.model.timetable.OccupancyStatus;
 import org.opentripplanner.transit.model.timetable.Trip;
-import org.opentripplanner.transit.service.TransitService;
 
 @Singleton
 public class DefaultRealtimeVehicleService
   implements RealtimeVehicleService, RealtimeVehicleRepository {
 
-  private final Map<TripPattern, List<RealtimeVehicle>> vehicles = new ConcurrentHashMap<>();
+  private final Map<TripPattern, PatternVehicles> vehicles = new ConcurrentHashMap<>();
 
-  private final TransitService transitService;
+  /**
+   * The latest vehicle for each trip, across all patterns. This is a secondary index of
+   * {@link #vehicles}, it is kept so a trip can be looked up without finding its pattern first.
+   */
+  private final Map<FeedScopedId, RealtimeVehicle> latestVehicleByTrip = new ConcurrentHashMap<>();
 
   @Inject
-  public DefaultRealtimeVehicleService(TransitService transitService) {
-    this.transitService = transitService;
-  }
+  public DefaultRealtimeVehicleService() {}
 
   /**
    * Stores the relationship between a list of realtime vehicles with a pattern. If the pattern is
@@ -41,12 +42,21 @@ public class DefaultRealtimeVehicleService
     if (pattern.getOriginalTripPattern() != null) {
       pattern = pattern.getOriginalTripPattern();
     }
-    vehicles.put(pattern, List.copyOf(updates));
+    var patternVehicles = PatternVehicles.of(updates);
+    var previous = vehicles.put(pattern, patternVehicles);
+
+    latestVehicleByTrip.putAll(patternVehicles.latestByTrip());
+    if (previous != null) {
+      removeFromTripIndex(previous, patternVehicles);
+    }
   }
 
   @Override
   public void clearRealtimeVehicles(TripPattern pattern) {
-    vehicles.remove(pattern);
+    var previous = vehicles.remove(pattern);
+    if (previous != null) {
+      removeFromTripIndex(previous, PatternVehicles.EMPTY);
+    }
   }
 
   /**
@@ -62,27 +72,67 @@ public class DefaultRealtimeVehicleService
       pattern = pattern.getOriginalTripPattern();
     }
     // the list is made immutable during insertion, so we can safely return them
-    return vehicles.getOrDefault(pattern, List.of());
+    return vehicles.getOrDefault(pattern, PatternVehicles.EMPTY).vehicles();
   }
 
   @Override
   public OccupancyStatus getVehicleOccupancyStatus(Trip trip) {
-    return getOccupancyStatus(trip.getId(), transitService.findPattern(trip));
+    return occupancyStatus(latestVehicleByTrip.get(trip.getId()));
   }
 
   /**
-   * Get the latest occupancy status for a certain trip. Service contains all the vehicles that
-   * exist in input feeds but doesn't store any historical data. This method is an alternative to
-   * {@link #getVehicleOccupancyStatus(Trip)} and works even when {@link TransitService} is not
-   * provided to the service.
+   * Get the latest occupancy status for a certain trip in the given pattern. Service contains all
+   * the vehicles that exist in input feeds but doesn't store any historical data.
    */
   public OccupancyStatus getOccupancyStatus(FeedScopedId tripId, TripPattern pattern) {
-    return vehicles
-      .getOrDefault(pattern, List.of())
-      .stream()
-      .filter(vehicle -> tripId.equals(vehicle.trip().getId()))
-      .max(Comparator.comparing(vehicle -> vehicle.time().orElse(Instant.MIN)))
-      .flatMap(RealtimeVehicle::occupancyStatus)
-      .orElse(NO_DATA_AVAILABLE);
+    return occupancyStatus(
+      vehicles.getOrDefault(pattern, PatternVehicles.EMPTY).latestByTrip().get(tripId)
+    );
+  }
+
+  private static OccupancyStatus occupancyStatus(RealtimeVehicle vehicle) {
+    return vehicle == null
+      ? NO_DATA_AVAILABLE
+      : vehicle.occupancyStatus().orElse(NO_DATA_AVAILABLE);
+  }
+
+  /**
+   * Remove the trips in the previous vehicles of a pattern from the trip index, unless they are
+   * still in the current vehicles. The removal is conditional, so a vehicle set by another pattern
+   * in the meantime is kept.
+   */
+  private void removeFromTripIndex(PatternVehicles previous, PatternVehicles current) {
+    for (var it : previous.latestByTrip().entrySet()) {
+      if (!current.latestByTrip().containsKey(it.getKey())) {
+        latestVehicleByTrip.remove(it.getKey(), it.getValue());
+      }
+    }
+  }
+
+  /**
+   * The vehicles of a pattern, and the latest vehicle for each trip in the pattern.
+   */
+  private record PatternVehicles(
+    List<RealtimeVehicle> vehicles,
+    Map<FeedScopedId, RealtimeVehicle> latestByTrip
+  ) {
+    private static final PatternVehicles EMPTY = new PatternVehicles(List.of(), Map.of());
+
+    private static PatternVehicles of(List<RealtimeVehicle> vehicles) {
+      var latestByTrip = new HashMap<FeedScopedId, RealtimeVehicle>();
+      for (RealtimeVehicle vehicle : vehicles) {
+        if (vehicle.trip() != null) {
+          latestByTrip.merge(vehicle.trip().getId(), vehicle, PatternVehicles::latest);
+        }
+      }
+      return new PatternVehicles(List.copyOf(vehicles), Map.copyOf(latestByTrip));
+    }
+
+    /** Return the vehicle recorded last, the first if they are recorded at the same time. */
+    private static RealtimeVehicle latest(RealtimeVehicle a, RealtimeVehicle b) {
+      var timeA = a.time().orElse(Instant.MIN);
+      var timeB = b.time().orElse(Instant.MIN);
+      return timeB.isAfter(timeA) ? b : a;
+    }
   }
 }
@@ -28,9 +28,7 @@ public interface VehicleRentalService {
   boolean hasRentalBikes();
 
   /**
-   * Gets all the vehicle rental stations inside the envelope. This is currently done by iterating
-   * over a set, but we could use a spatial index if the number of vehicle rental stations is high
-   * enough for performance to be a concern.
+   * Gets all the vehicle rental stations inside the envelope.
    */
   List<VehicleRentalStation> getVehicleRentalStationForEnvelope(
     double minLon,
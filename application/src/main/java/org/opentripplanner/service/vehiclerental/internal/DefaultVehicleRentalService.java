@@ -7,7 +7,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
-import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Envelope;
 import org.opentripplanner.service.vehiclerental.VehicleRentalRepository;
 import org.opentripplanner.service.vehiclerental.VehicleRentalService;
@@ -25,6 +24,8 @@ public class DefaultVehicleRentalService implements VehicleRentalService, Vehicl
 
   private final Map<FeedScopedId, VehicleRentalPlace> rentalPlaces = new ConcurrentHashMap<>();
 
+  private final VehicleRentalPlaceIndex index = new VehicleRentalPlaceIndex();
+
   @Override
   public Collection<VehicleRentalPlace> getVehicleRentalPlaces() {
     return rentalPlaces.values();
@@ -68,12 +69,20 @@ public class DefaultVehicleRentalService implements VehicleRentalService, Vehicl
 
   @Override
   public void addVehicleRentalStation(VehicleRentalPlace vehicleRentalStation) {
-    rentalPlaces.put(vehicleRentalStation.getId(), vehicleRentalStation);
+    // Add the new place to the index before removing the old, so it is never missing
+    index.add(vehicleRentalStation);
+    var previous = rentalPlaces.put(vehicleRentalStation.getId(), vehicleRentalStation);
+    if (previous != null && previous != vehicleRentalStation) {
+      index.remove(previous);
+    }
   }
 
   @Override
   public void removeVehicleRentalStation(FeedScopedId vehicleRentalStationId) {
-    rentalPlaces.remove(vehicleRentalStationId);
+    var previous = rentalPlaces.remove(vehicleRentalStationId);
+    if (previous != null) {
+      index.remove(previous);
+    }
   }
 
   @Override
@@ -102,14 +111,7 @@ public class DefaultVehicleRentalService implements VehicleRentalService, Vehicl
     double maxLon,
     double maxLat
   ) {
-    Envelope envelope = new Envelope(
-      new Coordinate(minLon, minLat),
-      new Coordinate(maxLon, maxLat)
-    );
-
-    return getVehicleRentalStationsAsStream()
-      .filter(b -> envelope.contains(new Coordinate(b.getLongitude(), b.getLatitude())))
-      .toList();
+    return index.query(new Envelope(minLon, maxLon, minLat, maxLat), VehicleRentalStation.class);
   }
 
   private Stream<VehicleRentalStation> getVehicleRentalStationsAsStream() {
@@ -127,15 +129,6 @@ public class DefaultVehicleRentalService implements VehicleRentalService, Vehicl
     double maxLon,
     double maxLat
   ) {
-    Envelope envelope = new Envelope(
-      new Coordinate(minLon, minLat),
-      new Coordinate(maxLon, maxLat)
-    );
-
-    Stream<VehicleRentalPlace> vehicleRentalPlaceStream = getVehicleRentalPlaces()
-      .stream()
-      .filter(vr -> envelope.contains(new Coordinate(vr.getLongitude(), vr.getLatitude())));
-
-    return vehicleRentalPlaceStream.toList();
+    return index.query(new Envelope(minLon, maxLon, minLat, maxLat), VehicleRentalPlace.class);
   }
 }
@@ -0,0 +1,115 @@
+package org.opentripplanner.service.vehiclerental.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.locationtech.jts.geom.Envelope;
+import org.opentripplanner.service.vehiclerental.model.VehicleRentalPlace;
+
+/**
+ * A spatial index of vehicle rental places, the places are put in a grid of bins of roughly
+ * 500 x 500 meters. Free-floating vehicle feeds may contain tens of thousands of vehicles, so
+ * envelope queries should not iterate over all of them.
+ * <p>
+ * A place is indexed by its coordinate when it is added, the coordinate must not be changed
+ * after that. An updated place is a new instance replacing the old one.
+ * <p>
+ * THREAD SAFETY - The index is updated by the updater thread while it is queried by request
+ * threads. Each bin is a concurrent set, so a query sees a weakly consistent view of the index -
+ * the same guarantee as iterating over the values of a {@link ConcurrentHashMap}.
+ */
+class VehicleRentalPlaceIndex {
+
+  /** Computation done based on geographical coordinates, ~500m. */
+  private static final double Y_BIN_SIZE = 0.005;
+
+  /** Computation done based on geographical coordinates at ~45 degree lat, ~500m. */
+  private static final double X_BIN_SIZE = 0.0035;
+
+  private final ConcurrentMap<Long, Set<VehicleRentalPlace>> bins = new ConcurrentHashMap<>();
+
+  void add(VehicleRentalPlace place) {
+    bins.compute(
+      key(place),
+      (k, bin) -> {
+        if (bin == null) {
+          bin = ConcurrentHashMap.newKeySet();
+        }
+        bin.add(place);
+        return bin;
+      }
+    );
+  }
+
+  void remove(VehicleRentalPlace place) {
+    bins.computeIfPresent(
+      key(place),
+      (k, bin) -> {
+        bin.remove(place);
+        return bin.isEmpty() ? null : bin;
+      }
+    );
+  }
+
+  /**
+   * Return all places of the given type inside the envelope.
+   */
+  <T extends VehicleRentalPlace> List<T> query(Envelope envelope, Class<T> type) {
+    long minX = xKey(envelope.getMinX());
+    long maxX = xKey(envelope.getMaxX());
+    long minY = yKey(envelope.getMinY());
+    long maxY = yKey(envelope.getMaxY());
+    var result = new ArrayList<T>();
+
+    // Visit the existing bins instead of the bins in the envelope, if that is faster
+    double nBinsInEnvelope =
+      (envelope.getWidth() / X_BIN_SIZE + 1) * (envelope.getHeight() / Y_BIN_SIZE + 1);
+    if (nBinsInEnvelope > bins.size()) {
+      for (var bin : bins.values()) {
+        addPlacesInEnvelope(bin, envelope, type, result);
+      }
+      return result;
+    }
+    for (long x = minX; x <= maxX; ++x) {
+      for (long y = minY; y <= maxY; ++y) {
+        var bin = bins.get(key(x, y));
+        if (bin != null) {
+          addPlacesInEnvelope(bin, envelope, type, result);
+        }
+      }
+    }
+    return result;
+  }
+
+  private static <T extends VehicleRentalPlace> void addPlacesInEnvelope(
+    Collection<VehicleRentalPlace> bin,
+    Envelope envelope,
+    Class<T> type,
+    List<T> result
+  ) {
+    for (VehicleRentalPlace place : bin) {
+      if (type.isInstance(place) && envelope.contains(place.getLongitude(), place.getLatitude())) {
+        result.add(type.cast(place));
+      }
+    }
+  }
+
+  private static long key(VehicleRentalPlace place) {
+    return key(xKey(place.getLongitude()), yKey(place.getLatitude()));
+  }
+
+  private static long key(long xKey, long yKey) {
+    return (yKey << 32) | (xKey & 0xFFFFFFFFL);
+  }
+
+  private static long xKey(double lon) {
+    return (long) Math.floor(lon / X_BIN_SIZE);
+  }
+
+  private static long yKey(double lat) {
+    return (long) Math.floor(lat / Y_BIN_SIZE);
+  }
+}
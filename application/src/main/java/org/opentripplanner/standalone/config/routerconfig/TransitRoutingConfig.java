@@ -6,6 +6,7 @@ import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_2;
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_3;
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_4;
+import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_7;
 
 import java.time.Duration;
 import java.util.List;
@@ -27,8 +28,12 @@ public final class TransitRoutingConfig implements RaptorTuningParameters, Trans
   private final int scheduledTripBinarySearchThreshold;
   private final int iterationDepartureStepInSeconds;
   private final int searchThreadPoolSize;
+  private final int searchWindowPartitions;
   private final int transferCacheMaxSize;
+  private final int tripPatternCacheMaxSize;
+  private final int destinationHeuristicsCacheMaxSize;
   private final List<RouteRequest> transferCacheRequests;
+  private final double transferCacheWalkTolerance;
   private final List<Duration> pagingSearchWindowAdjustments;
 
   private final Map<StopTransferPriority, Integer> stopBoardAlightDuringTransferCost;
@@ -113,6 +118,23 @@ no extra threads are started and the search is done in one thread.
 """
         )
         .asInt(0);
+    this.searchWindowPartitions =
+      c
+        .of("searchWindowPartitions")
+        .since(V2_7)
+        .summary("Split the search-window in partitions and route them in parallel.")
+        .description(
+          """
+Each range-raptor iteration is one departure minute in the search-window. If this is greater than
+1, the search-window is split into this number of partitions, and each partition is routed in
+parallel with its own state. The paths from all partitions are merged into one pareto-optimal set.
+The partitions can not reuse the state from the later departures in the other partitions, so the
+total amount of work increases, but the response time is lower if there are idle cores. This
+requires a thread pool, see `searchThreadPoolSize`, and only apply to forward multi-criteria
+searches.
+"""
+        )
+        .asInt(dft.searchWindowPartitions());
     // Dynamic Search Window
     this.stopBoardAlightDuringTransferCost =
       c
@@ -159,6 +181,42 @@ Use values in a range from `0` to `100 000`. **All key/value pairs are required
         )
         .asInt(25);
 
+    this.tripPatternCacheMaxSize =
+      c
+        .of("tripPatternCacheMaxSize")
+        .since(V2_7)
+        .summary(
+          "The maximum number of distinct search periods and filters to cache trip patterns for."
+        )
+        .description(
+          """
+Before each transit search the trip patterns running in the search period are merged and filtered.
+These are cached and shared between requests with the same search period and transit filters. The
+cache is cleared each time a real-time update is applied. The time-shifted trip times are shared
+by all entries with the same search period, so each entry only adds the trips removed by the
+filters. The time-shifted trip times are kept for at most 4 search periods. If `0` the cache is
+disabled, and the time-shifted trip times are created for each request.
+"""
+        )
+        .asInt(0);
+
+    this.destinationHeuristicsCacheMaxSize =
+      c
+        .of("destinationHeuristicsCacheMaxSize")
+        .since(V2_7)
+        .summary("The maximum number of destination heuristics to cache.")
+        .description(
+          """
+When a client pages through the results, or asks for the same destination again, the same reverse
+heuristic search is run for each request. The heuristics, the best travel duration and number of
+transfers from each stop to the destination, are cached and reused by requests with the same
+access, egress and transit filters, and the same or a later earliest-departure-time. Entries are
+not reused after a real-time update is applied. Each entry uses two integers per stop. If `0` the
+cache is disabled.
+"""
+        )
+        .asInt(dft.destinationHeuristicsCacheMaxSize());
+
     this.transferCacheRequests =
       c
         .of("transferCacheRequests")
@@ -189,6 +247,26 @@ If not set, the default behavior is to cache stop-to-stop transfers using the de
           List.of(routingRequestDefaults),
           n -> RouteRequestConfig.mapRouteRequest(n, routingRequestDefaults)
         );
+    this.transferCacheWalkTolerance =
+      c
+        .of("transferCacheWalkTolerance")
+        .since(V2_7)
+        .summary("Use the transfers of the nearest `transferCacheRequests` within this tolerance.")
+        .description(
+          """
+The transfers for the `transferCacheRequests` are calculated when the graph is built and saved
+with the graph. A request with other transfer parameters must calculate its own transfers, which
+may take several seconds for a large graph. If this parameter is set, a request which only differs
+from one of the `transferCacheRequests` in walk speed and walk reluctance uses the transfers of the
+nearest `transferCacheRequests`, if the relative difference of both values is less than or equal
+to the tolerance. Only `transferCacheRequests` with the same or a lower walk speed and the same or
+a higher walk reluctance are used, so the transfers are never shorter or cheaper than the transfers
+calculated for the request. For example, with a tolerance of `0.1` a request with walk speed `1.4`
+uses the transfers calculated for walk speed `1.33`, but a request with walk speed `1.25` does not.
+If `0.0` this is disabled.
+"""
+        )
+        .asDouble(0.0);
     this.pagingSearchWindowAdjustments =
       c
         .of("pagingSearchWindowAdjustments")
@@ -248,6 +326,11 @@ for more info."
     return searchThreadPoolSize;
   }
 
+  @Override
+  public int searchWindowPartitions() {
+    return searchWindowPartitions;
+  }
+
   @Override
   public DynamicSearchWindowCoefficients dynamicSearchWindowCoefficients() {
     return dynamicSearchWindowCoefficients;
@@ -268,11 +351,26 @@ for more info."
     return transferCacheMaxSize;
   }
 
+  @Override
+  public int tripPatternCacheMaxSize() {
+    return tripPatternCacheMaxSize;
+  }
+
+  @Override
+  public int destinationHeuristicsCacheMaxSize() {
+    return destinationHeuristicsCacheMaxSize;
+  }
+
   @Override
   public List<RouteRequest> transferCacheRequests() {
     return transferCacheRequests;
   }
 
+  @Override
+  public double transferCacheWalkTolerance() {
+    return transferCacheWalkTolerance;
+  }
+
   @Override
   public Duration maxSearchWindow() {
     return maxSearchWindow;
@@ -17,6 +17,7 @@ import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitTuning
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.mappers.TransitLayerMapper;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.mappers.TransitLayerUpdater;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.PrecomputedTransferIndexes;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.service.realtimevehicles.RealtimeVehicleRepository;
 import org.opentripplanner.service.vehicleparking.VehicleParkingRepository;
@@ -80,7 +81,8 @@ public class ConstructApplication {
     EmissionsDataModel emissionsDataModel,
     VehicleParkingRepository vehicleParkingRepository,
     @Nullable StopConsolidationRepository stopConsolidationRepository,
-    StreetLimitationParameters streetLimitationParameters
+    StreetLimitationParameters streetLimitationParameters,
+    PrecomputedTransferIndexes precomputedTransferIndexes
   ) {
     this.cli = cli;
     this.graphBuilderDataSources = graphBuilderDataSources;
@@ -102,6 +104,7 @@ public class ConstructApplication {
         .dataImportIssueSummary(issueSummary)
         .stopConsolidationRepository(stopConsolidationRepository)
         .streetLimitationParameters(streetLimitationParameters)
+        .precomputedTransferIndexes(precomputedTransferIndexes)
         .build();
   }
 
@@ -176,7 +179,11 @@ public class ConstructApplication {
 
     initEllipsoidToGeoidDifference();
 
-    initializeTransferCache(routerConfig().transitTuningConfig(), timetableRepository());
+    initializeTransferCache(
+      routerConfig().transitTuningConfig(),
+      timetableRepository(),
+      factory.precomputedTransferIndexes()
+    );
 
     if (OTPFeature.TransmodelGraphQlApi.isOn()) {
       TransmodelAPI.setUp(
@@ -231,6 +238,22 @@ public class ConstructApplication {
   public static void initializeTransferCache(
     TransitTuningParameters transitTuningConfig,
     TimetableRepository timetableRepository
+  ) {
+    initializeTransferCache(
+      transitTuningConfig,
+      timetableRepository,
+      PrecomputedTransferIndexes.empty()
+    );
+  }
+
+  /**
+   * Initialize the transfer cache for the configured transfer cache requests. The precomputed
+   * transfers saved with the graph are used if they exist, the rest are calculated in parallel.
+   */
+  public static void initializeTransferCache(
+    TransitTuningParameters transitTuningConfig,
+    TimetableRepository timetableRepository,
+    PrecomputedTransferIndexes precomputedTransferIndexes
   ) {
     var transferCacheRequests = transitTuningConfig.transferCacheRequests();
     if (!transferCacheRequests.isEmpty()) {
@@ -242,17 +265,32 @@ public class ConstructApplication {
 
       LOG.info(progress.startMessage());
 
-      transferCacheRequests.forEach(request -> {
-        timetableRepository.getTransitLayer().initTransferCacheForRequest(request);
+      transferCacheRequests
+        .parallelStream()
+        .forEach(request -> {
+          timetableRepository
+            .getTransitLayer()
+            .initTransferCacheForRequest(request, precomputedTransferIndexes);
 
-        //noinspection Convert2MethodRef
-        progress.step(s -> LOG.info(s));
-      });
+          //noinspection Convert2MethodRef
+          progress.step(s -> LOG.info(s));
+        });
 
       LOG.info(progress.completeMessage());
     }
   }
 
+  /**
+   * Calculate the transfers for the transfer cache requests in the router config. These are saved
+   * with the graph and used to initialize the transfer cache at startup.
+   */
+  public PrecomputedTransferIndexes precomputeTransferIndexes() {
+    return TransitLayerMapper.mapPrecomputedTransferIndexes(
+      timetableRepository(),
+      routerConfig().transitTuningConfig().transferCacheRequests()
+    );
+  }
+
   public TimetableRepository timetableRepository() {
     return factory.timetableRepository();
   }
@@ -17,6 +17,7 @@ import org.opentripplanner.ext.stopconsolidation.configure.StopConsolidationServ
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueSummary;
 import org.opentripplanner.raptor.configure.RaptorConfig;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.PrecomputedTransferIndexes;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.service.realtimevehicles.RealtimeVehicleRepository;
 import org.opentripplanner.service.realtimevehicles.RealtimeVehicleService;
@@ -82,6 +83,7 @@ public interface ConstructApplicationFactory {
   VehicleParkingRepository vehicleParkingRepository();
   VehicleParkingService vehicleParkingService();
   DataImportIssueSummary dataImportIssueSummary();
+  PrecomputedTransferIndexes precomputedTransferIndexes();
 
   @Nullable
   EmissionsDataModel emissionsDataModel();
@@ -139,6 +141,9 @@ public interface ConstructApplicationFactory {
     @BindsInstance
     Builder streetLimitationParameters(StreetLimitationParameters streetLimitationParameters);
 
+    @BindsInstance
+    Builder precomputedTransferIndexes(PrecomputedTransferIndexes precomputedTransferIndexes);
+
     ConstructApplicationFactory build();
   }
 }
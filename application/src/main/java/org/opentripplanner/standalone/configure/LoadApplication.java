@@ -6,6 +6,7 @@ import org.opentripplanner.ext.emissions.EmissionsDataModel;
 import org.opentripplanner.ext.stopconsolidation.StopConsolidationRepository;
 import org.opentripplanner.graph_builder.GraphBuilderDataSources;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueSummary;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.PrecomputedTransferIndexes;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.routing.graph.SerializedGraphObject;
 import org.opentripplanner.service.vehicleparking.VehicleParkingRepository;
@@ -61,7 +62,8 @@ public class LoadApplication {
       obj.issueSummary,
       obj.emissionsDataModel,
       obj.stopConsolidationRepository,
-      obj.streetLimitationParameters
+      obj.streetLimitationParameters,
+      obj.transferIndexes
     );
   }
 
@@ -75,7 +77,8 @@ public class LoadApplication {
       DataImportIssueSummary.empty(),
       factory.emptyEmissionsDataModel(),
       factory.emptyStopConsolidationRepository(),
-      factory.emptyStreetLimitationParameters()
+      factory.emptyStreetLimitationParameters(),
+      PrecomputedTransferIndexes.empty()
     );
   }
 
@@ -98,7 +101,8 @@ public class LoadApplication {
     DataImportIssueSummary issueSummary,
     @Nullable EmissionsDataModel emissionsDataModel,
     @Nullable StopConsolidationRepository stopConsolidationRepository,
-    StreetLimitationParameters streetLimitationParameters
+    StreetLimitationParameters streetLimitationParameters,
+    PrecomputedTransferIndexes precomputedTransferIndexes
   ) {
     return new ConstructApplication(
       cli,
@@ -111,7 +115,8 @@ public class LoadApplication {
       emissionsDataModel,
       parkingRepository,
       stopConsolidationRepository,
-      streetLimitationParameters
+      streetLimitationParameters,
+      precomputedTransferIndexes
     );
   }
 }
@@ -9,6 +9,7 @@ import java.io.IOException;
 import java.net.BindException;
 import java.time.Duration;
 import java.util.Optional;
+import java.util.concurrent.ThreadFactory;
 import org.glassfish.grizzly.http.CompressionConfig;
 import org.glassfish.grizzly.http.server.CLStaticHttpHandler;
 import org.glassfish.grizzly.http.server.HttpHandler;
@@ -18,6 +19,7 @@ import org.glassfish.grizzly.http.server.StaticHttpHandler;
 import org.glassfish.grizzly.threadpool.ThreadPoolConfig;
 import org.glassfish.jersey.server.ContainerFactory;
 import org.opentripplanner.framework.application.OTPFeature;
+import org.opentripplanner.framework.concurrent.OtpRequestExecutor;
 import org.opentripplanner.standalone.config.CommandLineParameters;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -28,6 +30,7 @@ public class GrizzlyServer {
   private static final Logger LOG = LoggerFactory.getLogger(GrizzlyServer.class);
 
   private static final int MIN_THREADS = 4;
+  private static final int VIRTUAL_THREADS_PER_PROCESSOR = 16;
   /** The command line parameters, including things like port number and content directories. */
   private final CommandLineParameters params;
   private final Application app;
@@ -73,7 +76,7 @@ public class GrizzlyServer {
     ThreadPoolConfig threadPoolConfig = ThreadPoolConfig
       .defaultConfig()
       .setPoolName("grizzly")
-      .setThreadFactory(new ThreadFactoryBuilder().setNameFormat("grizzly-%d").build())
+      .setThreadFactory(createThreadFactory())
       .setCorePoolSize(nHandlerThreads)
       .setMaxPoolSize(nHandlerThreads)
       .setQueueLimit(-1);
@@ -152,15 +155,32 @@ public class GrizzlyServer {
     httpServer.shutdown();
   }
 
+  /**
+   * With virtual threads the Grizzly worker pool is kept, so the transaction timeout can interrupt
+   * the worker handling a request, but the workers are virtual threads. A worker waiting for I/O
+   * or for the CPU bound pool (see {@link OtpRequestExecutor}) does not block a carrier thread.
+   */
+  private static ThreadFactory createThreadFactory() {
+    if (OTPFeature.VirtualThreads.isOn()) {
+      return Thread.ofVirtual().name("grizzly-", 0).factory();
+    }
+    return new ThreadFactoryBuilder().setNameFormat("grizzly-%d").build();
+  }
+
   /**
    * OTP is CPU-bound, so we want roughly as many worker threads as we have cores, subject to some
-   * constraints.
+   * constraints. Virtual threads are cheap and the CPU intensive work is bounded elsewhere, so
+   * more workers are used in that case.
    */
   private int getMaxThreads() {
     int maxThreads = Runtime.getRuntime().availableProcessors();
     LOG.info("Java reports that this machine has {} available processors.", maxThreads);
-    // Testing shows increased throughput up to 1.25x as many threads as cores
-    maxThreads *= 1.25;
+    if (OTPFeature.VirtualThreads.isOn()) {
+      maxThreads *= VIRTUAL_THREADS_PER_PROCESSOR;
+    } else {
+      // Testing shows increased throughput up to 1.25x as many threads as cores
+      maxThreads *= 1.25;
+    }
     if (params.maxThreads != null) {
       maxThreads = params.maxThreads;
       LOG.info("Based on configuration, forced max thread pool size to {} threads.", maxThreads);
@@ -1,5 +1,6 @@
 package org.opentripplanner.standalone.server;
 
+import io.micrometer.core.instrument.FunctionCounter;
 import io.micrometer.core.instrument.Metrics;
 import io.micrometer.core.instrument.Tag;
 import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
@@ -21,6 +22,7 @@ import java.util.Map;
 import java.util.concurrent.ForkJoinPool;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueSummary;
 import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.raptor.rangeraptor.DestinationHeuristicsCache;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
 import org.opentripplanner.transit.service.TimetableRepository;
 
@@ -84,6 +86,13 @@ public class MetricsLogging {
         List.of(Tag.of("pool", "graphUpdateScheduler"))
       )
         .bindTo(Metrics.globalRegistry);
+
+      new ExecutorServiceMetrics(
+        timetableRepository.getUpdaterManager().getStreetWriter(),
+        "graphUpdateStreetWriter",
+        List.of(Tag.of("pool", "graphUpdateStreetWriter"))
+      )
+        .bindTo(Metrics.globalRegistry);
     }
 
     if (raptorConfig.isMultiThreaded()) {
@@ -95,6 +104,10 @@ public class MetricsLogging {
         .bindTo(Metrics.globalRegistry);
     }
 
+    if (raptorConfig.destinationHeuristicsCache().isEnabled()) {
+      bindDestinationHeuristicsCacheMetrics(raptorConfig.destinationHeuristicsCache());
+    }
+
     final Map<String, Long> issueCount = issueSummary.asMap();
 
     var totalIssues = issueCount.values().stream().mapToLong(i -> i).sum();
@@ -104,4 +117,27 @@ public class MetricsLogging {
       Metrics.globalRegistry.gauge("graph_build_issues", List.of(Tag.of("type", issueType)), number)
     );
   }
+
+  /**
+   * The hit ratio is {@code hit / (hit + miss)} of {@code raptor_destination_heuristics_cache}.
+   */
+  private static void bindDestinationHeuristicsCacheMetrics(DestinationHeuristicsCache cache) {
+    var name = "raptor_destination_heuristics_cache";
+    var description = "Destination heuristics cache lookups";
+    FunctionCounter
+      .builder(name, cache, DestinationHeuristicsCache::hitCount)
+      .description(description)
+      .tag("result", "hit")
+      .register(Metrics.globalRegistry);
+    FunctionCounter
+      .builder(name, cache, DestinationHeuristicsCache::missCount)
+      .description(description)
+      .tag("result", "miss")
+      .register(Metrics.globalRegistry);
+    FunctionCounter
+      .builder(name + "_saved_time", cache, c -> c.savedTimeMillis() / 1000.0)
+      .description("The run time of the heuristic searches replaced by a cache hit")
+      .baseUnit("seconds")
+      .register(Metrics.globalRegistry);
+  }
 }
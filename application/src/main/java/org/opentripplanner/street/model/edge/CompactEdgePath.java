@@ -0,0 +1,234 @@
+package org.opentripplanner.street.model.edge;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import javax.annotation.Nullable;
+import org.opentripplanner.street.model.vertex.Vertex;
+
+/**
+ * A compact representation of a path of consecutive edges in the street graph. Edges do not have
+ * a stable id, so the path is stored as the first vertex and, for each edge, the difference
+ * between the vertex index of the next and the current vertex - zig-zag and varint encoded in a
+ * byte array. Two or three bytes per edge is typical, compared with a reference per edge and the
+ * overhead of a list. The edges are resolved by following the outgoing edges of each vertex, see
+ * {@link #edges()} and {@link #iterator()}.
+ * <p>
+ * If there is more than one edge between two vertices, the distance of the edge is stored too. A
+ * path which can not be encoded unambiguously - vertices without an index, edges which are not
+ * connected or parallel edges with the same distance - is kept as a plain list of edges.
+ * <p>
+ * THREAD SAFETY - This class is immutable and thread-safe.
+ */
+public final class CompactEdgePath implements Iterable<Edge>, Serializable {
+
+  private static final int PARALLEL_EDGE_FLAG = 1;
+
+  @Nullable
+  private final Vertex from;
+
+  private final int size;
+
+  @Nullable
+  private final byte[] steps;
+
+  /** Used if the path can not be encoded, {@code null} otherwise. */
+  @Nullable
+  private final List<Edge> edges;
+
+  private CompactEdgePath(Vertex from, int size, byte[] steps) {
+    this.from = from;
+    this.size = size;
+    this.steps = steps;
+    this.edges = null;
+  }
+
+  private CompactEdgePath(List<Edge> edges) {
+    this.from = null;
+    this.size = edges.size();
+    this.steps = null;
+    this.edges = List.copyOf(edges);
+  }
+
+  /**
+   * Encode the given path, return {@code null} if {@code edges} is {@code null}.
+   */
+  @Nullable
+  public static CompactEdgePath of(@Nullable List<Edge> edges) {
+    if (edges == null) {
+      return null;
+    }
+    if (edges.isEmpty()) {
+      return new CompactEdgePath(List.of());
+    }
+    var steps = new ByteArrayOutputStream(edges.size() * 3);
+    Vertex from = edges.getFirst().getFromVertex();
+    Vertex current = from;
+
+    for (Edge edge : edges) {
+      if (edge.getFromVertex() != current || current.getIndex() < 0) {
+        return new CompactEdgePath(edges);
+      }
+      Vertex to = edge.getToVertex();
+      if (to.getIndex() < 0) {
+        return new CompactEdgePath(edges);
+      }
+      int nParallelEdges = 0;
+      boolean found = false;
+      for (Edge it : current.getOutgoing()) {
+        if (it.getToVertex() == to) {
+          ++nParallelEdges;
+          if (it == edge) {
+            found = true;
+          } else if (distanceMm(it) == distanceMm(edge)) {
+            return new CompactEdgePath(edges);
+          }
+        }
+      }
+      if (!found) {
+        return new CompactEdgePath(edges);
+      }
+      int delta = zigzag(to.getIndex() - current.getIndex());
+      if ((delta >>> 30) != 0) {
+        return new CompactEdgePath(edges);
+      }
+      int flag = nParallelEdges > 1 ? PARALLEL_EDGE_FLAG : 0;
+      writeVarint(steps, (delta << 1) | flag);
+      if (flag == PARALLEL_EDGE_FLAG) {
+        writeVarint(steps, distanceMm(edge));
+      }
+      current = to;
+    }
+    return new CompactEdgePath(from, edges.size(), steps.toByteArray());
+  }
+
+  /** The number of edges in the path. */
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * The vertex the path starts from.
+   *
+   * @throws IllegalStateException if the path is empty.
+   */
+  public Vertex firstVertex() {
+    if (isEmpty()) {
+      throw new IllegalStateException("The path is empty.");
+    }
+    return from != null ? from : edges.getFirst().getFromVertex();
+  }
+
+  /**
+   * Resolve the edges of the path. A new list is created for each call, so avoid calling this
+   * in performance critical code, use {@link #iterator()} instead.
+   *
+   * @throws IllegalStateException if the path no longer exists in the street graph.
+   */
+  public List<Edge> edges() {
+    if (edges != null) {
+      return edges;
+    }
+    var result = new ArrayList<Edge>(size);
+    for (Edge edge : this) {
+      result.add(edge);
+    }
+    return result;
+  }
+
+  /**
+   * Resolve the edges one at a time while iterating, without creating a list of all edges.
+   * <p>
+   * {@link Iterator#next()} throws an {@link IllegalStateException} if the path no longer exists
+   * in the street graph.
+   */
+  @Override
+  public Iterator<Edge> iterator() {
+    return edges != null ? edges.iterator() : new EdgeIterator();
+  }
+
+  private static int distanceMm(Edge edge) {
+    return (int) Math.round(edge.getDistanceMeters() * 1000.0);
+  }
+
+  private static int zigzag(int value) {
+    return (value << 1) ^ (value >> 31);
+  }
+
+  private static int unzigzag(int value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  private static void writeVarint(ByteArrayOutputStream out, int value) {
+    while ((value & ~0x7F) != 0) {
+      out.write((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    out.write(value);
+  }
+
+  private final class EdgeIterator implements Iterator<Edge> {
+
+    private final StepReader reader = new StepReader(steps);
+    private Vertex current = from;
+    private int index = 0;
+
+    @Override
+    public boolean hasNext() {
+      return index < size;
+    }
+
+    @Override
+    public Edge next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      int step = reader.readVarint();
+      int toIndex = current.getIndex() + unzigzag(step >>> 1);
+      boolean parallel = (step & PARALLEL_EDGE_FLAG) != 0;
+      int distanceMm = parallel ? reader.readVarint() : -1;
+
+      for (Edge it : current.getOutgoing()) {
+        if (
+          it.getToVertex().getIndex() == toIndex && (!parallel || distanceMm(it) == distanceMm)
+        ) {
+          ++index;
+          current = it.getToVertex();
+          return it;
+        }
+      }
+      throw new IllegalStateException(
+        "The edge from " + current + " to vertex index " + toIndex + " is not in the graph."
+      );
+    }
+  }
+
+  private static final class StepReader {
+
+    private final byte[] bytes;
+    private int pos = 0;
+
+    private StepReader(byte[] bytes) {
+      this.bytes = bytes;
+    }
+
+    int readVarint() {
+      int value = 0;
+      int shift = 0;
+      byte b;
+      do {
+        b = bytes[pos++];
+        value |= (b & 0x7F) << shift;
+        shift += 7;
+      } while ((b & 0x80) != 0);
+      return value;
+    }
+  }
+}
@@ -28,12 +28,25 @@ public abstract class Vertex implements AStarVertex<State, Edge, Vertex>, Serial
   public static final I18NString NO_NAME = I18NString.of("(no name provided)");
   private static final Logger LOG = LoggerFactory.getLogger(Vertex.class);
 
+  /**
+   * Most vertices are created before their edges, and some never get any incoming or outgoing
+   * edges. The edge arrays are replaced (copy-on-write) when modified, so an empty array can be
+   * shared by all vertices. This saves two array headers per vertex.
+   */
+  private static final Edge[] EMPTY_EDGES = new Edge[0];
+
   private final double x;
   private final double y;
 
-  private transient Edge[] incoming = new Edge[0];
+  /**
+   * A unique index assigned when the vertex is added to the {@link
+   * org.opentripplanner.routing.graph.Graph}, {@code -1} if not added.
+   */
+  private int index = -1;
+
+  private transient Edge[] incoming = EMPTY_EDGES;
 
-  private transient Edge[] outgoing = new Edge[0];
+  private transient Edge[] outgoing = EMPTY_EDGES;
   private RentalRestrictionExtension rentalRestrictions = RentalRestrictionExtension.NO_RESTRICTION;
 
   /* CONSTRUCTORS */
@@ -61,8 +74,8 @@ public abstract class Vertex implements AStarVertex<State, Edge, Vertex>, Serial
   }
 
   public void initEdgeLists() {
-    this.outgoing = new Edge[0];
-    this.incoming = new Edge[0];
+    this.outgoing = EMPTY_EDGES;
+    this.incoming = EMPTY_EDGES;
   }
 
   /* EDGE UTILITY METHODS (use arrays to eliminate copy-on-write set objects) */
@@ -161,6 +174,21 @@ public abstract class Vertex implements AStarVertex<State, Edge, Vertex>, Serial
     return getLabel().toString();
   }
 
+  @Override
+  public int getIndex() {
+    return index;
+  }
+
+  /**
+   * Set the vertex index. This should only be done by the graph when the vertex is added to it.
+   */
+  public void initIndex(int index) {
+    if (this.index != -1) {
+      throw new IllegalStateException("The vertex index is already set: " + this);
+    }
+    this.index = index;
+  }
+
   /**
    * Return the position of the vertex as a WgsCoordinate.
    */
@@ -299,7 +327,7 @@ public abstract class Vertex implements AStarVertex<State, Edge, Vertex>, Serial
 
   private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
     in.defaultReadObject();
-    this.incoming = new Edge[0];
-    this.outgoing = new Edge[0];
+    this.incoming = EMPTY_EDGES;
+    this.outgoing = EMPTY_EDGES;
   }
 }
@@ -19,19 +19,15 @@ public class EdgeTraverser {
 
   public static Optional<State> traverseEdges(
     final Collection<State> initialStates,
-    final Collection<Edge> edges
+    final Iterable<Edge> edges
   ) {
     return traverseEdges(initialStates.toArray(new State[0]), edges);
   }
 
   public static Optional<State> traverseEdges(
     final State[] initialStates,
-    final Collection<Edge> edges
+    final Iterable<Edge> edges
   ) {
-    if (edges.isEmpty()) {
-      return Optional.of(initialStates[0]);
-    }
-
     // The shortest path tree is used to prune dominated parallel states. For example,
     // CAR_PICKUP can return both a CAR/WALK state after each traversal of which only
     // the optimal states need to be continued.
@@ -60,6 +56,10 @@ public class EdgeTraverser {
       lastVertex = isArriveBy ? e.getFromVertex() : e.getToVertex();
     }
 
-    return Optional.ofNullable(lastVertex).map(spt::getState);
+    if (lastVertex == null) {
+      // No edges to traverse
+      return Optional.of(initialStates[0]);
+    }
+    return Optional.ofNullable(spt.getState(lastVertex));
   }
 }
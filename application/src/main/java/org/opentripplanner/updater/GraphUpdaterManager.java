@@ -1,6 +1,7 @@
 package org.opentripplanner.updater;
 
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.Metrics;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -12,6 +13,7 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.updater.spi.GraphUpdater;
 import org.opentripplanner.updater.spi.PollingGraphUpdater;
 import org.opentripplanner.updater.spi.WriteToGraphCallback;
@@ -39,15 +41,22 @@ public class GraphUpdaterManager implements WriteToGraphCallback, GraphUpdaterSt
 
   /**
    * OTP's multi-version concurrency control model for graph updating allows simultaneous reads, but
-   * never simultaneous writes. We ensure this policy is respected by having a single writer thread,
-   * which sequentially executes all graph updater tasks. Each task is a runnable that is scheduled
-   * with the ExecutorService to run at regular intervals.
+   * never simultaneous writes to the same data. We ensure this policy is respected by having a
+   * single writer thread for each {@link GraphWriterPartition}, which sequentially executes the
+   * graph updater tasks of the partition. This is the writer of the TRANSIT partition. Each task is
+   * a runnable that is scheduled with the ExecutorService to run at regular intervals.
    * FIXME: In reality we're not using scheduleAtFixedInterval.
    *        We're scheduling for immediate execution from separate threads that sleep in a loop.
    *        We should perhaps switch to having polling GraphUpdaters call scheduleAtFixedInterval.
    */
   private final ScheduledExecutorService scheduler;
 
+  /**
+   * The writer thread of the STREET partition, the vehicle rental and parking updates are not
+   * blocked by large timetable updates.
+   */
+  private final ExecutorService streetWriter;
+
   private final ScheduledExecutorService pollingUpdaterPool;
 
   /**
@@ -75,6 +84,10 @@ public class GraphUpdaterManager implements WriteToGraphCallback, GraphUpdaterSt
     // Thread factories used to create new threads, giving them more human-readable names.
     var graphWriterThreadFactory = new ThreadFactoryBuilder().setNameFormat("graph-writer").build();
     this.scheduler = Executors.newSingleThreadScheduledExecutor(graphWriterThreadFactory);
+    this.streetWriter =
+      Executors.newSingleThreadExecutor(
+        new ThreadFactoryBuilder().setNameFormat("graph-writer-street").build()
+      );
     var updaterThreadFactory = new ThreadFactoryBuilder().setNameFormat("updater-%d").build();
     this.pollingUpdaterPool =
       Executors.newScheduledThreadPool(
@@ -85,7 +98,11 @@ public class GraphUpdaterManager implements WriteToGraphCallback, GraphUpdaterSt
 
     for (GraphUpdater updater : updaters) {
       updaterList.add(updater);
-      updater.setup(this);
+      updater.setup(
+        OTPFeature.ActuatorAPI.isOn()
+          ? new GraphWriterMetrics(updater, this, Metrics.globalRegistry)
+          : this
+      );
     }
   }
 
@@ -166,10 +183,13 @@ public class GraphUpdaterManager implements WriteToGraphCallback, GraphUpdaterSt
     }
     updaterList.clear();
 
-    // Shutdown scheduler
+    // Shutdown graph writers
     scheduler.shutdownNow();
+    streetWriter.shutdownNow();
     try {
-      boolean ok = scheduler.awaitTermination(30, TimeUnit.SECONDS);
+      boolean ok =
+        scheduler.awaitTermination(30, TimeUnit.SECONDS) &&
+        streetWriter.awaitTermination(30, TimeUnit.SECONDS);
       if (!ok) {
         LOG.warn("Timeout waiting for scheduled task to finish.");
       }
@@ -182,7 +202,8 @@ public class GraphUpdaterManager implements WriteToGraphCallback, GraphUpdaterSt
 
   @Override
   public Future<?> execute(GraphWriterRunnable runnable) {
-    return scheduler.submit(() -> {
+    var writer = runnable.partition() == GraphWriterPartition.STREET ? streetWriter : scheduler;
+    return writer.submit(() -> {
       try {
         runnable.run(realtimeUpdateContext);
       } catch (Exception e) {
@@ -256,6 +277,10 @@ public class GraphUpdaterManager implements WriteToGraphCallback, GraphUpdaterSt
     return scheduler;
   }
 
+  public ExecutorService getStreetWriter() {
+    return streetWriter;
+  }
+
   /**
    * This method start a task during startup and log a message when all updaters are initialized.
    * When all updaters are ready, then OTP is ready for processing routing requests.
@@ -0,0 +1,73 @@
+package org.opentripplanner.updater;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.util.Objects;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.opentripplanner.updater.spi.GraphUpdater;
+import org.opentripplanner.updater.spi.WriteToGraphCallback;
+
+/**
+ * Records micrometer metrics for the graph writer runnables of one updater: the number of
+ * runnables waiting for the writer thread, the time they wait and the time it takes to apply
+ * them. An updater submitting runnables faster than they are applied shows up as a growing queue.
+ */
+class GraphWriterMetrics implements WriteToGraphCallback {
+
+  private static final String METRICS_PREFIX = "graph_writer";
+
+  private final WriteToGraphCallback delegate;
+  private final AtomicInteger queued = new AtomicInteger();
+  private final Timer waitTimer;
+  private final Timer applyTimer;
+
+  GraphWriterMetrics(GraphUpdater updater, WriteToGraphCallback delegate, MeterRegistry registry) {
+    this.delegate = delegate;
+    var tags = Tags.of(
+      "configRef",
+      Objects.requireNonNullElse(updater.getConfigRef(), updater.getClass().getSimpleName())
+    );
+    Gauge
+      .builder(METRICS_PREFIX + "_queued", queued, AtomicInteger::get)
+      .description("Graph writer runnables waiting to be applied")
+      .tags(tags)
+      .register(registry);
+    this.waitTimer =
+      Timer
+        .builder(METRICS_PREFIX + "_wait")
+        .description("Time from submitting a graph writer runnable until it is applied")
+        .tags(tags)
+        .register(registry);
+    this.applyTimer =
+      Timer
+        .builder(METRICS_PREFIX + "_apply")
+        .description("Time used to apply a graph writer runnable")
+        .tags(tags)
+        .register(registry);
+  }
+
+  @Override
+  public Future<?> execute(GraphWriterRunnable runnable) {
+    queued.incrementAndGet();
+    long submitted = System.nanoTime();
+    return delegate.execute(
+      new GraphWriterRunnable() {
+        @Override
+        public void run(RealTimeUpdateContext context) {
+          queued.decrementAndGet();
+          waitTimer.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+          applyTimer.record(() -> runnable.run(context));
+        }
+
+        @Override
+        public GraphWriterPartition partition() {
+          return runnable.partition();
+        }
+      }
+    );
+  }
+}
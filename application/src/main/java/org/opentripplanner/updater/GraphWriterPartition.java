@@ -0,0 +1,23 @@
+package org.opentripplanner.updater;
+
+/**
+ * The graph writer runnables of a partition are executed one at a time on the writer thread of
+ * the partition, and concurrently with the runnables of other partitions. A partition owns a set
+ * of data structures, which must only be modified and read by runnables of the same partition.
+ *
+ * @see GraphWriterRunnable#partition()
+ */
+public enum GraphWriterPartition {
+  /**
+   * The timetable snapshots, the transit model and the services using them, like alerts and
+   * real-time vehicle positions. The snapshot sources share the transit layer and the transit
+   * service of the {@link RealTimeUpdateContext}, so they can not be split further.
+   */
+  TRANSIT,
+
+  /**
+   * The street graph and the vehicle rental and parking services. These runnables never read the
+   * transit data.
+   */
+  STREET,
+}
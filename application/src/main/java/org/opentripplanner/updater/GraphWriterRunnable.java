@@ -3,9 +3,10 @@ package org.opentripplanner.updater;
 /**
  * The graph should only be modified by a runnable implementing this interface, executed by the
  * GraphUpdaterManager. A few notes: - Don't spend more time in this runnable than necessary, it
- * might block other graph writer runnables. - Be aware that while only one graph writer runnable is
- * running to write to the graph, several request-threads might be reading the graph. - Be sure that
- * the request-threads always see a consistent view of the graph while planning.
+ * might block other graph writer runnables of the same partition. - Be aware that while only one
+ * graph writer runnable of each partition is running, several request-threads might be reading the
+ * graph. - Be sure that the request-threads always see a consistent view of the graph while
+ * planning.
  *
  * @see GraphUpdaterManager
  */
@@ -14,4 +15,12 @@ public interface GraphWriterRunnable {
    * This function is executed to modify the graph.
    */
   void run(RealTimeUpdateContext context);
+
+  /**
+   * The partition of the data modified by this runnable. Runnables of different partitions are
+   * executed concurrently, so a runnable must not touch the data of another partition.
+   */
+  default GraphWriterPartition partition() {
+    return GraphWriterPartition.TRANSIT;
+  }
 }
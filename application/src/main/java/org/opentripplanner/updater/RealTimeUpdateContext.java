@@ -7,7 +7,8 @@ import org.opentripplanner.updater.siri.SiriFuzzyTripMatcher;
 
 /**
  * Give access to the transit data and street model in the context of a real-time updater.
- * The services exposed should be used only from the GraphWriter thread.
+ * The services exposed should be used only from the graph writer thread of the partition owning
+ * them, see {@link GraphWriterPartition}.
  */
 public interface RealTimeUpdateContext {
   /**
@@ -18,7 +18,8 @@ package org.opentripplanner.updater.spi;
  * Graph writing callback function supplied to them by the GraphUpdaterManager after they're
  * constructed. In this way, changes are queued up by many GraphUpdaters running in parallel on
  * different threads, but are applied sequentially in a single-threaded manner to simplify reasoning
- * about concurrent reads and writes to the Graph.
+ * about concurrent reads and writes to the Graph. Only the runnables of different
+ * {@link org.opentripplanner.updater.GraphWriterPartition}s are applied concurrently.
  */
 public interface GraphUpdater {
   /**
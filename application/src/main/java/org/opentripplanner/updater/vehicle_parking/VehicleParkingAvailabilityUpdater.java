@@ -9,6 +9,7 @@ import org.opentripplanner.service.vehicleparking.VehicleParkingRepository;
 import org.opentripplanner.service.vehicleparking.model.VehicleParking;
 import org.opentripplanner.service.vehicleparking.model.VehicleParkingSpaces;
 import org.opentripplanner.transit.model.framework.FeedScopedId;
+import org.opentripplanner.updater.GraphWriterPartition;
 import org.opentripplanner.updater.GraphWriterRunnable;
 import org.opentripplanner.updater.RealTimeUpdateContext;
 import org.opentripplanner.updater.spi.DataSource;
@@ -70,6 +71,11 @@ public class VehicleParkingAvailabilityUpdater extends PollingGraphUpdater {
       updates.forEach(this::handleUpdate);
     }
 
+    @Override
+    public GraphWriterPartition partition() {
+      return GraphWriterPartition.STREET;
+    }
+
     private void handleUpdate(AvailabiltyUpdate update) {
       if (!parkingById.containsKey(update.vehicleParkingId())) {
         LOG.warn(
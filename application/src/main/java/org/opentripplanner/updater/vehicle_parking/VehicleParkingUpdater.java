@@ -23,6 +23,7 @@ import org.opentripplanner.street.model.vertex.VehicleParkingEntranceVertex;
 import org.opentripplanner.street.search.TraverseMode;
 import org.opentripplanner.street.search.TraverseModeSet;
 import org.opentripplanner.transit.model.framework.FeedScopedId;
+import org.opentripplanner.updater.GraphWriterPartition;
 import org.opentripplanner.updater.GraphWriterRunnable;
 import org.opentripplanner.updater.RealTimeUpdateContext;
 import org.opentripplanner.updater.spi.DataSource;
@@ -91,6 +92,11 @@ public class VehicleParkingUpdater extends PollingGraphUpdater {
       this.updatedVehicleParkings = new HashSet<>(updatedVehicleParkings);
     }
 
+    @Override
+    public GraphWriterPartition partition() {
+      return GraphWriterPartition.STREET;
+    }
+
     @Override
     public void run(RealTimeUpdateContext context) {
       // Apply stations to graph
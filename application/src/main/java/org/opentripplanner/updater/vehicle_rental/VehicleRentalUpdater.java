@@ -27,6 +27,7 @@ import org.opentripplanner.street.model.vertex.VertexFactory;
 import org.opentripplanner.street.search.TraverseMode;
 import org.opentripplanner.street.search.TraverseModeSet;
 import org.opentripplanner.transit.model.framework.FeedScopedId;
+import org.opentripplanner.updater.GraphWriterPartition;
 import org.opentripplanner.updater.GraphWriterRunnable;
 import org.opentripplanner.updater.RealTimeUpdateContext;
 import org.opentripplanner.updater.spi.PollingGraphUpdater;
@@ -147,6 +148,11 @@ public class VehicleRentalUpdater extends PollingGraphUpdater {
       this.geofencingZones = Set.copyOf(geofencingZones);
     }
 
+    @Override
+    public GraphWriterPartition partition() {
+      return GraphWriterPartition.STREET;
+    }
+
     @Override
     public void run(RealTimeUpdateContext context) {
       // Apply stations to graph
@@ -30,7 +30,6 @@ import org.opentripplanner.street.service.DefaultStreetLimitationParametersServi
 import org.opentripplanner.street.service.StreetLimitationParametersService;
 import org.opentripplanner.transit.service.DefaultTransitService;
 import org.opentripplanner.transit.service.TimetableRepository;
-import org.opentripplanner.transit.service.TransitService;
 
 public class TestServerContext {
 
@@ -43,7 +42,6 @@ public class TestServerContext {
   ) {
     timetableRepository.index();
     final RouterConfig routerConfig = RouterConfig.DEFAULT;
-    var transitService = new DefaultTransitService(timetableRepository);
     DefaultServerRequestContext context = DefaultServerRequestContext.create(
       routerConfig.transitTuningConfig(),
       routerConfig.routingRequestDefaults(),
@@ -56,7 +54,7 @@ public class TestServerContext {
       Metrics.globalRegistry,
       routerConfig.vectorTileConfig(),
       createWorldEnvelopeService(),
-      createRealtimeVehicleService(transitService),
+      createRealtimeVehicleService(),
       createVehicleRentalService(),
       createVehicleParkingService(),
       createEmissionsService(),
@@ -85,8 +83,8 @@ public class TestServerContext {
     return new DefaultWorldEnvelopeService(repository);
   }
 
-  public static RealtimeVehicleService createRealtimeVehicleService(TransitService transitService) {
-    return new DefaultRealtimeVehicleService(transitService);
+  public static RealtimeVehicleService createRealtimeVehicleService() {
+    return new DefaultRealtimeVehicleService();
   }
 
   public static VehicleRentalService createVehicleRentalService() {
@@ -320,7 +320,7 @@ class GraphQLIntegrationTest {
     var alerts = ListUtils.combine(List.of(alert), getTransitAlert(entitySelector));
     transitService.getTransitAlertService().setAlerts(alerts);
 
-    var realtimeVehicleService = new DefaultRealtimeVehicleService(transitService);
+    var realtimeVehicleService = new DefaultRealtimeVehicleService();
     var occypancyVehicle = RealtimeVehicle
       .builder()
       .withTrip(trip)
@@ -402,6 +402,7 @@ class GraphQLIntegrationTest {
       query,
       null,
       null,
+      null,
       2000,
       2000,
       Locale.ENGLISH,
@@ -64,7 +64,7 @@ class LegacyRouteRequestMapperTest implements PlanTestConstants {
         new DefaultFareService(),
         new DefaultVehicleRentalService(),
         new DefaultVehicleParkingService(new DefaultVehicleParkingRepository()),
-        new DefaultRealtimeVehicleService(transitService),
+        new DefaultRealtimeVehicleService(),
         GraphFinder.getInstance(graph, transitService::findRegularStopsByBoundingBox),
         new RouteRequest()
       );
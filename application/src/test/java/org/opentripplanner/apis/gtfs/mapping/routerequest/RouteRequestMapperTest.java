@@ -74,7 +74,7 @@ class RouteRequestMapperTest {
         new DefaultFareService(),
         new DefaultVehicleRentalService(),
         new DefaultVehicleParkingService(new DefaultVehicleParkingRepository()),
-        new DefaultRealtimeVehicleService(transitService),
+        new DefaultRealtimeVehicleService(),
         GraphFinder.getInstance(graph, transitService::findRegularStopsByBoundingBox),
         new RouteRequest()
       );
@@ -0,0 +1,252 @@
+package org.opentripplanner.apis.gtfs.support.dataloader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.opentripplanner.transit.model._data.TimetableRepositoryForTest.id;
+
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.DataFetchingEnvironmentImpl;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.dataloader.DataLoaderRegistry;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.apis.gtfs.GraphQLRequestContext;
+import org.opentripplanner.apis.gtfs.support.dataloader.GraphQLDataLoaders.SelectorEntity;
+import org.opentripplanner.apis.gtfs.support.dataloader.GraphQLDataLoaders.SelectorEntityKey;
+import org.opentripplanner.apis.gtfs.support.dataloader.GraphQLDataLoaders.StopTimesKey;
+import org.opentripplanner.model.StopTimesInPattern;
+import org.opentripplanner.model.TripTimeOnDate;
+import org.opentripplanner.routing.alertpatch.EntitySelector;
+import org.opentripplanner.routing.alertpatch.TimePeriod;
+import org.opentripplanner.routing.alertpatch.TransitAlert;
+import org.opentripplanner.routing.impl.TransitAlertServiceImpl;
+import org.opentripplanner.routing.services.TransitAlertService;
+import org.opentripplanner.routing.stoptimes.ArrivalDeparture;
+import org.opentripplanner.transit.model._data.TimetableRepositoryForTest;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
+import org.opentripplanner.transit.model.network.TripPattern;
+import org.opentripplanner.transit.model.site.RegularStop;
+import org.opentripplanner.transit.model.site.StopLocation;
+import org.opentripplanner.transit.model.timetable.ScheduledTripTimes;
+import org.opentripplanner.transit.service.DefaultTransitService;
+import org.opentripplanner.transit.service.TimetableRepository;
+
+class GraphQLDataLoadersTest {
+
+  private static final FeedScopedId STOP_A = id("A");
+  private static final FeedScopedId STOP_B = id("B");
+  private static final FeedScopedId ROUTE = id("R");
+  private static final FeedScopedId TRIP = id("T");
+
+  private static final TransitAlert STOP_A_ON_ROUTE = alert(
+    "1",
+    new EntitySelector.StopAndRoute(STOP_A, ROUTE)
+  );
+  private static final TransitAlert STOP_A_ON_TRIP = alert(
+    "2",
+    new EntitySelector.StopAndTrip(STOP_A, TRIP)
+  );
+  private static final TransitAlert STOP_B_ON_ROUTE_AND_TRIP = alert(
+    "3",
+    new EntitySelector.StopAndRoute(STOP_B, ROUTE),
+    new EntitySelector.StopAndTrip(STOP_B, TRIP)
+  );
+  private static final TransitAlert ON_STOP_A = alert("4", new EntitySelector.Stop(STOP_A));
+
+  private static final TimetableRepositoryForTest TEST_MODEL = TimetableRepositoryForTest.of();
+  private static final RegularStop STOP_1 = TEST_MODEL.stop("1").build();
+  private static final RegularStop STOP_2 = TEST_MODEL.stop("2").build();
+  private static final TripPattern PATTERN = TimetableRepositoryForTest
+    .tripPattern("P", TimetableRepositoryForTest.route("R").build())
+    .withStopPattern(TimetableRepositoryForTest.stopPattern(STOP_1, STOP_2))
+    .build();
+  private static final long START_TIME = Instant.parse("2024-01-15T07:00:00Z").getEpochSecond();
+  private static final long NOW = 0;
+
+  /** The departures at stop 1, the latest first, in the same order as the StopTimesHelper. */
+  private static final List<TripTimeOnDate> DEPARTURES = List.of(
+    departure("T3", "08:20 08:30"),
+    departure("T2", "08:10 08:20"),
+    departure("T1", "08:00 08:10")
+  );
+
+  private final AtomicInteger nAlertServiceCalls = new AtomicInteger();
+  private final AtomicInteger nStopTimesCalls = new AtomicInteger();
+  private final GraphQLRequestContext context = new GraphQLRequestContext(
+    null,
+    new DefaultTransitService(new TimetableRepository()) {
+      private final TransitAlertService alertService = createAlertService();
+
+      @Override
+      public TransitAlertService getTransitAlertService() {
+        nAlertServiceCalls.incrementAndGet();
+        return alertService;
+      }
+
+      @Override
+      public List<StopTimesInPattern> findStopTimesInPattern(
+        StopLocation stop,
+        Instant startTime,
+        Duration timeRange,
+        int numberOfDepartures,
+        ArrivalDeparture arrivalDeparture,
+        boolean includeCancelledTrips
+      ) {
+        nStopTimesCalls.incrementAndGet();
+        var stopTimes = new StopTimesInPattern(PATTERN);
+        int n = Math.min(numberOfDepartures, DEPARTURES.size());
+        stopTimes.times.addAll(DEPARTURES.subList(DEPARTURES.size() - n, DEPARTURES.size()));
+        return List.of(stopTimes);
+      }
+    },
+    null,
+    null,
+    null,
+    null,
+    null,
+    null
+  );
+
+  @Test
+  void batchSelectorAlerts() {
+    DataLoaderRegistry registry = context.createDataLoaderRegistry();
+    var environment = environment(registry);
+
+    var stopAOnRoutes = GraphQLDataLoaders.selectorAlerts(environment, stop(STOP_A), true, false);
+    var stopAOnTrips = GraphQLDataLoaders.selectorAlerts(environment, stop(STOP_A), false, true);
+    var stopB = GraphQLDataLoaders.selectorAlerts(environment, stop(STOP_B), true, true);
+    var route = GraphQLDataLoaders.selectorAlerts(
+      environment,
+      new SelectorEntityKey(SelectorEntity.ROUTE, ROUTE),
+      true,
+      false
+    );
+    var trip = GraphQLDataLoaders.selectorAlerts(
+      environment,
+      new SelectorEntityKey(SelectorEntity.TRIP, TRIP),
+      false,
+      true
+    );
+    var unknown = GraphQLDataLoaders.selectorAlerts(environment, stop(id("X")), true, true);
+    registry.dispatchAll();
+
+    assertEquals(List.of(STOP_A_ON_ROUTE), stopAOnRoutes.join());
+    assertEquals(List.of(STOP_A_ON_TRIP), stopAOnTrips.join());
+    assertEquals(List.of(STOP_B_ON_ROUTE_AND_TRIP), stopB.join());
+    assertEquals(Set.of(STOP_A_ON_ROUTE, STOP_B_ON_ROUTE_AND_TRIP), Set.copyOf(route.join()));
+    assertEquals(Set.of(STOP_A_ON_TRIP, STOP_B_ON_ROUTE_AND_TRIP), Set.copyOf(trip.join()));
+    assertEquals(List.of(), unknown.join());
+    assertEquals(1, nAlertServiceCalls.get());
+  }
+
+  @Test
+  void shareStopTimesSearchForTheSameStopAndTimeRange() {
+    DataLoaderRegistry registry = context.createDataLoaderRegistry();
+    var environment = environment(registry);
+
+    var one = GraphQLDataLoaders.stopTimesInPattern(environment, stopTimes(Duration.ofHours(1), 1));
+    var two = GraphQLDataLoaders.stopTimesInPattern(environment, stopTimes(Duration.ofHours(1), 2));
+    var three = GraphQLDataLoaders.stopTimesInPattern(
+      environment,
+      stopTimes(Duration.ofHours(1), 3)
+    );
+    var otherTimeRange = GraphQLDataLoaders.stopTimesInPattern(
+      environment,
+      stopTimes(Duration.ofHours(2), 1)
+    );
+    registry.dispatchAll();
+
+    assertEquals(DEPARTURES.subList(2, 3), one.join().getFirst().times);
+    assertEquals(DEPARTURES.subList(1, 3), two.join().getFirst().times);
+    assertEquals(DEPARTURES, three.join().getFirst().times);
+    assertEquals(DEPARTURES.subList(2, 3), otherTimeRange.join().getFirst().times);
+    assertEquals(2, nStopTimesCalls.get());
+  }
+
+  @Test
+  void shareStopTimesSearchFromNow() {
+    DataLoaderRegistry registry = context.createDataLoaderRegistry();
+    var environment = environment(registry);
+
+    var one = GraphQLDataLoaders.stopTimesInPattern(
+      environment,
+      stopTimes(NOW, Duration.ofHours(1), 1)
+    );
+    var two = GraphQLDataLoaders.stopTimesInPattern(
+      environment,
+      stopTimes(NOW, Duration.ofHours(1), 2)
+    );
+    registry.dispatchAll();
+
+    assertEquals(DEPARTURES.subList(2, 3), one.join().getFirst().times);
+    assertEquals(DEPARTURES.subList(1, 3), two.join().getFirst().times);
+    assertEquals(1, nStopTimesCalls.get());
+  }
+
+  @Test
+  void loadDirectlyWithoutRegistry() {
+    var environment = environment(null);
+
+    var alerts = GraphQLDataLoaders.selectorAlerts(environment, stop(STOP_A), true, true);
+
+    assertEquals(Set.of(STOP_A_ON_ROUTE, STOP_A_ON_TRIP), Set.copyOf(alerts.join()));
+  }
+
+  private DataFetchingEnvironment environment(DataLoaderRegistry registry) {
+    var builder = DataFetchingEnvironmentImpl.newDataFetchingEnvironment().context(context);
+    if (registry != null) {
+      builder.dataLoaderRegistry(registry);
+    }
+    return builder.build();
+  }
+
+  private static StopTimesKey stopTimes(Duration timeRange, int numberOfDepartures) {
+    return stopTimes(START_TIME, timeRange, numberOfDepartures);
+  }
+
+  private static StopTimesKey stopTimes(
+    long startTime,
+    Duration timeRange,
+    int numberOfDepartures
+  ) {
+    return new StopTimesKey(
+      STOP_1,
+      startTime,
+      timeRange,
+      numberOfDepartures,
+      ArrivalDeparture.BOTH,
+      false
+    );
+  }
+
+  private static TripTimeOnDate departure(String tripId, String departureTimes) {
+    var tripTimes = ScheduledTripTimes
+      .of()
+      .withTrip(TimetableRepositoryForTest.trip(tripId).build())
+      .withDepartureTimes(departureTimes)
+      .build();
+    return new TripTimeOnDate(tripTimes, 0, PATTERN);
+  }
+
+  private static SelectorEntityKey stop(FeedScopedId id) {
+    return new SelectorEntityKey(SelectorEntity.STOP, id);
+  }
+
+  private static TransitAlertService createAlertService() {
+    var alertService = new TransitAlertServiceImpl(new TimetableRepository());
+    alertService.setAlerts(
+      List.of(STOP_A_ON_ROUTE, STOP_A_ON_TRIP, STOP_B_ON_ROUTE_AND_TRIP, ON_STOP_A)
+    );
+    return alertService;
+  }
+
+  private static TransitAlert alert(String id, EntitySelector... entities) {
+    var builder = TransitAlert.of(id(id)).addTimePeriod(new TimePeriod(0, TimePeriod.OPEN_ENDED));
+    for (EntitySelector entity : entities) {
+      builder.addEntity(entity);
+    }
+    return builder.build();
+  }
+}
@@ -0,0 +1,106 @@
+package org.opentripplanner.apis.support.graphql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.common.hash.Hashing;
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class CachingPreparsedDocumentProviderTest {
+
+  private static final String QUERY = "{ hello }";
+  private static final String QUERY_HASH = Hashing
+    .sha256()
+    .hashString(QUERY, StandardCharsets.UTF_8)
+    .toString();
+
+  private final CachingPreparsedDocumentProvider subject = new CachingPreparsedDocumentProvider(10);
+
+  private final GraphQL graphQL = GraphQL
+    .newGraphQL(
+      new SchemaGenerator()
+        .makeExecutableSchema(
+          new SchemaParser().parse("type Query { hello: String }"),
+          RuntimeWiring
+            .newRuntimeWiring()
+            .type("Query", type -> type.dataFetcher("hello", env -> "world"))
+            .build()
+        )
+    )
+    .preparsedDocumentProvider(subject)
+    .build();
+
+  @Test
+  void cacheQuery() {
+    assertHelloWorld(execute(QUERY, Map.of()));
+    assertHelloWorld(execute(QUERY, Map.of()));
+    assertEquals(1, subject.size());
+  }
+
+  @Test
+  void doNotCacheInvalidQuery() {
+    assertFalse(execute("{ goodbye }", Map.of()).getErrors().isEmpty());
+    assertFalse(execute("{ hello", Map.of()).getErrors().isEmpty());
+    assertEquals(0, subject.size());
+  }
+
+  @Test
+  void persistedQuery() {
+    var unknown = execute(PersistedQuerySupport.PERSISTED_QUERY_MARKER, persistedQuery(QUERY_HASH));
+    assertEquals("PersistedQueryNotFound", unknown.getErrors().getFirst().getMessage());
+
+    // Register the query with both the id and the query text
+    assertHelloWorld(execute(QUERY, persistedQuery(QUERY_HASH)));
+
+    assertHelloWorld(
+      execute(PersistedQuerySupport.PERSISTED_QUERY_MARKER, persistedQuery(QUERY_HASH))
+    );
+    assertEquals(1, subject.size());
+  }
+
+  @Test
+  void queryTextIsAvailableAsPersistedQuery() {
+    assertHelloWorld(execute(QUERY, Map.of()));
+    assertHelloWorld(
+      execute(PersistedQuerySupport.PERSISTED_QUERY_MARKER, persistedQuery(QUERY_HASH))
+    );
+  }
+
+  @Test
+  void persistedQueryWithWrongId() {
+    var result = execute(QUERY, persistedQuery("abc"));
+    assertEquals("PersistedQueryIdInvalid", result.getErrors().getFirst().getMessage());
+    assertEquals(0, subject.size());
+  }
+
+  @Test
+  void isPersistedQuery() {
+    assertTrue(CachingPreparsedDocumentProvider.isPersistedQuery(persistedQuery(QUERY_HASH)));
+    assertFalse(CachingPreparsedDocumentProvider.isPersistedQuery(Map.of()));
+    assertFalse(CachingPreparsedDocumentProvider.isPersistedQuery(null));
+  }
+
+  private ExecutionResult execute(String query, Map<String, Object> extensions) {
+    return graphQL.execute(
+      ExecutionInput.newExecutionInput().query(query).extensions(extensions).build()
+    );
+  }
+
+  private static Map<String, Object> persistedQuery(String hash) {
+    return Map.of("persistedQuery", Map.of("version", 1, "sha256Hash", hash));
+  }
+
+  private static void assertHelloWorld(ExecutionResult result) {
+    assertEquals(Map.of("hello", "world"), result.getData(), result.getErrors().toString());
+  }
+}
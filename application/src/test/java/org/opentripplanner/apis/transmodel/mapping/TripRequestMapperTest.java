@@ -145,7 +145,7 @@ public class TripRequestMapperTest implements PlanTestConstants {
           Metrics.globalRegistry,
           RouterConfig.DEFAULT.vectorTileConfig(),
           new DefaultWorldEnvelopeService(new DefaultWorldEnvelopeRepository()),
-          new DefaultRealtimeVehicleService(transitService),
+          new DefaultRealtimeVehicleService(),
           new DefaultVehicleRentalService(),
           new DefaultVehicleParkingService(new DefaultVehicleParkingRepository()),
           new DefaultEmissionsService(new EmissionsDataModel()),
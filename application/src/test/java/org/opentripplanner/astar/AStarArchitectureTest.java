@@ -1,6 +1,7 @@
 package org.opentripplanner.astar;
 
 import static org.opentripplanner.OtpArchitectureModules.FRAMEWORK_UTILS;
+import static org.opentripplanner.OtpArchitectureModules.GNU_TROVE;
 import static org.opentripplanner.OtpArchitectureModules.GOOGLE_COLLECTIONS;
 import static org.opentripplanner.OtpArchitectureModules.OTP_ROOT;
 
@@ -24,7 +25,7 @@ public class AStarArchitectureTest {
 
   @Test
   void enforcePackageDependenciesInModel() {
-    ASTAR_MODEL.dependsOn(GOOGLE_COLLECTIONS, ASTAR_SPI).verify();
+    ASTAR_MODEL.dependsOn(GNU_TROVE, GOOGLE_COLLECTIONS, ASTAR_SPI).verify();
   }
 
   @Test
@@ -204,6 +204,48 @@ public class AStarTest {
     assertEquals("near_56th_20th", states.get(8).getVertex().getLabelString());
   }
 
+  @Test
+  public void testUseVertexIndex() {
+    var request = new RouteRequest();
+
+    request.withPreferences(pref -> pref.withWalk(w -> w.withSpeed(1.0)));
+
+    TemporaryStreetLocation from = new TemporaryStreetLocation(
+      "near_shilshole_22nd",
+      new Coordinate(-122.385050, 47.666620),
+      new NonLocalizedString("near_shilshole_22nd"),
+      false
+    );
+    TemporaryConcreteEdge.createTemporaryConcreteEdge(from, graph.getVertex("shilshole_22nd"));
+
+    Vertex to = graph.getVertex("56th_20th");
+
+    ShortestPathTree<State, Edge, Vertex> expected = StreetSearchBuilder
+      .of()
+      .setRequest(request)
+      .setFrom(from)
+      .getShortestPathTree();
+
+    ShortestPathTree<State, Edge, Vertex> tree = StreetSearchBuilder
+      .of()
+      .setUseVertexIndex(true)
+      .setRequest(request)
+      .setFrom(from)
+      .getShortestPathTree();
+
+    assertEquals(expected.getVertexCount(), tree.getVertexCount());
+    assertEquals(expected.getAllStates().size(), tree.getAllStates().size());
+    assertEquals(expected.getVertices(), tree.getVertices());
+    assertEquals(
+      expected.getPath(to).states.stream().map(State::getVertex).toList(),
+      tree.getPath(to).states.stream().map(State::getVertex).toList()
+    );
+    assertEquals(expected.getPath(to).getWeight(), tree.getPath(to).getWeight());
+    for (Vertex v : expected.getVertices()) {
+      assertEquals(expected.getState(v).getWeight(), tree.getState(v).getWeight());
+    }
+  }
+
   @Test
   public void testBackExtraEdges() {
     var request = new RouteRequest();
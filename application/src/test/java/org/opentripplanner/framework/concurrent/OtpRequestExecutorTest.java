@@ -0,0 +1,77 @@
+package org.opentripplanner.framework.concurrent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.framework.application.OTPFeature;
+
+class OtpRequestExecutorTest {
+
+  @Test
+  void runInParallel() {
+    OTPFeature.VirtualThreads.testOff(this::assertAllTasksRun);
+    OTPFeature.VirtualThreads.testOn(this::assertAllTasksRun);
+  }
+
+  @Test
+  void runInVirtualThreads() {
+    OTPFeature.VirtualThreads.testOn(() -> {
+      var virtual = new AtomicBoolean();
+      OtpRequestExecutor.runInParallel(() -> virtual.set(Thread.currentThread().isVirtual()));
+      assertTrue(virtual.get());
+    });
+  }
+
+  @Test
+  void failedTaskIsRethrownAsCompletionException() {
+    OTPFeature.VirtualThreads.testOn(() -> {
+      var ex = assertThrows(
+        CompletionException.class,
+        () -> OtpRequestExecutor.runInParallel(() -> {}, this::fail)
+      );
+      assertInstanceOf(IllegalStateException.class, ex.getCause());
+    });
+  }
+
+  @Test
+  void runCpuIntensiveInCallerThread() {
+    OTPFeature.VirtualThreads.testOn(() -> {
+      var caller = Thread.currentThread();
+      assertEquals(caller, OtpRequestExecutor.runCpuIntensive(Thread::currentThread));
+    });
+  }
+
+  @Test
+  void runCpuIntensiveFromVirtualThread() {
+    OTPFeature.VirtualThreads.testOn(() -> {
+      var virtual = new AtomicBoolean(true);
+      var thread = Thread.startVirtualThread(() ->
+        virtual.set(OtpRequestExecutor.runCpuIntensive(() -> Thread.currentThread().isVirtual()))
+      );
+      try {
+        thread.join();
+      } catch (InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+      assertFalse(virtual.get());
+    });
+  }
+
+  private void assertAllTasksRun() {
+    Set<String> result = ConcurrentHashMap.newKeySet();
+    OtpRequestExecutor.runInParallel(() -> result.add("A"), () -> result.add("B"));
+    assertEquals(Set.of("A", "B"), result);
+  }
+
+  private void fail() {
+    throw new IllegalStateException("Task failed");
+  }
+}
@@ -4,6 +4,7 @@ import static graphql.Assert.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
 import org.junit.jupiter.api.Nested;
@@ -18,6 +19,7 @@ import org.opentripplanner.model.calendar.ServiceDateInterval;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.test.support.ResourceLoader;
 import org.opentripplanner.transit.model.framework.Deduplicator;
+import org.opentripplanner.transit.model.site.RegularStop;
 import org.opentripplanner.transit.service.SiteRepository;
 import org.opentripplanner.transit.service.TimetableRepository;
 
@@ -68,6 +70,34 @@ class GtfsModuleTest {
     assertThrows(IllegalArgumentException.class, module::buildGraph);
   }
 
+  /**
+   * The bundles are read in parallel, but the stop indexes should be assigned in the order the
+   * bundles are configured.
+   */
+  @Test
+  void stopIndexesFollowTheBundleOrder() {
+    var model = buildTestModel();
+    var module = new GtfsModule(
+      List.of(bundle("A"), bundle("B"), bundle("C")),
+      model.timetableRepository,
+      model.graph,
+      ServiceDateInterval.unbounded()
+    );
+
+    module.buildGraph();
+
+    var feedIdsInStopIndexOrder = model.timetableRepository
+      .getSiteRepository()
+      .listRegularStops()
+      .stream()
+      .sorted(Comparator.comparingInt(RegularStop::getIndex))
+      .map(stop -> stop.getId().getFeedId())
+      .toList();
+
+    assertEquals(feedIdsInStopIndexOrder.stream().sorted().toList(), feedIdsInStopIndexOrder);
+    assertEquals(List.of("A", "B", "C"), feedIdsInStopIndexOrder.stream().distinct().toList());
+  }
+
   private static TestModels buildTestModel() {
     var deduplicator = new Deduplicator();
     var siteRepository = new SiteRepository();
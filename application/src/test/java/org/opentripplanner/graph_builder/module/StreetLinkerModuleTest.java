@@ -3,6 +3,7 @@ package org.opentripplanner.graph_builder.module;
 import static com.google.common.truth.Truth.assertThat;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.opentripplanner._support.geometry.Coordinates.KONGSBERG_PLATFORM_1;
 import static org.opentripplanner.street.model.StreetTraversalPermission.CAR;
@@ -178,6 +179,34 @@ class StreetLinkerModuleTest {
     assertTrue(carSplit.isConnectedToDriveableEdge());
   }
 
+  /**
+   * The street edges to link to are found for all stops before linking any of them. Here the
+   * second stop needs to search again, since the edge it found is split when linking the first.
+   */
+  @Test
+  void linkStopsSplittingTheSameEdge() {
+    var model = new TestModel();
+    var secondStopVertex = model.withStop(
+      TimetableRepositoryForTest
+        .of()
+        .stop("platform-2", KONGSBERG_PLATFORM_1.y + DELTA / 2, KONGSBERG_PLATFORM_1.x + DELTA / 2)
+        .build()
+    );
+    var module = model.streetLinkerModule();
+
+    module.buildGraph();
+
+    assertTrue(model.stopVertex().isConnectedToGraph());
+    assertTrue(secondStopVertex.isConnectedToGraph());
+    assertThat(secondStopVertex.getOutgoing()).hasSize(1);
+
+    var first = (SplitterVertex) model.outgoingLinks().getFirst().getToVertex();
+    var second = (SplitterVertex) secondStopVertex.getOutgoing().iterator().next().getToVertex();
+
+    assertTrue(second.isConnectedToWalkingEdge());
+    assertNotSame(first, second);
+  }
+
   private static class TestModel {
 
     private final TransitStopVertex stopVertex;
@@ -246,6 +275,12 @@ class StreetLinkerModuleTest {
       return stop;
     }
 
+    public TransitStopVertex withStop(RegularStop stop) {
+      var vertex = TransitStopVertex.of().withStop(stop).build();
+      graph.addVertex(vertex);
+      return vertex;
+    }
+
     public void withFlexTrip(UnscheduledTrip flexTrip) {
       timetableRepository.addFlexTrip(flexTrip.getId(), flexTrip);
     }
@@ -0,0 +1,141 @@
+package org.opentripplanner.gtfs.graphbuilder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.onebusaway.gtfs.model.AgencyAndId;
+import org.onebusaway.gtfs.model.BookingRule;
+import org.onebusaway.gtfs.model.Location;
+import org.onebusaway.gtfs.model.Stop;
+import org.onebusaway.gtfs.model.StopTime;
+import org.onebusaway.gtfs.model.Trip;
+
+class PackedStopTimesGtfsDaoTest {
+
+  private static final Trip TRIP = trip("T1");
+  private static final Stop STOP = stop("S1");
+  private static final Location LOCATION = location("L1");
+  private static final BookingRule BOOKING_RULE = new BookingRule();
+
+  private final PackedStopTimesGtfsDao subject = new PackedStopTimesGtfsDao();
+
+  @Test
+  void stopTimesAreNotStoredAsEntities() {
+    subject.saveEntity(TRIP);
+    subject.saveEntity(stopTime(1, 100));
+    subject.saveEntity(stopTime(2, 200));
+
+    assertSame(TRIP, subject.getTripForId(TRIP.getId()));
+    assertEquals(2, subject.getAllStopTimes().size());
+    assertSame(subject.getAllStopTimes(), subject.getAllEntitiesForType(StopTime.class));
+  }
+
+  @Test
+  void readStopTimes() {
+    var expected = stopTime(1, 100);
+    expected.setLocation(LOCATION);
+    expected.setStopHeadsign("Headsign");
+    expected.setRouteShortName("Route");
+    expected.setTimepoint(1);
+    expected.setPickupType(2);
+    expected.setDropOffType(3);
+    expected.setShapeDistTraveled(2.5);
+    expected.setFarePeriodId("Fare period");
+    expected.setStartPickupDropOffWindow(300);
+    expected.setEndPickupDropOffWindow(400);
+    expected.setContinuousPickup(1);
+    expected.setContinuousDropOff(2);
+    expected.setPickupBookingRule(BOOKING_RULE);
+    expected.setDropOffBookingRule(BOOKING_RULE);
+
+    subject.saveEntity(expected);
+    subject.close();
+
+    var result = subject.getAllStopTimes().iterator().next();
+
+    assertSame(TRIP, result.getTrip());
+    assertSame(STOP, result.getStop());
+    assertSame(LOCATION, result.getLocation());
+    assertNull(result.getLocationGroup());
+    assertEquals(100, result.getArrivalTime());
+    assertEquals(110, result.getDepartureTime());
+    assertEquals(1, result.getStopSequence());
+    assertEquals("Headsign", result.getStopHeadsign());
+    assertEquals("Route", result.getRouteShortName());
+    assertEquals(1, result.getTimepoint());
+    assertEquals(2, result.getPickupType());
+    assertEquals(3, result.getDropOffType());
+    assertEquals(2.5, result.getShapeDistTraveled());
+    assertEquals("Fare period", result.getFarePeriodId());
+    assertEquals(300, result.getStartPickupDropOffWindow());
+    assertEquals(400, result.getEndPickupDropOffWindow());
+    assertEquals(1, result.getContinuousPickup());
+    assertEquals(2, result.getContinuousDropOff());
+    assertSame(BOOKING_RULE, result.getPickupBookingRule());
+    assertSame(BOOKING_RULE, result.getDropOffBookingRule());
+  }
+
+  @Test
+  void readStopTimesInTheOrderTheyAreAdded() {
+    // Add more stop times than the initial capacity
+    for (int i = 0; i < 2500; i++) {
+      subject.saveEntity(stopTime(i, 10 * i));
+    }
+
+    List<StopTime> result = new ArrayList<>(subject.getAllStopTimes());
+
+    assertEquals(2500, result.size());
+    for (int i = 0; i < result.size(); i++) {
+      assertEquals(i, result.get(i).getStopSequence());
+      assertEquals(10 * i, result.get(i).getArrivalTime());
+    }
+    // The stop times are used as map keys, so they must not be equal
+    assertNotEquals(result.get(0), result.get(1));
+  }
+
+  @Test
+  void clearStopTimes() {
+    subject.saveEntity(stopTime(1, 100));
+
+    subject.clearAllEntitiesForType(StopTime.class);
+
+    assertTrue(subject.getAllStopTimes().isEmpty());
+
+    subject.saveEntity(stopTime(1, 100));
+    assertEquals(1, subject.getAllStopTimes().size());
+  }
+
+  private static StopTime stopTime(int stopSequence, int arrivalTime) {
+    var stopTime = new StopTime();
+    stopTime.setTrip(TRIP);
+    stopTime.setStop(STOP);
+    stopTime.setStopSequence(stopSequence);
+    stopTime.setArrivalTime(arrivalTime);
+    stopTime.setDepartureTime(arrivalTime + 10);
+    return stopTime;
+  }
+
+  private static Trip trip(String id) {
+    var trip = new Trip();
+    trip.setId(new AgencyAndId("F", id));
+    return trip;
+  }
+
+  private static Stop stop(String id) {
+    var stop = new Stop();
+    stop.setId(new AgencyAndId("F", id));
+    return stop;
+  }
+
+  private static Location location(String id) {
+    var location = new Location();
+    location.setId(new AgencyAndId("F", id));
+    return location;
+  }
+}
@@ -0,0 +1,83 @@
+package org.opentripplanner.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.transit.model._data.TimetableRepositoryForTest;
+import org.opentripplanner.transit.model.timetable.ScheduledTripTimes;
+import org.opentripplanner.transit.model.timetable.TripTimes;
+import org.opentripplanner.utils.time.TimeUtils;
+
+class TimetableDepartureIndexTest {
+
+  private static final int STOP_POS_0 = 0;
+  private static final int STOP_POS_1 = 1;
+
+  private final Timetable timetable = Timetable
+    .of()
+    .addTripTimes(tripTimes("T1", "10:00 10:30 11:00", "10:00 10:30 11:00"))
+    // Overtakes T1 at the second stop
+    .addTripTimes(tripTimes("T2", "10:05 10:20 10:40", "10:05 10:20 10:40"))
+    // Waits for 10 minutes at the second stop
+    .addTripTimes(tripTimes("T3", "10:10 10:40 11:10", "10:10 10:50 11:10"))
+    .build();
+
+  private final TimetableDepartureIndex subject = timetable.getDepartureIndex();
+
+  @Test
+  void departuresAreSortedByDepartureTimeAtEachStop() {
+    var departures = subject.departuresAt(STOP_POS_1);
+
+    assertEquals(3, departures.size());
+    assertEquals("T2", tripId(departures, 0));
+    assertEquals("T1", tripId(departures, 1));
+    assertEquals("T3", tripId(departures, 2));
+    assertEquals(TimeUtils.time("10:20"), departures.departureTime(0));
+    assertEquals(TimeUtils.time("10:50"), departures.departureTime(2));
+  }
+
+  @Test
+  void indexOfFirstDepartureAtOrAfter() {
+    var departures = subject.departuresAt(STOP_POS_1);
+
+    assertEquals(0, departures.indexOfFirstDepartureAtOrAfter(TimeUtils.time("09:00")));
+    assertEquals(0, departures.indexOfFirstDepartureAtOrAfter(TimeUtils.time("10:20")));
+    assertEquals(1, departures.indexOfFirstDepartureAtOrAfter(TimeUtils.time("10:21")));
+    assertEquals(2, departures.indexOfFirstDepartureAtOrAfter(TimeUtils.time("10:50")));
+    assertEquals(3, departures.indexOfFirstDepartureAtOrAfter(TimeUtils.time("10:51")));
+  }
+
+  @Test
+  void maxDwellTime() {
+    assertEquals(0, subject.departuresAt(STOP_POS_0).maxDwellTime());
+    assertEquals(600, subject.departuresAt(STOP_POS_1).maxDwellTime());
+  }
+
+  @Test
+  void departuresAreCreatedOnce() {
+    assertSame(timetable.getDepartureIndex(), timetable.getDepartureIndex());
+    assertSame(subject.departuresAt(STOP_POS_1), subject.departuresAt(STOP_POS_1));
+  }
+
+  @Test
+  void emptyTimetable() {
+    var departures = Timetable.of().build().getDepartureIndex().departuresAt(STOP_POS_0);
+
+    assertEquals(0, departures.size());
+    assertEquals(0, departures.indexOfFirstDepartureAtOrAfter(TimeUtils.time("10:00")));
+  }
+
+  private String tripId(TimetableDepartureIndex.StopPositionDepartures departures, int index) {
+    return timetable.getTripTimes(departures.tripIndex(index)).getTrip().getId().getId();
+  }
+
+  private static TripTimes tripTimes(String tripId, String arrivalTimes, String departureTimes) {
+    return ScheduledTripTimes
+      .of()
+      .withTrip(TimetableRepositoryForTest.trip(tripId).build())
+      .withArrivalTimes(arrivalTimes)
+      .withDepartureTimes(departureTimes)
+      .build();
+  }
+}
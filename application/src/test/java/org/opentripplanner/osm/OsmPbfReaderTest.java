@@ -0,0 +1,85 @@
+package org.opentripplanner.osm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import crosby.binary.file.BlockInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.List;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
+import org.opentripplanner.graph_builder.module.osm.OsmDatabase;
+import org.opentripplanner.osm.model.OsmWay;
+import org.opentripplanner.test.support.ResourceLoader;
+
+class OsmPbfReaderTest {
+
+  private static final ResourceLoader RESOURCE_LOADER = ResourceLoader.of(OsmPbfReaderTest.class);
+
+  /**
+   * The blocks are decoded in parallel, and skipped in the phases they have no entities for. The
+   * result should be the same as reading every block in every phase on one thread.
+   */
+  @ParameterizedTest
+  @ValueSource(
+    strings = {
+      "/org/opentripplanner/graph_builder/module/linking/columbus.osm.pbf",
+      "/org/opentripplanner/graph_builder/module/osm/ehningen-minimal.osm.pbf",
+      "/org/opentripplanner/graph_builder/module/osm/P+R.osm.pbf",
+    }
+  )
+  void sameResultAsReadingEveryBlock(String path) throws IOException {
+    var file = RESOURCE_LOADER.file(path);
+    var provider = new OsmProvider(file, false);
+
+    var expected = new OsmDatabase(DataImportIssueStore.NOOP);
+    var expectedParser = new OsmParser(expected, provider);
+
+    var result = new OsmDatabase(DataImportIssueStore.NOOP);
+    var parser = new OsmParser(result, provider);
+
+    try (var reader = new OsmPbfReader()) {
+      readPhase(file, expectedParser, parser, reader, OsmParserPhase.Relations);
+      expected.doneFirstPhaseRelations();
+      result.doneFirstPhaseRelations();
+
+      readPhase(file, expectedParser, parser, reader, OsmParserPhase.Ways);
+      expected.doneSecondPhaseWays();
+      result.doneSecondPhaseWays();
+
+      readPhase(file, expectedParser, parser, reader, OsmParserPhase.Nodes);
+      expected.doneThirdPhaseNodes();
+      result.doneThirdPhaseNodes();
+    }
+
+    assertTrue(expected.wayCount() > 0);
+    assertEquals(expected.wayCount(), result.wayCount());
+    assertEquals(expected.nodeCount(), result.nodeCount());
+    assertEquals(wayIds(expected), wayIds(result));
+  }
+
+  private static void readPhase(
+    File file,
+    OsmParser expectedParser,
+    OsmParser parser,
+    OsmPbfReader reader,
+    OsmParserPhase phase
+  ) throws IOException {
+    expectedParser.setPhase(phase);
+    try (var in = new BlockInputStream(new FileInputStream(file), expectedParser)) {
+      in.process();
+    }
+
+    parser.setPhase(phase);
+    try (var in = new FileInputStream(file)) {
+      reader.read(in, parser, phase);
+    }
+  }
+
+  private static List<Long> wayIds(OsmDatabase osmdb) {
+    return osmdb.getWays().stream().map(OsmWay::getId).sorted().toList();
+  }
+}
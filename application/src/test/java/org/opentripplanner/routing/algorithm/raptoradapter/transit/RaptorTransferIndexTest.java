@@ -0,0 +1,103 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.raptor.api.model.RaptorTransfer;
+import org.opentripplanner.raptor.api.model.SearchDirection;
+
+class RaptorTransferIndexTest {
+
+  private static final RaptorTransfer T_0_1 = new DefaultRaptorTransfer(1, 10, 100, null);
+  private static final RaptorTransfer T_0_2 = new DefaultRaptorTransfer(2, 20, 200, null);
+  private static final RaptorTransfer T_2_1 = new DefaultRaptorTransfer(1, 30, 300, null);
+
+  private final RaptorTransferIndex subject = RaptorTransferIndex.ofForwardTransfers(
+    List.of(List.of(T_0_1, T_0_2), List.of(), List.of(T_2_1), List.of())
+  );
+
+  @Test
+  void size() {
+    assertEquals(4, subject.size());
+  }
+
+  @Test
+  void forwardTransfers() {
+    assertEquals(List.of(T_0_1, T_0_2), subject.getForwardTransfers(0));
+    assertEquals(List.of(), subject.getForwardTransfers(1));
+    assertEquals(List.of(T_2_1), subject.getForwardTransfers(2));
+    assertEquals(List.of(T_0_1, T_0_2), toList(subject.forwardTransferIterator(0)));
+    assertFalse(subject.forwardTransferIterator(3).hasNext());
+  }
+
+  @Test
+  void reversedTransfers() {
+    assertEquals("[0 10s 100, 2 30s 300]", toString(subject.reversedTransferIterator(1)));
+    assertEquals("[0 20s 200]", toString(subject.reversedTransferIterator(2)));
+    assertEquals("[]", toString(subject.reversedTransferIterator(0)));
+    assertEquals(subject.getReversedTransfers(1), toList(subject.reversedTransferIterator(1)));
+  }
+
+  @Test
+  void createFromForwardAndReversedTransfers() {
+    var reversed = List.of(List.<RaptorTransfer>of(), List.of(T_0_1));
+    var index = new RaptorTransferIndex(List.of(List.of(T_0_1), List.of()), reversed);
+
+    assertSame(T_0_1, index.forwardTransferIterator(0).next());
+    assertSame(T_0_1, index.reversedTransferIterator(1).next());
+    assertFalse(index.reversedTransferIterator(0).hasNext());
+  }
+
+  @Test
+  void transferCursor() {
+    var forward = subject.createCursor(SearchDirection.FORWARD);
+    var transfersFromStop0 = forward.transfers(0);
+
+    assertEquals(List.of(T_0_1, T_0_2), toList(transfersFromStop0));
+    assertEquals(List.of(), toList(forward.transfers(1)));
+    // The same iterator is reused for all stops
+    assertSame(transfersFromStop0, forward.transfers(2));
+    assertEquals(List.of(T_2_1), toList(forward.transfers(2)));
+
+    var reverse = subject.createCursor(SearchDirection.REVERSE);
+    assertEquals("[0 10s 100, 2 30s 300]", toString(reverse.transfers(1)));
+    assertEquals("[]", toString(reverse.transfers(3)));
+  }
+
+  @Test
+  void iteratorEnd() {
+    var it = subject.forwardTransferIterator(2);
+    it.next();
+    assertFalse(it.hasNext());
+    assertThrows(NoSuchElementException.class, it::next);
+  }
+
+  @Test
+  void transfersAreUnmodifiable() {
+    assertThrows(
+      UnsupportedOperationException.class,
+      () -> subject.getForwardTransfers(0).set(0, T_2_1)
+    );
+  }
+
+  private static List<RaptorTransfer> toList(Iterator<? extends RaptorTransfer> it) {
+    var list = new ArrayList<RaptorTransfer>();
+    it.forEachRemaining(list::add);
+    return list;
+  }
+
+  private static String toString(Iterator<? extends RaptorTransfer> it) {
+    return toList(it)
+      .stream()
+      .map(t -> t.stop() + " " + t.durationInSeconds() + "s " + t.c1())
+      .toList()
+      .toString();
+  }
+}
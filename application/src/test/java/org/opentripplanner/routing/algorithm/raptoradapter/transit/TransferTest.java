@@ -14,6 +14,7 @@ import org.opentripplanner.raptor.api.model.RaptorCostConverter;
 import org.opentripplanner.raptor.api.model.RaptorTransfer;
 import org.opentripplanner.routing.api.request.StreetMode;
 import org.opentripplanner.street.model._data.StreetModelForTest;
+import org.opentripplanner.street.model.edge.CompactEdgePath;
 import org.opentripplanner.street.model.vertex.IntersectionVertex;
 import org.opentripplanner.street.search.request.StreetSearchRequest;
 
@@ -53,6 +54,20 @@ class TransferTest {
       // cost is below max limit and included as is in RAPTOR unchanged
       assertBelowMaxCost(raptorTransfer.get());
     }
+
+    @Test
+    void distanceIsNotCalculatedFromThePath() {
+      var edge = StreetModelForTest.streetEdge(BERLIN_V, BRANDENBURG_GATE_V);
+      var transfer = new Transfer(
+        0,
+        CompactEdgePath.of(List.of(edge)),
+        1234,
+        EnumSet.of(StreetMode.WALK)
+      );
+      assertEquals(1234, transfer.getDistanceMeters());
+      assertEquals(List.of(edge), transfer.getEdges());
+      assertTrue(transfer.asRaptorTransfer(StreetSearchRequest.of().build()).isPresent());
+    }
   }
 
   @Nested
@@ -10,6 +10,7 @@ import java.util.List;
 import java.util.Map;
 import org.junit.jupiter.api.Test;
 import org.opentripplanner.model.StopTime;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.TripPatternForDatesCache;
 import org.opentripplanner.transit.model._data.TimetableRepositoryForTest;
 import org.opentripplanner.transit.model.framework.Deduplicator;
 import org.opentripplanner.transit.model.network.RoutingTripPattern;
@@ -65,6 +66,7 @@ class TransitLayerTest {
       null,
       null,
       null,
+      null,
       null
     );
     var runningOnDate = transitLayer.getTripPatternsRunningOnDateCopy(date);
@@ -94,16 +96,49 @@ class TransitLayerTest {
       null,
       null,
       null,
+      null,
       null
     );
     var runningOnDate = transitLayer.getTripPatternsForRunningDate(date);
     assertEquals(1, runningOnDate.size());
-    assertEquals(tripPatterns, runningOnDate);
-    assertTrue(tripPatterns == runningOnDate);
+    assertEquals(tripPatterns, List.copyOf(runningOnDate));
+    assertTrue(transitLayer.getTripPatternsForRunningDate(date) == runningOnDate);
     assertEquals(0, transitLayer.getTripPatternsForRunningDate(date.minusDays(1)).size());
     assertEquals(0, transitLayer.getTripPatternsForRunningDate(date.plusDays(1)).size());
   }
 
+  @Test
+  void testCopyIsIndependentOfOriginal() {
+    var date = LocalDate.of(2024, 1, 1);
+
+    var tripPatternForDate = new TripPatternForDate(
+      TRIP_PATTERN,
+      List.of(TRIP_TIMES),
+      List.of(),
+      date
+    );
+    var transitLayer = new TransitLayer(
+      Map.of(date, List.of(tripPatternForDate)),
+      null,
+      null,
+      null,
+      null,
+      new TripPatternForDatesCache(0),
+      null,
+      null,
+      null
+    );
+    var copy = new TransitLayer(transitLayer);
+    copy.replaceTripPatternsForDate(
+      date,
+      copy.getTripPatternsRunningOnDate(date).without(tripPatternForDate)
+    );
+
+    assertTrue(copy.getVersion() > transitLayer.getVersion());
+    assertEquals(0, copy.getTripPatternsForRunningDate(date).size());
+    assertEquals(1, transitLayer.getTripPatternsForRunningDate(date).size());
+  }
+
   @Test
   void testGetTripPatternsOnServiceDateCopyWithSameRunningAndServiceDate() {
     var date = LocalDate.of(2024, 1, 1);
@@ -122,6 +157,7 @@ class TransitLayerTest {
       null,
       null,
       null,
+      null,
       null
     );
     var startingOnDate = transitLayer.getTripPatternsOnServiceDateCopy(date);
@@ -150,6 +186,7 @@ class TransitLayerTest {
       null,
       null,
       null,
+      null,
       null
     );
     var startingOnDate = transitLayer.getTripPatternsOnServiceDateCopy(serviceDate);
@@ -183,6 +220,7 @@ class TransitLayerTest {
       null,
       null,
       null,
+      null,
       null
     );
     var startingOnDate = transitLayer.getTripPatternsOnServiceDateCopy(firstRunningDate);
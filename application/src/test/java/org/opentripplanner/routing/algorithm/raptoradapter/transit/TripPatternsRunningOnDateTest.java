@@ -0,0 +1,141 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.model.StopTime;
+import org.opentripplanner.transit.model._data.TimetableRepositoryForTest;
+import org.opentripplanner.transit.model.framework.Deduplicator;
+import org.opentripplanner.transit.model.network.RoutingTripPattern;
+import org.opentripplanner.transit.model.network.StopPattern;
+import org.opentripplanner.transit.model.network.TripPattern;
+import org.opentripplanner.transit.model.timetable.TripTimes;
+import org.opentripplanner.transit.model.timetable.TripTimesFactory;
+
+class TripPatternsRunningOnDateTest {
+
+  private static final TimetableRepositoryForTest TEST_MODEL = TimetableRepositoryForTest.of();
+  private static final LocalDate DATE = LocalDate.of(2024, 1, 1);
+  private static final LocalDate PREV_DATE = DATE.minusDays(1);
+
+  private static final TripTimes TRIP_TIMES;
+  private static final TripTimes OTHER_TRIP_TIMES;
+
+  /** Create more patterns than fit in one chunk */
+  private static final List<RoutingTripPattern> PATTERNS;
+
+  static {
+    var stop = TEST_MODEL.stop("TEST:STOP", 0, 0).build();
+    var stopTime = new StopTime();
+    stopTime.setStop(stop);
+    var stopPattern = new StopPattern(List.of(stopTime));
+    var route = TimetableRepositoryForTest.route("1").build();
+    PATTERNS =
+      IntStream
+        .range(0, 100)
+        .mapToObj(i ->
+          TripPattern
+            .of(TimetableRepositoryForTest.id("P" + i))
+            .withRoute(route)
+            .withStopPattern(stopPattern)
+            .build()
+            .getRoutingTripPattern()
+        )
+        .toList();
+    TRIP_TIMES =
+      TripTimesFactory.tripTimes(
+        TimetableRepositoryForTest.trip("1").withRoute(route).build(),
+        List.of(new StopTime()),
+        new Deduplicator()
+      );
+    OTHER_TRIP_TIMES =
+      TripTimesFactory.tripTimes(
+        TimetableRepositoryForTest.trip("2").withRoute(route).build(),
+        List.of(new StopTime()),
+        new Deduplicator()
+      );
+  }
+
+  @Test
+  void of() {
+    var elements = PATTERNS.stream().map(p -> tripPatternForDate(p, DATE)).toList();
+    var subject = TripPatternsRunningOnDate.of(elements);
+
+    assertEquals(100, subject.size());
+    assertEquals(Set.copyOf(elements), Set.copyOf(subject));
+    assertTrue(subject.containsAll(elements));
+    assertEquals(0, TripPatternsRunningOnDate.empty().size());
+  }
+
+  @Test
+  void withAndWithout() {
+    var a = tripPatternForDate(PATTERNS.get(3), DATE);
+    var b = tripPatternForDate(PATTERNS.get(3), PREV_DATE);
+    var c = tripPatternForDate(PATTERNS.get(99), DATE);
+    var original = TripPatternsRunningOnDate.of(List.of(a));
+
+    var subject = original.with(b).with(c);
+    assertEquals(Set.of(a, b, c), Set.copyOf(subject));
+
+    subject = subject.without(a);
+    assertEquals(Set.of(b, c), Set.copyOf(subject));
+
+    // The original is not changed
+    assertEquals(List.of(a), List.copyOf(original));
+    // Nothing to remove, the same instance is returned
+    assertSame(original, original.without(c));
+  }
+
+  @Test
+  void replaceElementForSamePatternAndServiceDate() {
+    var a = tripPatternForDate(PATTERNS.get(7), DATE);
+    var updated = new TripPatternForDate(
+      PATTERNS.get(7),
+      List.of(OTHER_TRIP_TIMES),
+      List.of(),
+      DATE
+    );
+
+    var subject = TripPatternsRunningOnDate.of(List.of(a)).with(updated);
+    assertEquals(List.of(updated), List.copyOf(subject));
+
+    // The element is only removed if it is equal to the given element
+    assertSame(subject, subject.without(a));
+    assertFalse(subject.contains(a));
+  }
+
+  @Test
+  void mutateManyElements() {
+    var elements = PATTERNS.stream().map(p -> tripPatternForDate(p, DATE)).toList();
+    var original = TripPatternsRunningOnDate.of(elements);
+    var even = elements.stream().filter(it -> it.getTripPattern().patternIndex() % 2 == 0).toList();
+
+    var builder = original.mutate();
+    even.forEach(builder::remove);
+    var subject = builder.build();
+
+    assertEquals(50, subject.size());
+    assertEquals(
+      elements.stream().filter(it -> !even.contains(it)).collect(Collectors.toSet()),
+      Set.copyOf(subject)
+    );
+    assertEquals(100, original.size());
+
+    // The builder can be used after build, without changing the built instance
+    builder.add(even.getFirst());
+    assertEquals(50, subject.size());
+    assertEquals(51, builder.build().size());
+  }
+
+  private static TripPatternForDate tripPatternForDate(RoutingTripPattern pattern, LocalDate date) {
+    return new TripPatternForDate(pattern, List.of(TRIP_TIMES), List.of(), date);
+  }
+}
@@ -0,0 +1,164 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.EnumSet;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.raptor.api.model.RaptorTransfer;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.DefaultRaptorTransfer;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.RaptorTransferIndex;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.Transfer;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.street.search.request.StreetSearchRequest;
+import org.opentripplanner.street.search.request.StreetSearchRequestMapper;
+
+class RaptorRequestTransferCacheTest {
+
+  private static final Transfer T_0_1 = new Transfer(1, 100, EnumSet.of(StreetMode.WALK));
+  private static final Transfer T_0_2 = new Transfer(2, 300, EnumSet.of(StreetMode.WALK));
+  private static final Transfer T_1_2 = new Transfer(2, 200, EnumSet.of(StreetMode.WALK));
+  private static final Transfer T_1_2_BIKE = new Transfer(2, 250, EnumSet.of(StreetMode.BIKE));
+
+  private final List<List<Transfer>> transfersByStopIndex = List.of(
+    List.of(T_0_1, T_0_2),
+    List.of(T_1_2_BIKE, T_1_2),
+    List.of()
+  );
+
+  @Test
+  void usePrecomputedTransfers() {
+    var request = walkRequest(1.0);
+    var precomputed = PrecomputedTransferIndexes.create(transfersByStopIndex, List.of(request));
+
+    var subject = new RaptorRequestTransferCache(10);
+    subject.put(transfersByStopIndex, request, precomputed);
+    var result = subject.get(transfersByStopIndex, request);
+
+    var expected = new RaptorRequestTransferCache(10).get(transfersByStopIndex, request);
+    assertEquals(toString(expected), toString(result));
+    assertSame(T_1_2, transfer(result.getForwardTransfers(1).getFirst()));
+    assertSame(T_0_1, transfer(result.getReversedTransfers(1).getFirst()));
+  }
+
+  @Test
+  void precomputedTransfersAreKeyedOnTheOptionValues() {
+    var precomputed = PrecomputedTransferIndexes.create(
+      transfersByStopIndex,
+      List.of(walkRequest(1.0))
+    );
+
+    assertEquals(
+      RaptorRequestTransferCache.key(streetRequest(walkRequest(1.0))),
+      RaptorRequestTransferCache.key(streetRequest(walkRequest(1.0)))
+    );
+    assertNotEquals(
+      RaptorRequestTransferCache.key(streetRequest(walkRequest(1.0))),
+      RaptorRequestTransferCache.key(streetRequest(walkRequest(1.01)))
+    );
+    assertNotNull(precomputed.get(transfersByStopIndex, streetRequest(walkRequest(1.0))));
+    assertNull(precomputed.get(transfersByStopIndex, streetRequest(walkRequest(1.01))));
+  }
+
+  @Test
+  void discardPrecomputedTransfersIfTheStopsDoNotMatch() {
+    var request = walkRequest(1.0);
+    var precomputed = PrecomputedTransferIndexes.create(
+      List.of(List.of(T_0_1), List.of()),
+      List.of(request)
+    );
+
+    var subject = new RaptorRequestTransferCache(10);
+    subject.put(transfersByStopIndex, request, precomputed);
+
+    assertEquals(
+      "0: [1 100s, 2 300s], 1: [2 200s], 2: []",
+      toString(subject.get(transfersByStopIndex, request))
+    );
+  }
+
+  @Test
+  void useNearestProfileWithinTheWalkTolerance() {
+    var subject = new RaptorRequestTransferCache(10, 0.1);
+    subject.put(transfersByStopIndex, walkRequest(1.0));
+    subject.put(transfersByStopIndex, walkRequest(2.0));
+
+    var profile = subject.get(transfersByStopIndex, walkRequest(1.0));
+
+    assertSame(profile, subject.get(transfersByStopIndex, walkRequest(1.05)));
+    assertSame(profile, subject.get(transfersByStopIndex, walkRequest(1.05, 1.95)));
+
+    var outsideTolerance = subject.get(transfersByStopIndex, walkRequest(1.2));
+    assertNotSame(profile, outsideTolerance);
+    assertEquals("0: [1 84s, 2 250s], 1: [2 167s], 2: []", toString(outsideTolerance));
+  }
+
+  @Test
+  void doNotUseNearestProfileWithFasterOrLessReluctantWalk() {
+    var subject = new RaptorRequestTransferCache(10, 0.1);
+    subject.put(transfersByStopIndex, walkRequest(1.0));
+
+    var profile = subject.get(transfersByStopIndex, walkRequest(1.0));
+
+    var slower = subject.get(transfersByStopIndex, walkRequest(0.95));
+    assertNotSame(profile, slower);
+    assertEquals("0: [1 106s, 2 316s], 1: [2 211s], 2: []", toString(slower));
+    assertNotSame(profile, subject.get(transfersByStopIndex, walkRequest(1.0, 2.05)));
+  }
+
+  @Test
+  void doNotUseNearestProfileIfToleranceIsZero() {
+    var subject = new RaptorRequestTransferCache(10);
+    subject.put(transfersByStopIndex, walkRequest(1.0));
+
+    var profile = subject.get(transfersByStopIndex, walkRequest(1.0));
+    assertNotSame(profile, subject.get(transfersByStopIndex, walkRequest(1.05)));
+  }
+
+  private static RouteRequest walkRequest(double speed) {
+    var request = new RouteRequest();
+    request.withPreferences(p -> p.withWalk(w -> w.withSpeed(speed)));
+    return request;
+  }
+
+  private static RouteRequest walkRequest(double speed, double reluctance) {
+    var request = new RouteRequest();
+    request.withPreferences(p -> p.withWalk(w -> w.withSpeed(speed).withReluctance(reluctance)));
+    return request;
+  }
+
+  private static StreetSearchRequest streetRequest(RouteRequest request) {
+    return StreetSearchRequestMapper.mapToTransferRequest(request).build();
+  }
+
+  private static Transfer transfer(RaptorTransfer transfer) {
+    return ((DefaultRaptorTransfer) transfer).transfer();
+  }
+
+  private static String toString(RaptorTransferIndex index) {
+    var buf = new StringBuilder();
+    for (int i = 0; i < index.size(); ++i) {
+      if (i > 0) {
+        buf.append(", ");
+      }
+      buf
+        .append(i)
+        .append(": ")
+        .append(
+          index
+            .getForwardTransfers(i)
+            .stream()
+            .map(it -> it.stop() + " " + it.durationInSeconds() + "s")
+            .sorted()
+            .toList()
+        );
+    }
+    return buf.toString();
+  }
+}
@@ -8,7 +8,11 @@ import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.opentripplanner._support.time.ZoneIds;
 import org.opentripplanner.model.StopTime;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripPatternForDate;
@@ -87,6 +91,78 @@ public class RaptorRoutingRequestTransitDataCreatorTest {
     assertEquals(86400, ((TripScheduleWithOffset) r3.getTripSchedule(2)).getSecondsOffset());
   }
 
+  /**
+   * With the cache the trip times are filtered on top of the shared times, without the cache they
+   * are filtered before the times are created. The result should be the same.
+   */
+  @ParameterizedTest
+  @ValueSource(booleans = { true, false })
+  public void testMergeFiltersTripTimes(boolean cached) {
+    LocalDate first = LocalDate.of(2019, 3, 30);
+    LocalDate second = LocalDate.of(2019, 3, 31);
+    ZonedDateTime startOfTime = ServiceDateUtils.asStartOfService(second, ZoneIds.LONDON);
+
+    var tripA = createTripTimesForTest("A", "00:00 02:00");
+    var tripB = createTripTimesForTest("B", "01:00 03:00");
+    var tripC = createTripTimesForTest("C", "04:00 05:00");
+    var tripPattern = createTripPattern(TP_ID_1);
+
+    var tripPatternsForDates = List.of(
+      new TripPatternForDate(tripPattern, List.of(tripA, tripB), List.of(), first),
+      new TripPatternForDate(tripPattern, List.of(tripA, tripB, tripC), List.of(), second)
+    );
+    var sharedTimes = cached
+      ? new TimeExpandedTripTimesCache(4).forSearchPeriod(startOfTime, 1, 0)
+      : TimeExpandedTripTimesCache.notCached();
+
+    var all = RaptorRoutingRequestTransitDataCreator
+      .merge(
+        startOfTime,
+        tripPatternsForDates,
+        new TripTimesFilter(Set.of()),
+        TransitGroupPriorityService.empty(),
+        sharedTimes
+      )
+      .getFirst();
+    assertEquals(5, all.numberOfTripSchedules());
+
+    var subject = RaptorRoutingRequestTransitDataCreator
+      .merge(
+        startOfTime,
+        tripPatternsForDates,
+        new TripTimesFilter(Set.of("B")),
+        TransitGroupPriorityService.empty(),
+        sharedTimes
+      )
+      .getFirst();
+
+    assertEquals(3, subject.numberOfTripSchedules());
+    assertEquals(List.of(tripA, tripA, tripC), tripTimes(subject));
+    // The times on the first day are offset with the length of the day before DST starts
+    assertEquals(-82800, subject.getDepartureTimes(0).applyAsInt(0));
+    assertEquals(0, subject.getDepartureTimes(0).applyAsInt(1));
+    assertEquals(4 * 3600, subject.getDepartureTimes(0).applyAsInt(2));
+    assertEquals(5 * 3600, subject.getArrivalTimesForTrip(2).applyAsInt(1));
+    assertEquals(0, ((TripScheduleWithOffset) subject.getTripSchedule(1)).getSecondsOffset());
+
+    // No trips left
+    var none = RaptorRoutingRequestTransitDataCreator.merge(
+      startOfTime,
+      tripPatternsForDates,
+      new TripTimesFilter(Set.of("A", "B", "C")),
+      TransitGroupPriorityService.empty(),
+      sharedTimes
+    );
+    assertEquals(List.of(), none);
+  }
+
+  private static List<TripTimes> tripTimes(TripPatternForDates tripPatternForDates) {
+    return IntStream
+      .range(0, tripPatternForDates.numberOfTripSchedules())
+      .mapToObj(i -> tripPatternForDates.getTripSchedule(i).getOriginalTripTimes())
+      .toList();
+  }
+
   private static TripPatternForDates findTripPatternForDate(
     int patternIndex,
     List<TripPatternForDates> list
@@ -99,10 +175,14 @@ public class RaptorRoutingRequestTransitDataCreatorTest {
   }
 
   private TripTimes createTripTimesForTest() {
+    return createTripTimesForTest("Test", "00:00 02:00");
+  }
+
+  private static TripTimes createTripTimesForTest(String tripId, String departureTimes) {
     return ScheduledTripTimes
       .of()
-      .withTrip(TimetableRepositoryForTest.trip("Test").build())
-      .withDepartureTimes("00:00 02:00")
+      .withTrip(TimetableRepositoryForTest.trip(tripId).build())
+      .withDepartureTimes(departureTimes)
       .build();
   }
 
@@ -155,4 +235,34 @@ public class RaptorRoutingRequestTransitDataCreatorTest {
       return boardingPossible;
     }
   }
+
+  /**
+   * Include all trip patterns, and all trips except the given trip ids
+   */
+  private record TripTimesFilter(Set<String> excludedTripIds)
+    implements TransitDataProviderFilter {
+    @Override
+    public boolean tripPatternPredicate(TripPatternForDate tripPatternForDate) {
+      return true;
+    }
+
+    @Override
+    public boolean tripTimesPredicate(TripTimes tripTimes, boolean withFilters) {
+      return !excludedTripIds.contains(tripTimes.getTrip().getId().getId());
+    }
+
+    @Override
+    public boolean hasSubModeFilters() {
+      return false;
+    }
+
+    @Override
+    public BitSet filterAvailableStops(
+      RoutingTripPattern tripPattern,
+      BitSet boardingPossible,
+      BoardAlight boardAlight
+    ) {
+      return boardingPossible;
+    }
+  }
 }
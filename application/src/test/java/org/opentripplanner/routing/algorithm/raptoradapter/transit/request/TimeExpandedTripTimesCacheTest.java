@@ -0,0 +1,117 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.model.StopTime;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripPatternForDate;
+import org.opentripplanner.transit.model._data.TimetableRepositoryForTest;
+import org.opentripplanner.transit.model.network.RoutingTripPattern;
+import org.opentripplanner.transit.model.network.StopPattern;
+import org.opentripplanner.transit.model.network.TripPattern;
+import org.opentripplanner.transit.model.timetable.ScheduledTripTimes;
+import org.opentripplanner.transit.model.timetable.TripTimes;
+
+class TimeExpandedTripTimesCacheTest {
+
+  private static final TimetableRepositoryForTest TEST_MODEL = TimetableRepositoryForTest.of();
+  private static final ZonedDateTime TIME_ZERO = ZonedDateTime.parse("2024-01-15T00:00:00+01:00");
+  private static final LocalDate DATE = LocalDate.of(2024, 1, 15);
+  private static final int[] OFFSETS = { 0, 86400 };
+
+  private static final RoutingTripPattern PATTERN = createTripPattern();
+  private static final TripTimes TRIP_A = tripTimes("A", "08:00 08:30");
+  private static final TripTimes TRIP_B = tripTimes("B", "09:00 09:20");
+
+  private final TripPatternForDate[] tripPatternForDates = {
+    new TripPatternForDate(PATTERN, List.of(TRIP_A, TRIP_B), List.of(), DATE),
+    new TripPatternForDate(PATTERN, List.of(TRIP_A), List.of(), DATE.plusDays(1)),
+  };
+
+  @Test
+  void timeExpandedTimes() {
+    var subject = new TimeExpandedTripTimes(2, tripPatternForDates, OFFSETS);
+
+    assertEquals(3, subject.numberOfTrips());
+    // Ordered by stop position, then trip: [A1, B1, A2] at stop 0, then the same at stop 1
+    assertEquals(
+      "[28800, 32400, 115200, 30600, 33600, 117000]",
+      Arrays.toString(subject.departureTimes())
+    );
+    assertEquals(TRIP_A.getWheelchairAccessibility(), subject.wheelchairBoarding(2));
+  }
+
+  @Test
+  void shareTimesForTheSameSearchPeriod() {
+    var cache = new TimeExpandedTripTimesCache(4);
+
+    var times = cache.forSearchPeriod(TIME_ZERO, 0, 1).get(PATTERN, tripPatternForDates, OFFSETS);
+
+    assertSame(
+      times,
+      cache.forSearchPeriod(TIME_ZERO, 0, 1).get(PATTERN, tripPatternForDates.clone(), OFFSETS)
+    );
+    assertNotSame(
+      times,
+      cache.forSearchPeriod(TIME_ZERO, 1, 1).get(PATTERN, tripPatternForDates, OFFSETS)
+    );
+  }
+
+  @Test
+  void createNewTimesIfTheTripPatternsChange() {
+    var subject = new TimeExpandedTripTimesCache(4).forSearchPeriod(TIME_ZERO, 0, 1);
+    var times = subject.get(PATTERN, tripPatternForDates, OFFSETS);
+
+    var updated = tripPatternForDates.clone();
+    updated[1] =
+      new TripPatternForDate(PATTERN, List.of(TRIP_A, TRIP_B), List.of(), DATE.plusDays(1));
+
+    var updatedTimes = subject.get(PATTERN, updated, OFFSETS);
+    assertNotSame(times, updatedTimes);
+    assertEquals(4, updatedTimes.numberOfTrips());
+    assertSame(updatedTimes, subject.get(PATTERN, updated, OFFSETS));
+  }
+
+  @Test
+  void disabledCache() {
+    var subject = new TimeExpandedTripTimesCache(0).forSearchPeriod(TIME_ZERO, 0, 1);
+    assertNotSame(
+      subject.get(PATTERN, tripPatternForDates, OFFSETS),
+      subject.get(PATTERN, tripPatternForDates, OFFSETS)
+    );
+  }
+
+  @Test
+  void notCached() {
+    var subject = TimeExpandedTripTimesCache.notCached();
+    assertNotSame(
+      subject.get(PATTERN, tripPatternForDates, OFFSETS),
+      subject.get(PATTERN, tripPatternForDates, OFFSETS)
+    );
+  }
+
+  private static TripTimes tripTimes(String tripId, String departureTimes) {
+    return ScheduledTripTimes
+      .of()
+      .withTrip(TimetableRepositoryForTest.trip(tripId).build())
+      .withDepartureTimes(departureTimes)
+      .build();
+  }
+
+  private static RoutingTripPattern createTripPattern() {
+    var stopTime = new StopTime();
+    stopTime.setStop(TEST_MODEL.stop("Stop:1", 0.0, 0.0).build());
+    return TripPattern
+      .of(TimetableRepositoryForTest.id("P1"))
+      .withRoute(TimetableRepositoryForTest.route("1").build())
+      .withStopPattern(new StopPattern(List.of(stopTime, stopTime)))
+      .build()
+      .getRoutingTripPattern();
+  }
+}
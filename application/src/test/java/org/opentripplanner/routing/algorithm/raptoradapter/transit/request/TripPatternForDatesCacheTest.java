@@ -0,0 +1,103 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.TripPatternForDatesCache.TripPatternsForRequest;
+import org.opentripplanner.routing.api.request.preference.WheelchairPreferences;
+import org.opentripplanner.routing.api.request.request.filter.AllowAllTransitFilter;
+import org.opentripplanner.transit.model._data.TimetableRepositoryForTest;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
+
+class TripPatternForDatesCacheTest {
+
+  private static final ZonedDateTime TIME_ZERO = ZonedDateTime.parse("2024-01-15T00:00:00+01:00");
+
+  private int factoryCalls = 0;
+
+  @Test
+  void cacheEqualFilters() {
+    var subject = new TripPatternForDatesCache(5);
+
+    var first = get(subject, TIME_ZERO, filter(Set.of()));
+    var second = get(subject, TIME_ZERO, filter(Set.of()));
+
+    assertSame(first, second);
+    assertEquals(1, factoryCalls);
+  }
+
+  @Test
+  void doNotShareValuesForDifferentKeys() {
+    var subject = new TripPatternForDatesCache(5);
+
+    var first = get(subject, TIME_ZERO, filter(Set.of()));
+    var otherDate = get(subject, TIME_ZERO.plusDays(1), filter(Set.of()));
+    var otherFilter = get(subject, TIME_ZERO, filter(Set.of(TimetableRepositoryForTest.id("T1"))));
+
+    assertNotSame(first, otherDate);
+    assertNotSame(first, otherFilter);
+    assertEquals(3, factoryCalls);
+  }
+
+  @Test
+  void disabledCache() {
+    var subject = new TripPatternForDatesCache(0);
+
+    get(subject, TIME_ZERO, filter(Set.of()));
+    get(subject, TIME_ZERO, filter(Set.of()));
+
+    assertEquals(2, factoryCalls);
+    // The time-expanded trip times are not shared either
+    var timeExpandedTripTimes = subject.timeExpandedTripTimes();
+    assertNotSame(
+      timeExpandedTripTimes.forSearchPeriod(TIME_ZERO, 0, 1),
+      timeExpandedTripTimes.forSearchPeriod(TIME_ZERO, 0, 1)
+    );
+  }
+
+  @Test
+  void emptyCopy() {
+    var subject = new TripPatternForDatesCache(5);
+    get(subject, TIME_ZERO, filter(Set.of()));
+
+    get(subject.emptyCopy(), TIME_ZERO, filter(Set.of()));
+
+    assertEquals(2, factoryCalls);
+  }
+
+  private TripPatternsForRequest get(
+    TripPatternForDatesCache subject,
+    ZonedDateTime timeZero,
+    TransitDataProviderFilter filter
+  ) {
+    return subject.get(
+      timeZero,
+      1,
+      1,
+      filter,
+      true,
+      () -> {
+        ++factoryCalls;
+        return new TripPatternsForRequest(List.of(), List.of());
+      }
+    );
+  }
+
+  private static TransitDataProviderFilter filter(Set<FeedScopedId> bannedTrips) {
+    return new RouteRequestTransitDataProviderFilter(
+      false,
+      false,
+      false,
+      WheelchairPreferences.DEFAULT,
+      true,
+      true,
+      bannedTrips,
+      List.of(AllowAllTransitFilter.of())
+    );
+  }
+}
@@ -1,5 +1,6 @@
 package org.opentripplanner.routing.graph;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 
 import com.conveyal.object_differ.ObjectDiffer;
@@ -7,6 +8,7 @@ import java.io.File;
 import java.lang.ref.SoftReference;
 import java.lang.reflect.Method;
 import java.util.BitSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -23,6 +25,8 @@ import org.opentripplanner.datastore.file.FileDataSource;
 import org.opentripplanner.ext.emissions.EmissionsDataModel;
 import org.opentripplanner.framework.geometry.HashGridSpatialIndex;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueSummary;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.mappers.TransitLayerMapper;
+import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.service.vehicleparking.VehicleParkingRepository;
 import org.opentripplanner.service.vehicleparking.internal.DefaultVehicleParkingRepository;
 import org.opentripplanner.service.worldenvelope.WorldEnvelopeRepository;
@@ -200,6 +204,10 @@ public class GraphSerializationTest {
     File tempFile = TempFile.createTempFile("graph", "pdx");
     var streetLimitationParameters = new StreetLimitationParameters();
     streetLimitationParameters.initMaxCarSpeed(40);
+    var transferIndexes = TransitLayerMapper.mapPrecomputedTransferIndexes(
+      originalTimetableRepository,
+      List.of(new RouteRequest())
+    );
     SerializedGraphObject serializedObj = new SerializedGraphObject(
       originalGraph,
       originalTimetableRepository,
@@ -210,7 +218,8 @@ public class GraphSerializationTest {
       DataImportIssueSummary.empty(),
       emissionsDataModel,
       null,
-      streetLimitationParameters
+      streetLimitationParameters,
+      transferIndexes
     );
     serializedObj.save(new FileDataSource(tempFile, FileType.GRAPH));
     SerializedGraphObject deserializedGraph = SerializedGraphObject.load(tempFile);
@@ -226,6 +235,7 @@ public class GraphSerializationTest {
     copiedGraph1.index(copiedTimetableRepository1.getSiteRepository());
 
     assertNoDifferences(originalGraph, copiedGraph1);
+    assertEquals(transferIndexes.size(), deserializedGraph.transferIndexes.size());
 
     SerializedGraphObject deserializedGraph2 = SerializedGraphObject.load(tempFile);
     Graph copiedGraph2 = deserializedGraph2.graph;
@@ -3,6 +3,7 @@ package org.opentripplanner.service.realtimevehicles.internal;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.opentripplanner.framework.geometry.WgsCoordinate.GREENWICH;
 import static org.opentripplanner.transit.model._data.TimetableRepositoryForTest.route;
+import static org.opentripplanner.transit.model._data.TimetableRepositoryForTest.trip;
 import static org.opentripplanner.transit.model._data.TimetableRepositoryForTest.tripPattern;
 
 import java.time.Instant;
@@ -13,8 +14,8 @@ import org.opentripplanner.transit.model._data.TimetableRepositoryForTest;
 import org.opentripplanner.transit.model.network.Route;
 import org.opentripplanner.transit.model.network.StopPattern;
 import org.opentripplanner.transit.model.network.TripPattern;
-import org.opentripplanner.transit.service.DefaultTransitService;
-import org.opentripplanner.transit.service.TimetableRepository;
+import org.opentripplanner.transit.model.timetable.OccupancyStatus;
+import org.opentripplanner.transit.model.timetable.Trip;
 
 class DefaultRealtimeVehicleServiceTest {
 
@@ -27,6 +28,8 @@ class DefaultRealtimeVehicleServiceTest {
   private static final TripPattern ORIGINAL = tripPattern("original", ROUTE)
     .withStopPattern(STOP_PATTERN)
     .build();
+  private static final Trip TRIP_1 = trip("t1").build();
+  private static final Trip TRIP_2 = trip("t2").build();
   private static final Instant TIME = Instant.ofEpochSecond(1000);
   private static final List<RealtimeVehicle> VEHICLES = List.of(
     RealtimeVehicle.builder().withTime(TIME).withCoordinates(GREENWICH).build()
@@ -34,9 +37,7 @@ class DefaultRealtimeVehicleServiceTest {
 
   @Test
   void originalPattern() {
-    var service = new DefaultRealtimeVehicleService(
-      new DefaultTransitService(new TimetableRepository())
-    );
+    var service = new DefaultRealtimeVehicleService();
     service.setRealtimeVehicles(ORIGINAL, VEHICLES);
     var updates = service.getRealtimeVehicles(ORIGINAL);
     assertEquals(VEHICLES, updates);
@@ -44,9 +45,7 @@ class DefaultRealtimeVehicleServiceTest {
 
   @Test
   void realtimeAddedPattern() {
-    var service = new DefaultRealtimeVehicleService(
-      new DefaultTransitService(new TimetableRepository())
-    );
+    var service = new DefaultRealtimeVehicleService();
     var realtimePattern = tripPattern("realtime-added", ROUTE)
       .withStopPattern(STOP_PATTERN)
       .withOriginalTripPattern(ORIGINAL)
@@ -56,4 +55,45 @@ class DefaultRealtimeVehicleServiceTest {
     var updates = service.getRealtimeVehicles(ORIGINAL);
     assertEquals(VEHICLES, updates);
   }
+
+  @Test
+  void latestVehicleByTrip() {
+    var service = new DefaultRealtimeVehicleService();
+    var older = vehicle(TRIP_1, TIME, OccupancyStatus.FULL);
+    var latest = vehicle(TRIP_1, TIME.plusSeconds(30), OccupancyStatus.FEW_SEATS_AVAILABLE);
+    var other = vehicle(TRIP_2, TIME, OccupancyStatus.EMPTY);
+    service.setRealtimeVehicles(ORIGINAL, List.of(older, latest, other));
+
+    assertEquals(OccupancyStatus.FEW_SEATS_AVAILABLE, service.getVehicleOccupancyStatus(TRIP_1));
+    assertEquals(OccupancyStatus.EMPTY, service.getOccupancyStatus(TRIP_2.getId(), ORIGINAL));
+  }
+
+  @Test
+  void replaceAndClearVehicles() {
+    var service = new DefaultRealtimeVehicleService();
+    service.setRealtimeVehicles(
+      ORIGINAL,
+      List.of(vehicle(TRIP_1, TIME, OccupancyStatus.FULL), vehicle(TRIP_2, TIME, null))
+    );
+
+    // TRIP_2 is no longer in the update
+    var update = vehicle(TRIP_1, TIME.plusSeconds(30), OccupancyStatus.EMPTY);
+    service.setRealtimeVehicles(ORIGINAL, List.of(update));
+    assertEquals(OccupancyStatus.EMPTY, service.getVehicleOccupancyStatus(TRIP_1));
+    assertEquals(OccupancyStatus.NO_DATA_AVAILABLE, service.getVehicleOccupancyStatus(TRIP_2));
+
+    service.clearRealtimeVehicles(ORIGINAL);
+    assertEquals(OccupancyStatus.NO_DATA_AVAILABLE, service.getVehicleOccupancyStatus(TRIP_1));
+    assertEquals(List.of(), service.getRealtimeVehicles(ORIGINAL));
+  }
+
+  private static RealtimeVehicle vehicle(Trip trip, Instant time, OccupancyStatus occupancy) {
+    return RealtimeVehicle
+      .builder()
+      .withTrip(trip)
+      .withTime(time)
+      .withCoordinates(GREENWICH)
+      .withOccupancyStatus(occupancy)
+      .build();
+  }
 }
@@ -6,6 +6,7 @@ import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.opentripplanner.service.vehiclerental.model.TestFreeFloatingRentalVehicleBuilder;
 import org.opentripplanner.service.vehiclerental.model.TestVehicleRentalStationBuilder;
+import org.opentripplanner.service.vehiclerental.model.VehicleRentalPlace;
 import org.opentripplanner.service.vehiclerental.model.VehicleRentalStation;
 import org.opentripplanner.service.vehiclerental.model.VehicleRentalVehicle;
 import org.opentripplanner.transit.model.framework.FeedScopedId;
@@ -36,4 +37,52 @@ class DefaultVehicleRentalServiceTest {
     assertEquals(1, vehicleRentalStationForEnvelope.size());
     assertEquals(vehicleRentalStation, vehicleRentalStationForEnvelope.get(0));
   }
+
+  @Test
+  void getVehicleRentalPlacesForEnvelope() {
+    var service = new DefaultVehicleRentalService();
+    var inside = vehicle("A", 59.91, 10.75);
+    var outside = vehicle("B", 59.95, 10.75);
+    var station = new TestVehicleRentalStationBuilder().withCoordinates(59.9, 10.7).build();
+    service.addVehicleRentalStation(inside);
+    service.addVehicleRentalStation(outside);
+    service.addVehicleRentalStation(station);
+
+    assertEquals(
+      List.of(inside),
+      service.getVehicleRentalPlacesForEnvelope(10.74, 59.905, 10.76, 59.915)
+    );
+    assertEquals(
+      List.of(station),
+      service.getVehicleRentalPlacesForEnvelope(10.69, 59.89, 10.71, 59.91)
+    );
+    assertEquals(3, service.getVehicleRentalPlacesForEnvelope(-180, -90, 180, 90).size());
+  }
+
+  @Test
+  void updateAndRemoveVehicleRentalPlaces() {
+    var service = new DefaultVehicleRentalService();
+    service.addVehicleRentalStation(vehicle("A", 59.91, 10.75));
+
+    // The vehicle is moved out of the envelope
+    var moved = vehicle("A", 59.95, 10.75);
+    service.addVehicleRentalStation(moved);
+    assertEquals(List.of(), service.getVehicleRentalPlacesForEnvelope(10.7, 59.9, 10.8, 59.92));
+    assertEquals(
+      List.<VehicleRentalPlace>of(moved),
+      service.getVehicleRentalPlacesForEnvelope(10.7, 59.9, 10.8, 59.96)
+    );
+
+    service.removeVehicleRentalStation(moved.getId());
+    assertEquals(List.of(), service.getVehicleRentalPlacesForEnvelope(10.7, 59.9, 10.8, 59.96));
+  }
+
+  private static VehicleRentalVehicle vehicle(String id, double lat, double lon) {
+    var vehicle = new TestFreeFloatingRentalVehicleBuilder()
+      .withLatitude(lat)
+      .withLongitude(lon)
+      .build();
+    vehicle.id = new FeedScopedId(TestFreeFloatingRentalVehicleBuilder.NETWORK_1, id);
+    return vehicle;
+  }
 }
@@ -0,0 +1,100 @@
+package org.opentripplanner.street.model.edge;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdge;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+import org.opentripplanner.street.model.vertex.IntersectionVertex;
+
+class CompactEdgePathTest {
+
+  private final Graph graph = new Graph();
+  private final IntersectionVertex a = vertex("A", 0.0);
+  private final IntersectionVertex b = vertex("B", 0.001);
+  private final IntersectionVertex c = vertex("C", 0.002);
+
+  @Test
+  void encodeAndResolvePath() {
+    var ab = streetEdge(a, b);
+    var bc = streetEdge(b, c);
+    var cb = streetEdge(c, b);
+    streetEdge(b, a);
+
+    var path = List.<Edge>of(ab, bc, cb);
+    var subject = CompactEdgePath.of(path);
+
+    assertEquals(3, subject.size());
+    assertEquals(path, subject.edges());
+  }
+
+  @Test
+  void iterateEdges() {
+    var ab = streetEdge(a, b);
+    var bc = streetEdge(b, c);
+
+    var path = List.<Edge>of(ab, bc);
+    var subject = CompactEdgePath.of(path);
+    var result = new ArrayList<Edge>();
+    subject.forEach(result::add);
+
+    assertEquals(a, subject.firstVertex());
+    assertEquals(path, result);
+  }
+
+  @Test
+  void parallelEdges() {
+    streetEdge(a, b, 100, StreetTraversalPermission.ALL);
+    var ab2 = streetEdge(a, b, 120, StreetTraversalPermission.ALL);
+    var bc = streetEdge(b, c);
+
+    var path = List.<Edge>of(ab2, bc);
+    assertEquals(path, CompactEdgePath.of(path).edges());
+  }
+
+  @Test
+  void parallelEdgesWithTheSameDistance() {
+    streetEdge(a, b, 100, StreetTraversalPermission.ALL);
+    var ab2 = streetEdge(a, b, 100, StreetTraversalPermission.ALL);
+
+    assertEquals(List.of(ab2), CompactEdgePath.of(List.of(ab2)).edges());
+  }
+
+  @Test
+  void vertexNotInGraph() {
+    var d = intersectionVertex("D", 0.0, 0.003);
+    var cd = streetEdge(c, d);
+
+    assertEquals(List.of(cd), CompactEdgePath.of(List.of(cd)).edges());
+  }
+
+  @Test
+  void nullAndEmptyPath() {
+    assertNull(CompactEdgePath.of(null));
+    assertTrue(CompactEdgePath.of(List.of()).isEmpty());
+    assertEquals(List.of(), CompactEdgePath.of(List.of()).edges());
+    assertThrows(IllegalStateException.class, () -> CompactEdgePath.of(List.of()).firstVertex());
+  }
+
+  @Test
+  void edgeRemovedFromGraph() {
+    var ab = streetEdge(a, b);
+    var subject = CompactEdgePath.of(List.of(ab));
+
+    graph.removeEdge(ab);
+    assertThrows(IllegalStateException.class, subject::edges);
+  }
+
+  private IntersectionVertex vertex(String label, double lon) {
+    var vertex = intersectionVertex(label, 0.0, lon);
+    graph.addVertex(vertex);
+    return vertex;
+  }
+}
@@ -94,11 +94,9 @@ public class SpeedTest {
     this.testCaseDefinitions = tcIO.readTestCaseDefinitions();
     this.expectedResultsByTcId = tcIO.readExpectedResults();
 
-    var transitService = new DefaultTransitService(timetableRepository);
-
     UpdaterConfigurator.configure(
       graph,
-      new DefaultRealtimeVehicleService(transitService),
+      new DefaultRealtimeVehicleService(),
       new DefaultVehicleRentalService(),
       new DefaultVehicleParkingRepository(),
       timetableRepository,
@@ -121,7 +119,7 @@ public class SpeedTest {
         timer.getRegistry(),
         VectorTileConfig.DEFAULT,
         TestServerContext.createWorldEnvelopeService(),
-        TestServerContext.createRealtimeVehicleService(transitService),
+        TestServerContext.createRealtimeVehicleService(),
         TestServerContext.createVehicleRentalService(),
         TestServerContext.createVehicleParkingService(),
         TestServerContext.createEmissionsService(),
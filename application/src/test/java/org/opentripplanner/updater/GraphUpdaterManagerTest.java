@@ -0,0 +1,83 @@
+package org.opentripplanner.updater;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.transit.service.TimetableRepository;
+
+class GraphUpdaterManagerTest {
+
+  private final GraphUpdaterManager subject = new GraphUpdaterManager(
+    new DefaultRealTimeUpdateContext(new Graph(), new TimetableRepository()),
+    List.of()
+  );
+
+  @AfterEach
+  void stop() {
+    subject.stop();
+  }
+
+  @Test
+  void streetUpdatesAreNotBlockedByTransitUpdates() throws Exception {
+    var transitUpdateStarted = new CountDownLatch(1);
+    var releaseTransitUpdate = new CountDownLatch(1);
+    var transitUpdate = subject.execute(context -> {
+      transitUpdateStarted.countDown();
+      await(releaseTransitUpdate);
+    });
+    assertTrue(transitUpdateStarted.await(5, TimeUnit.SECONDS));
+
+    var streetUpdate = subject.execute(streetRunnable(context -> {}));
+    streetUpdate.get(5, TimeUnit.SECONDS);
+    assertFalse(transitUpdate.isDone());
+
+    releaseTransitUpdate.countDown();
+    transitUpdate.get(5, TimeUnit.SECONDS);
+  }
+
+  @Test
+  void updatesOfOnePartitionAreAppliedOnOneThread() throws Exception {
+    var transitThread = new AtomicReference<String>();
+    var streetThread = new AtomicReference<String>();
+
+    subject
+      .execute(context -> transitThread.set(Thread.currentThread().getName()))
+      .get(5, TimeUnit.SECONDS);
+    subject
+      .execute(streetRunnable(context -> streetThread.set(Thread.currentThread().getName())))
+      .get(5, TimeUnit.SECONDS);
+
+    assertEquals("graph-writer", transitThread.get());
+    assertEquals("graph-writer-street", streetThread.get());
+  }
+
+  private static GraphWriterRunnable streetRunnable(GraphWriterRunnable runnable) {
+    return new GraphWriterRunnable() {
+      @Override
+      public void run(RealTimeUpdateContext context) {
+        runnable.run(context);
+      }
+
+      @Override
+      public GraphWriterPartition partition() {
+        return GraphWriterPartition.STREET;
+      }
+    };
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,73 @@
+package org.opentripplanner.updater;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.google.common.util.concurrent.Futures;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.updater.spi.GraphUpdater;
+import org.opentripplanner.updater.spi.WriteToGraphCallback;
+
+class GraphWriterMetricsTest {
+
+  private static final GraphUpdater UPDATER = new GraphUpdater() {
+    @Override
+    public void setup(WriteToGraphCallback writeToGraphCallback) {}
+
+    @Override
+    public void run() {}
+
+    @Override
+    public String getConfigRef() {
+      return "updater-1";
+    }
+  };
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final List<GraphWriterRunnable> submitted = new ArrayList<>();
+  private final GraphWriterMetrics subject = new GraphWriterMetrics(
+    UPDATER,
+    runnable -> {
+      submitted.add(runnable);
+      return Futures.immediateVoidFuture();
+    },
+    registry
+  );
+
+  @Test
+  void recordQueuedAndAppliedRunnables() {
+    subject.execute(context -> {});
+    subject.execute(context -> {});
+    assertEquals(2.0, queued());
+
+    submitted.getFirst().run(null);
+    assertEquals(1.0, queued());
+    assertEquals(
+      1,
+      registry.get("graph_writer_apply").tag("configRef", "updater-1").timer().count()
+    );
+    assertEquals(1, registry.get("graph_writer_wait").timer().count());
+  }
+
+  @Test
+  void keepPartition() {
+    subject.execute(
+      new GraphWriterRunnable() {
+        @Override
+        public void run(RealTimeUpdateContext context) {}
+
+        @Override
+        public GraphWriterPartition partition() {
+          return GraphWriterPartition.STREET;
+        }
+      }
+    );
+    assertEquals(GraphWriterPartition.STREET, submitted.getFirst().partition());
+  }
+
+  private double queued() {
+    return registry.get("graph_writer_queued").gauge().value();
+  }
+}
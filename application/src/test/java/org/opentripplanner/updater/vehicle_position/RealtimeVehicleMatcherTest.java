@@ -84,7 +84,7 @@ public class RealtimeVehicleMatcherTest {
 
   @Test
   public void tripNotFoundInPattern() {
-    var service = new DefaultRealtimeVehicleService(null);
+    var service = new DefaultRealtimeVehicleService();
 
     final String secondTripId = "trip2";
 
@@ -115,7 +115,7 @@ public class RealtimeVehicleMatcherTest {
 
   @Test
   public void sequenceId() {
-    var service = new DefaultRealtimeVehicleService(null);
+    var service = new DefaultRealtimeVehicleService();
 
     var tripId = "trip1";
     var scopedTripId = TimetableRepositoryForTest.id(tripId);
@@ -174,7 +174,7 @@ public class RealtimeVehicleMatcherTest {
   }
 
   private void testVehiclePositions(VehiclePosition pos) {
-    var service = new DefaultRealtimeVehicleService(null);
+    var service = new DefaultRealtimeVehicleService();
     var trip = TimetableRepositoryForTest.trip(tripId).build();
     var stopTimes = List.of(
       testModel.stopTime(trip, 0),
@@ -222,7 +222,7 @@ public class RealtimeVehicleMatcherTest {
   }
 
   private void testVehiclePositionOccupancy(VehiclePosition pos) {
-    var service = new DefaultRealtimeVehicleService(null);
+    var service = new DefaultRealtimeVehicleService();
     var trip = TimetableRepositoryForTest.trip(tripId).build();
     var stopTimes = List.of(
       testModel.stopTime(trip, 0),
@@ -262,7 +262,7 @@ public class RealtimeVehicleMatcherTest {
 
   @Test
   public void clearOldTrips() {
-    var service = new DefaultRealtimeVehicleService(null);
+    var service = new DefaultRealtimeVehicleService();
 
     var tripId1 = "trip1";
     var tripId2 = "trip2";
@@ -0,0 +1,81 @@
+package org.opentripplanner.raptor.rangeraptor.multicriteria;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opentripplanner.raptor._data.transit.TestAccessEgress;
+import org.opentripplanner.raptor._data.transit.TestTransfer;
+import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
+import org.opentripplanner.raptor.api.model.RelaxFunction;
+import org.opentripplanner.raptor.rangeraptor.multicriteria.arrivals.ArrivalParetoSetComparatorFactory;
+import org.opentripplanner.raptor.rangeraptor.multicriteria.arrivals.McStopArrival;
+import org.opentripplanner.raptor.rangeraptor.multicriteria.arrivals.c1.StopArrivalFactoryC1;
+import org.opentripplanner.raptor.util.paretoset.ParetoComparator;
+import org.opentripplanner.raptor.util.paretoset.ParetoSet;
+
+/**
+ * Measure the cost of adding multi-criteria stop arrivals to the pareto set kept for each stop
+ * in McStopArrivals. This is the innermost operation of the multi-criteria Raptor search.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StopArrivalParetoSetBenchmark {
+
+  private static final int STOP = 1;
+  private static final int START_TIME = 8 * 3600;
+
+  @Param({ "100", "1000" })
+  private int nArrivals;
+
+  private ParetoComparator<McStopArrival<RaptorTripSchedule>> comparator;
+  private McStopArrival<RaptorTripSchedule>[] arrivals;
+
+  @Setup
+  @SuppressWarnings("unchecked")
+  public void setup() {
+    var factory = new StopArrivalFactoryC1<RaptorTripSchedule>();
+    comparator =
+      ArrivalParetoSetComparatorFactory
+        .<McStopArrival<RaptorTripSchedule>>factory(RelaxFunction.NORMAL, null)
+        .compareArrivalTimeRoundAndCost();
+
+    var access = factory.createAccessStopArrival(START_TIME, TestAccessEgress.walk(0, 60));
+    var random = new Random(42);
+    arrivals = new McStopArrival[nArrivals];
+
+    for (int i = 0; i < nArrivals; ++i) {
+      int duration = 60 + random.nextInt(1800);
+      // Walking slower is cheaper, this keep a few arrivals in the set
+      int cost = (1860 - duration) * 100 + random.nextInt(5000);
+      arrivals[i] =
+        factory.createTransferStopArrival(
+          access,
+          TestTransfer.transfer(STOP, duration, cost),
+          access.arrivalTime() + duration
+        );
+    }
+  }
+
+  @Benchmark
+  public ParetoSet<McStopArrival<RaptorTripSchedule>> add() {
+    var set = StopArrivalParetoSet.of(comparator).build();
+    for (var it : arrivals) {
+      set.add(it);
+    }
+    return set;
+  }
+}
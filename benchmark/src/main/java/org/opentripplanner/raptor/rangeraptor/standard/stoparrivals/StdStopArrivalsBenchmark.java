@@ -0,0 +1,91 @@
+package org.opentripplanner.raptor.rangeraptor.standard.stoparrivals;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opentripplanner.raptor._data.transit.TestAccessEgress;
+import org.opentripplanner.raptor._data.transit.TestTransfer;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor.rangeraptor.lifecycle.LifeCycleEventPublisher;
+import org.opentripplanner.raptor.rangeraptor.lifecycle.LifeCycleSubscriptions;
+
+/**
+ * Measure the cost of updating the single-criteria stop arrivals: set the access arrival, then
+ * for each round arrive by transit at every stop and transfer to a few nearby stops. This is the
+ * state update done by the standard Range Raptor worker in each iteration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StdStopArrivalsBenchmark {
+
+  private static final int N_ROUNDS = 5;
+  private static final int N_TRANSFERS_PER_STOP = 4;
+  private static final int START_TIME = 8 * 3600;
+
+  @Param({ "1000", "10000" })
+  private int nStops;
+
+  private TestAccessEgress access;
+  private TestTripSchedule trip;
+  private int[] transitArrivalTimes;
+  private TestTransfer[] transfers;
+
+  @Setup
+  public void setup() {
+    var random = new Random(42);
+    access = TestAccessEgress.walk(0, 120);
+    trip = TestTripSchedule.schedule("08:00 09:00").build();
+    transitArrivalTimes = new int[nStops];
+    transfers = new TestTransfer[nStops * N_TRANSFERS_PER_STOP];
+
+    for (int stop = 0; stop < nStops; ++stop) {
+      transitArrivalTimes[stop] = START_TIME + 300 + random.nextInt(3600);
+      for (int i = 0; i < N_TRANSFERS_PER_STOP; ++i) {
+        transfers[stop * N_TRANSFERS_PER_STOP + i] =
+          TestTransfer.transfer(random.nextInt(nStops), 30 + random.nextInt(600));
+      }
+    }
+  }
+
+  @Benchmark
+  public StdStopArrivals<TestTripSchedule> update() {
+    var subscriptions = new LifeCycleSubscriptions();
+    var arrivals = new StdStopArrivals<TestTripSchedule>(N_ROUNDS, nStops, subscriptions);
+    var lifeCycle = new LifeCycleEventPublisher(subscriptions);
+
+    lifeCycle.prepareForNextRound(0);
+    arrivals.setAccessTime(START_TIME + access.durationInSeconds(), access, true);
+
+    for (int round = 1; round < N_ROUNDS; ++round) {
+      lifeCycle.prepareForNextRound(round);
+      int delay = round * 60;
+
+      for (int stop = 0; stop < nStops; ++stop) {
+        int time = transitArrivalTimes[stop] + delay;
+        arrivals.transitToStop(stop, time, 0, START_TIME, trip, round == 1);
+      }
+      for (int stop = 0; stop < nStops; ++stop) {
+        int time = transitArrivalTimes[stop] + delay;
+        for (int i = 0; i < N_TRANSFERS_PER_STOP; ++i) {
+          var transfer = transfers[stop * N_TRANSFERS_PER_STOP + i];
+          arrivals.transferToStop(stop, transfer, time + transfer.durationInSeconds());
+        }
+      }
+    }
+    return arrivals;
+  }
+}
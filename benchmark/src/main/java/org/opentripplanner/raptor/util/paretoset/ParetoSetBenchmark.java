@@ -0,0 +1,63 @@
+package org.opentripplanner.raptor.util.paretoset;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measure the cost of inserting elements into a {@link ParetoSet} with three criteria. The
+ * {@code frontSize} parameter controls the trade-off between time and cost, and with that how
+ * many of the elements are kept in the set.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParetoSetBenchmark {
+
+  private static final ParetoComparator<Vector> COMPARATOR = (l, r) ->
+    l.time < r.time || l.cost < r.cost || l.round < r.round;
+
+  @Param({ "100", "1000" })
+  private int nElements;
+
+  @Param({ "4", "16" })
+  private int frontSize;
+
+  private Vector[] elements;
+
+  @Setup
+  public void setup() {
+    var random = new Random(42);
+    elements = new Vector[nElements];
+    for (int i = 0; i < nElements; ++i) {
+      int time = random.nextInt(3600);
+      // Trade time for cost, the random noise makes some of the elements dominated
+      int cost = (3600 - time) * frontSize + random.nextInt(3600);
+      elements[i] = new Vector(time, cost, random.nextInt(4));
+    }
+  }
+
+  @Benchmark
+  public ParetoSet<Vector> insert() {
+    var set = new ParetoSet<>(COMPARATOR);
+    for (Vector it : elements) {
+      set.add(it);
+    }
+    return set;
+  }
+
+  record Vector(int time, int cost, int round) {}
+}
@@ -0,0 +1,101 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opentripplanner.raptor.api.model.RaptorTransfer;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.street.search.request.StreetSearchRequest;
+
+/**
+ * Measure the transfer lookups done by Raptor after each round: iterate over the forward and
+ * reversed transfers of a random set of stops. The cost of creating the index is measured too,
+ * since it is done for each new transfer request in the transfer cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RaptorTransferIndexBenchmark {
+
+  private static final int N_LOOKUPS = 10_000;
+
+  @Param({ "10000" })
+  private int nStops;
+
+  @Param({ "10", "50" })
+  private int nTransfersPerStop;
+
+  private List<List<Transfer>> transfersByStopIndex;
+  private StreetSearchRequest request;
+  private RaptorTransferIndex index;
+  private int[] stops;
+
+  @Setup
+  public void setup() {
+    var random = new Random(42);
+    var modes = EnumSet.of(StreetMode.WALK, StreetMode.BIKE);
+    transfersByStopIndex = new ArrayList<>(nStops);
+
+    for (int fromStop = 0; fromStop < nStops; ++fromStop) {
+      var transfers = new ArrayList<Transfer>(nTransfersPerStop);
+      for (int i = 0; i < nTransfersPerStop; ++i) {
+        transfers.add(new Transfer(random.nextInt(nStops), 50 + random.nextInt(1000), modes));
+      }
+      transfersByStopIndex.add(transfers);
+    }
+    request = StreetSearchRequest.of().withMode(StreetMode.WALK).build();
+    index = RaptorTransferIndex.create(transfersByStopIndex, request);
+
+    stops = new int[N_LOOKUPS];
+    for (int i = 0; i < N_LOOKUPS; ++i) {
+      stops[i] = random.nextInt(nStops);
+    }
+  }
+
+  @Benchmark
+  public int forwardLookup() {
+    int sum = 0;
+    for (int stop : stops) {
+      var it = index.forwardTransferIterator(stop);
+      while (it.hasNext()) {
+        RaptorTransfer transfer = it.next();
+        sum += transfer.stop() + transfer.durationInSeconds() + transfer.c1();
+      }
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public int reversedLookup() {
+    int sum = 0;
+    for (int stop : stops) {
+      var it = index.reversedTransferIterator(stop);
+      while (it.hasNext()) {
+        RaptorTransfer transfer = it.next();
+        sum += transfer.stop() + transfer.durationInSeconds() + transfer.c1();
+      }
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public RaptorTransferIndex create() {
+    return RaptorTransferIndex.create(transfersByStopIndex, request);
+  }
+}
@@ -0,0 +1,104 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntUnaryOperator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor.api.model.SearchDirection;
+import org.opentripplanner.raptor.spi.RaptorTripScheduleSearch;
+
+/**
+ * Measure the trip board search for patterns with few trips (linear search) and many trips
+ * (binary search). Each invocation searches a fixed sequence of random board times and stop
+ * positions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TripScheduleBoardSearchBenchmark {
+
+  private static final int N_STOPS = 20;
+  private static final int N_SEARCHES = 1000;
+  private static final int FIRST_DEPARTURE = 5 * 3600;
+  private static final int TIME_BETWEEN_STOPS = 120;
+
+  @Param({ "10", "100", "1000" })
+  private int nTrips;
+
+  private RaptorTripScheduleSearch<TestTripSchedule> search;
+  private int[] earliestBoardTimes;
+  private int[] stopPositions;
+
+  @Setup
+  public void setup() {
+    int headway = 20 * 3600 / nTrips;
+    var times = new int[N_STOPS];
+    for (int i = 0; i < N_STOPS; ++i) {
+      times[i] = FIRST_DEPARTURE + i * TIME_BETWEEN_STOPS;
+    }
+    var trips = new TestTripSchedule[nTrips];
+    for (int i = 0; i < nTrips; ++i) {
+      trips[i] = TestTripSchedule.schedule().times(times).shiftTimes(i * headway).build();
+    }
+    search = TripScheduleSearchFactory.create(SearchDirection.FORWARD, new Timetable(trips));
+
+    var random = new Random(42);
+    earliestBoardTimes = new int[N_SEARCHES];
+    stopPositions = new int[N_SEARCHES];
+    for (int i = 0; i < N_SEARCHES; ++i) {
+      earliestBoardTimes[i] = FIRST_DEPARTURE + random.nextInt(20 * 3600);
+      stopPositions[i] = random.nextInt(N_STOPS);
+    }
+  }
+
+  @Benchmark
+  public void boardSearch(Blackhole blackhole) {
+    for (int i = 0; i < N_SEARCHES; ++i) {
+      var event = search.search(earliestBoardTimes[i], stopPositions[i]);
+      blackhole.consume(event.empty() ? -1 : event.tripIndex());
+    }
+  }
+
+  private record Timetable(TestTripSchedule[] trips)
+    implements TripSearchTimetable<TestTripSchedule> {
+    @Override
+    public TestTripSchedule getTripSchedule(int index) {
+      return trips[index];
+    }
+
+    @Override
+    public int numberOfTripSchedules() {
+      return trips.length;
+    }
+
+    @Override
+    public IntUnaryOperator getArrivalTimes(int stopPositionInPattern) {
+      return tripIndex -> trips[tripIndex].arrival(stopPositionInPattern);
+    }
+
+    @Override
+    public IntUnaryOperator getDepartureTimes(int stopPositionInPattern) {
+      return tripIndex -> trips[tripIndex].departure(stopPositionInPattern);
+    }
+
+    @Override
+    public RaptorTripScheduleSearch<TestTripSchedule> tripSearch(SearchDirection direction) {
+      return TripScheduleSearchFactory.create(direction, this);
+    }
+  }
+}
@@ -0,0 +1,70 @@
+package org.opentripplanner.street.search;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opentripplanner.astar.model.GraphPath;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.state.State;
+import org.opentripplanner.street.search.strategy.EuclideanRemainingWeightHeuristic;
+
+/**
+ * Measure an A* walk search across a synthetic street grid, from one corner to the opposite
+ * corner, with and without the euclidean heuristic.
+ */
+@org.openjdk.jmh.annotations.State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AStarBenchmark {
+
+  @Param({ "50", "200" })
+  private int gridSize;
+
+  private RouteRequest request;
+  private Vertex from;
+  private Vertex to;
+
+  @Setup
+  public void setup() {
+    var grid = new StreetGrid(gridSize);
+    from = grid.vertex(0, 0);
+    to = grid.vertex(gridSize - 1, gridSize - 1);
+    request = new RouteRequest();
+  }
+
+  @Benchmark
+  public GraphPath<State, Edge, Vertex> searchWithEuclideanHeuristic() {
+    return StreetSearchBuilder
+      .of()
+      .setHeuristic(new EuclideanRemainingWeightHeuristic())
+      .setRequest(request)
+      .setFrom(from)
+      .setTo(to)
+      .getShortestPathTree()
+      .getPath(to);
+  }
+
+  @Benchmark
+  public GraphPath<State, Edge, Vertex> searchWithoutHeuristic() {
+    return StreetSearchBuilder
+      .of()
+      .setRequest(request)
+      .setFrom(from)
+      .setTo(to)
+      .getShortestPathTree()
+      .getPath(to);
+  }
+}
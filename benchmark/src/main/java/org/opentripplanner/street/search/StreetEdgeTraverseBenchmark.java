@@ -0,0 +1,56 @@
+package org.opentripplanner.street.search;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.search.request.StreetSearchRequest;
+import org.opentripplanner.street.search.state.State;
+
+/**
+ * Measure {@link StreetEdge#traverse(State)} for each street mode. Every edge in a small street
+ * grid is traversed from a state at its from-vertex.
+ */
+@org.openjdk.jmh.annotations.State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StreetEdgeTraverseBenchmark {
+
+  @Param({ "WALK", "BIKE", "CAR" })
+  private StreetMode mode;
+
+  private StreetEdge[] edges;
+  private State[] states;
+
+  @Setup
+  public void setup() {
+    var grid = new StreetGrid(20);
+    var request = StreetSearchRequest.of().withMode(mode).build();
+    edges = grid.edges().toArray(StreetEdge[]::new);
+    states = new State[edges.length];
+
+    for (int i = 0; i < edges.length; ++i) {
+      states[i] = new State(edges[i].getFromVertex(), request);
+    }
+  }
+
+  @Benchmark
+  public void traverse(Blackhole blackhole) {
+    for (int i = 0; i < edges.length; ++i) {
+      blackhole.consume(edges[i].traverse(states[i]));
+    }
+  }
+}
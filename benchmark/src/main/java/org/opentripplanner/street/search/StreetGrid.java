@@ -0,0 +1,90 @@
+package org.opentripplanner.street.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.locationtech.jts.geom.Coordinate;
+import org.opentripplanner.framework.geometry.GeometryUtils;
+import org.opentripplanner.framework.geometry.SphericalDistanceLibrary;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.edge.StreetEdgeBuilder;
+import org.opentripplanner.street.model.vertex.IntersectionVertex;
+import org.opentripplanner.street.model.vertex.LabelledIntersectionVertex;
+
+/**
+ * A synthetic street network used by the street benchmarks. The vertices are laid out in a
+ * square grid with roughly 100 meters between neighbours, each pair of neighbours is connected
+ * with a street edge in both directions.
+ */
+class StreetGrid {
+
+  private static final double LAT_0 = 59.9;
+  private static final double LON_0 = 10.7;
+  private static final double LAT_STEP = 0.0009;
+  private static final double LON_STEP = 0.0018;
+
+  private final int size;
+  private final IntersectionVertex[] vertices;
+  private final List<StreetEdge> edges = new ArrayList<>();
+
+  StreetGrid(int size) {
+    this.size = size;
+    this.vertices = new IntersectionVertex[size * size];
+
+    for (int row = 0; row < size; ++row) {
+      for (int col = 0; col < size; ++col) {
+        vertices[row * size + col] =
+          new LabelledIntersectionVertex(
+            row + "_" + col,
+            LON_0 + col * LON_STEP,
+            LAT_0 + row * LAT_STEP,
+            false,
+            false
+          );
+      }
+    }
+    for (int row = 0; row < size; ++row) {
+      for (int col = 0; col < size; ++col) {
+        if (col + 1 < size) {
+          connect(vertex(row, col), vertex(row, col + 1));
+        }
+        if (row + 1 < size) {
+          connect(vertex(row, col), vertex(row + 1, col));
+        }
+      }
+    }
+  }
+
+  IntersectionVertex vertex(int row, int col) {
+    return vertices[row * size + col];
+  }
+
+  List<StreetEdge> edges() {
+    return edges;
+  }
+
+  private void connect(IntersectionVertex a, IntersectionVertex b) {
+    edges.add(streetEdge(a, b, false));
+    edges.add(streetEdge(b, a, true));
+  }
+
+  private static StreetEdge streetEdge(
+    IntersectionVertex from,
+    IntersectionVertex to,
+    boolean back
+  ) {
+    var geometry = GeometryUtils
+      .getGeometryFactory()
+      .createLineString(new Coordinate[] { from.getCoordinate(), to.getCoordinate() });
+
+    return new StreetEdgeBuilder<>()
+      .withFromVertex(from)
+      .withToVertex(to)
+      .withGeometry(geometry)
+      .withName(from.getLabelString() + "-" + to.getLabelString())
+      .withMeterLength(SphericalDistanceLibrary.distance(from.getCoordinate(), to.getCoordinate()))
+      .withPermission(StreetTraversalPermission.ALL)
+      .withBack(back)
+      .buildAndConnect();
+  }
+}
@@ -4,10 +4,12 @@ import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
 import org.opentripplanner.raptor.api.request.RaptorRequest;
+import org.opentripplanner.raptor.api.response.RaptorOneToManyResponse;
 import org.opentripplanner.raptor.api.response.RaptorResponse;
 import org.opentripplanner.raptor.configure.RaptorConfig;
 import org.opentripplanner.raptor.service.DefaultStopArrivals;
 import org.opentripplanner.raptor.service.HeuristicSearchTask;
+import org.opentripplanner.raptor.service.OneToManySearch;
 import org.opentripplanner.raptor.service.RangeRaptorDynamicSearch;
 import org.opentripplanner.raptor.spi.ExtraMcRouterSearch;
 import org.opentripplanner.raptor.spi.RaptorTransitDataProvider;
@@ -54,6 +56,19 @@ public class RaptorService<T extends RaptorTripSchedule> {
     return response;
   }
 
+  /**
+   * Find the best arrival time at every stop and at the end of every egress path in the request,
+   * using one Raptor iteration. No paths are created, see {@link OneToManySearch}. To compute
+   * a many-to-many matrix, call this once for each origin with the same {@code transitData}.
+   */
+  public RaptorOneToManyResponse routeOneToMany(
+    RaptorRequest<T> request,
+    RaptorTransitDataProvider<T> transitData
+  ) {
+    logRequest(request);
+    return new OneToManySearch<>(config, transitData, request).route();
+  }
+
   /**
    * TODO Add back the possibility to compare heuristics using a test - like the SpeedTest,
    *      but maybe better to make a separate test.
@@ -20,6 +20,16 @@ public interface RaptorTuningParameters {
     return 60;
   }
 
+  /** see {@link org.opentripplanner.standalone.config.routerconfig.TransitRoutingConfig} **/
+  default int searchWindowPartitions() {
+    return 1;
+  }
+
+  /** see {@link org.opentripplanner.standalone.config.routerconfig.TransitRoutingConfig} **/
+  default int destinationHeuristicsCacheMaxSize() {
+    return 0;
+  }
+
   /**
    * Coefficients used to calculate raptor-search-window parameters dynamically  from heuristics.
    */
@@ -0,0 +1,45 @@
+package org.opentripplanner.raptor.api.response;
+
+import org.opentripplanner.raptor.api.model.RaptorConstants;
+
+/**
+ * The result of a one-to-many search. The result contains the best arrival time for all stops and
+ * for all egress paths in the request. Times are in seconds since the search time-zero, like all
+ * other times in Raptor. If a stop or egress is not reached the time is
+ * {@link RaptorConstants#TIME_NOT_SET}.
+ * <p>
+ * The arrays are returned without copying them, do not modify them.
+ */
+public class RaptorOneToManyResponse {
+
+  private final int[] stopArrivalTimes;
+  private final int[] egressArrivalTimes;
+
+  public RaptorOneToManyResponse(int[] stopArrivalTimes, int[] egressArrivalTimes) {
+    this.stopArrivalTimes = stopArrivalTimes;
+    this.egressArrivalTimes = egressArrivalTimes;
+  }
+
+  /**
+   * The best arrival time for each stop, indexed by stop index.
+   */
+  public int[] stopArrivalTimes() {
+    return stopArrivalTimes;
+  }
+
+  /**
+   * The best arrival time at the end of each egress path, in the same order as the egress paths
+   * in the request.
+   */
+  public int[] egressArrivalTimes() {
+    return egressArrivalTimes;
+  }
+
+  public boolean isStopReached(int stopIndex) {
+    return stopArrivalTimes[stopIndex] != RaptorConstants.TIME_NOT_SET;
+  }
+
+  public boolean isEgressReached(int egressIndex) {
+    return egressArrivalTimes[egressIndex] != RaptorConstants.TIME_NOT_SET;
+  }
+}
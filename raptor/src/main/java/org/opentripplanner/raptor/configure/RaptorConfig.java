@@ -1,13 +1,19 @@
 package org.opentripplanner.raptor.configure;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
+import java.util.function.BiFunction;
 import javax.annotation.Nullable;
 import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
+import org.opentripplanner.raptor.api.path.RaptorPath;
 import org.opentripplanner.raptor.api.request.RaptorEnvironment;
 import org.opentripplanner.raptor.api.request.RaptorRequest;
 import org.opentripplanner.raptor.api.request.RaptorTuningParameters;
 import org.opentripplanner.raptor.rangeraptor.ConcurrentCompositeRaptorRouter;
 import org.opentripplanner.raptor.rangeraptor.DefaultRangeRaptorWorker;
+import org.opentripplanner.raptor.rangeraptor.DestinationHeuristicsCache;
+import org.opentripplanner.raptor.rangeraptor.PartitionedRaptorRouter;
 import org.opentripplanner.raptor.rangeraptor.RangeRaptor;
 import org.opentripplanner.raptor.rangeraptor.RangeRaptorWorkerComposite;
 import org.opentripplanner.raptor.rangeraptor.context.SearchContext;
@@ -38,6 +44,7 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
 
   private final RaptorEnvironment environment;
   private final RaptorTuningParameters tuningParameters;
+  private final DestinationHeuristicsCache destinationHeuristicsCache;
 
   /** The service is not final, because it depends on the request. */
   private PassThroughPointsService passThroughPointsService = null;
@@ -45,6 +52,8 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
   public RaptorConfig(RaptorTuningParameters tuningParameters, RaptorEnvironment environment) {
     this.tuningParameters = tuningParameters;
     this.environment = environment;
+    this.destinationHeuristicsCache =
+      new DestinationHeuristicsCache(tuningParameters.destinationHeuristicsCacheMaxSize());
   }
 
   public static <T extends RaptorTripSchedule> RaptorConfig<T> defaultConfigForTest() {
@@ -76,11 +85,21 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
     Heuristics heuristics,
     @Nullable ExtraMcRouterSearch<T> extraMcSearch
   ) {
-    var mainSearch = createRangeRaptorWithMcWorker(transitData, request, heuristics);
-
     if (extraMcSearch == null) {
-      return mainSearch;
+      if (isSearchWindowPartitioned(request)) {
+        var routers = partitionSearchWindow(request)
+          .stream()
+          .map(r -> createRangeRaptorWithMcWorker(transitData, r, heuristics))
+          .toList();
+        var leg = context(transitData, request).legs().getFirst();
+        var merger = new McRangeRaptorConfig<>(leg, passThroughPointsService).pathMerger();
+        return createPartitionedRouter(routers, merger);
+      }
+      return createRangeRaptorWithMcWorker(transitData, request, heuristics);
     }
+    // The partitioned search is not combined with the extra search, the composite router
+    // already runs the two searches in parallel and nesting tasks in the same pool may deadlock.
+    var mainSearch = createRangeRaptorWithMcWorker(transitData, request, heuristics);
     var alternativeSearch = createRangeRaptorWithMcWorker(
       extraMcSearch.createTransitDataAlternativeSearch(transitData),
       request,
@@ -156,6 +175,14 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
     return environment.mapInterruptedException(e);
   }
 
+  /**
+   * The destination heuristics are shared between requests, hence the cache has the same
+   * APPLICATION scope as this class.
+   */
+  public DestinationHeuristicsCache destinationHeuristicsCache() {
+    return destinationHeuristicsCache;
+  }
+
   public RaptorSearchWindowCalculator searchWindowCalculator() {
     return new RaptorSearchWindowCalculator(tuningParameters.dynamicSearchWindowCoefficients());
   }
@@ -166,6 +193,46 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
     return McRangeRaptorConfig.passThroughPointsService(request.multiCriteria());
   }
 
+  /**
+   * The search-window is split into partitions and routed in parallel if enabled in the tuning
+   * parameters, the request allows parallel execution and a thread pool exists. Only forward
+   * multi-criteria range-raptor searches are partitioned. The stop arrivals of the partitions are
+   * not merged, and they are part of the response of the standard and best-time searches.
+   */
+  private boolean isSearchWindowPartitioned(RaptorRequest<T> request) {
+    return (
+      tuningParameters.searchWindowPartitions() > 1 &&
+      isMultiThreaded() &&
+      request.runInParallel() &&
+      request.searchDirection().isForward() &&
+      request.searchParams().isSearchWindowSet() &&
+      !request.searchParams().searchOneIterationOnly()
+    );
+  }
+
+  private List<RaptorRequest<T>> partitionSearchWindow(RaptorRequest<T> request) {
+    return PartitionedRaptorRouter.partitionSearchWindow(
+      request,
+      tuningParameters.searchWindowPartitions(),
+      tuningParameters.iterationDepartureStepInSeconds()
+    );
+  }
+
+  private RaptorRouter<T> createPartitionedRouter(
+    List<RaptorRouter<T>> routers,
+    BiFunction<Collection<RaptorPath<T>>, Collection<RaptorPath<T>>, Collection<RaptorPath<T>>> merger
+  ) {
+    if (routers.size() == 1) {
+      return routers.getFirst();
+    }
+    return new PartitionedRaptorRouter<>(
+      routers,
+      merger,
+      threadPool(),
+      environment::mapInterruptedException
+    );
+  }
+
   private RangeRaptorWorker<T> createWorker(
     SearchContextViaLeg<T> ctxLeg,
     RaptorWorkerState<T> workerState,
@@ -15,6 +15,7 @@ import org.opentripplanner.raptor.rangeraptor.internalapi.WorkerLifeCycle;
 import org.opentripplanner.raptor.rangeraptor.transit.AccessPaths;
 import org.opentripplanner.raptor.rangeraptor.transit.RaptorTransitCalculator;
 import org.opentripplanner.raptor.spi.IntIterator;
+import org.opentripplanner.raptor.spi.RaptorTransferCursor;
 import org.opentripplanner.raptor.spi.RaptorTransitDataProvider;
 
 /**
@@ -69,6 +70,9 @@ public final class DefaultRangeRaptorWorker<T extends RaptorTripSchedule>
 
   private final RaptorTransitCalculator<T> calculator;
 
+  /** The transfers are found with the same cursor for all stops and rounds in the search. */
+  private final RaptorTransferCursor transfers;
+
   private final RaptorTimers timers;
 
   @Nullable
@@ -100,6 +104,7 @@ public final class DefaultRangeRaptorWorker<T extends RaptorTripSchedule>
     this.transitData = transitData;
     this.slackProvider = slackProvider;
     this.calculator = calculator;
+    this.transfers = calculator.createTransferCursor(transitData);
     this.timers = timers;
     this.accessPaths = accessPaths;
     this.enableTransferConstraints = enableTransferConstraints;
@@ -192,7 +197,7 @@ public final class DefaultRangeRaptorWorker<T extends RaptorTripSchedule>
         final int fromStop = it.next();
         // no need to consider loop transfers, since we don't mark patterns here any more
         // loop transfers are already included by virtue of those stops having been reached
-        state.transferToStops(fromStop, calculator.getTransfers(transitData, fromStop));
+        state.transferToStops(fromStop, transfers.transfers(fromStop));
       }
     });
   }
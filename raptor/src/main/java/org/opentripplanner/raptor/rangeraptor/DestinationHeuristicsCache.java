@@ -0,0 +1,218 @@
+package org.opentripplanner.raptor.rangeraptor;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+import org.opentripplanner.raptor.api.model.RaptorAccessEgress;
+import org.opentripplanner.raptor.api.model.RaptorConstants;
+import org.opentripplanner.raptor.api.request.RaptorRequest;
+import org.opentripplanner.raptor.api.request.SearchParams;
+import org.opentripplanner.raptor.rangeraptor.internalapi.Heuristics;
+import org.opentripplanner.raptor.spi.RaptorTransitDataProvider;
+
+/**
+ * Cache the destination (reverse) heuristics between requests. Clients paging through the
+ * results, or asking for the same trip again after a short while, would otherwise run the same
+ * heuristic search for every request.
+ * <p>
+ * The heuristics are cached by the {@link RaptorTransitDataProvider#heuristicsCacheKey()}, the
+ * access and egress paths and the heuristic search parameters. The transit data key includes the
+ * version of the transit data, so an entry is not used after new transit data is published, it is
+ * evicted from the cache when it becomes the least recently used. Only the best travel duration
+ * and number of transfers at each stop are cached, the generalized-cost is calculated with the cost
+ * calculator of the request using the heuristics.
+ * <p>
+ * The earliest-departure-time is not part of the key. It only limits how far back in time the
+ * reverse search goes, so a heuristic search with an earlier (or no) limit reach the same or more
+ * stops with the same or better values. These are still valid lower bounds for a request with a
+ * later earliest-departure-time, hence the cached heuristics are used if they are computed with
+ * the same or an earlier earliest-departure-time. This is what the next page or a new request for
+ * "now" ask for. If no trip depart after the new earliest-departure-time the main search return no
+ * paths, instead of the heuristic search failing.
+ * <p>
+ * Only reverse searches are cached. Searches with via locations or access/egress paths with
+ * opening hours are not cached.
+ * <p>
+ * THREAD SAFETY - This class is thread-safe, the cached heuristics are immutable and shared between
+ * requests.
+ */
+public class DestinationHeuristicsCache {
+
+  private final int maximumSize;
+
+  /** The cache is {@code null} if caching is disabled. */
+  @Nullable
+  private final Map<CacheKey, Entry> cache;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder savedTimeMillis = new LongAdder();
+
+  /**
+   * @param maximumSize The maximum number of heuristics to cache. Use {@code 0} to disable caching.
+   */
+  public DestinationHeuristicsCache(int maximumSize) {
+    this.maximumSize = maximumSize;
+    this.cache =
+      maximumSize > 0
+        ? new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<CacheKey, Entry> eldest) {
+            return size() > DestinationHeuristicsCache.this.maximumSize;
+          }
+        }
+        : null;
+  }
+
+  /**
+   * Return the cached heuristics for the given heuristic search request, or {@code null} if not
+   * cached.
+   */
+  @Nullable
+  public Heuristics get(RaptorTransitDataProvider<?> transitData, RaptorRequest<?> request) {
+    var key = key(transitData, request);
+    if (key == null) {
+      return null;
+    }
+    Entry entry;
+    synchronized (cache) {
+      entry = cache.get(key);
+    }
+    if (entry == null || !entry.isValidFor(request.searchParams())) {
+      misses.increment();
+      return null;
+    }
+    hits.increment();
+    savedTimeMillis.add(entry.searchTimeMillis());
+    return entry.heuristics().withCostCalculator(transitData.multiCriteriaCostCalculator());
+  }
+
+  /**
+   * Add the heuristics of a heuristic search to the cache.
+   *
+   * @param searchTimeMillis The time used to perform the heuristic search, this is added to
+   *                         {@link #savedTimeMillis()} each time the heuristics are reused.
+   */
+  public void put(
+    RaptorTransitDataProvider<?> transitData,
+    RaptorRequest<?> request,
+    Heuristics heuristics,
+    long searchTimeMillis
+  ) {
+    var key = key(transitData, request);
+    if (key == null) {
+      return;
+    }
+    var entry = new Entry(
+      HeuristicsSnapshot.of(heuristics),
+      request.searchParams().earliestDepartureTime(),
+      searchTimeMillis
+    );
+    synchronized (cache) {
+      cache.put(key, entry);
+    }
+  }
+
+  public boolean isEnabled() {
+    return cache != null;
+  }
+
+  public long hitCount() {
+    return hits.sum();
+  }
+
+  public long missCount() {
+    return misses.sum();
+  }
+
+  /**
+   * The total time the cached heuristic searches took to run, summed over all cache hits.
+   */
+  public long savedTimeMillis() {
+    return savedTimeMillis.sum();
+  }
+
+  @Nullable
+  private CacheKey key(RaptorTransitDataProvider<?> transitData, RaptorRequest<?> request) {
+    if (cache == null) {
+      return null;
+    }
+    var transitDataKey = transitData.heuristicsCacheKey();
+    var s = request.searchParams();
+
+    if (transitDataKey == null || request.searchDirection().isForward() || s.hasViaLocations()) {
+      return null;
+    }
+    if (hasOpeningHours(s.accessPaths()) || hasOpeningHours(s.egressPaths())) {
+      return null;
+    }
+    return new CacheKey(
+      transitDataKey,
+      s.latestArrivalTime(),
+      s.maxNumberOfTransfers(),
+      s.timetable(),
+      s.constrainedTransfers(),
+      pathKeys(s.accessPaths()),
+      pathKeys(s.egressPaths())
+    );
+  }
+
+  private static boolean hasOpeningHours(Collection<RaptorAccessEgress> paths) {
+    return paths.stream().anyMatch(RaptorAccessEgress::hasOpeningHours);
+  }
+
+  private static Set<PathKey> pathKeys(Collection<RaptorAccessEgress> paths) {
+    return paths.stream().map(PathKey::of).collect(Collectors.toUnmodifiableSet());
+  }
+
+  private record Entry(
+    HeuristicsSnapshot heuristics,
+    int earliestDepartureTime,
+    long searchTimeMillis
+  ) {
+    private boolean isValidFor(SearchParams s) {
+      if (earliestDepartureTime == RaptorConstants.TIME_NOT_SET) {
+        return true;
+      }
+      return s.isEarliestDepartureTimeSet() && earliestDepartureTime <= s.earliestDepartureTime();
+    }
+  }
+
+  private record CacheKey(
+    Object transitDataKey,
+    int latestArrivalTime,
+    int maxNumberOfTransfers,
+    boolean timetable,
+    boolean constrainedTransfers,
+    Set<PathKey> accessPaths,
+    Set<PathKey> egressPaths
+  ) {}
+
+  /**
+   * The values of an access or egress path used by the heuristic search. The paths are created
+   * for each request, so they can not be compared by identity.
+   */
+  private record PathKey(
+    int stop,
+    int durationInSeconds,
+    int c1,
+    int timePenalty,
+    int numberOfRides,
+    boolean stopReachedOnBoard
+  ) {
+    private static PathKey of(RaptorAccessEgress path) {
+      return new PathKey(
+        path.stop(),
+        path.durationInSeconds(),
+        path.c1(),
+        path.timePenalty(),
+        path.numberOfRides(),
+        path.stopReachedOnBoard()
+      );
+    }
+  }
+}
@@ -0,0 +1,145 @@
+package org.opentripplanner.raptor.rangeraptor;
+
+import org.opentripplanner.raptor.api.model.RaptorConstants;
+import org.opentripplanner.raptor.rangeraptor.internalapi.HeuristicAtStop;
+import org.opentripplanner.raptor.rangeraptor.internalapi.Heuristics;
+import org.opentripplanner.raptor.spi.RaptorCostCalculator;
+import org.opentripplanner.utils.tostring.ToStringBuilder;
+
+/**
+ * An immutable copy of the best travel duration and number of transfers at each stop of a
+ * {@link Heuristics}. Unlike the heuristics created from the result of a search, the copy does not
+ * reference the worker state or the transit data, so it can be kept in the
+ * {@link DestinationHeuristicsCache} after the request is done.
+ * <p>
+ * The generalized-cost depends on the cost parameters of each request, so it is not copied. It is
+ * calculated from the travel duration and number of transfers with the cost calculator of the
+ * request using the heuristics, the same way as for the heuristics created from the search.
+ */
+final class HeuristicsSnapshot implements Heuristics {
+
+  private static final int UNREACHED = RaptorConstants.UNREACHED_HIGH;
+
+  private final int[] bestTravelDuration;
+  private final int[] bestNumOfTransfers;
+  private final int bestOverallJourneyTravelDuration;
+  private final int bestOverallJourneyNumOfTransfers;
+  private final int minWaitTimeForJourneysReachingDestination;
+  private final RaptorCostCalculator<?> costCalculator;
+
+  private HeuristicsSnapshot(HeuristicsSnapshot original, RaptorCostCalculator<?> costCalculator) {
+    this.bestTravelDuration = original.bestTravelDuration;
+    this.bestNumOfTransfers = original.bestNumOfTransfers;
+    this.bestOverallJourneyTravelDuration = original.bestOverallJourneyTravelDuration;
+    this.bestOverallJourneyNumOfTransfers = original.bestOverallJourneyNumOfTransfers;
+    this.minWaitTimeForJourneysReachingDestination =
+      original.minWaitTimeForJourneysReachingDestination;
+    this.costCalculator = costCalculator;
+  }
+
+  private HeuristicsSnapshot(Heuristics heuristics) {
+    this.bestTravelDuration = heuristics.bestTravelDurationToIntArray(UNREACHED);
+    this.bestNumOfTransfers = heuristics.bestNumOfTransfersToIntArray(UNREACHED);
+    this.bestOverallJourneyTravelDuration = heuristics.bestOverallJourneyTravelDuration();
+    this.bestOverallJourneyNumOfTransfers = heuristics.bestOverallJourneyNumOfTransfers();
+    this.minWaitTimeForJourneysReachingDestination =
+      heuristics.minWaitTimeForJourneysReachingDestination();
+    this.costCalculator = null;
+  }
+
+  /**
+   * Copy the given heuristics. The copy can not be used before a cost calculator is set, see
+   * {@link #withCostCalculator(RaptorCostCalculator)}.
+   */
+  static HeuristicsSnapshot of(Heuristics heuristics) {
+    return new HeuristicsSnapshot(heuristics);
+  }
+
+  /**
+   * Return a copy, sharing the values of this instance, using the given cost calculator to
+   * calculate the generalized-cost.
+   */
+  HeuristicsSnapshot withCostCalculator(RaptorCostCalculator<?> costCalculator) {
+    return new HeuristicsSnapshot(this, costCalculator);
+  }
+
+  @Override
+  public HeuristicAtStop createHeuristicAtStop(int stop) {
+    return reached(stop)
+      ? new HeuristicAtStop(
+        bestTravelDuration[stop],
+        bestNumOfTransfers[stop],
+        bestGeneralizedCost(stop)
+      )
+      : HeuristicAtStop.UNREACHED;
+  }
+
+  @Override
+  public int[] bestTravelDurationToIntArray(int unreached) {
+    return toIntArray(bestTravelDuration, unreached);
+  }
+
+  @Override
+  public int[] bestNumOfTransfersToIntArray(int unreached) {
+    return toIntArray(bestNumOfTransfers, unreached);
+  }
+
+  @Override
+  public int[] bestGeneralizedCostToIntArray(int unreached) {
+    int[] a = new int[size()];
+    for (int i = 0; i < a.length; i++) {
+      a[i] = reached(i) ? bestGeneralizedCost(i) : unreached;
+    }
+    return a;
+  }
+
+  @Override
+  public int size() {
+    return bestTravelDuration.length;
+  }
+
+  @Override
+  public int bestOverallJourneyTravelDuration() {
+    return bestOverallJourneyTravelDuration;
+  }
+
+  @Override
+  public int bestOverallJourneyNumOfTransfers() {
+    return bestOverallJourneyNumOfTransfers;
+  }
+
+  @Override
+  public int minWaitTimeForJourneysReachingDestination() {
+    return minWaitTimeForJourneysReachingDestination;
+  }
+
+  @Override
+  public String toString() {
+    return ToStringBuilder
+      .of(HeuristicsSnapshot.class)
+      .addNum("size", size())
+      .addDurationSec("bestOverallJourneyTravelDuration", bestOverallJourneyTravelDuration)
+      .addNum("bestOverallJourneyNumOfTransfers", bestOverallJourneyNumOfTransfers)
+      .toString();
+  }
+
+  private boolean reached(int stop) {
+    return bestTravelDuration[stop] != UNREACHED;
+  }
+
+  private int bestGeneralizedCost(int stop) {
+    return costCalculator.calculateRemainingMinCost(
+      bestTravelDuration[stop],
+      bestNumOfTransfers[stop],
+      stop
+    );
+  }
+
+  private int[] toIntArray(int[] values, int unreached) {
+    int[] a = new int[values.length];
+    for (int i = 0; i < a.length; i++) {
+      a[i] = reached(i) ? values[i] : unreached;
+    }
+    return a;
+  }
+}
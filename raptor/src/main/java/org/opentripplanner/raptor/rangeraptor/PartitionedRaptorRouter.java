@@ -0,0 +1,127 @@
+package org.opentripplanner.raptor.rangeraptor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
+import org.opentripplanner.raptor.api.path.RaptorPath;
+import org.opentripplanner.raptor.api.request.RaptorRequest;
+import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorRouter;
+import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorRouterResult;
+
+/**
+ * Run one Raptor router for each partition of the search-window and merge the paths into one
+ * pareto-set using the given merger. Each router has its own worker state, so the routers can run
+ * concurrently. The first partition is routed in the caller thread, the rest is submitted to the
+ * thread pool.
+ * <p>
+ * Only the paths are merged, the stop arrivals are not available in the result. So, only
+ * multi-criteria searches are partitioned.
+ * <p>
+ * Splitting the search-window loses some of the range-raptor state reuse between iterations, so
+ * the total amount of work is higher than for one search. The benefit is lower latency when there
+ * are idle cores available.
+ * @see CompositeResult for joining results.
+ */
+public class PartitionedRaptorRouter<T extends RaptorTripSchedule> implements RaptorRouter<T> {
+
+  private final List<RaptorRouter<T>> routers;
+  private final BiFunction<Collection<RaptorPath<T>>, Collection<RaptorPath<T>>, Collection<RaptorPath<T>>> merger;
+  private final ExecutorService executorService;
+  private final Function<InterruptedException, RuntimeException> mapInterruptedException;
+
+  public PartitionedRaptorRouter(
+    List<RaptorRouter<T>> routers,
+    BiFunction<Collection<RaptorPath<T>>, Collection<RaptorPath<T>>, Collection<RaptorPath<T>>> merger,
+    ExecutorService executorService,
+    Function<InterruptedException, RuntimeException> mapInterruptedException
+  ) {
+    if (routers.isEmpty()) {
+      throw new IllegalArgumentException("At least one router is required.");
+    }
+    this.routers = List.copyOf(routers);
+    this.merger = merger;
+    this.executorService = executorService;
+    this.mapInterruptedException = mapInterruptedException;
+  }
+
+  /**
+   * Split the search-window of the given forward request into at most {@code maxPartitions}
+   * requests. The range-raptor iterations are kept exactly the same as for the original request,
+   * each iteration is performed by exactly one of the returned requests. The requests are
+   * returned with the latest departures first, the same order as the range-raptor iterations.
+   * <p>
+   * The request is returned as is if the search-window only has one iteration.
+   */
+  public static <T extends RaptorTripSchedule> List<RaptorRequest<T>> partitionSearchWindow(
+    RaptorRequest<T> request,
+    int maxPartitions,
+    int iterationStep
+  ) {
+    var params = request.searchParams();
+    if (request.searchDirection().isInReverse()) {
+      throw new IllegalArgumentException("Only forward searches can be partitioned.");
+    }
+    // The range-raptor iterations are: edt + sw - k * step, for k = 1..nIterations
+    int nIterations = params.searchWindowInSeconds() / iterationStep;
+    int nPartitions = Math.min(maxPartitions, nIterations);
+
+    if (nPartitions <= 1) {
+      return List.of(request);
+    }
+
+    int latestDeparture = params.earliestDepartureTime() + params.searchWindowInSeconds();
+    var result = new ArrayList<RaptorRequest<T>>(nPartitions);
+    int k = 0;
+
+    for (int i = 0; i < nPartitions; ++i) {
+      // Distribute the remainder on the first partitions
+      int size = nIterations / nPartitions + (i < nIterations % nPartitions ? 1 : 0);
+      k += size;
+      result.add(
+        request
+          .mutate()
+          .searchParams()
+          .earliestDepartureTime(latestDeparture - k * iterationStep)
+          .searchWindowInSeconds(size * iterationStep)
+          .build()
+      );
+    }
+    return result;
+  }
+
+  @Override
+  public RaptorRouterResult<T> route() {
+    var futures = new ArrayList<Future<RaptorRouterResult<T>>>();
+    for (RaptorRouter<T> router : routers.subList(1, routers.size())) {
+      futures.add(executorService.submit(router::route));
+    }
+    try {
+      var result = routers.getFirst().route();
+      for (var future : futures) {
+        result = new CompositeResult<>(result, future.get(), merger);
+      }
+      return result;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      // propagate interruption to the running tasks.
+      cancel(futures);
+      throw mapInterruptedException.apply(e);
+    } catch (ExecutionException e) {
+      cancel(futures);
+      throw (e.getCause() instanceof RuntimeException re) ? re : new RuntimeException(e);
+    } catch (RuntimeException e) {
+      cancel(futures);
+      throw e;
+    }
+  }
+
+  private static void cancel(List<? extends Future<?>> futures) {
+    futures.forEach(it -> it.cancel(true));
+  }
+}
@@ -1,9 +1,12 @@
 package org.opentripplanner.raptor.rangeraptor.multicriteria.configure;
 
+import java.util.Collection;
 import java.util.Objects;
+import java.util.function.BiFunction;
 import javax.annotation.Nullable;
 import org.opentripplanner.raptor.api.model.DominanceFunction;
 import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
+import org.opentripplanner.raptor.api.path.RaptorPath;
 import org.opentripplanner.raptor.api.request.MultiCriteriaRequest;
 import org.opentripplanner.raptor.api.request.RaptorTransitGroupPriorityCalculator;
 import org.opentripplanner.raptor.rangeraptor.context.SearchContext;
@@ -100,6 +103,15 @@ public class McRangeRaptorConfig<T extends RaptorTripSchedule> {
     return createState(heuristics);
   }
 
+  /**
+   * Merge the paths from more than one search with the same request, the destination pareto-set
+   * criteria is used to keep the optimal paths.
+   */
+  public BiFunction<Collection<RaptorPath<T>>, Collection<RaptorPath<T>>, Collection<RaptorPath<T>>> pathMerger() {
+    var c2Comp = includeC2() ? dominanceFunctionC2() : null;
+    return pathConfig.createPathMerger(resolveCostConfig(), c2Comp);
+  }
+
   /**
    * This is used in the config to chain more than one search together.
    */
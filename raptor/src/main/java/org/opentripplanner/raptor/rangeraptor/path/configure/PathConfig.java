@@ -2,6 +2,9 @@ package org.opentripplanner.raptor.rangeraptor.path.configure;
 
 import static org.opentripplanner.raptor.rangeraptor.path.PathParetoSetComparators.paretoComparator;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.function.BiFunction;
 import org.opentripplanner.raptor.api.model.DominanceFunction;
 import org.opentripplanner.raptor.api.model.GeneralizedCostRelaxFunction;
 import org.opentripplanner.raptor.api.model.RaptorStopNameResolver;
@@ -22,6 +25,7 @@ import org.opentripplanner.raptor.spi.RaptorCostCalculator;
 import org.opentripplanner.raptor.spi.RaptorPathConstrainedTransferSearch;
 import org.opentripplanner.raptor.spi.RaptorSlackProvider;
 import org.opentripplanner.raptor.util.paretoset.ParetoComparator;
+import org.opentripplanner.raptor.util.paretoset.ParetoSet;
 
 /**
  * This class is responsible for creating a a result collector - the set of paths.
@@ -66,6 +70,24 @@ public class PathConfig<T extends RaptorTripSchedule> {
     );
   }
 
+  /**
+   * Create a function to merge the paths from two searches with the same request. The paths are
+   * merged using the same pareto-set criteria as the {@link DestinationArrivalPaths}, if two
+   * paths are equivalent the path from the first collection is kept.
+   */
+  public BiFunction<Collection<RaptorPath<T>>, Collection<RaptorPath<T>>, Collection<RaptorPath<T>>> createPathMerger(
+    ParetoSetCost costConfig,
+    DominanceFunction c2Comp
+  ) {
+    var comparator = createPathParetoComparator(costConfig, c2Comp);
+    return (paths, other) -> {
+      var set = new ParetoSet<>(comparator);
+      set.addAll(paths);
+      set.addAll(other);
+      return List.copyOf(set);
+    };
+  }
+
   /* private members */
 
   private ParetoComparator<RaptorPath<T>> createPathParetoComparator(
@@ -1,8 +1,6 @@
 package org.opentripplanner.raptor.rangeraptor.transit;
 
-import java.util.Iterator;
 import org.opentripplanner.raptor.api.model.RaptorConstants;
-import org.opentripplanner.raptor.api.model.RaptorTransfer;
 import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
 import org.opentripplanner.raptor.api.model.SearchDirection;
 import org.opentripplanner.raptor.api.request.RaptorTuningParameters;
@@ -10,6 +8,7 @@ import org.opentripplanner.raptor.api.request.SearchParams;
 import org.opentripplanner.raptor.spi.IntIterator;
 import org.opentripplanner.raptor.spi.RaptorConstrainedBoardingSearch;
 import org.opentripplanner.raptor.spi.RaptorTimeTable;
+import org.opentripplanner.raptor.spi.RaptorTransferCursor;
 import org.opentripplanner.raptor.spi.RaptorTransitDataProvider;
 import org.opentripplanner.raptor.spi.RaptorTripScheduleSearch;
 import org.opentripplanner.raptor.util.IntIterators;
@@ -97,11 +96,10 @@ public final class ForwardRaptorTransitCalculator<T extends RaptorTripSchedule>
   }
 
   @Override
-  public Iterator<? extends RaptorTransfer> getTransfers(
-    RaptorTransitDataProvider<T> transitDataProvider,
-    int fromStop
+  public RaptorTransferCursor createTransferCursor(
+    RaptorTransitDataProvider<T> transitDataProvider
   ) {
-    return transitDataProvider.getTransfersFromStop(fromStop);
+    return transitDataProvider.createTransferCursor(SearchDirection.FORWARD);
   }
 
   @Override
@@ -3,14 +3,14 @@ package org.opentripplanner.raptor.rangeraptor.transit;
 import static org.opentripplanner.raptor.api.model.RaptorConstants.TIME_NOT_SET;
 import static org.opentripplanner.utils.time.TimeUtils.hm2time;
 
-import java.util.Iterator;
 import org.opentripplanner.raptor.api.model.RaptorAccessEgress;
 import org.opentripplanner.raptor.api.model.RaptorConstants;
-import org.opentripplanner.raptor.api.model.RaptorTransfer;
 import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
+import org.opentripplanner.raptor.api.model.SearchDirection;
 import org.opentripplanner.raptor.spi.IntIterator;
 import org.opentripplanner.raptor.spi.RaptorConstrainedBoardingSearch;
 import org.opentripplanner.raptor.spi.RaptorTimeTable;
+import org.opentripplanner.raptor.spi.RaptorTransferCursor;
 import org.opentripplanner.raptor.spi.RaptorTransitDataProvider;
 import org.opentripplanner.raptor.spi.RaptorTripScheduleSearch;
 
@@ -138,15 +138,12 @@ public interface RaptorTransitCalculator<T extends RaptorTripSchedule>
   );
 
   /**
-   * Returns an iterator over all transfers "from" (or "to" for reverse searches) a stopIndex.
+   * Create a cursor over all transfers "from" (or "to" for reverse searches) a stopIndex, used
+   * for all stops in one search.
    *
-   * @see RaptorTransitDataProvider#getTransfersFromStop(int)
-   * @see RaptorTransitDataProvider#getTransfersToStop(int)
+   * @see RaptorTransitDataProvider#createTransferCursor(SearchDirection)
    */
-  Iterator<? extends RaptorTransfer> getTransfers(
-    RaptorTransitDataProvider<T> transitDataProvider,
-    int fromStop
-  );
+  RaptorTransferCursor createTransferCursor(RaptorTransitDataProvider<T> transitDataProvider);
 
   /**
    * This method removes the time-penalty from the given time if the provided accessEgress has
@@ -7,6 +7,7 @@ import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
 import org.opentripplanner.raptor.api.model.SearchDirection;
 import org.opentripplanner.raptor.api.request.RaptorRequest;
 import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.raptor.rangeraptor.DestinationHeuristicsCache;
 import org.opentripplanner.raptor.rangeraptor.RangeRaptor;
 import org.opentripplanner.raptor.rangeraptor.internalapi.Heuristics;
 import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorRouter;
@@ -39,6 +40,13 @@ public class HeuristicSearchTask<T extends RaptorTripSchedule> {
   private RaptorRequest<T> heuristicRequest;
   private RaptorRouterResult<T> result = null;
 
+  @Nullable
+  private DestinationHeuristicsCache cache = null;
+
+  /** The heuristics found in the cache, if {@code null} the search is run. */
+  @Nullable
+  private Heuristics cachedHeuristics = null;
+
   public HeuristicSearchTask(
     RaptorRequest<T> request,
     RaptorConfig<T> config,
@@ -78,6 +86,9 @@ public class HeuristicSearchTask<T extends RaptorTripSchedule> {
 
   @Nullable
   public Heuristics result() {
+    if (cachedHeuristics != null) {
+      return cachedHeuristics;
+    }
     if (result == null) {
       return null;
     }
@@ -89,6 +100,15 @@ public class HeuristicSearchTask<T extends RaptorTripSchedule> {
     return this;
   }
 
+  /**
+   * Look up the heuristics in the given cache before running the search, and add the result of
+   * the search to it.
+   */
+  public HeuristicSearchTask<T> withCache(DestinationHeuristicsCache cache) {
+    this.cache = cache.isEnabled() ? cache : null;
+    return this;
+  }
+
   public void forceRun() {
     enable();
     run();
@@ -111,7 +131,18 @@ public class HeuristicSearchTask<T extends RaptorTripSchedule> {
 
     long start = System.currentTimeMillis();
 
-    createHeuristicSearchIfNotExist(originalRequest);
+    createHeuristicRequestIfNotExist(originalRequest);
+
+    if (cache != null) {
+      this.cachedHeuristics = cache.get(transitData, heuristicRequest);
+      if (cachedHeuristics != null) {
+        LOG.debug("RangeRaptor - {} heuristic found in cache.", name);
+        return;
+      }
+    }
+    if (search == null) {
+      search = config.createRangeRaptorWithHeuristicSearch(transitData, heuristicRequest);
+    }
 
     LOG.debug("Heuristic search: {}", heuristicRequest);
     this.result = search.route();
@@ -120,14 +151,19 @@ public class HeuristicSearchTask<T extends RaptorTripSchedule> {
     if (!result.isDestinationReached()) {
       throw new DestinationNotReachedException();
     }
+    long searchTime = System.currentTimeMillis() - start;
+
+    if (cache != null) {
+      cache.put(transitData, heuristicRequest, result(), searchTime);
+    }
     if (LOG.isDebugEnabled()) {
-      String time = DurationUtils.msToSecondsStr(System.currentTimeMillis() - start);
+      String time = DurationUtils.msToSecondsStr(searchTime);
       LOG.debug("RangeRaptor - {} heuristic search performed in {}.", name, time);
     }
   }
 
-  private void createHeuristicSearchIfNotExist(RaptorRequest<T> request) {
-    if (search == null) {
+  private void createHeuristicRequestIfNotExist(RaptorRequest<T> request) {
+    if (heuristicRequest == null) {
       var profile = MIN_TRAVEL_DURATION;
 
       var builder = request
@@ -145,7 +181,6 @@ public class HeuristicSearchTask<T extends RaptorTripSchedule> {
       );
 
       heuristicRequest = builder.build();
-      search = config.createRangeRaptorWithHeuristicSearch(transitData, heuristicRequest);
     }
   }
 }
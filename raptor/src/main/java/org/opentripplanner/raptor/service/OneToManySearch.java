@@ -0,0 +1,91 @@
+package org.opentripplanner.raptor.service;
+
+import java.util.Arrays;
+import org.opentripplanner.raptor.api.model.RaptorAccessEgress;
+import org.opentripplanner.raptor.api.model.RaptorConstants;
+import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
+import org.opentripplanner.raptor.api.request.RaptorProfile;
+import org.opentripplanner.raptor.api.request.RaptorRequest;
+import org.opentripplanner.raptor.api.response.RaptorOneToManyResponse;
+import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorRouterResult;
+import org.opentripplanner.raptor.rangeraptor.internalapi.SingleCriteriaStopArrivals;
+import org.opentripplanner.raptor.spi.RaptorTransitDataProvider;
+
+/**
+ * Run one Raptor iteration from the access paths in the request and return the best arrival time
+ * at every stop and at the end of every egress path. The search uses the
+ * {@link RaptorProfile#BEST_TIME} profile, no paths are created. This is the building block for
+ * travel-time matrices, the caller is expected to reuse the same transit data for all origins.
+ * <p>
+ * Only the best arrival times are returned, and the iteration departing at the earliest departure
+ * time always has the best arrival times. So, the search window in the request is ignored, the
+ * later iterations of a range search would not change the result.
+ * <p>
+ * Only forward searches are supported.
+ */
+public class OneToManySearch<T extends RaptorTripSchedule> {
+
+  private final RaptorConfig<T> config;
+  private final RaptorTransitDataProvider<T> transitData;
+  private final RaptorRequest<T> request;
+
+  public OneToManySearch(
+    RaptorConfig<T> config,
+    RaptorTransitDataProvider<T> transitData,
+    RaptorRequest<T> request
+  ) {
+    if (request.searchDirection().isInReverse()) {
+      throw new IllegalArgumentException("A one-to-many search must be a forward search.");
+    }
+    this.config = config;
+    this.transitData = transitData;
+    this.request =
+      request
+        .mutate()
+        .profile(RaptorProfile.BEST_TIME)
+        .clearOptimizations()
+        .searchParams()
+        .searchOneIterationOnly()
+        .build();
+  }
+
+  public RaptorOneToManyResponse route() {
+    var result = config.createRangeRaptorWithStdWorker(transitData, request).route();
+    return new RaptorOneToManyResponse(
+      stopArrivalTimes(result.extractBestOverallArrivals()),
+      egressArrivalTimes(result)
+    );
+  }
+
+  private int[] stopArrivalTimes(SingleCriteriaStopArrivals arrivals) {
+    int[] times = new int[transitData.numberOfStops()];
+    for (int stop = 0; stop < times.length; ++stop) {
+      times[stop] = arrivals.isReached(stop) ? arrivals.value(stop) : RaptorConstants.TIME_NOT_SET;
+    }
+    return times;
+  }
+
+  private int[] egressArrivalTimes(RaptorRouterResult<T> result) {
+    var egressPaths = request.searchParams().egressPaths();
+    int[] times = new int[egressPaths.size()];
+    Arrays.fill(times, RaptorConstants.TIME_NOT_SET);
+
+    var overall = result.extractBestOverallArrivals();
+    var transit = result.extractBestTransitArrivals();
+    int i = 0;
+    for (RaptorAccessEgress egress : egressPaths) {
+      // A walking egress can not follow a walking transfer, it must start at a transit arrival
+      var arrivals = egress.hasRides() || egress.isFree() ? overall : transit;
+      int stop = egress.stop();
+      if (arrivals.isReached(stop)) {
+        int departureTime = egress.earliestDepartureTime(arrivals.value(stop));
+        if (departureTime != RaptorConstants.TIME_NOT_SET) {
+          times[i] = departureTime + egress.durationInSeconds();
+        }
+      }
+      ++i;
+    }
+    return times;
+  }
+}
@@ -65,7 +65,9 @@ public class RangeRaptorDynamicSearch<T extends RaptorTripSchedule> {
     this.extraMcSearch = extraMcSearch;
 
     this.fwdHeuristics = new HeuristicSearchTask<>(FORWARD, "Forward", config, transitData);
-    this.revHeuristics = new HeuristicSearchTask<>(REVERSE, "Reverse", config, transitData);
+    this.revHeuristics =
+      new HeuristicSearchTask<>(REVERSE, "Reverse", config, transitData)
+        .withCache(config.destinationHeuristicsCache());
   }
 
   public RaptorResponse<T> route() {
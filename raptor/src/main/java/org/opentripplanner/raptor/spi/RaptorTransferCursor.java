@@ -0,0 +1,21 @@
+package org.opentripplanner.raptor.spi;
+
+import java.util.Iterator;
+import org.opentripplanner.raptor.api.model.RaptorTransfer;
+
+/**
+ * Provide the transfers from a stop (or to a stop in a reverse search) for one search. A cursor
+ * is created for each search and is only used by the thread performing the search, so the
+ * implementation may return the same iterator instance for every stop. The iterator returned is
+ * only used until the next call to {@link #transfers(int)}.
+ * <p>
+ * Raptor keeps a reference to the transfers it accepts, so the transfers returned by the iterator
+ * must not be reused.
+ */
+@FunctionalInterface
+public interface RaptorTransferCursor {
+  /**
+   * Return an iterator over the transfers from (or to in a reverse search) the given stop.
+   */
+  Iterator<? extends RaptorTransfer> transfers(int stop);
+}
@@ -2,12 +2,15 @@ package org.opentripplanner.raptor.spi;
 
 import java.util.Iterator;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.opentripplanner.raptor.api.model.RaptorStopNameResolver;
 import org.opentripplanner.raptor.api.model.RaptorTransfer;
 import org.opentripplanner.raptor.api.model.RaptorTransferConstraint;
 import org.opentripplanner.raptor.api.model.RaptorTripPattern;
 import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
+import org.opentripplanner.raptor.api.model.SearchDirection;
 import org.opentripplanner.raptor.api.request.RaptorRequest;
+import org.opentripplanner.raptor.api.request.RaptorTuningParameters;
 
 /**
  * This interface defines the data needed by Raptor. It is the main/top-level interface and together
@@ -74,6 +77,16 @@ public interface RaptorTransitDataProvider<T extends RaptorTripSchedule> {
   @Flyweight
   Iterator<? extends RaptorTransfer> getTransfersToStop(int toStop);
 
+  /**
+   * Create a cursor over the transfers for one search, the cursor is used for all stops and rounds
+   * in the search. Override this to avoid creating a new iterator each time the transfers of a
+   * stop are needed. The default implementation uses {@link #getTransfersFromStop(int)} and
+   * {@link #getTransfersToStop(int)}.
+   */
+  default RaptorTransferCursor createTransferCursor(SearchDirection direction) {
+    return direction.isForward() ? this::getTransfersFromStop : this::getTransfersToStop;
+  }
+
   /**
    * Return an iterator of route indices for all routes visiting the given set of stops.
    *
@@ -149,4 +162,23 @@ public interface RaptorTransitDataProvider<T extends RaptorTripSchedule> {
    * REVERSE search.
    */
   RaptorConstrainedBoardingSearch<T> transferConstraintsReverseSearch(int routeIndex);
+
+  /**
+   * Return a key identifying the transit data and all parameters used to create it which may
+   * change the travel duration or the number of transfers found by a heuristic search - like the
+   * transit data version, the search period, the filters, the transfers and the slack. Two
+   * instances returning equal keys must return the same trips, transfers and slack. Raptor use the
+   * key to reuse the destination heuristics between requests, see
+   * {@link RaptorTuningParameters#destinationHeuristicsCacheMaxSize()}.
+   * <p>
+   * The cost parameters are not part of the key. The heuristic search only uses the travel
+   * duration and the number of transfers, and only these are cached. The generalized-cost
+   * heuristics are calculated from them with the cost calculator of each request.
+   * <p>
+   * The default is {@code null}, the heuristics are not cached.
+   */
+  @Nullable
+  default Object heuristicsCacheKey() {
+    return null;
+  }
 }
@@ -25,6 +25,7 @@ public interface RaptorTestConstants {
   int D10m = durationInSeconds("10m");
   int D11m = durationInSeconds("11m");
   int D20m = durationInSeconds("20m");
+  int D30m = durationInSeconds("30m");
   int D24h = durationInSeconds("24h");
 
   /**
@@ -51,6 +51,7 @@ public class TestTransitData
   private final int[] stopBoardAlightTransferCosts = new int[NUM_STOPS];
 
   private RaptorSlackProvider slackProvider = SLACK_PROVIDER;
+  private Object heuristicsCacheKey = null;
 
   @Override
   public Iterator<? extends RaptorTransfer> getTransfersFromStop(int fromStop) {
@@ -104,6 +105,16 @@ public class TestTransitData
     return this;
   }
 
+  @Override
+  public Object heuristicsCacheKey() {
+    return heuristicsCacheKey;
+  }
+
+  public TestTransitData withHeuristicsCacheKey(Object heuristicsCacheKey) {
+    this.heuristicsCacheKey = heuristicsCacheKey;
+    return this;
+  }
+
   @Override
   public RaptorPathConstrainedTransferSearch<TestTripSchedule> transferConstraintsSearch() {
     return new RaptorPathConstrainedTransferSearch<>() {
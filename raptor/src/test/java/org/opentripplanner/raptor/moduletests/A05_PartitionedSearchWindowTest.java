@@ -0,0 +1,134 @@
+package org.opentripplanner.raptor.moduletests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.raptor._data.api.PathUtils.pathsToString;
+import static org.opentripplanner.raptor._data.transit.TestRoute.route;
+import static org.opentripplanner.raptor._data.transit.TestTripPattern.pattern;
+import static org.opentripplanner.raptor._data.transit.TestTripSchedule.schedule;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.opentripplanner.raptor.RaptorService;
+import org.opentripplanner.raptor._data.RaptorTestConstants;
+import org.opentripplanner.raptor._data.transit.TestAccessEgress;
+import org.opentripplanner.raptor._data.transit.TestTransitData;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor.api.request.Optimization;
+import org.opentripplanner.raptor.api.request.RaptorEnvironment;
+import org.opentripplanner.raptor.api.request.RaptorProfile;
+import org.opentripplanner.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.raptor.api.request.RaptorTuningParameters;
+import org.opentripplanner.raptor.configure.RaptorConfig;
+
+/**
+ * FEATURE UNDER TEST
+ * <p>
+ * Raptor should return the same paths when the search-window is partitioned and each partition
+ * is routed in parallel, as when all range-raptor iterations are done in one search. Only
+ * multi-criteria searches are partitioned, the stop arrivals of a standard search are part of the
+ * response.
+ */
+public class A05_PartitionedSearchWindowTest implements RaptorTestConstants {
+
+  private final TestTransitData data = new TestTransitData();
+  private final RaptorRequestBuilder<TestTripSchedule> requestBuilder = new RaptorRequestBuilder<>();
+  private final ThreadPoolExecutor threadPool = (ThreadPoolExecutor) Executors.newFixedThreadPool(
+    2
+  );
+
+  private final RaptorService<TestTripSchedule> raptorService = new RaptorService<>(
+    RaptorConfig.defaultConfigForTest()
+  );
+  private final RaptorService<TestTripSchedule> partitionedRaptorService = new RaptorService<>(
+    new RaptorConfig<>(
+      new RaptorTuningParameters() {
+        @Override
+        public int searchWindowPartitions() {
+          return 3;
+        }
+      },
+      new RaptorEnvironment() {
+        @Override
+        public ExecutorService threadPool() {
+          return threadPool;
+        }
+      }
+    )
+  );
+
+  /**
+   * Stops: 0..2
+   *
+   * Stop on route (stop indexes):
+   *   R1:  1 - 2
+   *   R2:  1 - 2
+   *
+   * Schedule:
+   *   R1: 00:05 - 00:20, 00:15 - 00:30, 00:25 - 00:40
+   *   R2: 00:12 - 00:35  (dominated by the R1 00:15 trip)
+   *
+   * Access (toStop & duration):
+   *   1  30s
+   *
+   * Egress (fromStop & duration):
+   *   2  20s
+   */
+  @BeforeEach
+  void setup() {
+    data.withRoute(
+      route(pattern("R1", STOP_A, STOP_B))
+        .withTimetable(schedule("00:05, 00:20"), schedule("00:15, 00:30"), schedule("00:25, 00:40"))
+    );
+    data.withRoute(route(pattern("R2", STOP_A, STOP_B)).withTimetable(schedule("00:12, 00:35")));
+    requestBuilder
+      .enableOptimization(Optimization.PARALLEL)
+      .searchParams()
+      .addAccessPaths(TestAccessEgress.walk(STOP_A, D30s))
+      .addEgressPaths(TestAccessEgress.walk(STOP_B, D20s))
+      .earliestDepartureTime(T00_00)
+      .searchWindowInSeconds(D30m)
+      .timetable(true);
+  }
+
+  @AfterEach
+  void tearDown() {
+    threadPool.shutdown();
+  }
+
+  @Test
+  void partitionedSearchFindsTheSamePaths() {
+    requestBuilder.profile(RaptorProfile.MULTI_CRITERIA);
+
+    var expected = pathsToString(raptorService.route(requestBuilder.build(), data));
+    var result = pathsToString(partitionedRaptorService.route(requestBuilder.build(), data));
+
+    assertEquals(expected, result);
+    // The first partition is routed in the caller thread
+    assertEquals(2, threadPool.getTaskCount());
+    assertEquals(3, expected.lines().count(), expected);
+  }
+
+  @ParameterizedTest
+  @EnumSource(value = RaptorProfile.class, names = { "STANDARD", "BEST_TIME" })
+  void standardSearchIsNotPartitioned(RaptorProfile profile) {
+    requestBuilder.profile(profile);
+
+    var expected = raptorService.route(requestBuilder.build(), data);
+    var response = partitionedRaptorService.route(requestBuilder.build(), data);
+
+    assertEquals(pathsToString(expected), pathsToString(response));
+    assertEquals(0, threadPool.getTaskCount());
+    assertTrue(response.getArrivals().reachedByTransit(STOP_B));
+    assertEquals(
+      expected.getArrivals().bestArrivalTime(STOP_B),
+      response.getArrivals().bestArrivalTime(STOP_B)
+    );
+  }
+}
@@ -0,0 +1,185 @@
+package org.opentripplanner.raptor.moduletests;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.opentripplanner.raptor._data.api.PathUtils.pathsToString;
+import static org.opentripplanner.raptor._data.transit.TestRoute.route;
+import static org.opentripplanner.raptor._data.transit.TestTripPattern.pattern;
+import static org.opentripplanner.raptor._data.transit.TestTripSchedule.schedule;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.raptor._data.RaptorTestConstants;
+import org.opentripplanner.raptor._data.transit.TestAccessEgress;
+import org.opentripplanner.raptor._data.transit.TestTransfer;
+import org.opentripplanner.raptor._data.transit.TestTransitData;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor.api.request.Optimization;
+import org.opentripplanner.raptor.api.request.RaptorEnvironment;
+import org.opentripplanner.raptor.api.request.RaptorProfile;
+import org.opentripplanner.raptor.api.request.RaptorRequest;
+import org.opentripplanner.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.raptor.api.request.RaptorTuningParameters;
+import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.raptor.rangeraptor.DestinationHeuristicsCache;
+import org.opentripplanner.raptor.rangeraptor.internalapi.Heuristics;
+import org.opentripplanner.raptor.service.RangeRaptorDynamicSearch;
+
+/**
+ * FEATURE UNDER TEST
+ * <p>
+ * Raptor should reuse the destination heuristics of an earlier request with the same transit
+ * data, access and egress, if the earliest-departure-time is the same or later. The heuristics
+ * and the paths should be the same as without the cache.
+ */
+public class I02_DestinationHeuristicsCacheTest implements RaptorTestConstants {
+
+  private static final int UNREACHED = -9999;
+  private static final int EDT_LATER = T00_00 + D20s;
+
+  private final TestTransitData data = new TestTransitData();
+  private final RaptorRequestBuilder<TestTripSchedule> requestBuilder = new RaptorRequestBuilder<>();
+  private final RaptorConfig<TestTripSchedule> config = RaptorConfig.defaultConfigForTest();
+  private final RaptorConfig<TestTripSchedule> cachingConfig = new RaptorConfig<>(
+    new RaptorTuningParameters() {
+      @Override
+      public int destinationHeuristicsCacheMaxSize() {
+        return 10;
+      }
+    },
+    new RaptorEnvironment() {}
+  );
+  private final DestinationHeuristicsCache cache = cachingConfig.destinationHeuristicsCache();
+
+  /**
+   * <pre>
+   * Stops: 0..4
+   *
+   * Stop on route (stop indexes):
+   *   R1:  1 - 2
+   *   R2:  3 - 4
+   *
+   * Schedule:
+   *   R1: 00:01 - 00:03
+   *   R2: 00:05 - 00:08
+   *
+   * Access (toStop & duration):
+   *   1  30s
+   *
+   * Egress (fromStop & duration):
+   *   4  20s
+   *
+   * Transfers:
+   *   2 -> 3 30s
+   * </pre>
+   */
+  @BeforeEach
+  public void setup() {
+    data
+      .withRoute(route(pattern("R1", STOP_A, STOP_B)).withTimetable(schedule("00:01, 00:03")))
+      .withRoute(route(pattern("R2", STOP_C, STOP_D)).withTimetable(schedule("00:05, 00:08")))
+      .withTransfer(STOP_B, TestTransfer.transfer(STOP_C, D30s))
+      .withHeuristicsCacheKey("V1");
+
+    requestBuilder
+      .profile(RaptorProfile.MULTI_CRITERIA)
+      .searchParams()
+      .addAccessPaths(TestAccessEgress.walk(STOP_A, D30s))
+      .addEgressPaths(TestAccessEgress.walk(STOP_D, D20s))
+      .earliestDepartureTime(T00_00)
+      .timetable(true);
+
+    requestBuilder.optimizations().add(Optimization.PARETO_CHECK_AGAINST_DESTINATION);
+  }
+
+  @Test
+  void reuseHeuristicsForTheSameOrALaterDepartureTime() {
+    var first = search(cachingConfig, T00_00);
+    assertEquals(0, cache.hitCount());
+    assertEquals(1, cache.missCount());
+
+    var second = search(cachingConfig, T00_00);
+    var third = search(cachingConfig, EDT_LATER);
+    assertEquals(2, cache.hitCount());
+    assertEquals(1, cache.missCount());
+
+    assertSameHeuristics(first.getDestinationHeuristics(), second.getDestinationHeuristics());
+    assertSameHeuristics(first.getDestinationHeuristics(), third.getDestinationHeuristics());
+  }
+
+  @Test
+  void cachedHeuristicsGiveTheSameResult() {
+    search(cachingConfig, T00_00);
+
+    var expected = new RangeRaptorDynamicSearch<>(config, data, null, request(EDT_LATER));
+    var expectedPaths = pathsToString(expected.route());
+    var result = new RangeRaptorDynamicSearch<>(cachingConfig, data, null, request(EDT_LATER));
+    var resultPaths = pathsToString(result.route());
+
+    assertEquals(1, cache.hitCount());
+    assertEquals(expectedPaths, resultPaths);
+    assertSameHeuristics(expected.getDestinationHeuristics(), result.getDestinationHeuristics());
+  }
+
+  @Test
+  void doNotReuseHeuristicsForAnEarlierDepartureTime() {
+    search(cachingConfig, EDT_LATER);
+    search(cachingConfig, T00_00);
+
+    assertEquals(0, cache.hitCount());
+    assertEquals(2, cache.missCount());
+  }
+
+  @Test
+  void doNotReuseHeuristicsForOtherTransitData() {
+    search(cachingConfig, T00_00);
+    data.withHeuristicsCacheKey("V2");
+    search(cachingConfig, T00_00);
+
+    assertEquals(0, cache.hitCount());
+    assertEquals(2, cache.missCount());
+  }
+
+  @Test
+  void doNotCacheIfTheTransitDataHasNoKey() {
+    data.withHeuristicsCacheKey(null);
+    search(cachingConfig, T00_00);
+    search(cachingConfig, T00_00);
+
+    assertEquals(0, cache.hitCount());
+    assertEquals(0, cache.missCount());
+  }
+
+  private RangeRaptorDynamicSearch<TestTripSchedule> search(
+    RaptorConfig<TestTripSchedule> config,
+    int earliestDepartureTime
+  ) {
+    var search = new RangeRaptorDynamicSearch<>(config, data, null, request(earliestDepartureTime));
+    search.route();
+    return search;
+  }
+
+  private RaptorRequest<TestTripSchedule> request(int earliestDepartureTime) {
+    requestBuilder.searchParams().earliestDepartureTime(earliestDepartureTime);
+    return requestBuilder.build();
+  }
+
+  private static void assertSameHeuristics(Heuristics expected, Heuristics actual) {
+    assertArrayEquals(
+      expected.bestTravelDurationToIntArray(UNREACHED),
+      actual.bestTravelDurationToIntArray(UNREACHED)
+    );
+    assertArrayEquals(
+      expected.bestNumOfTransfersToIntArray(UNREACHED),
+      actual.bestNumOfTransfersToIntArray(UNREACHED)
+    );
+    assertArrayEquals(
+      expected.bestGeneralizedCostToIntArray(UNREACHED),
+      actual.bestGeneralizedCostToIntArray(UNREACHED)
+    );
+    assertEquals(
+      expected.bestOverallJourneyTravelDuration(),
+      actual.bestOverallJourneyTravelDuration()
+    );
+  }
+}
@@ -0,0 +1,126 @@
+package org.opentripplanner.raptor.moduletests;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.raptor._data.transit.TestRoute.route;
+import static org.opentripplanner.raptor._data.transit.TestTripPattern.pattern;
+import static org.opentripplanner.raptor._data.transit.TestTripSchedule.schedule;
+import static org.opentripplanner.raptor.api.model.RaptorConstants.TIME_NOT_SET;
+import static org.opentripplanner.utils.time.TimeUtils.hm2time;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.raptor.RaptorService;
+import org.opentripplanner.raptor._data.RaptorTestConstants;
+import org.opentripplanner.raptor._data.transit.TestAccessEgress;
+import org.opentripplanner.raptor._data.transit.TestTransfer;
+import org.opentripplanner.raptor._data.transit.TestTransitData;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor.api.model.SearchDirection;
+import org.opentripplanner.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.raptor.configure.RaptorConfig;
+
+/**
+ * Feature under test
+ * <p>
+ * Raptor should return the best arrival time for all stops and all egress paths in a
+ * one-to-many search.
+ */
+public class M01_OneToManySearchTest implements RaptorTestConstants {
+
+  private final TestTransitData data = new TestTransitData();
+  private final RaptorRequestBuilder<TestTripSchedule> requestBuilder = new RaptorRequestBuilder<>();
+  private final RaptorService<TestTripSchedule> service = new RaptorService<>(
+    RaptorConfig.defaultConfigForTest()
+  );
+
+  /**
+   * <pre>
+   * Stops: 0..5
+   *
+   * Stop on route (stop indexes):
+   *   R1:  1 - 2
+   *   R2:  3 - 4
+   *   R3:  5 - 1  (stop 5 is not reached)
+   *
+   * Schedule:
+   *   R1: 00:01 - 00:03
+   *   R2: 00:05 - 00:08
+   *   R3: 00:00 - 00:01
+   *
+   * Access (toStop & duration):
+   *   1  30s
+   *
+   * Egress (fromStop & duration):
+   *   4  20s
+   *   5  20s
+   *
+   * Transfers:
+   *   2 -> 3 30s
+   * </pre>
+   */
+  @BeforeEach
+  public void setup() {
+    data.withRoute(route(pattern("R1", STOP_A, STOP_B)).withTimetable(schedule("00:01, 00:03")));
+    data.withRoute(route(pattern("R2", STOP_C, STOP_D)).withTimetable(schedule("00:05, 00:08")));
+    data.withRoute(route(pattern("R3", STOP_E, STOP_A)).withTimetable(schedule("00:00, 00:01")));
+    data.withTransfer(STOP_B, TestTransfer.transfer(STOP_C, D30s));
+
+    requestBuilder
+      .searchParams()
+      .addAccessPaths(TestAccessEgress.walk(STOP_A, D30s))
+      .addEgressPaths(TestAccessEgress.walk(STOP_D, D20s), TestAccessEgress.walk(STOP_E, D20s))
+      .earliestDepartureTime(T00_00)
+      .searchWindowInSeconds(D10m);
+  }
+
+  @Test
+  public void stopAndEgressArrivalTimes() {
+    var response = service.routeOneToMany(requestBuilder.build(), data);
+
+    assertArrayEquals(
+      new int[] {
+        TIME_NOT_SET,
+        T00_00 + D30s,
+        hm2time(0, 3),
+        hm2time(0, 3) + D30s,
+        hm2time(0, 8),
+        TIME_NOT_SET,
+      },
+      response.stopArrivalTimes()
+    );
+    assertArrayEquals(
+      new int[] { hm2time(0, 8) + D20s, TIME_NOT_SET },
+      response.egressArrivalTimes()
+    );
+    assertTrue(response.isStopReached(STOP_C));
+    assertFalse(response.isEgressReached(1));
+  }
+
+  /**
+   * Only one iteration is needed to find the best arrival times, a longer search window should
+   * not change the result.
+   */
+  @Test
+  public void searchWindowDoesNotChangeTheResult() {
+    var expected = service.routeOneToMany(requestBuilder.build(), data);
+
+    requestBuilder.searchParams().searchWindowInSeconds(D20m);
+    var response = service.routeOneToMany(requestBuilder.build(), data);
+
+    assertArrayEquals(expected.stopArrivalTimes(), response.stopArrivalTimes());
+    assertArrayEquals(expected.egressArrivalTimes(), response.egressArrivalTimes());
+  }
+
+  @Test
+  public void reverseSearchIsNotSupported() {
+    requestBuilder.searchDirection(SearchDirection.REVERSE).searchParams().latestArrivalTime(T00_10);
+
+    assertThrows(
+      IllegalArgumentException.class,
+      () -> service.routeOneToMany(requestBuilder.build(), data)
+    );
+  }
+}
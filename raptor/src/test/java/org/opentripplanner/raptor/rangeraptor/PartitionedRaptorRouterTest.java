@@ -0,0 +1,92 @@
+package org.opentripplanner.raptor.rangeraptor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.raptor._data.RaptorTestConstants;
+import org.opentripplanner.raptor._data.transit.TestAccessEgress;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor.api.model.SearchDirection;
+import org.opentripplanner.raptor.api.request.RaptorRequest;
+import org.opentripplanner.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.utils.time.TimeUtils;
+
+class PartitionedRaptorRouterTest implements RaptorTestConstants {
+
+  private static final int STEP = 60;
+
+  @Test
+  void partitionSearchWindow() {
+    // 10 iterations split in 3 partitions: 4 + 3 + 3
+    var result = PartitionedRaptorRouter.partitionSearchWindow(request(D10m), 3, STEP);
+
+    assertEquals(
+      "[0:06 4m, 0:03 3m, 0:00 3m]",
+      result.stream().map(PartitionedRaptorRouterTest::toStr).toList().toString()
+    );
+  }
+
+  @Test
+  void partitionSearchWindowWithRemainder() {
+    // The iterations are at 0:02:30, 0:01:30 and 0:00:30
+    var result = PartitionedRaptorRouter.partitionSearchWindow(request(210), 2, STEP);
+
+    assertEquals(
+      "[0:01:30 2m, 0:00:30 1m]",
+      result.stream().map(PartitionedRaptorRouterTest::toStr).toList().toString()
+    );
+  }
+
+  @Test
+  void doNotPartitionMoreThanTheNumberOfIterations() {
+    var result = PartitionedRaptorRouter.partitionSearchWindow(request(2 * STEP), 5, STEP);
+    assertEquals(2, result.size());
+  }
+
+  @Test
+  void oneIterationIsNotPartitioned() {
+    var request = request(STEP);
+    var result = PartitionedRaptorRouter.partitionSearchWindow(request, 3, STEP);
+    assertSame(request, result.getFirst());
+  }
+
+  @Test
+  void reverseSearchIsNotSupported() {
+    var builder = builder(D10m);
+    builder.searchDirection(SearchDirection.REVERSE).searchParams().latestArrivalTime(T00_30);
+    var request = builder.build();
+
+    assertThrows(
+      IllegalArgumentException.class,
+      () -> PartitionedRaptorRouter.partitionSearchWindow(request, 3, STEP)
+    );
+  }
+
+  private static String toStr(RaptorRequest<TestTripSchedule> request) {
+    var s = request.searchParams();
+    return (
+      TimeUtils.timeToStrCompact(s.earliestDepartureTime()) +
+      " " +
+      (s.searchWindowInSeconds() / STEP) +
+      "m"
+    );
+  }
+
+  private static RaptorRequest<TestTripSchedule> request(int searchWindow) {
+    return builder(searchWindow).build();
+  }
+
+  private static RaptorRequestBuilder<TestTripSchedule> builder(int searchWindow) {
+    var builder = new RaptorRequestBuilder<TestTripSchedule>();
+    builder
+      .searchParams()
+      .addAccessPaths(List.of(TestAccessEgress.walk(STOP_A, D30s)))
+      .addEgressPaths(List.of(TestAccessEgress.walk(STOP_B, D30s)))
+      .earliestDepartureTime(T00_00)
+      .searchWindowInSeconds(searchWindow);
+    return builder;
+  }
+}
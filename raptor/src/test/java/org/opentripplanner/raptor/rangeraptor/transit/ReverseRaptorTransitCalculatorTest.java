@@ -73,18 +73,19 @@ public class ReverseRaptorTransitCalculatorTest {
   }
 
   @Test
-  public void getTransfers() {
+  public void createTransferCursor() {
     var subject = create();
     var transitData = new TestTransitData()
       .withTransfer(STOP_A, TestTransfer.transfer(STOP_B, D1m));
 
     // Expect transfer from stop A to stop B (reversed)
-    var transfersFromStopB = subject.getTransfers(transitData, STOP_B);
+    var cursor = subject.createTransferCursor(transitData);
+    var transfersFromStopB = cursor.transfers(STOP_B);
     assertTrue(transfersFromStopB.hasNext());
     assertEquals(STOP_A, transfersFromStopB.next().stop());
 
     // No transfer form stop A expected
-    assertFalse(subject.getTransfers(transitData, STOP_A).hasNext());
+    assertFalse(cursor.transfers(STOP_A).hasNext());
   }
 
   private RaptorTransitCalculator<TestTripSchedule> create() {